@@ -1,13 +1,28 @@
 package atlantis;
 
 import atlantis.combat.group.AtlantisGroupManager;
+import atlantis.combat.simulation.SimUnitTypes;
 import atlantis.constructing.ProtossConstructionManager;
+import atlantis.constructing.position.BaseLayoutPlanner;
+import atlantis.constructing.position.PlacementGrid;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
+import atlantis.debug.AtlantisTimings;
+import atlantis.information.AtlantisFlowField;
+import atlantis.information.AtlantisGroundDistance;
+import atlantis.information.AtlantisMapCache;
 import atlantis.information.AtlantisUnitInformationManager;
+import atlantis.information.UnitData;
+import atlantis.information.ThreatGrid;
+import atlantis.information.UnitGrid;
+import atlantis.information.WorldSnapshot;
 import atlantis.init.AtlantisInitialActions;
 import atlantis.production.strategies.AtlantisProductionStrategy;
 import atlantis.util.UnitUtil;
+import atlantis.wrappers.CommandBuffer;
+import atlantis.wrappers.MapAnalysis;
+import atlantis.wrappers.UnitSideTable;
 import bwapi.*;
-import bwta.BWTA;
 import bwapi.UnitType;
 
 /**
@@ -21,9 +36,9 @@ public class Atlantis implements BWEventListener {
     private static Atlantis instance;
     
     /**
-     * BWAPI is core
+     * BWAPI is core. Mirror is created only when the bot runs in StarCraft, see <b>run()</b>.
      */
-    private static Mirror mirror = new Mirror();
+    private static Mirror mirror = null;
     private Game bwapi;
     //private JNIBWAPI bwapi;
     
@@ -109,12 +124,25 @@ public class Atlantis implements BWEventListener {
             _isPaused = false;
             _isStarted = true;
 
+            mirror = new Mirror();
             mirror.getModule().setEventListener(this);
             mirror.startGame();
             
         }
     }
 
+    /**
+     * Starts the bot in a game which isn't run by StarCraft, e.g. the headless simulation. Static type data
+     * has to be loaded by the caller, which also calls onStart, onFrame and other events.
+     */
+    public void runHeadless(Game game) {
+        if (!_isStarted) {
+            _isPaused = false;
+            _isStarted = true;
+            bwapi = game;
+        }
+    }
+
     /**
      * Forces all calculations to be stopped. CPU usage should be minimal. Or resumes the game after pause.
      */
@@ -141,8 +169,20 @@ public class Atlantis implements BWEventListener {
      */
     @Override
     public void onStart() {
-    	bwapi = mirror.getGame();
-    	
+        AtlantisTimings.reset();
+        ThreatGrid.reset();
+        UnitGrid.reset();
+        AtlantisFlowField.reset();
+        
+        // Static unit, weapon and upgrade type data never changes, read it from BWAPI only once
+        if (mirror != null) {
+            bwapi = mirror.getGame();
+            WeaponType.loadTypeData();
+            UpgradeType.loadTypeData();
+            UnitType.loadTypeData();
+        }
+        SimUnitTypes.load();
+        
         // #### INITIALIZE CONFIG AND PRODUCTION QUEUE ####
         // =========================================================
         // Set up base configuration based on race used.
@@ -156,8 +196,11 @@ public class Atlantis implements BWEventListener {
         }
         
         System.out.println("Analyzing map...");
-        BWTA.readMap();
-        BWTA.analyze();
+        MapAnalysis.analyze();
+        AtlantisGroundDistance.init();
+        AtlantisMapCache.init();
+        PlacementGrid.init();
+        BaseLayoutPlanner.init();
         System.out.println("Map data ready");
 
         // =========================================================
@@ -182,13 +225,15 @@ public class Atlantis implements BWEventListener {
      */
     @Override
     public void onFrame() {
+        long start = System.nanoTime();
+        AtlantisLog.setFrame(AtlantisGame.getTimeFrames());
     	try{
     		playerOnFrame();
     	}
     	catch (Exception e){
-    		System.err.println("AN ERROR HAS OCCURRED");
-    		e.printStackTrace();
+    		AtlantisLog.error(Category.GENERAL, "AN ERROR HAS OCCURRED", e);
     	}
+        AtlantisTimings.FRAME.recordSince(start);
 
     }
     
@@ -196,7 +241,20 @@ public class Atlantis implements BWEventListener {
      * This was the previous onFrame. Now it is wrapped in a try-catch
      */
 	private void playerOnFrame() {
-		System.out.println(String.format("\n------------ Frame %5d ------------", AtlantisGame.getTimeFrames()));
+        
+        // Take a snapshot of all units, so that native getters are called only once per unit per frame
+        WorldSnapshot.update();
+        
+        if (AtlantisConfig.CHECK_UNIT_COUNTERS) {
+            AtlantisUnitInformationManager.checkOurUnitCounters();
+        }
+        if (AtlantisConfig.CHECK_PRODUCTION_QUEUE) {
+            AtlantisGame.getProductionStrategy().checkQueue();
+        }
+        if (AtlantisConfig.RELOAD_BUILD_ORDERS) {
+            AtlantisGame.getProductionStrategy().reloadIfChanged();
+        }
+        
 		// Initial actions - those should be executed only once.
         if (!_initialActionsExecuted) {
             _initialActionsExecuted = true;
@@ -209,6 +267,9 @@ public class Atlantis implements BWEventListener {
         // If game is running (not paused), proceed with all actions.
         if (!_isPaused) {
             gameCommander.update();
+            
+            // Send all orders given in this frame to the game
+            CommandBuffer.flush();
 
             // =========================================================
             // Game SPEED change using DYNAMIC SLODOWN
@@ -242,11 +303,15 @@ public class Atlantis implements BWEventListener {
     public void onUnitCreate(Unit unit) {
         if (unit != null) {
             AtlantisUnitInformationManager.rememberUnit(unit);
+            AtlantisUnitInformationManager.updateOurUnitCount(unit);
+            if (unit.getType().isBuilding()) {
+                AtlantisFlowField.buildingAdded(unit);
+                PlacementGrid.buildingAdded(unit);
+            }
 
             // Our unit
             if (unit.getPlayer().equals(bwapi.self())) {
-//                AtlantisUnitInformationManager.addOurUnfinishedUnit(unit.getType());
-                AtlantisGame.getProductionStrategy().rebuildQueue();
+                AtlantisGame.getProductionStrategy().unitCountChanged(unit.getType());
                 
                 // Apply construction fix: detect new Protoss buildings and remove them from queue.
                 if (AtlantisGame.playsAsProtoss() && unit.getType().isBuilding()) {
@@ -263,14 +328,17 @@ public class Atlantis implements BWEventListener {
     @Override
     public void onUnitComplete(Unit unit) {
         if (unit != null) {
+            AtlantisUnitInformationManager.updateOurUnitCount(unit);
 
             // Our unit
+            if (unit.getPlayer().equals(bwapi.self()) && unit.getType().isBuilding()) {
+                AtlantisGame.getProductionStrategy().unitCountChanged(unit.getType());
+            }
             if (unit.getPlayer().equals(bwapi.self()) && ! (unit.getType().equals(UnitType.Zerg_Larva) || unit.getType().equals(UnitType.Zerg_Egg))) {
-//                AtlantisUnitInformationManager.addOurFinishedUnit(unit.getType());
                 AtlantisGroupManager.possibleCombatUnitCreated(unit);
             }
         } else {
-            System.err.println("Unit complete is null " + unit.getID());
+            AtlantisLog.error(Category.GENERAL, "Unit complete is null");
         }
     }
     
@@ -283,14 +351,23 @@ public class Atlantis implements BWEventListener {
         // We need to get unit by ID, but we need to use our own solution, because normally if we iterated against
         // objects in getAllUnits(), dead unit objects would be gone. But if we manually save them, we can access them
         // at this point, when they're already dead.
-        Unit theUnit = AtlantisUnitInformationManager.getUnitDataByID(unit.getID()).getUnit();
+        UnitData unitData = AtlantisUnitInformationManager.getUnitDataByID(unit.getID());
+        Unit theUnit = unitData != null ? unitData.getUnit() : null;
+
+        // Counters remember type of every counted unit, so they're updated even if unit data is gone
+        UnitType countedType = AtlantisUnitInformationManager.getCountedTypeOf(unit);
+        UnitType buildType = AtlantisUnitInformationManager.getCountedBuildTypeOf(unit);
+        AtlantisUnitInformationManager.uncountOurUnit(unit);
+        if (countedType != null) {
+            AtlantisGame.getProductionStrategy().unitCountChanged(countedType);
+            AtlantisGame.getProductionStrategy().unitCountChanged(buildType);
+        }
 
         if (theUnit != null) {
             AtlantisUnitInformationManager.unitDestroyed(theUnit);
 
             // Our unit
             if (theUnit.getPlayer().equals(bwapi.self())) {
-                AtlantisGame.getProductionStrategy().rebuildQueue();
                 AtlantisGroupManager.battleUnitDestroyed(theUnit);
                 LOST++;
                 LOST_RESOURCES += UnitUtil.getTotalPrice(theUnit.getType());
@@ -301,11 +378,15 @@ public class Atlantis implements BWEventListener {
         }
 
         // Forever forget this poor unit
+        PlacementGrid.buildingRemoved(unit.getID());
+        AtlantisFlowField.buildingRemoved(unit.getID());
         AtlantisUnitInformationManager.forgetUnit(unit.getID());
+        UnitSideTable.forgetUnit(unit.getID());
 
         // =========================================================
         // Game SPEED change
-        if (AtlantisConfig.USE_DYNAMIC_GAME_SPEED_SLOWDOWN && !_dynamicSlowdown_isSlowdownActive && !theUnit.getType().isBuilding()) {
+        if (AtlantisConfig.USE_DYNAMIC_GAME_SPEED_SLOWDOWN && !_dynamicSlowdown_isSlowdownActive && theUnit != null
+                && !theUnit.getType().isBuilding()) {
             activateDynamicSlowdownMode();
         }
     }
@@ -318,6 +399,12 @@ public class Atlantis implements BWEventListener {
     public void onUnitDiscover(Unit unit) {
         if (unit != null) {
             AtlantisUnitInformationManager.rememberUnit(unit);
+            AtlantisUnitInformationManager.updateOurUnitCount(unit);
+
+            if (unit.getType().isBuilding()) {
+                AtlantisFlowField.buildingAdded(unit);
+                PlacementGrid.buildingAdded(unit);
+            }
 
             // Enemy unit
             if (bwapi.self().isEnemy(unit.getPlayer())) {
@@ -362,6 +449,8 @@ public class Atlantis implements BWEventListener {
     public void onUnitMorph(Unit unit) {
         
         // A bit of safe approach: forget the unit and remember it again.
+        UnitType previousType = unit != null ? AtlantisUnitInformationManager.getCountedTypeOf(unit) : null;
+        UnitType previousBuildType = unit != null ? AtlantisUnitInformationManager.getCountedBuildTypeOf(unit) : null;
         
         // =========================================================
         // Forget unit
@@ -371,7 +460,6 @@ public class Atlantis implements BWEventListener {
 
             // Our unit
             if (unit.getPlayer().equals(bwapi.self())) {
-                AtlantisGame.getProductionStrategy().rebuildQueue();
                 AtlantisGroupManager.battleUnitDestroyed(unit);
             }
             else if (bwapi.self().isEnemy(unit.getPlayer())) {
@@ -380,15 +468,28 @@ public class Atlantis implements BWEventListener {
         }
 
         // Forever forget this poor unit
+        PlacementGrid.buildingRemoved(unit.getID());
         AtlantisUnitInformationManager.forgetUnit(unit.getID());
         
         // =========================================================
         // Remember the unit
         if (unit != null) {
+            AtlantisUnitInformationManager.rememberUnit(unit);
+            AtlantisUnitInformationManager.updateOurUnitCount(unit);
+            PlacementGrid.buildingAdded(unit);
+            AtlantisFlowField.buildingAdded(unit);
 
             // Our unit
+            if (unit.getPlayer().equals(bwapi.self())) {
+                AtlantisGame.getProductionStrategy().unitCountChanged(previousType);
+                AtlantisGame.getProductionStrategy().unitCountChanged(unit.getType());
+                
+                // Larva -> Egg -> Drone: Egg is counted as the unit it's morphing into
+                AtlantisGame.getProductionStrategy().unitCountChanged(previousBuildType);
+                AtlantisGame.getProductionStrategy().unitCountChanged(
+                        AtlantisUnitInformationManager.getCountedBuildTypeOf(unit));
+            }
             if (unit.getPlayer().equals(bwapi.self()) && ! (unit.getType().equals(UnitType.Zerg_Larva) || unit.getType().equals(UnitType.Zerg_Egg))) {
-//                AtlantisUnitInformationManager.addOurFinishedUnit(unit.getType());
                 AtlantisGroupManager.possibleCombatUnitCreated(unit);
             }
         }
@@ -413,6 +514,9 @@ public class Atlantis implements BWEventListener {
      */
     @Override
     public void onUnitRenegade(Unit unit) {
+        if (unit != null) {
+            AtlantisUnitInformationManager.updateOurUnitCount(unit);
+        }
     }
 
     /**
@@ -446,6 +550,15 @@ public class Atlantis implements BWEventListener {
      */
     @Override
     public void onEnd(boolean winner) {
+        if (gameCommander != null) {
+            for (AtlantisScheduler.ScheduledTask task : gameCommander.getScheduler().getTasks()) {
+                AtlantisLog.info(Category.TIMINGS, "Commander:", task);
+            }
+        }
+        AtlantisTimings.saveReport();
+        AtlantisTimings.logReport();
+        AtlantisLog.flush();
+        
         instance = new Atlantis();
     }
 
@@ -40,6 +40,23 @@ public class AtlantisConfig {
      * Amount of game speed units to be used for dynamic game speed slowdown.
      */
     public static int DYNAMIC_GAME_SPEED_SLOWDOWN = 3;
+    
+    /**
+     * If true, our unit counters are verified against actual units every frame and every mismatch is
+     * printed. Debug only, it's slow.
+     */
+    public static boolean CHECK_UNIT_COUNTERS = false;
+
+    /**
+     * If true, incrementally updated production queue is compared every frame with the one computed from
+     * scratch and every mismatch is printed. Debug only, it's slow.
+     */
+    public static boolean CHECK_PRODUCTION_QUEUE = false;
+
+    /**
+     * If true, build order file is reloaded during the game whenever it changes.
+     */
+    public static boolean RELOAD_BUILD_ORDERS = true;
 
     /**
      * If value less than 201 is passed, then you don't need to specify when to build supply buildings. They
@@ -69,6 +86,61 @@ public class AtlantisConfig {
      */
     public static int SCOUT_IS_NTH_WORKER = 7;
 
+    /**
+     * Time (in milliseconds) that all commanders together should use per frame. Deferrable commanders (e.g.
+     * scouting, gas, painting) are postponed to next frames if this budget would be exceeded.
+     */
+    public static double FRAME_TIME_BUDGET_MS = 30;
+    
+    /**
+     * File where timings of frames and commanders are saved at the end of the game.
+     */
+    public static String TIMINGS_FILE_PATH = "bwapi-data/write/atlantis_timings.txt";
+    
+    /**
+     * If true, timings of frames and commanders are painted in game.
+     */
+    public static boolean PAINT_TIMINGS = false;
+    
+    /**
+     * File where AtlantisLog writes messages. When it exceeds <b>LOG_FILE_MAX_BYTES</b> it's renamed to
+     * atlantis.log.1 (older files are shifted) and a new one is started; <b>LOG_FILES_KEPT</b> files are kept.
+     */
+    public static String LOG_FILE_PATH = "bwapi-data/write/atlantis.log";
+    public static long LOG_FILE_MAX_BYTES = 5 * 1024 * 1024;
+    public static int LOG_FILES_KEPT = 3;
+    
+    /**
+     * If true, log messages are also printed to the console (by the background thread, not the game thread).
+     */
+    public static boolean LOG_TO_CONSOLE = true;
+    
+    /**
+     * The same message can be logged only a few times within this window, see AtlantisLog.Category.
+     */
+    public static long LOG_REPEAT_WINDOW_MS = 10000;
+    
+    /**
+     * Directory with data computed once per map (.jbwta files of BWTA, ground distances etc.), files are named
+     * after the map hash.
+     */
+    public static String MAP_DATA_DIR = "mapData";
+    
+    /**
+     * Combat evaluation of a unit is reused for up to this many frames, unless units near it changed (a unit
+     * came, left or died) or hit points of any unit around it changed by more than
+     * <b>COMBAT_EVAL_CACHE_MAX_HP_CHANGE</b> (0.1 = 10% of its max hit points).
+     */
+    public static int COMBAT_EVAL_CACHE_TTL_FRAMES = 8;
+    public static double COMBAT_EVAL_CACHE_MAX_HP_CHANGE = 0.1;
+    
+    /**
+     * If true, combat evaluation is based on a simulation of the local fight (see AtlantisCombatSimulator)
+     * lasting this many frames, instead of comparing strength of both armies.
+     */
+    public static boolean USE_COMBAT_SIMULATOR = true;
+    public static int COMBAT_SIMULATION_FRAMES = 96;
+
     // =========================================================
     // Do not customize - see methods "useConfigFor{Race}"
     
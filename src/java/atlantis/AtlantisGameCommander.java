@@ -1,6 +1,8 @@
 package atlantis;
 
+import atlantis.AtlantisScheduler.ScheduledTask;
 import atlantis.buildings.AtlantisBuildingsCommander;
+import atlantis.buildings.managers.AtlantisGasManager;
 import atlantis.combat.AtlantisCombatCommander;
 import atlantis.debug.AtlantisPainter;
 import atlantis.production.AtlantisProductionCommander;
@@ -13,22 +15,75 @@ import atlantis.workers.AtlantisWorkerCommander;
 public class AtlantisGameCommander {
 
     /**
-     * Executed every time when game has new frame. It represents minimal passage of game-time (one action
-     * frame).
+     * Decides which commanders are executed in given frame, so that frame time budget isn't exceeded.
      */
-    public void update() {
+    private final AtlantisScheduler scheduler = new AtlantisScheduler();
 
-        // =========================================================
-        // Execute code of every Commander
-        AtlantisWorkerCommander.update();
-        AtlantisCombatCommander.update();
-        AtlantisScoutManager.update();
-        AtlantisBuildingsCommander.update();
-        AtlantisProductionCommander.update();
+    public AtlantisGameCommander() {
 
         // =========================================================
+        // Combat is never deferred, everything else can wait for a frame with spare time.
+        // Arguments: name, period (frames), priority, budget (ms), deferrable
+        scheduler.addTask(new ScheduledTask("Combat", 1, 100, 15, false) {
+            @Override
+            protected void run() {
+                AtlantisCombatCommander.update();
+            }
+        });
+        scheduler.addTask(new ScheduledTask("Workers", 1, 80, 5, true) {
+            @Override
+            protected void run() {
+                AtlantisWorkerCommander.update();
+            }
+        });
+        scheduler.addTask(new ScheduledTask("Production", 1, 70, 5, true) {
+            @Override
+            protected void run() {
+                AtlantisProductionCommander.update();
+            }
+        });
+        scheduler.addTask(new ScheduledTask("Buildings", 2, 60, 3, true) {
+            @Override
+            protected void run() {
+                AtlantisBuildingsCommander.update();
+            }
+        });
+        scheduler.addTask(new ScheduledTask("Gas", 10, 50, 2, true) {
+            @Override
+            protected void run() {
+                AtlantisGasManager.handleGasBuildings();
+            }
+        });
+        scheduler.addTask(new ScheduledTask("Scout", 3, 40, 2, true) {
+            @Override
+            protected void run() {
+                AtlantisScoutManager.update();
+            }
+        });
+
         // Execute extra paint methods at the end of all actions
-        AtlantisPainter.paint();
+        // BWAPI draws only for the current frame, so painting can't be deferred
+        scheduler.addTask(new ScheduledTask("Painter", 1, 0, 5, false) {
+            @Override
+            protected void run() {
+                AtlantisPainter.paint();
+            }
+        });
+    }
+
+    /**
+     * Executed every time when game has new frame. It represents minimal passage of game-time (one action
+     * frame).
+     */
+    public void update() {
+        scheduler.update();
+    }
+
+    /**
+     * Returns scheduler that executes all commanders.
+     */
+    public AtlantisScheduler getScheduler() {
+        return scheduler;
     }
 
 }
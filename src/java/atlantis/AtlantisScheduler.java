@@ -0,0 +1,215 @@
+package atlantis;
+
+import atlantis.debug.AtlantisTimings;
+import atlantis.debug.TimingHistogram;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Runs commanders (tasks) within the frame time budget defined in <b>AtlantisConfig.FRAME_TIME_BUDGET_MS</b>.
+ * <br />
+ * Every task has a <b>period</b> (in frames), <b>priority</b> and <b>budget</b> (in milliseconds). Tasks are
+ * executed in order of priority. <b>Deferrable</b> tasks are postponed to one of the next frames if executing
+ * them could exceed the frame budget, but never for more than <b>MAX_DEFERRAL_PERIODS</b> periods.
+ * Every time task takes longer than its budget, the overrun is recorded.
+ */
+public class AtlantisScheduler {
+
+    /**
+     * Deferrable task that has been waiting for this many periods is executed regardless of the frame budget.
+     */
+    private static final int MAX_DEFERRAL_PERIODS = 4;
+
+    private final List<ScheduledTask> tasks = new ArrayList<>();
+
+    // =========================================================
+
+    /**
+     * Adds new task. Tasks with higher priority are executed first.
+     */
+    public void addTask(ScheduledTask task) {
+        tasks.add(task);
+        Collections.sort(tasks, new Comparator<ScheduledTask>() {
+            @Override
+            public int compare(ScheduledTask t1, ScheduledTask t2) {
+                return Integer.compare(t2.getPriority(), t1.getPriority());
+            }
+        });
+    }
+
+    /**
+     * Executes all tasks that are due in current frame and fit in the frame budget.
+     */
+    public void update() {
+        long frameStart = System.nanoTime();
+        int frame = AtlantisGame.getTimeFrames();
+
+        for (ScheduledTask task : tasks) {
+            if (!task.isDue(frame)) {
+                continue;
+            }
+
+            // Deferrable task can wait if there's not enough time left in this frame
+            if (task.isDeferrable() && !task.isStarving(frame)) {
+                double elapsedMs = (System.nanoTime() - frameStart) / 1000000.0;
+                if (elapsedMs + task.getExpectedTimeMs() > AtlantisConfig.FRAME_TIME_BUDGET_MS) {
+                    task.deferred++;
+                    continue;
+                }
+            }
+
+            task.execute(frame);
+        }
+    }
+
+    /**
+     * Returns all registered tasks, ordered by priority.
+     */
+    public List<ScheduledTask> getTasks() {
+        return tasks;
+    }
+
+    // =========================================================
+
+    /**
+     * Single unit of work executed by the scheduler, typically call of some commander's update() method.
+     */
+    public static abstract class ScheduledTask {
+
+        private final String name;
+        private final int period;
+        private final int priority;
+        private final double budgetMs;
+        private final boolean deferrable;
+        private final TimingHistogram histogram;
+
+        private int lastExecutionFrame = -1;
+        private double expectedTimeMs = 0;
+
+        // Statistics
+        private int executions = 0;
+        private int deferred = 0;
+        private int overruns = 0;
+        private double totalOverrunMs = 0;
+        private double maxOverrunMs = 0;
+
+        /**
+         * @param name for debugging purposes
+         * @param period task is executed every <b>period</b> frames
+         * @param priority tasks with higher priority are executed first
+         * @param budgetMs time after which execution is considered an overrun
+         * @param deferrable if true, task can be postponed to one of next frames if there's no time left
+         */
+        public ScheduledTask(String name, int period, int priority, double budgetMs, boolean deferrable) {
+            this.name = name;
+            this.period = Math.max(1, period);
+            this.priority = priority;
+            this.budgetMs = budgetMs;
+            this.deferrable = deferrable;
+            this.histogram = AtlantisTimings.stage(name);
+        }
+
+        /**
+         * Actual work of this task.
+         */
+        protected abstract void run();
+
+        private void execute(int frame) {
+            long start = System.nanoTime();
+            run();
+            long timeNanos = System.nanoTime() - start;
+            double timeMs = timeNanos / 1000000.0;
+            histogram.record(timeNanos);
+
+            lastExecutionFrame = frame;
+            executions++;
+            expectedTimeMs = executions == 1 ? timeMs : 0.8 * expectedTimeMs + 0.2 * timeMs;
+
+            if (timeMs > budgetMs) {
+                overruns++;
+                totalOverrunMs += timeMs - budgetMs;
+                maxOverrunMs = Math.max(maxOverrunMs, timeMs - budgetMs);
+            }
+        }
+
+        private boolean isDue(int frame) {
+            return lastExecutionFrame < 0 || frame - lastExecutionFrame >= period;
+        }
+
+        private boolean isStarving(int frame) {
+            return lastExecutionFrame >= 0 && frame - lastExecutionFrame >= period * MAX_DEFERRAL_PERIODS;
+        }
+
+        // =========================================================
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPeriod() {
+            return period;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public double getBudgetMs() {
+            return budgetMs;
+        }
+
+        public boolean isDeferrable() {
+            return deferrable;
+        }
+
+        /**
+         * Returns moving average of execution time of this task.
+         */
+        public double getExpectedTimeMs() {
+            return expectedTimeMs;
+        }
+
+        public int getExecutions() {
+            return executions;
+        }
+
+        /**
+         * Returns distribution of execution times of this task.
+         */
+        public TimingHistogram getHistogram() {
+            return histogram;
+        }
+
+        /**
+         * Returns how many times task was postponed because of lack of time in the frame.
+         */
+        public int getDeferred() {
+            return deferred;
+        }
+
+        /**
+         * Returns how many times execution took longer than the budget.
+         */
+        public int getOverruns() {
+            return overruns;
+        }
+
+        public double getTotalOverrunMs() {
+            return totalOverrunMs;
+        }
+
+        public double getMaxOverrunMs() {
+            return maxOverrunMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: executed %d, deferred %d, overruns %d (total %.1f ms, max %.1f ms)",
+                    name, executions, deferred, overruns, totalOverrunMs, maxOverrunMs);
+        }
+
+    }
+
+}
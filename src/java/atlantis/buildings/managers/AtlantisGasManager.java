@@ -4,6 +4,7 @@ import atlantis.AtlantisConfig;
 import atlantis.AtlantisGame;
 import atlantis.workers.AtlantisWorkerManager;
 import atlantis.wrappers.Select;
+import atlantis.wrappers.CommandBuffer;
 import java.util.Collection;
 import bwapi.Unit;
 import bwapi.TechType;
@@ -17,16 +18,10 @@ public class AtlantisGasManager {
     // =========================================================
     
     /**
-     * If any of our gas extracting buildings needs worker, it will assign exactly one worker per frame (until
-     * no more needed).
+     * If any of our gas extracting buildings needs worker, it will assign exactly one worker per call (until
+     * no more needed). It's executed every 10 frames by the AtlantisScheduler.
      */
     public static void handleGasBuildings() {
-        if (AtlantisGame.getTimeFrames() % 10 != 0) {
-            return;
-        }
-        
-        // =========================================================
-        
         Collection<Unit> gasBuildings = (Collection<Unit>) Select.ourBuildings().ofType(AtlantisConfig.GAS_BUILDING).list();
         Collection<Unit> workers = Select.ourWorkers().list();
         
@@ -41,7 +36,7 @@ public class AtlantisGasManager {
             if (numberOfWorkersAssigned < MIN_GAS_WORKERS_PER_BUILDING) {
                 Unit worker = getWorkerForGasBuilding(gasBuilding);
                 if (worker != null) {
-                    worker.gather(gasBuilding, false);
+                    CommandBuffer.gather(worker, gasBuilding);
                 }
                 break;
             }
@@ -50,7 +45,7 @@ public class AtlantisGasManager {
             else if (numberOfWorkersAssigned > MAX_GAS_WORKERS_PER_BUILDING) {
                 Unit worker = AtlantisWorkerManager.getRandomWorkerAssignedTo(gasBuilding);
                 if (worker != null) {
-                    worker.stop(false);
+                    CommandBuffer.stop(worker);
                 }
                 break;
             }
@@ -11,10 +11,12 @@ import bwapi.UnitType;
 public class AtlantisCombatCommander {
     
     /**
-     * Acts with all battle units.
+     * Acts with all battle units. First all decisions data is computed (in parallel), then orders are issued
+     * to units one by one.
      */
     public static void update() {
         Missions.handleGlobalMission();
+        AtlantisCombatDecisionPhase.update();
         handleAllBattleGroups();
     }
 
@@ -0,0 +1,108 @@
+package atlantis.combat;
+
+import atlantis.AtlantisGame;
+import atlantis.combat.group.AtlantisGroupManager;
+import atlantis.combat.simulation.SimUnitTypes;
+import atlantis.debug.AtlantisTimings;
+import atlantis.combat.group.Group;
+import atlantis.util.WorkerPool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import bwapi.Unit;
+
+/**
+ * First, read-only phase of combat handling. Combat evaluations of all our battle units are computed in
+ * parallel, using only data from the WorldSnapshot. Results are stored in AtlantisCombatEvaluator cache, so
+ * the second phase (AtlantisCombatCommander issuing orders, always in the main thread) doesn't need to compute
+ * them again.
+ * <br />
+ * Nothing executed here is allowed to issue orders or modify shared state.
+ */
+public class AtlantisCombatDecisionPhase {
+
+    /**
+     * With fewer clusters it's not worth to split the work between threads.
+     */
+    private static final int MIN_CLUSTERS_PER_TASK = 4;
+
+    /**
+     * Upgrade levels used by combat simulations are read every this many frames.
+     */
+    private static final int UPGRADES_UPDATE_INTERVAL = 48;
+
+    // =========================================================
+
+    /**
+     * Computes combat evaluations for all units in all battle groups, unless the cached ones can be used. Units standing close to each other
+     * (also from different groups) are evaluated together, see <b>CombatClusters</b>.
+     */
+    public static void update() {
+        long start = System.nanoTime();
+        if (AtlantisGame.getTimeFrames() % UPGRADES_UPDATE_INTERVAL == 0) {
+            SimUnitTypes.updateUpgradeLevels();
+        }
+        
+        // Clusters whose cached evaluations are still valid aren't evaluated again, see CombatClusters
+        List<Unit> units = new ArrayList<>();
+        for (Group group : AtlantisGroupManager.getGroups()) {
+            units.addAll(group.list());
+        }
+        if (units.isEmpty()) {
+            return;
+        }
+
+        AtlantisCombatEvaluator.prepareUnitValues();
+        CombatClusters clusters = new CombatClusters(units);
+        if (clusters.getClustersCount() < 2 * MIN_CLUSTERS_PER_TASK) {
+            clusters.evaluateAll();
+        }
+        else {
+            WorkerPool.get().invoke(new EvaluateClustersTask(clusters, 0, clusters.getClustersCount()));
+        }
+
+        // Results are stored back in the main thread
+        clusters.store();
+        AtlantisTimings.COMBAT_DECISION_PHASE.recordSince(start);
+    }
+
+    // =========================================================
+
+    /**
+     * Evaluates clusters from .. to - 1, splitting the range in halves until it's small enough.
+     */
+    private static class EvaluateClustersTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CombatClusters clusters;
+        private final int from;
+        private final int to;
+
+        public EvaluateClustersTask(CombatClusters clusters, int from, int to) {
+            this.clusters = clusters;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_CLUSTERS_PER_TASK) {
+                CombatNeighbourhood neighbourhood = AtlantisCombatEvaluator.getNeighbourhoodScratch();
+                for (int cluster = from; cluster < to; cluster++) {
+                    clusters.evaluate(cluster, neighbourhood);
+                }
+            }
+            else {
+                int middle = (from + to) / 2;
+                invokeAll(
+                        new EvaluateClustersTask(clusters, from, middle),
+                        new EvaluateClustersTask(clusters, middle, to)
+                );
+            }
+        }
+
+    }
+
+}
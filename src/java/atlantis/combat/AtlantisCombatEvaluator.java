@@ -1,18 +1,25 @@
 package atlantis.combat;
 
+import atlantis.AtlantisConfig;
 import atlantis.AtlantisGame;
+import atlantis.combat.group.Group;
+import atlantis.combat.simulation.AtlantisCombatSimulator;
+import atlantis.combat.simulation.SimUnitTypes;
+import atlantis.debug.AtlantisTimings;
+import atlantis.information.WorldSnapshot;
 import atlantis.util.ColorUtil;
-import atlantis.util.PositionUtil;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.Select;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import atlantis.wrappers.UnitSideTable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import bwapi.Color;
+import bwapi.Position;
+import bwapi.TilePosition;
 import bwapi.Unit;
 import bwapi.UnitType;
-import bwapi.WeaponType;
 
 /**
  *
@@ -34,12 +41,44 @@ public class AtlantisCombatEvaluator {
      * Multiplier for damage factor when evaluating unit's combat value.
      */
     private static double EVAL_DAMAGE_FACTOR = 1.0;
+    
+    /**
+     * Evaluation of a simulated fight in which the enemy loses everything.
+     */
+    private static final double MAX_SIMULATED_EVALUATION = 10;
 
     
     /**
 	 * Stores the instances of AtlantisCombatInformation for each unit
 	 */
-	private static Map<Unit, AtlantisCombatInformation> combatInfo = new HashMap<>();
+	private static UnitSideTable<AtlantisCombatInformation> combatInfo = new UnitSideTable<>();
+    
+    private static final byte FLAG_COMPUTED = 1;
+    private static final byte FLAG_COMBAT_UNIT = 2;
+    private static final byte FLAG_DEFENSIVE_VS_GROUND = 4;
+    private static final byte FLAG_DEFENSIVE_VS_AIR = 8;
+    
+    /**
+     * Values of units by snapshot index, valid for the snapshot of <b>valuesFrame</b>.
+     */
+    private static int valuesFrame = -1;
+    private static double[] valuesGround = new double[0];
+    private static double[] valuesAir = new double[0];
+    private static byte[] valuesFlags = new byte[0];
+    
+    private static long cacheHits = 0;
+    private static long cacheMisses = 0;
+    
+    /**
+     * Buffers used by <b>evaluateSituation</b> and cluster evaluation, one set per thread, so that evaluating
+     * doesn't allocate anything.
+     */
+    private static final ThreadLocal<EvaluationScratch> evaluationScratch = new ThreadLocal<EvaluationScratch>() {
+        @Override
+        protected EvaluationScratch initialValue() {
+            return new EvaluationScratch();
+        }
+    };
     
     // =========================================================
     
@@ -81,34 +120,213 @@ public class AtlantisCombatEvaluator {
      * <b>NEGATIVE</b> when enemy is too strong and we should pull back.
      */
     public static double evaluateSituation(Unit unit) {
+        AtlantisCombatInformation info = getCombatInfo(unit);
         
-    	checkCombatInfo(unit);
-    	
         // Try using cached value
-        double combatEvalCachedValueIfNotExpired = combatInfo.get(unit).getCombatEvalCachedValueIfNotExpired();
-        if (combatEvalCachedValueIfNotExpired > -12345) {
-            return updateCombatEval(unit, combatEvalCachedValueIfNotExpired);
+        if (info.isCombatEvalFromThisFrame()) {
+            return info.getCombatEval();
+        }
+        int index = WorldSnapshot.indexOf(unit);
+        if (index < 0) {
+            return updateCombatEval(unit, +999, null);
+        }
+        
+        // Unit evaluated on its own is the leader of its cluster
+        EvaluationScratch buffers = evaluationScratch.get();
+        CombatNeighbourhood neighbourhood = buffers.neighbourhood;
+        neighbourhood.describe(WorldSnapshot.x(index), WorldSnapshot.y(index));
+        boolean valid = info.isCombatEvalValid(neighbourhood, WorldSnapshot.getFrame());
+        countCacheCheck(info, valid);
+        if (valid) {
+            info.markCombatEvalValidated();
+            return info.getCombatEval();
         }
         
+        long start = System.nanoTime();
+        buffers.members[0] = index;
+        evaluateCluster(buffers.members, 0, 1, buffers.evaluations, neighbourhood);
+        AtlantisTimings.COMBAT_EVAL.recordSince(start);
+        return updateCombatEval(unit, buffers.evaluations[0], neighbourhood.copySignature());
+    }
+    
+    /**
+     * Evaluates combat situation of all units in the group at once: units standing close to each other are
+     * evaluated together, so nearby strength is summed only once per cluster. Results are cached just like
+     * with <b>evaluateSituation</b>.
+     */
+    public static void evaluateGroup(Group group) {
+        long start = System.nanoTime();
+        prepareUnitValues();
+        List<Unit> units = new ArrayList<>();
+        for (Unit unit : group.list()) {
+            if (!getCombatInfo(unit).isCombatEvalFromThisFrame()) {
+                units.add(unit);
+            }
+        }
+        CombatClusters clusters = new CombatClusters(units);
+        clusters.evaluateAll();
+        clusters.store();
+        AtlantisTimings.COMBAT_EVAL.recordSince(start);
+    }
+    
+    // =========================================================
+    // Cache
+    
+    /**
+     * Counts cache hit or miss, once per unit per frame. Must be called in the main thread.
+     */
+    protected static void countCacheCheck(AtlantisCombatInformation info, boolean hit) {
+        if (info.isFirstCacheCheckInThisFrame()) {
+            if (hit) {
+                cacheHits++;
+            }
+            else {
+                cacheMisses++;
+            }
+        }
+    }
+    
+    /**
+     * Number of combat evaluations reused from previous frames (hits) and computed again (misses).
+     */
+    public static long getCacheHits() {
+        return cacheHits;
+    }
+    
+    public static long getCacheMisses() {
+        return cacheMisses;
+    }
+    
+    // =========================================================
+    
+    /**
+     * Returns neighbourhood object of this thread, to be described and passed to <b>evaluateCluster</b>.
+     */
+    protected static CombatNeighbourhood getNeighbourhoodScratch() {
+        return evaluationScratch.get().neighbourhood;
+    }
+    
+    /**
+     * Evaluates combat situation of our units standing close to each other, in given (already described)
+     * neighbourhood: units at snapshot indices members[from .. to - 1]. Nearby enemy and our strength is
+     * summed only once for all of them, results are put into evaluations[from .. to - 1]. It uses only
+     * WorldSnapshot data and static unit type data and doesn't modify any shared state once 
+     * <b>prepareUnitValues</b> has been called, so then it's safe to call it from many threads at once.
+     */
+    protected static void evaluateCluster(int[] members, int from, int to, double[] evaluations,
+            CombatNeighbourhood neighbourhood) {
+        int px = neighbourhood.getX();
+        int py = neighbourhood.getY();
+        
         // =========================================================
-        // Define nearby enemy and our units
+        // Evaluate nearby enemy strength, separately against our ground and air units
         
-        //TODO: check safety of these casts
-        Collection<Unit> enemyUnits = (Collection<Unit>) Select.enemy().combatUnits().inRadius(12, unit.getPosition()).list();
-        if (enemyUnits.isEmpty()) {
-            return updateCombatEval(unit, +999);
+        AtlantisCombatSimulator simulator = AtlantisConfig.USE_COMBAT_SIMULATOR && SimUnitTypes.isLoaded()
+                ? AtlantisCombatSimulator.acquire() : null;
+        double enemyVsGround = 0;
+        double enemyVsAir = 0;
+        int nearestEnemy = -1;
+        double nearestDistSq = Double.MAX_VALUE;
+        for (int n = 0; n < neighbourhood.getEnemiesCount(); n++) {
+            int i = neighbourhood.getEnemy(n);
+            if (!isCombatUnit(i)) {
+                continue;
+            }
+            enemyVsGround += unitValue(i, false);
+            enemyVsAir += unitValue(i, true);
+            if (simulator != null) {
+                addToSimulation(simulator, AtlantisCombatSimulator.ENEMY, i);
+            }
+            double dx = WorldSnapshot.x(i) - px;
+            double dy = WorldSnapshot.y(i) - py;
+            if (dx * dx + dy * dy < nearestDistSq) {
+                nearestDistSq = dx * dx + dy * dy;
+                nearestEnemy = i;
+            }
+        }
+        
+        if (nearestEnemy < 0) {
+            for (int m = from; m < to; m++) {
+                evaluations[m] = +999;
+            }
+            if (simulator != null) {
+                simulator.release();
+            }
+            return;
         }
-        Collection<Unit> ourUnits = (Collection<Unit>) Select.our().combatUnits().inRadius(8.5, unit.getPosition()).list();
         
         // =========================================================
-        // Evaluate our and enemy strength
-
-        double enemyEvaluation = evaluateUnitsAgainstUnit(enemyUnits, unit, true);
-        double ourEvaluation = evaluateUnitsAgainstUnit(ourUnits, enemyUnits.iterator().next(), false);
-        double lowHealthPenalty = (100 - unit.getHPPercent()) / 80;
-        double combatEval = ourEvaluation / enemyEvaluation - 1 - lowHealthPenalty;
+        // Evaluate our strength against the nearest enemy
+        
+        boolean againstFlyer = WorldSnapshot.type(nearestEnemy).isFlyer();
+        double ourEvaluation = 0;
+        boolean defensiveBuildingFound = false;
+        boolean defensiveBuildingInRange = false;
+        for (int n = 0; n < neighbourhood.getOursCount(); n++) {
+            int i = neighbourhood.getOur(n);
+            if (!isCombatUnit(i)) {
+                continue;
+            }
+            ourEvaluation += unitValue(i, againstFlyer);
+            if (simulator != null) {
+                addToSimulation(simulator, AtlantisCombatSimulator.OUR, i);
+            }
+            if (isDefensiveBuilding(i, againstFlyer)) {
+                defensiveBuildingFound = true;
+                if (distanceBetween(i, nearestEnemy) <= CombatNeighbourhood.OUR_RADIUS) {
+                    defensiveBuildingInRange = true;
+                }
+            }
+        }
+        
+        // Extra bonus for DEFENSIVE BUILDING PRESENCE
+        if (defensiveBuildingFound) {
+            ourEvaluation += 100;
+        }
+        if (defensiveBuildingInRange) {
+            ourEvaluation += 100;
+        }
+        
+        // =========================================================
+        
+        // =========================================================
+        // Simulate the fight; if nobody would get hurt, keep the strength comparison
+        
+        boolean simulated = false;
+        double simulatedForGround = 0;
+        double simulatedForAir = 0;
+        if (simulator != null) {
+            simulator.simulate(AtlantisConfig.COMBAT_SIMULATION_FRAMES);
+            if (simulator.anyLosses()) {
+                simulated = true;
+                simulatedForGround = simulator.evaluate(false, MAX_SIMULATED_EVALUATION);
+                simulatedForAir = simulator.evaluate(true, MAX_SIMULATED_EVALUATION);
+            }
+            simulator.release();
+        }
+        
+        // =========================================================
+        // Result of the fight (simulated or estimated) is adjusted for every unit separately
         
-        return updateCombatEval(unit, combatEval);
+        for (int m = from; m < to; m++) {
+            int index = members[m];
+            boolean isFlyer = WorldSnapshot.type(index).isFlyer();
+            double fightEvaluation;
+            if (simulated) {
+                fightEvaluation = isFlyer ? simulatedForAir : simulatedForGround;
+            }
+            else {
+                fightEvaluation = ourEvaluation / (isFlyer ? enemyVsAir : enemyVsGround) - 1;
+            }
+            int hpPercent = 100 * WorldSnapshot.hitPoints(index) / WorldSnapshot.type(index).maxHitPoints();
+            double lowHealthPenalty = (100 - hpPercent) / 80;
+            evaluations[m] = fightEvaluation - lowHealthPenalty;
+        }
+    }
+    
+    private static void addToSimulation(AtlantisCombatSimulator simulator, int side, int index) {
+        simulator.addUnit(side, WorldSnapshot.type(index), WorldSnapshot.x(index), WorldSnapshot.y(index), 
+                WorldSnapshot.hitPoints(index), WorldSnapshot.shields(index));
     }
     
     // =========================================================
@@ -119,80 +337,108 @@ public class AtlantisCombatEvaluator {
     }
 
     // =========================================================
+    // Values of single units, computed once per frame
+    
+    /**
+     * Computes values of all our and enemy units in the WorldSnapshot, so that <b>evaluateCluster</b> only
+     * reads them and can be run in many threads.
+     */
+    protected static void prepareUnitValues() {
+        int end = WorldSnapshot.ownerEnd(WorldSnapshot.OWNER_ENEMY);
+        for (int i = WorldSnapshot.ownerStart(WorldSnapshot.OWNER_OUR); i < end; i++) {
+            prepareUnitValue(i);
+        }
+    }
     
-    private static double evaluateUnitsAgainstUnit(Collection<Unit> units, Unit againstUnit, boolean isEnemyEval) {
-        double strength = 0;
-        boolean enemyDefensiveBuildingFound = false;
-        boolean enemyDefensiveBuildingInRange = false;
+    private static void prepareUnitValue(int index) {
+        if (valuesGround.length < WorldSnapshot.size()) {
+            int length = Math.max(WorldSnapshot.size(), 2 * valuesGround.length);
+            valuesFrame = WorldSnapshot.getFrame();
+            valuesGround = new double[length];
+            valuesAir = new double[length];
+            valuesFlags = new byte[length];
+        }
+        else if (valuesFrame != WorldSnapshot.getFrame()) {
+            valuesFrame = WorldSnapshot.getFrame();
+            Arrays.fill(valuesFlags, (byte) 0);
+        }
+        if (valuesFlags[index] != 0) {
+            return;
+        }
         
-        // =========================================================
+        UnitType type = WorldSnapshot.type(index);
+        byte flags = FLAG_COMPUTED;
+        boolean completed = WorldSnapshot.isCompleted(index);
+        if (completed && WorldSnapshot.exists(index) && (!type.isBuilding() || type.matches(
+                UnitType.Terran_Bunker, UnitType.Protoss_Photon_Cannon, 
+                UnitType.Zerg_Sunken_Colony, UnitType.Zerg_Spore_Colony))) {
+            flags |= FLAG_COMBAT_UNIT;
+        }
+        if (type.isBuilding() && completed && UnitUtil.isMilitaryBuilding(type, true, false)) {
+            flags |= FLAG_DEFENSIVE_VS_GROUND;
+        }
+        if (type.isBuilding() && completed && UnitUtil.isMilitaryBuilding(type, false, true)) {
+            flags |= FLAG_DEFENSIVE_VS_AIR;
+        }
         
-        for (Unit unit : units) {
-            double unitStrengthEval = evaluateUnitHPandDamage(unit, againstUnit);
+        for (int air = 0; air <= 1; air++) {
+            boolean againstFlyer = air == 1;
+            double value = evaluateUnitHPandDamage(type, WorldSnapshot.hitPoints(index), againstFlyer);
             
-            // =========================================================
             // WORKER
-            if (unit.getType().isWorker()) {
-                strength += 0.2 * unitStrengthEval;
+            if (type.isWorker()) {
+                value *= 0.2;
             } 
             
-            // =========================================================
             // BUILDING
-            else if (unit.getType().isBuilding() && unit.isCompleted()) {
-                boolean antiGround = (againstUnit != null ? !againstUnit.getType().isFlyer() : true);
-                boolean antiAir = (againstUnit != null ? againstUnit.getType().isFlyer() : true);
-                if ( UnitUtil.isMilitaryBuilding(unit.getType(), antiGround, antiAir)) {
-                    enemyDefensiveBuildingFound = true;
-                    if (unit.getType().equals(UnitType.Terran_Bunker)) {
-                        strength += 7 * evaluateUnitHPandDamage(UnitType.Terran_Marine, againstUnit);
-                    }
-                    else {
-                        strength += 1.3 * unitStrengthEval;
-                    }
-                    
-                    if (PositionUtil.distanceTo(unit, againstUnit) <= 8.5) {
-                        enemyDefensiveBuildingInRange = true;
-                    }
+            else if (type.isBuilding()) {
+                if ((flags & (againstFlyer ? FLAG_DEFENSIVE_VS_AIR : FLAG_DEFENSIVE_VS_GROUND)) == 0) {
+                    value = 0;
+                }
+                else if (type.equals(UnitType.Terran_Bunker)) {
+                    value = 7 * evaluateUnitHPandDamage(UnitType.Terran_Marine, againstFlyer);
+                }
+                else {
+                    value *= 1.3;
                 }
-            } 
-            
-            // =========================================================
-            // Ordinary MILITARY UNIT
-            else {
-                strength += unitStrengthEval;
             }
-        }
-        
-        // =========================================================
-        // Extra bonus for DEFENSIVE BUILDING PRESENCE
-        if (!isEnemyEval) {
-            if (enemyDefensiveBuildingFound) {
-                strength += 100;
+            
+            if (againstFlyer) {
+                valuesAir[index] = value;
             }
-            if (enemyDefensiveBuildingInRange) {
-                strength += 100;
+            else {
+                valuesGround[index] = value;
             }
         }
-        
-        return strength;
+        valuesFlags[index] = flags;
     }
     
-    // =========================================================
-
-    private static double evaluateUnitHPandDamage(Unit evaluate, Unit againstUnit) {
-        return evaluateUnitHPandDamage(evaluate.getType(), evaluate.getHitPoints(), againstUnit);
+    private static boolean isCombatUnit(int index) {
+        prepareUnitValue(index);
+        return (valuesFlags[index] & FLAG_COMBAT_UNIT) != 0;
     }
+    
+    private static boolean isDefensiveBuilding(int index, boolean againstFlyer) {
+        return (valuesFlags[index] & (againstFlyer ? FLAG_DEFENSIVE_VS_AIR : FLAG_DEFENSIVE_VS_GROUND)) != 0;
+    }
+    
+    /**
+     * Returns strength of unit at given snapshot index, against ground or air units.
+     */
+    private static double unitValue(int index, boolean againstFlyer) {
+        prepareUnitValue(index);
+        return againstFlyer ? valuesAir[index] : valuesGround[index];
+    }
+    
+    // =========================================================
 
-    private static double evaluateUnitHPandDamage(UnitType evaluate, Unit againstUnit) {
-//        System.out.println(evaluate.getType() + " damage: " + evaluate.getType().getGroundWeapon().getDamageNormalized());
-        return evaluateUnitHPandDamage(evaluate, evaluate.maxHitPoints(), againstUnit);
+    private static double evaluateUnitHPandDamage(UnitType evaluate, boolean againstFlyer) {
+        return evaluateUnitHPandDamage(evaluate, evaluate.maxHitPoints(), againstFlyer);
     }
 
-    private static double evaluateUnitHPandDamage(UnitType evaluateType, int hp, Unit againstUnit) {
-        double damage = (!againstUnit.getType().isFlyer() ? 
-    		evaluateType.groundWeapon().getNormalizedDamage() : 
-    			evaluateType.airWeapon().getNormalizedDamage()
-        );
+    private static double evaluateUnitHPandDamage(UnitType evaluateType, int hp, boolean againstFlyer) {
+        double damage = (againstFlyer ? evaluateType.airWeapon() : evaluateType.groundWeapon())
+                .getNormalizedDamage();
         double total = hp * EVAL_HIT_POINTS_FACTOR + damage * EVAL_DAMAGE_FACTOR;
         
         // =========================================================
@@ -203,6 +449,27 @@ public class AtlantisCombatEvaluator {
         
         return total;
     }
+    
+    /**
+     * Returns distance in build tiles between two units stored in WorldSnapshot.
+     */
+    private static double distanceBetween(int index, int otherIndex) {
+        double dx = WorldSnapshot.x(index) - WorldSnapshot.x(otherIndex);
+        double dy = WorldSnapshot.y(index) - WorldSnapshot.y(otherIndex);
+        return Math.sqrt(dx * dx + dy * dy) / TilePosition.SIZE_IN_PIXELS;
+    }
+
+
+    /**
+     * Buffers of a single thread, see <b>evaluationScratch</b>.
+     */
+    private static class EvaluationScratch {
+        
+        private final int[] members = new int[1];
+        private final double[] evaluations = new double[1];
+        private final CombatNeighbourhood neighbourhood = new CombatNeighbourhood();
+        
+    }
 
     // =========================================================
     // Auxiliary
@@ -232,22 +499,22 @@ public class AtlantisCombatEvaluator {
     /**
      * Returns combat eval and caches it for the time of several frames.
      */
-    private static double updateCombatEval(Unit unit, double combatEval) {
-    	checkCombatInfo(unit);
-    	combatInfo.get(unit).updateCombatEval(combatEval);
+    private static double updateCombatEval(Unit unit, double combatEval, long[] neighbourhood) {
+    	getCombatInfo(unit).updateCombatEval(combatEval, neighbourhood);
         //unit.updateCombatEval(combatEval);
         return combatEval;
     }
 
     /**
-     * Checks whether AtlantisCombatInformation exists for a given unit, 
-     * creating an instance if necessary
-     * @param unit
+     * Returns AtlantisCombatInformation of a given unit, creating an instance if necessary.
      */
-	private static void checkCombatInfo(Unit unit) {
-		if (!combatInfo.containsKey(unit)){
-    		combatInfo.put(unit, new AtlantisCombatInformation(unit));
+	protected static AtlantisCombatInformation getCombatInfo(Unit unit) {
+		AtlantisCombatInformation info = combatInfo.get(unit);
+		if (info == null) {
+    		info = new AtlantisCombatInformation(unit);
+    		combatInfo.put(unit, info);
     	}
+		return info;
 	}
 
 }
@@ -1,7 +1,6 @@
 package atlantis.combat;
 
-import java.util.Map;
-
+import atlantis.AtlantisConfig;
 import atlantis.AtlantisGame;
 import bwapi.Unit;
 
@@ -13,27 +12,73 @@ import bwapi.Unit;
 public class AtlantisCombatInformation {
 	
 	private Unit unit;
-	private int _lastTimeCombatEval;
+	private int _lastTimeCombatEval = -1;
     private double _lastCombatEval;
+    
+    // Frame in which cached combat eval was found valid, and in which the cache was checked at all
+    private int _lastTimeValidated = -1;
+    private int _lastTimeCacheChecked = -1;
+    
+    // Signature of the neighbourhood combat eval was computed for, see CombatNeighbourhood
+    private long[] _neighbourhood;
 	
 	public AtlantisCombatInformation(Unit u){
 		unit = u;
 	}
 	
 	/**
-     * Caches combat eval of this unit for the time of one frame.
+     * Caches combat eval of this unit together with signature of the neighbourhood it was computed for (can
+     * be null, then the eval is used only in this frame).
      */
-    public void updateCombatEval(double eval) {
+    public void updateCombatEval(double eval, long[] neighbourhood) {
         _lastTimeCombatEval = AtlantisGame.getTimeFrames();
         _lastCombatEval = eval;
+        _neighbourhood = neighbourhood;
+    }
+    
+    /**
+     * Marks cached combat eval as valid for the rest of this frame, see <b>isCombatEvalFromThisFrame</b>.
+     * Its age is still counted from the frame it was computed in.
+     */
+    public void markCombatEvalValidated() {
+        _lastTimeValidated = AtlantisGame.getTimeFrames();
     }
     
-    public double getCombatEvalCachedValueIfNotExpired() {
-        if (AtlantisGame.getTimeFrames() <= _lastTimeCombatEval) {
-            return _lastCombatEval;
+    /**
+     * Returns true if combat eval has been computed or found valid in this frame.
+     */
+    public boolean isCombatEvalFromThisFrame() {
+        int now = AtlantisGame.getTimeFrames();
+        return _lastTimeCombatEval == now || _lastTimeValidated == now;
+    }
+    
+    /**
+     * Returns true only for the first call in every frame, so cache hits and misses are counted once per
+     * unit per frame.
+     */
+    public boolean isFirstCacheCheckInThisFrame() {
+        int now = AtlantisGame.getTimeFrames();
+        if (_lastTimeCacheChecked == now) {
+            return false;
         }
-        else {
-            return (int) -123456;
+        _lastTimeCacheChecked = now;
+        return true;
+    }
+    
+    /**
+     * Returns true if cached combat eval can be still used in given <b>frame</b>: it's not older than
+     * <b>AtlantisConfig.COMBAT_EVAL_CACHE_TTL_FRAMES</b> and given neighbourhood matches the one it was
+     * computed for (no unit came, left or died and hit points of none of them changed too much). It only reads
+     * this object, so it can be called from many threads.
+     */
+    public boolean isCombatEvalValid(CombatNeighbourhood neighbourhood, int frame) {
+        if (_lastTimeCombatEval < 0 || frame - _lastTimeCombatEval >= AtlantisConfig.COMBAT_EVAL_CACHE_TTL_FRAMES) {
+            return false;
         }
+        return neighbourhood.matches(_neighbourhood, AtlantisConfig.COMBAT_EVAL_CACHE_MAX_HP_CHANGE);
+    }
+    
+    public double getCombatEval() {
+        return _lastCombatEval;
     }
 }
@@ -0,0 +1,184 @@
+package atlantis.combat;
+
+import atlantis.information.WorldSnapshot;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import bwapi.TilePosition;
+import bwapi.Unit;
+
+/**
+ * Our units split into clusters of units standing close to each other. Nearby strength of us and the enemy is
+ * practically the same for every unit in a cluster, so <b>AtlantisCombatEvaluator</b> computes it only once
+ * per cluster and assigns evaluations to all of its members.
+ * <br />
+ * Clusters are built greedily: every unit joins the first cluster whose leader (first unit) is not further
+ * than <b>CLUSTER_RADIUS</b>, otherwise it becomes a leader of a new cluster.
+ * <br />
+ * Cached evaluations are validated once per cluster too, against the neighbourhood of its leader: if all
+ * members have cached evaluations computed for the same neighbourhood, the cluster isn't evaluated again.
+ */
+class CombatClusters {
+
+    /**
+     * Max distance (in build tiles) from cluster leader for units to be evaluated together.
+     */
+    private static final double CLUSTER_RADIUS = 1.5;
+
+    private final List<Unit> units = new ArrayList<>();
+    private AtlantisCombatInformation[] infos;
+
+    /**
+     * Snapshot indices of units, grouped by cluster; cluster c occupies members[clusterStart[c] ..
+     * clusterStart[c + 1] - 1] and its first member is the leader.
+     */
+    private int[] members;
+    private int[] clusterStart;
+    private int clusters = 0;
+
+    private double[] evaluations;
+
+    /**
+     * Signature of the neighbourhood every cluster was evaluated for, or null if cached evaluations of its
+     * members are still valid.
+     */
+    private long[][] signatures;
+
+    /**
+     * Snapshot frame in which clusters were built, cached evaluations are validated for this frame.
+     */
+    private final int frame;
+
+    // =========================================================
+
+    /**
+     * Splits given units into clusters. Units missing in the WorldSnapshot are skipped. Must be called in the
+     * main thread.
+     */
+    public CombatClusters(Collection<Unit> ourUnits) {
+        frame = WorldSnapshot.getFrame();
+        int size = ourUnits.size();
+        int[] indices = new int[size];
+        int[] clusterOf = new int[size];
+        int[] leaders = new int[size];
+        int[] clusterSize = new int[size];
+        double maxDistSq = Math.pow(CLUSTER_RADIUS * TilePosition.SIZE_IN_PIXELS, 2);
+
+        for (Unit unit : ourUnits) {
+            int index = WorldSnapshot.indexOf(unit);
+            if (index < 0) {
+                continue;
+            }
+
+            int cluster = 0;
+            while (cluster < clusters && distanceSq(leaders[cluster], index) > maxDistSq) {
+                cluster++;
+            }
+            if (cluster == clusters) {
+                leaders[clusters++] = index;
+            }
+
+            clusterOf[units.size()] = cluster;
+            indices[units.size()] = index;
+            clusterSize[cluster]++;
+            units.add(unit);
+        }
+
+        // Counting sort of units by cluster, so every cluster is a continuous range
+        clusterStart = new int[clusters + 1];
+        for (int c = 0; c < clusters; c++) {
+            clusterStart[c + 1] = clusterStart[c] + clusterSize[c];
+        }
+        int[] next = new int[clusters];
+        System.arraycopy(clusterStart, 0, next, 0, clusters);
+        members = new int[units.size()];
+        infos = new AtlantisCombatInformation[units.size()];
+        List<Unit> sortedUnits = new ArrayList<>(units);
+        for (int i = 0; i < units.size(); i++) {
+            int position = next[clusterOf[i]]++;
+            members[position] = indices[i];
+            sortedUnits.set(position, units.get(i));
+            infos[position] = AtlantisCombatEvaluator.getCombatInfo(units.get(i));
+        }
+        units.clear();
+        units.addAll(sortedUnits);
+
+        evaluations = new double[units.size()];
+        signatures = new long[clusters][];
+    }
+
+    // =========================================================
+
+    /**
+     * Describes neighbourhood of the cluster leader and evaluates combat situation of all members of given
+     * cluster, unless all of them have cached evaluations still valid for this neighbourhood. Only reads
+     * shared data, so it can be called from many threads, as long as 
+     * <b>AtlantisCombatEvaluator.prepareUnitValues</b> has been called. <b>neighbourhood</b> is used as a
+     * buffer, see <b>AtlantisCombatEvaluator.getNeighbourhoodScratch</b>.
+     */
+    public void evaluate(int cluster, CombatNeighbourhood neighbourhood) {
+        int from = clusterStart[cluster];
+        int to = clusterStart[cluster + 1];
+        int leader = members[from];
+        neighbourhood.describe(WorldSnapshot.x(leader), WorldSnapshot.y(leader));
+
+        boolean cachedValid = true;
+        for (int m = from; m < to && cachedValid; m++) {
+            cachedValid = infos[m].isCombatEvalValid(neighbourhood, frame);
+        }
+        if (cachedValid) {
+            signatures[cluster] = null;
+            return;
+        }
+
+        AtlantisCombatEvaluator.evaluateCluster(members, from, to, evaluations, neighbourhood);
+        signatures[cluster] = neighbourhood.copySignature();
+    }
+
+    /**
+     * Evaluates all clusters in the current thread.
+     */
+    public void evaluateAll() {
+        CombatNeighbourhood neighbourhood = AtlantisCombatEvaluator.getNeighbourhoodScratch();
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            evaluate(cluster, neighbourhood);
+        }
+    }
+
+    /**
+     * Stores evaluations of all units in AtlantisCombatEvaluator cache, or marks cached ones as valid in this
+     * frame. Must be called in the main thread.
+     */
+    public void store() {
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            long[] signature = signatures[cluster];
+            for (int m = clusterStart[cluster]; m < clusterStart[cluster + 1]; m++) {
+                AtlantisCombatEvaluator.countCacheCheck(infos[m], signature == null);
+                if (signature == null) {
+                    infos[m].markCombatEvalValidated();
+                }
+                else {
+                    infos[m].updateCombatEval(evaluations[m], signature);
+                }
+            }
+        }
+    }
+
+    // =========================================================
+
+    public int getClustersCount() {
+        return clusters;
+    }
+
+    public int getUnitsCount() {
+        return units.size();
+    }
+
+    private static double distanceSq(int index, int otherIndex) {
+        double dx = WorldSnapshot.x(index) - WorldSnapshot.x(otherIndex);
+        double dy = WorldSnapshot.y(index) - WorldSnapshot.y(otherIndex);
+        return dx * dx + dy * dy;
+    }
+
+}
@@ -0,0 +1,127 @@
+package atlantis.combat;
+
+import atlantis.information.UnitGrid;
+import atlantis.information.WorldSnapshot;
+import java.util.Arrays;
+
+/**
+ * Units taken into account when evaluating combat situation around a point (see
+ * <b>AtlantisCombatEvaluator.evaluateCluster</b>): enemy units not further than <b>ENEMY_RADIUS</b> and our
+ * units not further than <b>OUR_RADIUS</b> build tiles. It's found once per cluster, around its leader, and
+ * used both to check if cached evaluations are still valid and to compute new ones.
+ * <br />
+ * Its <b>signature</b> lists every found unit (ID, whether it's completed, hit points percent) sorted by ID,
+ * so it can be compared unit by unit with the signature stored together with cached evaluation.
+ * <br />
+ * Instances are reused: every thread keeps its own one.
+ */
+class CombatNeighbourhood {
+
+    public static final double ENEMY_RADIUS = 12;
+    public static final double OUR_RADIUS = 8.5;
+
+    private int x;
+    private int y;
+    private int[] enemies = new int[0];
+    private int enemiesCount = 0;
+    private int[] ours = new int[0];
+    private int oursCount = 0;
+    private long[] signature = new long[0];
+    private int signatureLength = 0;
+
+    // =========================================================
+
+    /**
+     * Finds units around point (px, py) in the current WorldSnapshot.
+     */
+    public void describe(int px, int py) {
+        if (enemies.length < WorldSnapshot.size()) {
+            int length = Math.max(WorldSnapshot.size(), 2 * enemies.length);
+            enemies = new int[length];
+            ours = new int[length];
+            signature = new long[length];
+        }
+
+        x = px;
+        y = py;
+        enemiesCount = UnitGrid.indicesInRadius(WorldSnapshot.OWNER_ENEMY, px, py, ENEMY_RADIUS, enemies);
+        oursCount = UnitGrid.indicesInRadius(WorldSnapshot.OWNER_OUR, px, py, OUR_RADIUS, ours);
+
+        signatureLength = 0;
+        addToSignature(enemies, enemiesCount);
+        addToSignature(ours, oursCount);
+        Arrays.sort(signature, 0, signatureLength);
+    }
+
+    private void addToSignature(int[] indices, int count) {
+        for (int n = 0; n < count; n++) {
+            int i = indices[n];
+            int maxHitPoints = Math.max(1, WorldSnapshot.type(i).maxHitPoints());
+            int hpPercent = Math.min(255, 100 * WorldSnapshot.hitPoints(i) / maxHitPoints);
+            long key = WorldSnapshot.id(i) * 2L + (WorldSnapshot.isCompleted(i) ? 1 : 0);
+            signature[signatureLength++] = (key << 8) | hpPercent;
+        }
+    }
+
+    // =========================================================
+
+    /**
+     * Returns true if the same units were found, in the same state (completed or not), and hit points of none
+     * of them changed by more than <b>maxChange</b> (0.1 = 10%) of its max hit points.
+     */
+    public boolean matches(long[] storedSignature, double maxChange) {
+        if (storedSignature == null || storedSignature.length != signatureLength) {
+            return false;
+        }
+        double maxPercentChange = 100 * maxChange;
+        for (int n = 0; n < signatureLength; n++) {
+            if ((storedSignature[n] >>> 8) != (signature[n] >>> 8)) {
+                return false;
+            }
+            if (Math.abs((storedSignature[n] & 0xFF) - (signature[n] & 0xFF)) > maxPercentChange) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns copy of the signature, to be stored together with evaluation computed for this neighbourhood.
+     */
+    public long[] copySignature() {
+        return Arrays.copyOf(signature, signatureLength);
+    }
+
+    // =========================================================
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getEnemiesCount() {
+        return enemiesCount;
+    }
+
+    /**
+     * Returns snapshot index of n-th enemy unit found.
+     */
+    public int getEnemy(int n) {
+        return enemies[n];
+    }
+
+    public int getOursCount() {
+        return oursCount;
+    }
+
+    /**
+     * Returns snapshot index of n-th our unit found.
+     */
+    public int getOur(int n) {
+        return ours[n];
+    }
+
+}
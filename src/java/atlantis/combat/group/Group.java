@@ -5,10 +5,10 @@ import atlantis.combat.micro.DefaultMeleeManager;
 import atlantis.combat.micro.DefaultRangedManager;
 import atlantis.combat.micro.MicroMeleeManager;
 import atlantis.combat.micro.MicroRangedManager;
+import atlantis.wrappers.UnitSideTable;
 import atlantis.wrappers.Units;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.TreeSet;
 
 import bwapi.Position;
@@ -45,7 +45,7 @@ public class Group extends Units {
     /**
      * Stores the group that each unit belongs to. Intends to replace Unit.setGroup() and getGroup() methods.
      */
-    private static java.util.Map<Unit, Group> groupOfUnit = new HashMap<>();
+    private static UnitSideTable<Group> groupOfUnit = new UnitSideTable<>();
     
     
     /**
@@ -3,12 +3,15 @@ package atlantis.combat.group.missions;
 import atlantis.Atlantis;
 import atlantis.combat.micro.AtlantisRunManager;
 import atlantis.combat.micro.AtlantisRunning;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.debug.tooltip.TooltipManager;
 import atlantis.information.AtlantisEnemyInformationManager;
 import atlantis.information.AtlantisMap;
 import atlantis.information.UnitData;
 import atlantis.util.PositionUtil;
 import atlantis.wrappers.Select;
+import atlantis.wrappers.CommandBuffer;
 import bwta.BaseLocation;
 import bwapi.Color;
 import bwapi.Position;
@@ -34,9 +37,9 @@ public class MissionAttack extends Mission {
         if (focusPoint != null) {
         	//System.out.println("-Dist to focus point: " + PositionUtil.distanceTo(focusPoint, unit.getPosition()));
             if (PositionUtil.distanceTo(focusPoint, unit.getPosition()) > 5) {
-                unit.attack(focusPoint, false);
+                CommandBuffer.attack(unit, focusPoint);
                 TooltipManager.setTooltip(unit, "Concentrate!"); //unit.setTooltip("Mission focus");	//TODO: DEBUG
-                System.out.println("--Concentrate");	//TODO DEBUG
+                AtlantisLog.debug(Category.COMBAT, "--Concentrate");
                 return true;
             }
         } 
@@ -46,11 +49,11 @@ public class MissionAttack extends Mission {
         else {
             Position position = AtlantisMap.getRandomInvisiblePosition(unit.getPosition());
             if (position != null) {
-                unit.attack(position, false);	
+                CommandBuffer.attack(unit, position);	
                 Atlantis.getBwapi().drawLineMap(unit.getPosition(), position, Color.Red); //TODO DEBUG
                 TooltipManager.setTooltip(unit, "Spread!"); //TODO: DEBUG
 //                unit.setTooltip("Mission spread");
-                System.out.println("--Spread");	//TODO DEBUG
+                AtlantisLog.debug(Category.COMBAT, "--Spread");
                 return true;
             }
         }
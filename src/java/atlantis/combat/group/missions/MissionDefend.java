@@ -1,11 +1,14 @@
 package atlantis.combat.group.missions;
 
 import atlantis.combat.micro.AtlantisRunning;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.debug.tooltip.TooltipManager;
 import atlantis.information.AtlantisMap;
 import atlantis.util.PositionUtil;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.Select;
+import atlantis.wrappers.CommandBuffer;
 import bwta.Chokepoint;
 import bwapi.TilePosition;
 import bwapi.Unit;
@@ -36,7 +39,7 @@ public class MissionDefend extends Mission {
     private boolean moveUnitIfNeededNearChokePoint(Unit unit) {
         Chokepoint chokepoint = getFocusPoint();
         if (chokepoint == null) {
-            System.err.println("Couldn't define choke point.");
+            AtlantisLog.warn(Category.COMBAT, "Couldn't define choke point.");
             return false;
         }
 
@@ -49,7 +52,7 @@ public class MissionDefend extends Mission {
             if (isCriticallyCloseToChokePoint(unit, chokepoint)) {
                 unit.moveAwayFrom(chokepoint.getCenter(),  1.0);	//unit.moveAwayFrom(chokepoint, 1.0);
                 TooltipManager.setTooltip(unit, "Get back");
-                System.out.println("get back -- defend");	//TODO DEBUG
+                AtlantisLog.debug(Category.COMBAT, "get back -- defend");
                 //unit.setTooltip("Get back");
                 return true;
             }
@@ -66,7 +69,7 @@ public class MissionDefend extends Mission {
                 }
             } // Unit is far from choke point
             else {
-                unit.move(chokepoint.getCenter(), false);
+                CommandBuffer.move(unit, chokepoint.getCenter());
             }
         }
 
@@ -1,11 +1,14 @@
 package atlantis.combat.group.missions;
 
 import atlantis.combat.micro.AtlantisRunning;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.debug.tooltip.TooltipManager;
 import atlantis.information.AtlantisMap;
 import atlantis.util.PositionUtil;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.Select;
+import atlantis.wrappers.CommandBuffer;
 import bwta.Chokepoint;
 import bwapi.Position;
 import bwapi.Unit;
@@ -34,7 +37,7 @@ public class MissionPrepare extends Mission {
     private boolean moveUnitToDestinationIfNeeded(Unit unit) {
         Chokepoint chokepoint = AtlantisMap.getMainBaseChokepoint();
         if (chokepoint == null) {
-            System.err.println("Couldn't define choke point.");
+            AtlantisLog.warn(Category.COMBAT, "Couldn't define choke point.");
             return false;
         }
 
@@ -47,7 +50,7 @@ public class MissionPrepare extends Mission {
             if (isCriticallyCloseToChokePoint(unit, chokepoint)) {
             	unit.moveAwayFrom(chokepoint.getCenter(), 1.5);	//unit.moveAwayFrom(chokepoint, 1.5);
                 TooltipManager.setTooltip(unit, "Get back");  //unit.setTooltip("Get back");
-                System.out.println("get back -- prepare");	//TODO DEBUG
+                AtlantisLog.debug(Category.COMBAT, "get back -- prepare");
                 return true;
             }
 
@@ -63,7 +66,7 @@ public class MissionPrepare extends Mission {
                 }
             } // Unit is far from choke point
             else {
-                unit.move(chokepoint.getCenter(), false);
+                CommandBuffer.move(unit, chokepoint.getCenter());
             }
         }
 
@@ -2,6 +2,7 @@ package atlantis.combat.micro;
 
 import atlantis.debug.tooltip.TooltipManager;
 import atlantis.util.UnitUtil;
+import atlantis.wrappers.CommandBuffer;
 import bwapi.Unit;
 
 /**
@@ -40,7 +41,7 @@ public class AtlantisAttackEnemyUnit {
         
         // If we already are attacking this unit, do not issue double command.
         if (!enemyToAttack.equals(unit.getTarget())) {
-            unit.attack(enemyToAttack, false);
+            CommandBuffer.attack(unit, enemyToAttack);
             TooltipManager.setTooltip(unit, "Forward!"); //setTooltip("Forward!");
         } 
         
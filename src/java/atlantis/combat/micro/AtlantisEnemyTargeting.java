@@ -1,6 +1,7 @@
 package atlantis.combat.micro;
 
 import atlantis.AtlantisGame;
+import atlantis.debug.AtlantisTimings;
 import atlantis.util.PositionUtil;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.Select;
@@ -14,6 +15,13 @@ public class AtlantisEnemyTargeting {
      * necessarily in the shoot range. Will return <i>null</i> if no enemy can is visible.
      */
     public static Unit defineBestEnemyToAttackFor(Unit unit) {
+        long start = System.nanoTime();
+        Unit target = findBestEnemyToAttackFor(unit);
+        AtlantisTimings.TARGETING.recordSince(start);
+        return target;
+    }
+
+    private static Unit findBestEnemyToAttackFor(Unit unit) {
         boolean canAttackGround = UnitUtil.attacksGround(unit);
         boolean canAttackAir = UnitUtil.attacksAir(unit);
         Unit nearestEnemy = null;
@@ -5,16 +5,23 @@ import atlantis.AtlantisGame;
 import atlantis.combat.AtlantisCombatEvaluator;
 import atlantis.combat.AtlantisCombatInformation;
 import atlantis.debug.tooltip.TooltipManager;
+import atlantis.information.AtlantisFlowField;
+import atlantis.information.AtlantisGroundDistance;
 import atlantis.information.AtlantisMap;
+import atlantis.information.ThreatGrid;
+import atlantis.information.UnitGrid;
+import atlantis.information.WorldSnapshot;
 import atlantis.util.PositionUtil;
 import atlantis.wrappers.Select;
+import atlantis.wrappers.CommandBuffer;
+import atlantis.wrappers.UnitSideTable;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 import bwapi.Position;
 import bwapi.Unit;
-import bwta.BWTA;
+import bwapi.WeaponType;
 
 /**
  * Handles best way of running from close enemies and information about the fact if given unit is running or
@@ -29,14 +36,30 @@ public class AtlantisRunning {
     /**
      * Maps Unit to AtlantisRunning instances (to remove unit.isRunning method)
      */
-    private static Map<Unit, AtlantisRunning> unitRunning = new HashMap<>();
+    private static UnitSideTable<AtlantisRunning> unitRunning = new UnitSideTable<>();
+    
+    /**
+     * When following a flow field, unit is pushed away from every enemy it's in range (plus margin) of.
+     * Push is the strongest (REPULSION_PX) near the enemy and fades out at the edge of its range.
+     */
+    private static final double REPULSION_RADIUS_TILES = 10;
+    private static final int REPULSION_MARGIN_PX = 64;
+    private static final int REPULSION_PX = 96;
+    
+    /**
+     * Flying units retreat straight to the base, this many tiles at once.
+     */
+    private static final double FLOW_STEP_TILES = 4;
+    
+    private static int _ourBasesFrame = -1;
+    private static final List<Position> _ourBases = new ArrayList<>();
+    private static int[] _repulsionScratch = new int[0];
 
     // =========================================================
     
     public AtlantisRunning(Unit unit) {
         super();
         this.unit = unit;
-        unitRunning.put(unit, this);
     }
 
     // =========================================================
@@ -81,7 +104,7 @@ public class AtlantisRunning {
 
         // Make unit run to the selected position
         if (running.nextPositionToRunTo != null && !running.nextPositionToRunTo.equals(runner.getPosition())) {
-            runner.move(running.nextPositionToRunTo, false);
+            CommandBuffer.move(runner, running.nextPositionToRunTo);
             running.updateRunTooltip();
             
             // If this is massive retreat, make all other units run as well
@@ -103,6 +126,11 @@ public class AtlantisRunning {
             return null;
         }
         
+        Position runTo = findPositionToRun_flowField(unit);
+        if (runTo != null) {
+            return runTo;
+        }
+        
 //        if (AtlantisGame.getTimeSeconds() <= 350) {
             return findPositionToRun_preferMainBase(unit, runAwayFrom);
 //        }
@@ -133,6 +161,109 @@ public class AtlantisRunning {
     // =========================================================
     // Find position to run away
     
+    /**
+     * Running behavior which will make unit run toward the nearest of our bases not threatened by the enemy,
+     * following its flow field (see AtlantisFlowField) and keeping away from enemy weapon ranges. Returns null
+     * if unit is already at the base or no base can be reached.
+     */
+    private static Position findPositionToRun_flowField(Unit unit) {
+        Position from = unit.getPosition();
+        boolean isFlying = unit.isFlying();
+        
+        // =========================================================
+        // Choose the base: safe ones first, then the nearest one
+        
+        Position runToBase = null;
+        boolean runToBaseSafe = false;
+        double runToBaseDistance = Double.POSITIVE_INFINITY;
+        for (Position base : getOurBasePositions()) {
+            double distance = isFlying ? PositionUtil.distanceTo(from, base) 
+                    : AtlantisFlowField.getDistance(from, base);
+            boolean safe = (isFlying ? ThreatGrid.enemyAirThreat(base) : ThreatGrid.enemyGroundThreat(base)) == 0;
+            if (distance != Double.POSITIVE_INFINITY && (safe && !runToBaseSafe 
+                    || safe == runToBaseSafe && distance < runToBaseDistance)) {
+                runToBase = base;
+                runToBaseSafe = safe;
+                runToBaseDistance = distance;
+            }
+        }
+        if (runToBase == null || runToBaseDistance <= 5) {
+            return null;
+        }
+        
+        // =========================================================
+        // Follow the flow field, flyers simply fly towards the base
+        
+        Position waypoint;
+        if (isFlying) {
+            double ratio = Math.min(1, FLOW_STEP_TILES / runToBaseDistance);
+            waypoint = new Position(
+                    (int) (from.getX() + ratio * (runToBase.getX() - from.getX())),
+                    (int) (from.getY() + ratio * (runToBase.getY() - from.getY()))
+            );
+        }
+        else {
+            waypoint = AtlantisFlowField.getWaypoint(from, runToBase);
+            if (waypoint == null) {
+                return null;
+            }
+        }
+        
+        // =========================================================
+        // Get away from enemies that can shoot at us
+        
+        double repulsionX = 0;
+        double repulsionY = 0;
+        int found = UnitGrid.indicesInRadius(WorldSnapshot.OWNER_ENEMY, from.getX(), from.getY(), 
+                REPULSION_RADIUS_TILES, repulsionScratch());
+        for (int n = 0; n < found; n++) {
+            int i = _repulsionScratch[n];
+            WeaponType weapon = isFlying ? WorldSnapshot.type(i).airWeapon() : WorldSnapshot.type(i).groundWeapon();
+            if (weapon == null || weapon.damageAmount() <= 0 || !WorldSnapshot.isCompleted(i)) {
+                continue;
+            }
+            double dx = from.getX() - WorldSnapshot.x(i);
+            double dy = from.getY() - WorldSnapshot.y(i);
+            double dist = Math.max(1, Math.sqrt(dx * dx + dy * dy));
+            double dangerRange = weapon.maxRange() + REPULSION_MARGIN_PX;
+            if (dist < dangerRange) {
+                repulsionX += dx / dist * (dangerRange - dist) / dangerRange;
+                repulsionY += dy / dist * (dangerRange - dist) / dangerRange;
+            }
+        }
+        
+        Position runTo = PositionUtil.makeValid(new Position(
+                (int) (waypoint.getX() + repulsionX * REPULSION_PX), 
+                (int) (waypoint.getY() + repulsionY * REPULSION_PX)
+        ));
+        if (!isFlying && !runTo.equals(waypoint) && (!AtlantisGroundDistance.isWalkable(
+                runTo.getX() / 32, runTo.getY() / 32) || !AtlantisGroundDistance.isReachable(from, runTo))) {
+            return waypoint;
+        }
+        return runTo;
+    }
+    
+    /**
+     * Returns positions of our bases, selected only once per frame.
+     */
+    private static List<Position> getOurBasePositions() {
+        if (_ourBasesFrame != AtlantisGame.getTimeFrames()) {
+            _ourBasesFrame = AtlantisGame.getTimeFrames();
+            _ourBases.clear();
+            for (Unit base : Select.ourBases().list()) {
+                _ourBases.add(base.getPosition());
+            }
+        }
+        return _ourBases;
+    }
+    
+    private static int[] repulsionScratch() {
+        if (_repulsionScratch.length < WorldSnapshot.size()) {
+            _repulsionScratch = new int[WorldSnapshot.size()];
+        }
+        return _repulsionScratch;
+    }
+    
     /**
      * Running behavior which will make unit run toward main base.
      */
@@ -155,6 +286,8 @@ public class AtlantisRunning {
         int howManyTiles = 6;
         int maxTiles = 9;
         Position runTo = null;
+        Position safestRunTo = null;
+        double safestThreat = Double.POSITIVE_INFINITY;
         
         // =========================================================
 
@@ -174,16 +307,26 @@ public class AtlantisRunning {
             );
             
 //            if (howManyTiles >= 8) {
-                runTo = runTo.makeValid();
+                runTo = PositionUtil.makeValid(runTo);
 //            }
 
-            if (Atlantis.getBwapi().isBuildable(runTo.toTilePosition(), true) && unit.hasPath(runTo.getPoint())
-                    & Atlantis.getBwapi().hasPath(unit.getPosition(), runTo)
-                    && BWTA.isConnected(unit.getPosition().toTilePosition(), runTo.toTilePosition())) {
-                break;
-            } else {
-                howManyTiles++;
+            // Out of all valid positions prefer the one where fewest enemies can shoot at us
+            if (Atlantis.getBwapi().isBuildable(runTo.toTilePosition(), true)
+                    && (unit.isFlying() || AtlantisGroundDistance.isReachable(unit.getPosition(), runTo))) {
+                double threat = ThreatGrid.threatTo(unit, runTo);
+                if (threat < safestThreat) {
+                    safestRunTo = runTo;
+                    safestThreat = threat;
+                }
+                if (threat == 0) {
+                    break;
+                }
             }
+            howManyTiles++;
+        }
+        
+        if (safestRunTo != null) {
+            runTo = safestRunTo;
         }
         
         // =========================================================
@@ -9,6 +9,7 @@ import atlantis.combat.micro.zerg.ZergOverlordManager;
 import atlantis.debug.tooltip.TooltipManager;
 import atlantis.util.PositionUtil;
 import atlantis.util.UnitUtil;
+import atlantis.wrappers.CommandBuffer;
 import atlantis.wrappers.Select;
 import atlantis.wrappers.Units;
 import bwapi.Position;
@@ -121,7 +122,7 @@ public class DefaultMeleeManager extends MicroMeleeManager {
         }
 
         if (goTo != null && PositionUtil.distanceTo(unit.getPosition(), goTo) > 5) {
-            unit.move(goTo);
+            CommandBuffer.move(unit, goTo);
             TooltipManager.setTooltip(unit, "Stand closer");
             //unit.setTooltip("Stand closer");
             return true;
@@ -1,13 +1,11 @@
 package atlantis.combat.micro;
 
-import java.util.Collection;
-
 import atlantis.combat.AtlantisCombatEvaluator;
+import atlantis.information.ThreatGrid;
 import atlantis.util.PositionUtil;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.Select;
 import bwapi.Unit;
-import bwapi.WeaponType;
 
 /**
  *
@@ -15,10 +13,6 @@ import bwapi.WeaponType;
  */
 public abstract class MicroManager {
     
-    private static Unit _nearestEnemyThatCanShootAtThisUnit = null;
-    
-    // =========================================================
-
     /**
      * If chances to win the skirmish with the nearby enemy units aren't favorable, avoid fight and retreat.
      */
@@ -49,8 +43,6 @@ public abstract class MicroManager {
     protected boolean handleNotExtremelyFavorableOdds(Unit unit) {
         if (!AtlantisCombatEvaluator.isSituationExtremelyFavorable(unit)) {
             if (isInShootRangeOfAnyEnemyUnit(unit)) {
-//                unit.moveAwayFrom(_nearestEnemyThatCanShootAtThisUnit, 2);
-//                return true;
                 return AtlantisRunManager.run(unit);
             }
         }
@@ -80,28 +72,7 @@ public abstract class MicroManager {
      * @return <b>true</b> if any of the enemy units can shoot at this unit.
      */
     private boolean isInShootRangeOfAnyEnemyUnit(Unit unit) {
-    	Collection<Unit> enemiesInRange = (Collection<Unit>) Select.enemy().combatUnits().inRadius(12, unit.getPosition()).list();
-        for (Unit enemy : enemiesInRange) {
-            WeaponType enemyWeapon = (unit.getType().isFlyer() ? enemy.getType().airWeapon() : enemy.getType().groundWeapon());
-            double distToEnemy = PositionUtil.distanceTo(unit, enemy);
-            
-            // Compare against max range
-            if (distToEnemy + 0.5 <= enemyWeapon.maxRange()) {
-                _nearestEnemyThatCanShootAtThisUnit = enemy;
-                return true;
-            }
-            
-            // Compare against min range
-//            if () {
-//                distToEnemy >= enemyWeapon.getMinRange()
-//                return true;
-//            }
-        }
-        
-        // =========================================================
-        
-        _nearestEnemyThatCanShootAtThisUnit = null;
-        return false;
+        return ThreatGrid.threatTo(unit) > 0;
     }
 
 }
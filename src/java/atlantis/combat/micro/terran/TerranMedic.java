@@ -3,14 +3,15 @@ package atlantis.combat.micro.terran;
 import atlantis.util.PositionUtil;
 import atlantis.wrappers.Select;
 import atlantis.wrappers.Units;
+import atlantis.wrappers.CommandBuffer;
+import atlantis.wrappers.UnitSideTable;
 import java.util.Collection;
-import java.util.HashMap;
 import bwapi.Unit;
 import bwapi.UnitType;
 
 public class TerranMedic {
     
-    private static HashMap<Unit, Unit> medicsAssignments = new HashMap<>();
+    private static UnitSideTable<Unit> medicsAssignments = new UnitSideTable<>();
     
     // =========================================================
 
@@ -36,7 +37,7 @@ public class TerranMedic {
     // =========================================================
     private static void healUnit(Unit medic, Unit unitToHeal) {
         if (medic.getTarget() == null || !medic.getTarget().equals(unitToHeal)) {
-            medic.rightClick(unitToHeal, false);
+            CommandBuffer.rightClick(medic, unitToHeal);
         }
     }
 
@@ -59,7 +60,7 @@ public class TerranMedic {
             if (nearestRealInfantry != null) {
                 // Check if medic is close to the infantry it should be close to
                 Unit infantryAssignedForThisMedic = getInfantryAssignedForThisMedic(medic);
-                medic.move(infantryAssignedForThisMedic.getPosition());
+                CommandBuffer.move(medic, infantryAssignedForThisMedic.getPosition());
                 return true;
             }
         }
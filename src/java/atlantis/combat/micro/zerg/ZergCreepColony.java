@@ -1,7 +1,7 @@
 package atlantis.combat.micro.zerg;
 
-import atlantis.constructing.ConstructionOrder;
 import atlantis.constructing.position.AtlantisPositionFinder;
+import atlantis.constructing.position.PlacementQuery;
 import atlantis.wrappers.Select;
 import bwapi.Position;
 import bwapi.Unit;
@@ -13,10 +13,11 @@ import bwapi.UnitType;
  */
 public class ZergCreepColony {
 
-    public static Position findPosition(UnitType building, Unit builder, ConstructionOrder constructionOrder) {
+    public static Position findPosition(PlacementQuery query) {
         Unit secondBase = Select.secondBaseOrMainIfNoSecond();
         if (secondBase != null) {
-            return AtlantisPositionFinder.findStandardPosition(builder, building, secondBase.getPosition(), 10);
+            query.searchNear(secondBase.getPosition(), 10);
+            return AtlantisPositionFinder.findStandardPosition(query);
         }
         else {
             return null;
@@ -7,6 +7,7 @@ import atlantis.information.AtlantisMap;
 import atlantis.scout.AtlantisScoutManager;
 import atlantis.util.PositionUtil;
 import atlantis.wrappers.Select;
+import atlantis.wrappers.CommandBuffer;
 import bwapi.Position;
 import bwapi.Unit;
 
@@ -49,7 +50,7 @@ public class ZergOverlordManager {
         Position medianUnitPosition = AtlantisGroupManager.getAlphaGroup().getMedianUnitPosition();
         if (medianUnitPosition != null) {
             if (PositionUtil.distanceTo(medianUnitPosition, overlord.getPosition()) > 2.5) {
-                overlord.move(medianUnitPosition);
+                CommandBuffer.move(overlord, medianUnitPosition);
             }
         }
     }
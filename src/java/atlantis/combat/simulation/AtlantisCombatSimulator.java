@@ -0,0 +1,396 @@
+package atlantis.combat.simulation;
+
+import java.util.ArrayDeque;
+
+import bwapi.UnitType;
+
+/**
+ * Fast, deterministic simulation of a local fight, used to predict its outcome (see
+ * <b>AtlantisCombatEvaluator</b>). Every unit picks the nearest enemy it can shoot at, walks towards it and
+ * attacks when it's in range, taking into account hit points and shields, armor, size and damage types,
+ * weapon cooldowns, ranges, splash and upgrades. Unit stats are read from <b>SimUnitTypes</b>.
+ * <br />
+ * Instances are pooled (see <b>acquire()</b> and <b>release()</b>) and don't allocate anything once
+ * created, so simulations can run in many threads at once.
+ */
+public class AtlantisCombatSimulator {
+
+    public static final int OUR = 0;
+    public static final int ENEMY = 1;
+
+    /**
+     * Max number of units of one side, the rest is ignored.
+     */
+    public static final int MAX_UNITS = 128;
+
+    /**
+     * Damage dealt with a single hit is never lower than half of a hit point.
+     */
+    private static final int MIN_DAMAGE = 128;
+
+    private static final ArrayDeque<AtlantisCombatSimulator> pool = new ArrayDeque<>();
+
+    // Units of both sides, [side][unit]
+    private final int[] counts = new int[2];
+    private final int[][] type = new int[2][MAX_UNITS];
+    private final float[][] x = new float[2][MAX_UNITS];
+    private final float[][] y = new float[2][MAX_UNITS];
+    private final int[][] hitPoints = new int[2][MAX_UNITS];
+    private final int[][] shields = new int[2][MAX_UNITS];
+    private final int[][] cooldown = new int[2][MAX_UNITS];
+    private final int[][] target = new int[2][MAX_UNITS];
+    private final int[][] deathFrame = new int[2][MAX_UNITS];
+
+    /**
+     * Frame of the simulation being computed. Units killed in this frame can still attack in it, so both
+     * sides fight at the same time and neither gets the first shot just because it's stepped first.
+     */
+    private int frame;
+
+    // Values of both sides before and after the simulation, [side][GROUND or AIR units]
+    private final double[][] valueBefore = new double[2][2];
+    private final double[][] valueAfter = new double[2][2];
+
+    // =========================================================
+    // Pool
+    /**
+     * Returns empty simulator, reusing a released one if possible. Thread-safe.
+     */
+    public static AtlantisCombatSimulator acquire() {
+        synchronized (pool) {
+            AtlantisCombatSimulator simulator = pool.pollFirst();
+            if (simulator != null) {
+                simulator.clear();
+                return simulator;
+            }
+        }
+        return new AtlantisCombatSimulator();
+    }
+
+    /**
+     * Returns this simulator to the pool, it mustn't be used afterwards. Thread-safe.
+     */
+    public void release() {
+        synchronized (pool) {
+            pool.addFirst(this);
+        }
+    }
+
+    // =========================================================
+    // Setting up the fight
+    /**
+     * Removes all units.
+     */
+    public void clear() {
+        counts[OUR] = 0;
+        counts[ENEMY] = 0;
+    }
+
+    /**
+     * Adds unit to given side (OUR or ENEMY). Returns false if the side is full or type is unknown.
+     */
+    public boolean addUnit(int side, UnitType unitType, int px, int py, int unitHitPoints, int unitShields) {
+        int t = SimUnitTypes.indexOf(unitType);
+        return t >= 0 && addUnit(side, t, px, py, unitHitPoints, unitShields);
+    }
+
+    /**
+     * Adds unit of type with given index in <b>SimUnitTypes</b>. Returns false if the side is full.
+     */
+    public boolean addUnit(int side, int t, int px, int py, int unitHitPoints, int unitShields) {
+        int n = counts[side];
+        if (n == MAX_UNITS) {
+            return false;
+        }
+        type[side][n] = t;
+        x[side][n] = px;
+        y[side][n] = py;
+        hitPoints[side][n] = Math.max(1, unitHitPoints) << 8;
+        shields[side][n] = Math.max(0, unitShields) << 8;
+        cooldown[side][n] = 0;
+        target[side][n] = -1;
+        deathFrame[side][n] = -1;
+        counts[side]++;
+        return true;
+    }
+
+    /**
+     * Returns number of units of <b>side</b> still alive.
+     */
+    public int getUnitsCount(int side) {
+        return countAlive(side);
+    }
+
+    // =========================================================
+    // Simulation
+    /**
+     * Simulates given number of game frames of the fight.
+     */
+    public void simulate(int frames) {
+        sideValue(OUR, valueBefore[OUR]);
+        sideValue(ENEMY, valueBefore[ENEMY]);
+        for (int side = OUR; side <= ENEMY; side++) {
+            for (int i = 0; i < counts[side]; i++) {
+                deathFrame[side][i] = -1;
+            }
+        }
+
+        for (frame = 0; frame < frames; frame++) {
+            boolean ourActive = step(OUR, ENEMY);
+            boolean enemyActive = step(ENEMY, OUR);
+            if (!ourActive && !enemyActive) {
+                break;
+            }
+            if (countAlive(OUR) == 0 || countAlive(ENEMY) == 0) {
+                break;
+            }
+        }
+
+        sideValue(OUR, valueAfter[OUR]);
+        sideValue(ENEMY, valueAfter[ENEMY]);
+    }
+
+    /**
+     * Lets all units of <b>side</b> move or attack for one frame. Returns false if none of them can do
+     * anything anymore.
+     */
+    private boolean step(int side, int enemySide) {
+        boolean anyActive = false;
+        for (int i = 0; i < counts[side]; i++) {
+            if (hitPoints[side][i] <= 0 && deathFrame[side][i] != frame) {
+                continue;
+            }
+            if (cooldown[side][i] > 0) {
+                cooldown[side][i]--;
+            }
+
+            int t = type[side][i];
+            int e = target[side][i];
+            if (e < 0 || hitPoints[enemySide][e] <= 0) {
+                e = findTarget(side, i, enemySide);
+                target[side][i] = e;
+            }
+            if (e < 0) {
+                continue;
+            }
+            anyActive = true;
+
+            int kind = SimUnitTypes.flyer[type[enemySide][e]] ? SimUnitTypes.AIR : SimUnitTypes.GROUND;
+            float dx = x[enemySide][e] - x[side][i];
+            float dy = y[enemySide][e] - y[side][i];
+            float dist = (float) Math.sqrt(dx * dx + dy * dy);
+            float edgeDist = dist - SimUnitTypes.radius[t] - SimUnitTypes.radius[type[enemySide][e]];
+
+            // Attack
+            if (edgeDist <= SimUnitTypes.maxRange[kind][t]) {
+                if (cooldown[side][i] == 0 && edgeDist >= SimUnitTypes.minRange[kind][t]) {
+                    attack(side, t, kind, enemySide, e);
+                    cooldown[side][i] = SimUnitTypes.cooldown[kind][t];
+                }
+            }
+
+            // Move towards the target
+            else if (SimUnitTypes.speed[t] > 0) {
+                float move = Math.min(SimUnitTypes.speed[t], edgeDist - SimUnitTypes.maxRange[kind][t]);
+                x[side][i] += dx / dist * move;
+                y[side][i] += dy / dist * move;
+            }
+        }
+        return anyActive;
+    }
+
+    /**
+     * Returns index of the nearest enemy unit that unit i of <b>side</b> can shoot at, or -1.
+     */
+    private int findTarget(int side, int i, int enemySide) {
+        int t = type[side][i];
+        boolean canMove = SimUnitTypes.speed[t] > 0;
+        int best = -1;
+        float bestDistSq = Float.MAX_VALUE;
+        for (int e = 0; e < counts[enemySide]; e++) {
+            if (hitPoints[enemySide][e] <= 0) {
+                continue;
+            }
+            int kind = SimUnitTypes.flyer[type[enemySide][e]] ? SimUnitTypes.AIR : SimUnitTypes.GROUND;
+            if (!SimUnitTypes.hasWeapon(t, kind)) {
+                continue;
+            }
+            float dx = x[enemySide][e] - x[side][i];
+            float dy = y[enemySide][e] - y[side][i];
+            float distSq = dx * dx + dy * dy;
+
+            // Units that can't move (e.g. bunkers) only shoot at units in range
+            if (!canMove) {
+                float range = SimUnitTypes.maxRange[kind][t] + SimUnitTypes.radius[t]
+                        + SimUnitTypes.radius[type[enemySide][e]];
+                if (distSq > range * range) {
+                    continue;
+                }
+            }
+            if (distSq < bestDistSq) {
+                bestDistSq = distSq;
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Unit of type <b>t</b> of <b>side</b> attacks unit e of <b>enemySide</b> with its ground or air weapon.
+     */
+    private void attack(int side, int t, int kind, int enemySide, int e) {
+        int upgrade = SimUnitTypes.upgradeLevel(side, SimUnitTypes.weaponUpgrade[kind][t]);
+        int damage = SimUnitTypes.damage[kind][t] + upgrade * SimUnitTypes.damageBonus[kind][t];
+        int hits = SimUnitTypes.hits[kind][t];
+        int splash = SimUnitTypes.outerSplash[kind][t];
+
+        if (splash <= 0) {
+            dealDamage(enemySide, e, damage, hits, SimUnitTypes.damageType[kind][t]);
+            return;
+        }
+
+        // Splash damage: full in the inner radius, 50% in the median and 25% in the outer one
+        float cx = x[enemySide][e];
+        float cy = y[enemySide][e];
+        boolean targetFlyer = SimUnitTypes.flyer[type[enemySide][e]];
+        for (int j = 0; j < counts[enemySide]; j++) {
+            if (hitPoints[enemySide][j] <= 0 || SimUnitTypes.flyer[type[enemySide][j]] != targetFlyer) {
+                continue;
+            }
+            float dx = x[enemySide][j] - cx;
+            float dy = y[enemySide][j] - cy;
+            float dist = (float) Math.sqrt(dx * dx + dy * dy) - SimUnitTypes.radius[type[enemySide][j]];
+            int percent;
+            if (j == e || dist <= SimUnitTypes.innerSplash[kind][t]) {
+                percent = 100;
+            }
+            else if (dist <= SimUnitTypes.medianSplash[kind][t]) {
+                percent = 50;
+            }
+            else if (dist <= splash) {
+                percent = 25;
+            }
+            else {
+                continue;
+            }
+            dealDamage(enemySide, j, damage * percent / 100, hits, SimUnitTypes.damageType[kind][t]);
+        }
+    }
+
+    /**
+     * Applies <b>hits</b> hits of <b>damage</b> each to unit j of <b>side</b>. Shields absorb damage first
+     * and aren't affected by size; armor and size modifiers apply only to damage dealt to hit points.
+     */
+    private void dealDamage(int side, int j, int damage, int hits, int damageType) {
+        int t = type[side][j];
+        int unitArmor = damageType == SimUnitTypes.DAMAGE_IGNORE_ARMOR ? 0
+                : (SimUnitTypes.armor[t] + SimUnitTypes.upgradeLevel(side, SimUnitTypes.armorUpgrade[t])) << 8;
+        int shieldArmor = SimUnitTypes.shieldsUpgradeLevel[side] << 8;
+        int percent = SimUnitTypes.DAMAGE_PERCENT[damageType][SimUnitTypes.size[t]];
+
+        for (int h = 0; h < hits && hitPoints[side][j] > 0; h++) {
+            int left = damage;
+            if (shields[side][j] > 0) {
+                left = Math.max(MIN_DAMAGE, left - shieldArmor);
+                int absorbed = Math.min(shields[side][j], left);
+                shields[side][j] -= absorbed;
+                left -= absorbed;
+                if (left == 0) {
+                    continue;
+                }
+            }
+            hitPoints[side][j] -= Math.max(MIN_DAMAGE, (left - unitArmor) * percent / 100);
+            if (hitPoints[side][j] <= 0) {
+                deathFrame[side][j] = frame;
+            }
+        }
+    }
+
+    /**
+     * Returns number of units of <b>side</b> that are still alive. Dead units are kept in the arrays, so
+     * that targets (indices of units) stay valid.
+     */
+    private int countAlive(int side) {
+        int alive = 0;
+        for (int i = 0; i < counts[side]; i++) {
+            if (hitPoints[side][i] > 0) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+
+    // =========================================================
+    // Results
+    /**
+     * Computes value of the side: sum of costs of its units, each multiplied by the fraction of hit points
+     * and shields it has left. Values of ground and air units are put separately into <b>values</b>.
+     */
+    private void sideValue(int side, double[] values) {
+        values[SimUnitTypes.GROUND] = 0;
+        values[SimUnitTypes.AIR] = 0;
+        for (int i = 0; i < counts[side]; i++) {
+            int t = type[side][i];
+            if (hitPoints[side][i] <= 0) {
+                continue;
+            }
+            double health = (double) (hitPoints[side][i] + shields[side][i])
+                    / Math.max(1, SimUnitTypes.maxHitPoints[t] + SimUnitTypes.maxShields[t]);
+            int kind = SimUnitTypes.flyer[t] ? SimUnitTypes.AIR : SimUnitTypes.GROUND;
+            values[kind] += Math.max(1, SimUnitTypes.value[t]) * Math.min(1, health);
+        }
+    }
+
+    public double getValueBefore(int side) {
+        return valueBefore[side][SimUnitTypes.GROUND] + valueBefore[side][SimUnitTypes.AIR];
+    }
+
+    public double getValueAfter(int side) {
+        return valueAfter[side][SimUnitTypes.GROUND] + valueAfter[side][SimUnitTypes.AIR];
+    }
+
+    /**
+     * Returns true if any unit lost hit points or shields in the last simulation.
+     */
+    public boolean anyLosses() {
+        return getValueAfter(OUR) < getValueBefore(OUR) || getValueAfter(ENEMY) < getValueBefore(ENEMY);
+    }
+
+    /**
+     * Returns result of the last simulation on the scale of <b>AtlantisCombatEvaluator</b>: zero when both
+     * sides lost the same fraction of their value, positive when the enemy lost more. If we lost everything
+     * it's -1, if the enemy did it's at most <b>maxEvaluation</b>, if both sides did it's zero.
+     */
+    public double evaluate(double maxEvaluation) {
+        return evaluate(getValueBefore(OUR), getValueAfter(OUR), maxEvaluation);
+    }
+
+    /**
+     * Returns result of the last simulation like <b>evaluate(maxEvaluation)</b>, but from the point of view
+     * of only our air units (<b>flyers</b>) or only our ground units, e.g. our air units don't lose anything
+     * against enemy that can't shoot up. If we had no such units, result for all of them is returned.
+     */
+    public double evaluate(boolean flyers, double maxEvaluation) {
+        int kind = flyers ? SimUnitTypes.AIR : SimUnitTypes.GROUND;
+        if (valueBefore[OUR][kind] <= 0) {
+            return evaluate(maxEvaluation);
+        }
+        return evaluate(valueBefore[OUR][kind], valueAfter[OUR][kind], maxEvaluation);
+    }
+
+    private double evaluate(double ourBefore, double ourAfter, double maxEvaluation) {
+        if (ourBefore <= 0) {
+            return -1;
+        }
+        if (getValueBefore(ENEMY) <= 0) {
+            return maxEvaluation;
+        }
+        double ourFraction = ourAfter / ourBefore;
+        double enemyFraction = getValueAfter(ENEMY) / getValueBefore(ENEMY);
+        if (enemyFraction <= 0) {
+            return ourFraction <= 0 ? 0 : maxEvaluation;
+        }
+        return Math.min(maxEvaluation, ourFraction / enemyFraction - 1);
+    }
+
+}
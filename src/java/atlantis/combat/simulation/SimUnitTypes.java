@@ -0,0 +1,294 @@
+package atlantis.combat.simulation;
+
+import atlantis.AtlantisGame;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import bwapi.DamageType;
+import bwapi.Player;
+import bwapi.UnitSizeType;
+import bwapi.UnitType;
+import bwapi.UpgradeType;
+import bwapi.WeaponType;
+
+/**
+ * Stats of all unit types used by <b>AtlantisCombatSimulator</b>, copied from UnitType and WeaponType into
+ * primitive arrays once at the start of the match (see <b>load()</b>). Types are identified by
+ * <b>UnitType.getDataIndex()</b>; synthetic types (for benchmarks) can be appended with <b>addType</b>.
+ * <br />
+ * Hit points, shields and damage are stored in 1/256 of a hit point, like in StarCraft itself.
+ */
+public class SimUnitTypes {
+
+    public static final int GROUND = 0;
+    public static final int AIR = 1;
+
+    public static final int SIZE_SMALL = 0;
+    public static final int SIZE_MEDIUM = 1;
+    public static final int SIZE_LARGE = 2;
+
+    public static final int DAMAGE_NORMAL = 0;
+    public static final int DAMAGE_CONCUSSIVE = 1;
+    public static final int DAMAGE_EXPLOSIVE = 2;
+    public static final int DAMAGE_IGNORE_ARMOR = 3;
+
+    /**
+     * Percent of damage dealt by damage type [DAMAGE_*] to unit size [SIZE_*].
+     */
+    static final int[][] DAMAGE_PERCENT = {
+        {100, 100, 100},
+        {100, 50, 25},
+        {50, 75, 100},
+        {100, 100, 100}
+    };
+
+    private static int count = 0;
+
+    static int[] maxHitPoints = new int[0];
+    static int[] maxShields = new int[0];
+    static int[] armor = new int[0];
+    static int[] size = new int[0];
+    static boolean[] flyer = new boolean[0];
+    static float[] speed = new float[0];
+    static int[] radius = new int[0];
+    static int[] value = new int[0];
+    static int[] armorUpgrade = new int[0];
+
+    // Weapons, [GROUND or AIR][type]; damage is per hit, one attack makes <b>hits</b> hits
+    static int[][] damage = new int[2][0];
+    static int[][] damageBonus = new int[2][0];
+    static int[][] hits = new int[2][0];
+    static int[][] cooldown = new int[2][0];
+    static int[][] minRange = new int[2][0];
+    static int[][] maxRange = new int[2][0];
+    static int[][] damageType = new int[2][0];
+    static int[][] innerSplash = new int[2][0];
+    static int[][] medianSplash = new int[2][0];
+    static int[][] outerSplash = new int[2][0];
+    static int[][] weaponUpgrade = new int[2][0];
+
+    /**
+     * Upgrades that affect any weapon or armor, and their levels for our side [0] and enemy side [1].
+     */
+    private static UpgradeType[] upgrades = new UpgradeType[0];
+    static int[][] upgradeLevels = new int[2][0];
+    static int[] shieldsUpgradeLevel = new int[2];
+
+    // =========================================================
+    // Loading
+    /**
+     * Copies stats of all loaded unit types, must be called after <b>UnitType.loadTypeData()</b>.
+     */
+    public static void load() {
+        UnitType[] types = UnitType.getLoadedTypes();
+        List<UpgradeType> upgradesFound = new ArrayList<>();
+        resize(types.length);
+        count = types.length;
+
+        for (UnitType type : types) {
+            int t = type.getDataIndex();
+            maxHitPoints[t] = type.maxHitPoints() << 8;
+            maxShields[t] = type.maxShields() << 8;
+            armor[t] = type.armor();
+            size[t] = sizeOf(type.size());
+            flyer[t] = type.isFlyer();
+            speed[t] = type.isBuilding() ? 0 : (float) type.topSpeed();
+            radius[t] = Math.max(type.width(), type.height()) / 2;
+            value[t] = type.mineralPrice() + type.gasPrice();
+            armorUpgrade[t] = upgradeIndex(type.armorUpgrade(), upgradesFound);
+
+            // Units that don't attack with their own weapons
+            if (type.equals(UnitType.Terran_Bunker)) {
+                loadWeapon(GROUND, t, UnitType.Terran_Marine.groundWeapon(), 4, 32, upgradesFound);
+                loadWeapon(AIR, t, UnitType.Terran_Marine.airWeapon(), 4, 32, upgradesFound);
+            }
+            else if (type.equals(UnitType.Protoss_Reaver)) {
+                loadWeapon(GROUND, t, WeaponType.Scarab, 1, 0, upgradesFound);
+                loadWeapon(AIR, t, WeaponType.None, 1, 0, upgradesFound);
+            }
+            else if (type.equals(UnitType.Protoss_Carrier)) {
+                loadWeapon(GROUND, t, UnitType.Protoss_Interceptor.groundWeapon(), 8, 8 * 32, upgradesFound);
+                loadWeapon(AIR, t, UnitType.Protoss_Interceptor.airWeapon(), 8, 8 * 32, upgradesFound);
+            }
+            else {
+                loadWeapon(GROUND, t, type.groundWeapon(), 1, 0, upgradesFound);
+                loadWeapon(AIR, t, type.airWeapon(), 1, 0, upgradesFound);
+            }
+        }
+
+        upgrades = upgradesFound.toArray(new UpgradeType[upgradesFound.size()]);
+        upgradeLevels = new int[2][upgrades.length];
+        shieldsUpgradeLevel = new int[2];
+    }
+
+    private static void loadWeapon(int kind, int t, WeaponType weapon, int multiplier, int extraRange,
+            List<UpgradeType> upgradesFound) {
+        if (weapon == null || weapon.equals(WeaponType.None) || weapon.damageAmount() <= 0) {
+            setWeapon(kind, t, 0, 0, 0, 0, 0, 0, DAMAGE_NORMAL, 0, 0, 0, -1);
+            return;
+        }
+        setWeapon(kind, t, weapon.damageAmount(), weapon.damageBonus(), weapon.damageFactor() * multiplier,
+                weapon.damageCooldown(), weapon.minRange(), weapon.maxRange() + extraRange,
+                damageTypeOf(weapon.damageType()), weapon.innerSplashRadius(), weapon.medianSplashRadius(),
+                weapon.outerSplashRadius(), upgradeIndex(weapon.upgradeType(), upgradesFound));
+    }
+
+    /**
+     * Appends synthetic unit type with one weapon used against both ground and air units (if
+     * <b>weaponDamage</b> is positive) and returns its index. Used to simulate armies without StarCraft.
+     */
+    public static int addType(int hitPoints, int shields, int unitArmor, int unitSize, boolean isFlyer,
+            float topSpeed, int unitValue, int weaponDamage, int weaponCooldown, int weaponRange) {
+        return addType(hitPoints, shields, unitArmor, unitSize, isFlyer, topSpeed, unitValue, weaponDamage,
+                weaponCooldown, weaponRange, true, true);
+    }
+
+    /**
+     * Appends synthetic unit type like <b>addType</b> above, but its weapon can be used only against ground
+     * units (<b>hitsGround</b>), only against air units (<b>hitsAir</b>) or both.
+     */
+    public static int addType(int hitPoints, int shields, int unitArmor, int unitSize, boolean isFlyer,
+            float topSpeed, int unitValue, int weaponDamage, int weaponCooldown, int weaponRange,
+            boolean hitsGround, boolean hitsAir) {
+        int t = count;
+        resize(count + 1);
+        count++;
+        maxHitPoints[t] = hitPoints << 8;
+        maxShields[t] = shields << 8;
+        armor[t] = unitArmor;
+        size[t] = unitSize;
+        flyer[t] = isFlyer;
+        speed[t] = topSpeed;
+        radius[t] = 8;
+        value[t] = unitValue;
+        armorUpgrade[t] = -1;
+        for (int kind = GROUND; kind <= AIR; kind++) {
+            int kindDamage = (kind == GROUND ? hitsGround : hitsAir) ? weaponDamage : 0;
+            setWeapon(kind, t, kindDamage, 0, kindDamage > 0 ? 1 : 0, weaponCooldown, 0, weaponRange,
+                    DAMAGE_NORMAL, 0, 0, 0, -1);
+        }
+        return t;
+    }
+
+    private static void setWeapon(int kind, int t, int weaponDamage, int bonus, int weaponHits, int weaponCooldown,
+            int weaponMinRange, int weaponMaxRange, int type, int inner, int median, int outer, int upgrade) {
+        damage[kind][t] = weaponDamage << 8;
+        damageBonus[kind][t] = bonus << 8;
+        hits[kind][t] = weaponHits;
+        cooldown[kind][t] = Math.max(1, weaponCooldown);
+        minRange[kind][t] = weaponMinRange;
+        maxRange[kind][t] = weaponMaxRange;
+        damageType[kind][t] = type;
+        innerSplash[kind][t] = inner;
+        medianSplash[kind][t] = median;
+        outerSplash[kind][t] = outer;
+        weaponUpgrade[kind][t] = upgrade;
+    }
+
+    // =========================================================
+    // Upgrades
+    /**
+     * Reads levels of weapon, armor and shield upgrades of both players. Must be called in the main thread,
+     * not while a simulation is running.
+     */
+    public static void updateUpgradeLevels() {
+        Player[] players = {AtlantisGame.getPlayerUs(), AtlantisGame.getEnemy()};
+        for (int side = 0; side < 2; side++) {
+            for (int u = 0; u < upgrades.length; u++) {
+                upgradeLevels[side][u] = players[side].getUpgradeLevel(upgrades[u]);
+            }
+            shieldsUpgradeLevel[side] = players[side].getUpgradeLevel(UpgradeType.Protoss_Plasma_Shields);
+        }
+    }
+
+    static int upgradeLevel(int side, int upgrade) {
+        return upgrade < 0 ? 0 : upgradeLevels[side][upgrade];
+    }
+
+    // =========================================================
+    // Helpers
+    /**
+     * Returns true if stats of unit types have been loaded.
+     */
+    public static boolean isLoaded() {
+        return count > 0;
+    }
+
+    /**
+     * Returns index of given type in the tables or -1 if it's unknown.
+     */
+    public static int indexOf(UnitType type) {
+        int t = type.getDataIndex();
+        return t < count ? t : -1;
+    }
+
+    static boolean hasWeapon(int t, int kind) {
+        return hits[kind][t] > 0;
+    }
+
+    private static int upgradeIndex(UpgradeType upgrade, List<UpgradeType> upgradesFound) {
+        if (upgrade == null || upgrade.equals(UpgradeType.None) || upgrade.equals(UpgradeType.Unknown)) {
+            return -1;
+        }
+        int index = upgradesFound.indexOf(upgrade);
+        if (index < 0) {
+            upgradesFound.add(upgrade);
+            index = upgradesFound.size() - 1;
+        }
+        return index;
+    }
+
+    private static int sizeOf(UnitSizeType unitSize) {
+        if (UnitSizeType.Large.equals(unitSize)) {
+            return SIZE_LARGE;
+        }
+        else if (UnitSizeType.Medium.equals(unitSize)) {
+            return SIZE_MEDIUM;
+        }
+        return SIZE_SMALL;
+    }
+
+    private static int damageTypeOf(DamageType type) {
+        if (DamageType.Concussive.equals(type)) {
+            return DAMAGE_CONCUSSIVE;
+        }
+        else if (DamageType.Explosive.equals(type)) {
+            return DAMAGE_EXPLOSIVE;
+        }
+        else if (DamageType.Ignore_Armor.equals(type)) {
+            return DAMAGE_IGNORE_ARMOR;
+        }
+        return DAMAGE_NORMAL;
+    }
+
+    private static void resize(int length) {
+        if (maxHitPoints.length >= length) {
+            return;
+        }
+        length = Math.max(length, 2 * maxHitPoints.length);
+        maxHitPoints = Arrays.copyOf(maxHitPoints, length);
+        maxShields = Arrays.copyOf(maxShields, length);
+        armor = Arrays.copyOf(armor, length);
+        size = Arrays.copyOf(size, length);
+        flyer = Arrays.copyOf(flyer, length);
+        speed = Arrays.copyOf(speed, length);
+        radius = Arrays.copyOf(radius, length);
+        value = Arrays.copyOf(value, length);
+        armorUpgrade = Arrays.copyOf(armorUpgrade, length);
+        for (int kind = GROUND; kind <= AIR; kind++) {
+            damage[kind] = Arrays.copyOf(damage[kind], length);
+            damageBonus[kind] = Arrays.copyOf(damageBonus[kind], length);
+            hits[kind] = Arrays.copyOf(hits[kind], length);
+            cooldown[kind] = Arrays.copyOf(cooldown[kind], length);
+            minRange[kind] = Arrays.copyOf(minRange[kind], length);
+            maxRange[kind] = Arrays.copyOf(maxRange[kind], length);
+            damageType[kind] = Arrays.copyOf(damageType[kind], length);
+            innerSplash[kind] = Arrays.copyOf(innerSplash[kind], length);
+            medianSplash[kind] = Arrays.copyOf(medianSplash[kind], length);
+            outerSplash[kind] = Arrays.copyOf(outerSplash[kind], length);
+            weaponUpgrade[kind] = Arrays.copyOf(weaponUpgrade[kind], length);
+        }
+    }
+
+}
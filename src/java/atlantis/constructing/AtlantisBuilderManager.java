@@ -2,7 +2,10 @@ package atlantis.constructing;
 
 import atlantis.AtlantisGame;
 import atlantis.constructing.position.AbstractPositionFinder;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.util.PositionUtil;
+import atlantis.wrappers.CommandBuffer;
 import bwapi.Position;
 import bwapi.Unit;
 import bwapi.UnitType;
@@ -11,7 +14,7 @@ public class AtlantisBuilderManager {
 
     public static void update(Unit builder) {
         if (builder == null) {
-            System.err.println("builder null in ABM.update()");
+            AtlantisLog.error(Category.CONSTRUCTION, "builder null in ABM.update()");
             return;
         }
 
@@ -41,7 +44,7 @@ public class AtlantisBuilderManager {
                 // Do nothing
             }
         } else {
-            System.err.println("constructionOrder null for " + builder);
+            AtlantisLog.warn(Category.CONSTRUCTION, "constructionOrder null for", builder);
         }
     }
 
@@ -55,7 +58,7 @@ public class AtlantisBuilderManager {
         }
         if (buildPosition == null) {
 //            throw new RuntimeException("buildPosition empty");
-            System.err.println("buildPosition is null (travelToConstruct " + buildingType + ")");
+            AtlantisLog.warn(Category.CONSTRUCTION, "buildPosition is null in travelToConstruct for", buildingType);
             constructionOrder.cancel();
             return;
         }
@@ -64,7 +67,7 @@ public class AtlantisBuilderManager {
         //TODO: check possible confusion with Position and TilePosition here
         buildPosition = PositionUtil.translate(buildPosition, buildingType.tileWidth() * 16, buildingType.tileHeight() * 16);
         if (!builder.isMoving() && !builder.isConstructing() && PositionUtil.distanceTo(builder.getPosition(), buildPosition) > 0.15) {
-            builder.move(buildPosition, false);
+            CommandBuffer.move(builder, buildPosition);
         } // Unit is already at the build position, issue build order
         // If we can afford to construct this building exactly right now, issue build order which should
         // be immediate as unit is standing just right there
@@ -75,7 +78,7 @@ public class AtlantisBuilderManager {
             }
 
             if (buildPosition != null && !builder.isConstructing()) {
-                builder.build(buildingType, buildPosition.toTilePosition());
+                CommandBuffer.build(builder, buildingType, buildPosition.toTilePosition());
             }
         }
 
@@ -3,11 +3,17 @@ package atlantis.constructing;
 import atlantis.AtlantisConfig;
 import atlantis.AtlantisGame;
 import atlantis.constructing.position.AtlantisPositionFinder;
+import atlantis.constructing.position.PlacementGrid;
+import atlantis.constructing.position.PlacementQuery;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.information.AtlantisUnitInformationManager;
 import atlantis.production.ProductionOrder;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.Select;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import bwapi.Position;
 import bwapi.Unit;
@@ -59,7 +65,7 @@ public class AtlantisConstructingManager {
 
         if (newConstructionOrder.getBuilder() == null) {
             if (AtlantisGame.getSupplyUsed() >= 7) {
-                System.err.println("Builder is null, got damn it!");
+                AtlantisLog.warn(Category.CONSTRUCTION, "Builder is null, got damn it!");
             }
             return;
         }
@@ -86,12 +92,11 @@ public class AtlantisConstructingManager {
             // Add to list of pending orders
             constructionOrders.add(newConstructionOrder);
 
-            // Rebuild production queue as new building is about to be built
-            AtlantisGame.getProductionStrategy().rebuildQueue();
+            // Update production queue as new building is about to be built
+            AtlantisGame.getProductionStrategy().unitCountChanged(building);
         } // Couldn't find place for building! That's f'g bad.
         else {
-            System.err.println("requestConstruction `" + building + "` FAILED! POSITION: " + positionToBuild
-                    + " / BUILDER = " + optimalBuilder);
+            AtlantisLog.warn(Category.CONSTRUCTION, "requestConstruction FAILED, no position for", building);
         }
     }
 
@@ -101,8 +106,10 @@ public class AtlantisConstructingManager {
      * finished objects etc.
      */
     public static void update() {
+        Map<ConstructionOrder, PlacementQuery> placementQueries = preparePlacementQueries();
         for (ConstructionOrder constructionOrder : constructionOrders) {
-            checkForConstructionStatusChange(constructionOrder, constructionOrder.getConstruction());
+            checkForConstructionStatusChange(constructionOrder, constructionOrder.getConstruction(),
+                    placementQueries.get(constructionOrder));
 
             // When playing as Terran, it's possible that SCV gets killed and we should send another unit to
             // finish the construction.
@@ -120,6 +127,23 @@ public class AtlantisConstructingManager {
     }
     
     // =========================================================
+    /**
+     * Creates queries for positions of constructions that haven't started yet and prepares them in parallel,
+     * so only the final checks are done when orders are updated one by one.
+     */
+    private static Map<ConstructionOrder, PlacementQuery> preparePlacementQueries() {
+        Map<ConstructionOrder, PlacementQuery> queries = new HashMap<>();
+        for (ConstructionOrder constructionOrder : constructionOrders) {
+            if (constructionOrder.getStatus() == ConstructionOrderStatus.CONSTRUCTION_NOT_STARTED
+                    && constructionOrder.getConstruction() == null) {
+                queries.put(constructionOrder, new PlacementQuery(constructionOrder.getBuilder(),
+                        constructionOrder.getBuildingType(), constructionOrder));
+            }
+        }
+        AtlantisPositionFinder.prepareAll(new ArrayList<>(queries.values()));
+        return queries;
+    }
+
     /**
      * If builder has died when constructing, replace him with new one.
      */
@@ -130,9 +154,11 @@ public class AtlantisConstructingManager {
     }
 
     /**
-     * If building is completed, mark construction as finished and remove it.
+     * If building is completed, mark construction as finished and remove it. <b>placementQuery</b> (can be
+     * null) is used to find position if construction hasn't started yet.
      */
-    private static void checkForConstructionStatusChange(ConstructionOrder constructionOrder, Unit building) {
+    private static void checkForConstructionStatusChange(ConstructionOrder constructionOrder, Unit building,
+            PlacementQuery placementQuery) {
 //        System.out.println("==============");
 //        System.out.println(constructionOrder.getBuildingType());
 //        System.out.println(constructionOrder.getStatus());
@@ -193,9 +219,11 @@ public class AtlantisConstructingManager {
             }
         } // Building doesn't exist yet, means builder is travelling to the construction place
         else {
-            Position positionToBuild = AtlantisPositionFinder.getPositionForNew(
-                    constructionOrder.getBuilder(), constructionOrder.getBuildingType(), constructionOrder
-            );
+            if (placementQuery == null) {
+                placementQuery = new PlacementQuery(constructionOrder.getBuilder(),
+                        constructionOrder.getBuildingType(), constructionOrder);
+            }
+            Position positionToBuild = AtlantisPositionFinder.find(placementQuery);
             constructionOrder.setPositionToBuild(positionToBuild);
         }
     }
@@ -205,6 +233,8 @@ public class AtlantisConstructingManager {
      */
     protected static void removeOrder(ConstructionOrder constructionOrder) {
         constructionOrders.remove(constructionOrder);
+        PlacementGrid.release(constructionOrder);
+        AtlantisGame.getProductionStrategy().unitCountChanged(constructionOrder.getBuildingType());
     }
 
     // =========================================================no
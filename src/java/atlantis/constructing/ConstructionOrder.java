@@ -1,7 +1,10 @@
 package atlantis.constructing;
 
+import atlantis.AtlantisGame;
 import atlantis.constructing.position.AtlantisPositionFinder;
+import atlantis.constructing.position.PlacementGrid;
 import atlantis.production.ProductionOrder;
+import atlantis.wrappers.CommandBuffer;
 import atlantis.wrappers.Select;
 import bwapi.Position;
 import bwapi.Unit;
@@ -67,7 +70,7 @@ public class ConstructionOrder implements Comparable<ConstructionOrder> {
         }
         
         if (builder != null) {
-            builder.stop(false);
+            CommandBuffer.stop(builder);
             builder = null;
         }
         
@@ -134,7 +137,18 @@ public class ConstructionOrder implements Comparable<ConstructionOrder> {
     }
 
     public void setStatus(ConstructionOrderStatus status) {
+        boolean changed = this.status != status;
         this.status = status;
+        
+        // Once construction has started, the building itself occupies the place
+        if (status != ConstructionOrderStatus.CONSTRUCTION_NOT_STARTED) {
+            PlacementGrid.release(this);
+        }
+        
+        // Not started constructions are counted in the production queue
+        if (changed) {
+            AtlantisGame.getProductionStrategy().unitCountChanged(buildingType);
+        }
     }
 
     public Position getPositionToBuild() {
@@ -143,6 +157,9 @@ public class ConstructionOrder implements Comparable<ConstructionOrder> {
 
     public void setPositionToBuild(Position positionToBuild) {
         this.positionToBuild = positionToBuild;
+        if (status == ConstructionOrderStatus.CONSTRUCTION_NOT_STARTED) {
+            PlacementGrid.reserve(this, buildingType, positionToBuild);
+        }
     }
 
     public Unit getConstruction() {
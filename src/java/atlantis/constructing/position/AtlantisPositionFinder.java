@@ -3,18 +3,19 @@ package atlantis.constructing.position;
 import atlantis.AtlantisGame;
 import atlantis.combat.micro.zerg.ZergCreepColony;
 import atlantis.constructing.ConstructionOrder;
-import atlantis.util.UnitUtil;
+import atlantis.debug.AtlantisTimings;
+import atlantis.util.WorkerPool;
 import atlantis.wrappers.Select;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
 import bwapi.Position;
 import bwapi.Unit;
 import bwapi.UnitType;
 
 public class AtlantisPositionFinder {
 
-    protected static UnitType building;
-    protected static Position nearTo;
-    protected static double maxDistance;
-
     // =========================================================
     
     /**
@@ -31,6 +32,87 @@ public class AtlantisPositionFinder {
      */
     public static Position getPositionForNew(Unit builder, UnitType building, 
             ConstructionOrder constructionOrder, Position nearTo, double maxDistance) {
+        return find(new PlacementQuery(builder, building, constructionOrder, nearTo, maxDistance));
+    }
+
+    /**
+     * Runs given query and returns found position (also available as <b>query.getResult()</b>). Places found
+     * by <b>prepare</b> are checked first. Must be called in the main thread.
+     */
+    public static Position find(PlacementQuery query) {
+        long start = System.nanoTime();
+        Position position = null;
+        for (Position candidate : query.getCandidates()) {
+            if (isPositionValid(query, candidate)) {
+                position = candidate;
+                break;
+            }
+        }
+        if (position == null) {
+            position = findPositionForNew(query);
+        }
+        query.setResult(position);
+        AtlantisTimings.POSITION_FINDING.recordSince(start);
+        return position;
+    }
+
+    /**
+     * Prepares given queries in parallel: collects places that are free according to PlacementGrid, so
+     * <b>find</b> only has to confirm them. Must be called in the main thread, as the grid can't change when
+     * queries are being prepared.
+     * <br />
+     * Only Terran places are prepared. Protoss and Zerg places depend on power and creep, which can only be
+     * read from BWAPI in the main thread, so most of prepared places would be rejected anyway.
+     */
+    public static void prepareAll(List<PlacementQuery> queries) {
+        if (!AtlantisGame.playsAsTerran()) {
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        PlacementQuery singleQuery = null;
+        for (final PlacementQuery query : queries) {
+            if (isSpecialBuilding(query.getBuilding()) || !resolveSearchArea(query)) {
+                continue;
+            }
+            singleQuery = query;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    prepare(query);
+                    return null;
+                }
+            });
+        }
+
+        // Single query isn't worth handing over to another thread
+        if (tasks.size() == 1) {
+            prepare(singleQuery);
+        }
+        else if (tasks.size() > 1) {
+            WorkerPool.get().invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Collects places for standard building that are free according to PlacementGrid, without touching BWAPI.
+     * Search area must be resolved already.
+     */
+    private static void prepare(PlacementQuery query) {
+        query.startPreparing();
+        try {
+            if (BaseLayoutPlanner.findPlannedPosition(query) == null) {
+                findStandardPosition(query);
+            }
+        } finally {
+            query.stopPreparing();
+        }
+    }
+
+    // =========================================================
+
+    private static Position findPositionForNew(PlacementQuery query) {
+        UnitType building = query.getBuilding();
 
         // =========================================================
         // Buildings extracting GAS
@@ -41,50 +123,90 @@ public class AtlantisPositionFinder {
         // =========================================================
         // BASE
         else if (building.isBase()) {
-            return AtlantisSpecialPositionFinder.findPositionForBase(building, builder, constructionOrder);
+            return AtlantisSpecialPositionFinder.findPositionForBase(query);
         } 
 
         // =========================================================
         // BASE
         else if (building.equals(UnitType.Zerg_Creep_Colony)) {
-            return ZergCreepColony.findPosition(building, builder, constructionOrder);
+            return ZergCreepColony.findPosition(query);
         } 
 
         // =========================================================
         // STANDARD BUILDINGS
         else {
 
-            // If we didn't specify location where to build, build somewhere near the main base
-            if (nearTo == null) {
-                nearTo = Select.mainBase().getPosition();
-            }
-
-            // If all of our bases have been destroyed, build somewhere near our first unit alive
-            if (nearTo == null) {
-                nearTo = Select.our().first().getPosition();
-            }
-
             // Hopeless case, all units have died, just quit.
-            if (nearTo == null) {
+            if (!resolveSearchArea(query)) {
                 return null;
             }
 
-            if (maxDistance < 0) {
-                maxDistance = 50;
+            // =========================================================
+            // Slot planned at the start of the game, if there's a free one
+            Position plannedPosition = BaseLayoutPlanner.findPlannedPosition(query);
+            if (plannedPosition != null) {
+                return plannedPosition;
             }
 
             // =========================================================
             // Standard place
-            return findStandardPosition(builder, building, nearTo, maxDistance);
+            return findStandardPosition(query);
         }
     }
+
+    private static boolean isSpecialBuilding(UnitType building) {
+        return building.isGasBuilding() || building.isBase() || building.equals(UnitType.Zerg_Creep_Colony);
+    }
+
+    /**
+     * Fills in default search area of the query, if it's not specified: near the main base, not further than 50
+     * build tiles. Returns false if there's no place to search near to.
+     */
+    private static boolean resolveSearchArea(PlacementQuery query) {
+        Position nearTo = query.getNearTo();
+        double maxDistance = query.getMaxDistance();
+
+        // If we didn't specify location where to build, build somewhere near the main base
+        if (nearTo == null && Select.mainBase() != null) {
+            nearTo = Select.mainBase().getPosition();
+        }
+
+        // If all of our bases have been destroyed, build somewhere near our first unit alive
+        if (nearTo == null && Select.our().first() != null) {
+            nearTo = Select.our().first().getPosition();
+        }
+
+        if (maxDistance < 0) {
+            maxDistance = 50;
+        }
+
+        query.searchNear(nearTo, maxDistance);
+        return nearTo != null;
+    }
     
     // =========================================================
     
     /**
-     * Returns standard build position for building near given position.
+     * Returns true if building of the query can be placed at given position, according to the rules of our
+     * race. When query is being prepared, it only checks PlacementGrid and remembers the place.
+     */
+    protected static boolean isPositionValid(PlacementQuery query, Position position) {
+        if (AtlantisGame.playsAsTerran()) {
+            return TerranPositionFinder.doesPositionFulfillAllConditions(query, position);
+        }
+        else if (AtlantisGame.playsAsProtoss()) {
+            return ProtossPositionFinder.doesPositionFulfillAllConditions(query, position);
+        }
+        else if (AtlantisGame.playsAsZerg()) {
+            return ZergPositionFinder.doesPositionFulfillAllConditions(query, position);
+        }
+        return false;
+    }
+    
+    /**
+     * Returns standard build position for building of the query, near its <b>nearTo</b> position.
      */
-    public static Position findStandardPosition(Unit builder, UnitType building, Position nearTo, double maxDistance) {
+    public static Position findStandardPosition(PlacementQuery query) {
         
         // =========================================================
         // Handle standard building position according to the race as every race uses completely different approach
@@ -92,13 +214,13 @@ public class AtlantisPositionFinder {
         
         // Terran
         if (AtlantisGame.playsAsTerran()) {
-            return TerranPositionFinder.findStandardPositionFor(builder, building, nearTo, maxDistance);
+            return TerranPositionFinder.findStandardPositionFor(query);
         } // Protoss
         else if (AtlantisGame.playsAsProtoss()) {
-            return ProtossPositionFinder.findStandardPositionFor(builder, building, nearTo, maxDistance);
+            return ProtossPositionFinder.findStandardPositionFor(query);
         } // Zerg
         else if (AtlantisGame.playsAsZerg()) {
-            return ZergPositionFinder.findStandardPositionFor(builder, building, nearTo, maxDistance);
+            return ZergPositionFinder.findStandardPositionFor(query);
         }
         else {
             System.err.println("Invalid race: " + AtlantisGame.getPlayerUs().getRace());
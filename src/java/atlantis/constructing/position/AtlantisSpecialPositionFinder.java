@@ -45,24 +45,25 @@ public class AtlantisSpecialPositionFinder {
      * Returns build position for next base. It will usually be next free BaseLocation that doesn't have base
      * built.
      */
-    public static Position findPositionForBase(UnitType building, Unit builder, ConstructionOrder constructionOrder) {
+    public static Position findPositionForBase(PlacementQuery query) {
+        ConstructionOrder constructionOrder = query.getConstructionOrder();
 //        String mode = "NEAREST_FREE";
 //        String mode = "NEAR_MAIN";
-        String mode = constructionOrder.getProductionOrder() != null ? 
+        String mode = constructionOrder != null && constructionOrder.getProductionOrder() != null ? 
                 constructionOrder.getProductionOrder().getModifier() : null;
         
         if (mode != null) {
             if (mode.equals(NEW_BASE_NEAR_MAIN)) {
-                return findPositionForBase_nearestMainBase(building, builder);
+                return findPositionForBase_nearestMainBase(query);
             }
         }
         
-        return findPositionForBase_nearestFreeBase(building, builder);
+        return findPositionForBase_nearestFreeBase(query);
     }
 
     // =========================================================
     
-    private static Position findPositionForBase_nearestFreeBase(UnitType building, Unit builder) {
+    private static Position findPositionForBase_nearestFreeBase(PlacementQuery query) {
         BaseLocation baseLocationToExpand = AtlantisMap.getNearestBaseLocationToExpand(Select.mainBase().getPosition());
         if (baseLocationToExpand == null) {
             System.err.println("baseLocationToExpand is null");
@@ -72,11 +73,13 @@ public class AtlantisSpecialPositionFinder {
 //        System.out.println("Main base = " + SelectUnits.mainBase());
 //        System.out.println("baseLocationToExpand = " + baseLocationToExpand);
 
-        return AtlantisPositionFinder.findStandardPosition(builder, building, baseLocationToExpand.getPosition(), 3);
+        query.searchNear(baseLocationToExpand.getPosition(), 3);
+        return AtlantisPositionFinder.findStandardPosition(query);
     }
 
-    private static Position findPositionForBase_nearestMainBase(UnitType building, Unit builder) {
-        return AtlantisPositionFinder.findStandardPosition(builder, building, Select.mainBase().getPosition(), 20);
+    private static Position findPositionForBase_nearestMainBase(PlacementQuery query) {
+        query.searchNear(Select.mainBase().getPosition(), 20);
+        return AtlantisPositionFinder.findStandardPosition(query);
     }
 
 }
@@ -0,0 +1,458 @@
+package atlantis.constructing.position;
+
+import atlantis.Atlantis;
+import atlantis.AtlantisConfig;
+import atlantis.AtlantisGame;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
+import atlantis.information.AtlantisMapCache;
+import atlantis.util.FileUtil;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import bwapi.Position;
+import bwapi.UnitType;
+import bwta.BaseLocation;
+
+/**
+ * Building slots planned once per map for every base location: for every building shape our race uses
+ * (width, height, add-on clearance, whether it needs psi) there's a list of places around the base ordered by
+ * distance from it. Placing a building then takes the first slot that's still free instead of searching in
+ * rings around the base.
+ * <br />
+ * Slots avoid unbuildable terrain and tiles near minerals and geysers. Protoss pylons are planned sparsely and
+ * buildings requiring psi only get slots inside psi fields of planned pylons. Slots are stored in
+ * <b>AtlantisConfig.MAP_DATA_DIR</b> as [map hash].jlay, so on the next game on the same map they're only
+ * loaded.
+ */
+public class BaseLayoutPlanner {
+
+    private static final int MAGIC = 0x4A4C4159;
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Slots are planned this many build tiles (at most) from the base location.
+     */
+    private static final int MAX_SLOT_DISTANCE = 14;
+
+    /**
+     * Planned nearTo position belongs to base location if it's this close to it (in build tiles).
+     */
+    private static final int MAX_BASE_DISTANCE = 10;
+
+    /**
+     * Min distance (in build tiles) between planned pylons and size of pylon psi field (half-axes of ellipse
+     * around pylon center, in build tiles, a bit smaller than the real one).
+     */
+    private static final int PYLON_SPACING = 6;
+    private static final double PSI_FIELD_X = 7;
+    private static final double PSI_FIELD_Y = 4.5;
+
+    private static final int ADDON_WIDTH = 2;
+    private static final int BASE_WIDTH = 4;
+    private static final int BASE_HEIGHT = 3;
+
+    private static int width = 0;
+
+    /**
+     * Top left tiles of bases at all base locations, in order of <b>AtlantisMapCache.getBaseLocations()</b>.
+     */
+    private static int[] baseTiles = new int[0];
+
+    /**
+     * Shape keys (see <b>shapeKey</b>) and, for every shape, [base location index] -> top left tiles of slots.
+     */
+    private static int[] shapes = new int[0];
+    private static int[][][] slots = new int[0][][];
+
+    /**
+     * First slot of [shape][base] that may be free, slots before it are taken by buildings.
+     */
+    private static int[][] cursors = new int[0][];
+    private static int cursorsRemovalsCount = 0;
+
+    // =========================================================
+    // Initialization
+    /**
+     * Loads slots from the map data directory, or plans and saves them. Must be called after
+     * <b>PlacementGrid.init()</b>.
+     */
+    public static void init() {
+        long start = System.currentTimeMillis();
+        width = Atlantis.getBwapi().mapWidth();
+        List<BaseLocation> baseLocations = AtlantisMapCache.getBaseLocations();
+        baseTiles = new int[baseLocations.size()];
+        for (int base = 0; base < baseTiles.length; base++) {
+            baseTiles[base] = baseLocations.get(base).getTilePosition().getY() * width
+                    + baseLocations.get(base).getTilePosition().getX();
+        }
+        int race = raceCode();
+
+        File file = new File(AtlantisConfig.MAP_DATA_DIR, Atlantis.getBwapi().mapHash() + ".jlay");
+        boolean loaded = false;
+        if (file.exists()) {
+            try {
+                loaded = load(file, race, baseTiles);
+                if (!loaded) {
+                    AtlantisLog.info(Category.MAP, "Base layouts outdated, planning them again:", file);
+                }
+            } catch (IOException | RuntimeException e) {
+                AtlantisLog.warn(Category.MAP, "Can't read base layouts, planning them again:", e);
+            }
+        }
+
+        if (!loaded) {
+            plan(baseTiles);
+            try {
+                save(file, race, baseTiles);
+            } catch (IOException e) {
+                AtlantisLog.warn(Category.MAP, "Can't save base layouts:", e);
+            }
+            AtlantisLog.log(AtlantisLog.Level.INFO, Category.MAP, "Base layouts planned in ms:",
+                    System.currentTimeMillis() - start);
+        }
+
+        cursors = new int[shapes.length][baseTiles.length];
+        cursorsRemovalsCount = PlacementGrid.getRemovalsCount();
+    }
+
+    private static void plan(int[] baseTiles) {
+        List<Integer> shapeKeys = new ArrayList<>();
+        for (UnitType type : UnitType.getLoadedTypes()) {
+            if (isPlanned(type) && !shapeKeys.contains(shapeKey(type))) {
+                shapeKeys.add(shapeKey(type));
+            }
+        }
+
+        shapes = new int[shapeKeys.size()];
+        slots = new int[shapes.length][baseTiles.length][];
+        for (int s = 0; s < shapes.length; s++) {
+            shapes[s] = shapeKeys.get(s);
+        }
+
+        for (int base = 0; base < baseTiles.length; base++) {
+            int bx = baseTiles[base] % width;
+            int by = baseTiles[base] / width;
+
+            // Pylons first, as psi slots depend on them
+            int[] pylons = new int[0];
+            for (int s = 0; s < shapes.length; s++) {
+                if (isPylonShape(shapes[s])) {
+                    pylons = spreadPylons(slotsAround(bx, by, shapes[s], baseTiles));
+                    slots[s][base] = pylons;
+                }
+            }
+            for (int s = 0; s < shapes.length; s++) {
+                if (isPylonShape(shapes[s])) {
+                    continue;
+                }
+                int[] shapeSlots = slotsAround(bx, by, shapes[s], baseTiles);
+                slots[s][base] = isPsiShape(shapes[s]) ? poweredOnly(shapeSlots, shapes[s], pylons) : shapeSlots;
+            }
+        }
+    }
+
+    /**
+     * Returns top left tiles of all places for given shape near base location at (bx, by), nearest first.
+     * Places where bases (with add-on) of any base location would be built are skipped.
+     */
+    private static int[] slotsAround(int bx, int by, int shape, int[] baseTiles) {
+        int w = shapeWidth(shape);
+        int h = shapeHeight(shape);
+        int plannedWidth = w + (hasAddon(shape) ? ADDON_WIDTH : 0);
+
+        // Sort by (squared distance of centers, tile)
+        List<Long> candidates = new ArrayList<>();
+        for (int ty = by - MAX_SLOT_DISTANCE; ty <= by + MAX_SLOT_DISTANCE; ty++) {
+            for (int tx = bx - MAX_SLOT_DISTANCE; tx <= bx + MAX_SLOT_DISTANCE; tx++) {
+                int dx = 2 * tx + w - 2 * bx - 4;
+                int dy = 2 * ty + h - 2 * by - 3;
+                if (dx * dx + dy * dy > 4 * MAX_SLOT_DISTANCE * MAX_SLOT_DISTANCE
+                        || overlapsBase(tx, ty, plannedWidth, h, baseTiles)) {
+                    continue;
+                }
+                if (PlacementGrid.check(tx, ty, plannedWidth, h, false, false, null) == PlacementGrid.FREE) {
+                    candidates.add(((long) (dx * dx + dy * dy) << 32) | (ty * width + tx));
+                }
+            }
+        }
+
+        long[] sorted = new long[candidates.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = candidates.get(i);
+        }
+        Arrays.sort(sorted);
+        int[] result = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            result[i] = (int) sorted[i];
+        }
+        return result;
+    }
+
+    private static boolean overlapsBase(int tx, int ty, int w, int h, int[] baseTiles) {
+        for (int baseTile : baseTiles) {
+            int left = baseTile % width - 1;
+            int top = baseTile / width - 1;
+            if (tx < left + BASE_WIDTH + ADDON_WIDTH + 2 && tx + w > left && ty < top + BASE_HEIGHT + 2
+                    && ty + h > top) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Picks pylon slots that are at least PYLON_SPACING apart, so their psi fields cover more ground.
+     */
+    private static int[] spreadPylons(int[] candidates) {
+        List<Integer> pylons = new ArrayList<>();
+        for (int candidate : candidates) {
+            boolean farEnough = true;
+            for (int pylon : pylons) {
+                int dx = candidate % width - pylon % width;
+                int dy = candidate / width - pylon / width;
+                if (dx * dx + dy * dy < PYLON_SPACING * PYLON_SPACING) {
+                    farEnough = false;
+                    break;
+                }
+            }
+            if (farEnough) {
+                pylons.add(candidate);
+            }
+        }
+
+        int[] result = new int[pylons.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = pylons.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns only slots whose center lies in psi field of any of planned pylons (which are 2x2).
+     */
+    private static int[] poweredOnly(int[] candidates, int shape, int[] pylons) {
+        int[] result = new int[candidates.length];
+        int count = 0;
+        for (int candidate : candidates) {
+            double cx = candidate % width + shapeWidth(shape) / 2.0;
+            double cy = candidate / width + shapeHeight(shape) / 2.0;
+            for (int pylon : pylons) {
+                double dx = (cx - pylon % width - 1) / PSI_FIELD_X;
+                double dy = (cy - pylon / width - 1) / PSI_FIELD_Y;
+                if (dx * dx + dy * dy <= 1) {
+                    result[count++] = candidate;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // =========================================================
+    // Taking slots
+    /**
+     * Returns position of the first free planned slot for building of the query at base location nearest to
+     * its <b>nearTo</b>, or null if there's no such base location or all its slots are taken. Every slot is
+     * confirmed with race-specific conditions (power, creep) and <b>canBuildHere</b>. When query is being
+     * prepared, free slots are only added to it and nothing is changed here, so it can be done in parallel.
+     */
+    public static Position findPlannedPosition(PlacementQuery query) {
+        UnitType building = query.getBuilding();
+        int base = baseLocationNear(query.getNearTo());
+        int shape = shapeIndex(building);
+        if (base < 0 || shape < 0) {
+            return null;
+        }
+
+        // Buildings have been destroyed, slots taken by them may be free again
+        boolean cursorMoves = !query.isPreparing();
+        if (cursorMoves && cursorsRemovalsCount != PlacementGrid.getRemovalsCount()) {
+            cursors = new int[shapes.length][baseTiles.length];
+            cursorsRemovalsCount = PlacementGrid.getRemovalsCount();
+        }
+
+        int[] baseSlots = slots[shape][base];
+        int plannedWidth = building.tileWidth() + (building.canBuildAddon() ? ADDON_WIDTH : 0);
+        boolean depot = building.equals(UnitType.Terran_Supply_Depot);
+        for (int i = cursors[shape][base]; i < baseSlots.length; i++) {
+            int tx = baseSlots[i] % width;
+            int ty = baseSlots[i] / width;
+            int result = PlacementGrid.check(tx, ty, plannedWidth, building.tileHeight(), false, depot,
+                    query.getConstructionOrder());
+
+            // Slots taken by buildings stay taken, so next search can start after them
+            if (result == PlacementGrid.BLOCKED_BY_BUILDING && cursorMoves) {
+                cursors[shape][base] = i + 1;
+                continue;
+            }
+            cursorMoves = false;
+
+            if (result == PlacementGrid.FREE) {
+                Position position = new Position(tx * 32, ty * 32);
+                if (AtlantisPositionFinder.isPositionValid(query, position)) {
+                    return position;
+                }
+            }
+            else {
+                query.reject(PlacementGrid.describe(result));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns index of base location not further than MAX_BASE_DISTANCE from given position, or -1.
+     */
+    private static int baseLocationNear(Position position) {
+        if (position == null || slots.length == 0 || baseTiles.length != slots[0].length) {
+            return -1;
+        }
+        int best = -1;
+        double bestDistance = MAX_BASE_DISTANCE * 32;
+        for (int base = 0; base < baseTiles.length; base++) {
+            double distance = Math.hypot((baseTiles[base] % width + BASE_WIDTH / 2.0) * 32 - position.getX(),
+                    (baseTiles[base] / width + BASE_HEIGHT / 2.0) * 32 - position.getY());
+            if (distance <= bestDistance) {
+                best = base;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    // =========================================================
+    // Shapes
+    /**
+     * Returns true if slots are planned for given building: buildings of our race placed by a worker, except
+     * bases, gas buildings and creep colonies (which have their own position finders).
+     */
+    private static boolean isPlanned(UnitType type) {
+        return type.isBuilding() && !type.isAddon() && !type.isBase() && !type.isGasBuilding()
+                && type.getRace().equals(AtlantisGame.getPlayerUs().getRace())
+                && type.whatBuilds().first.isWorker() && !type.equals(UnitType.Zerg_Creep_Colony);
+    }
+
+    private static int shapeKey(UnitType type) {
+        return type.tileWidth() | (type.tileHeight() << 4) | (type.canBuildAddon() ? 1 << 8 : 0)
+                | (type.requiresPsi() ? 1 << 9 : 0) | (type.equals(UnitType.Protoss_Pylon) ? 1 << 10 : 0);
+    }
+
+    private static int shapeIndex(UnitType type) {
+        int key = shapeKey(type);
+        for (int s = 0; s < shapes.length; s++) {
+            if (shapes[s] == key) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private static int shapeWidth(int shape) {
+        return shape & 15;
+    }
+
+    private static int shapeHeight(int shape) {
+        return (shape >> 4) & 15;
+    }
+
+    private static boolean hasAddon(int shape) {
+        return (shape & (1 << 8)) != 0;
+    }
+
+    private static boolean isPsiShape(int shape) {
+        return (shape & (1 << 9)) != 0;
+    }
+
+    private static boolean isPylonShape(int shape) {
+        return (shape & (1 << 10)) != 0;
+    }
+
+    private static int raceCode() {
+        if (AtlantisGame.playsAsTerran()) {
+            return 1;
+        }
+        else if (AtlantisGame.playsAsProtoss()) {
+            return 2;
+        }
+        else if (AtlantisGame.playsAsZerg()) {
+            return 3;
+        }
+        return 0;
+    }
+
+    // =========================================================
+    // Persistence
+    private static void save(File file, int race, int[] baseTiles) throws IOException {
+        int size = 4 * (6 + baseTiles.length + shapes.length);
+        for (int s = 0; s < shapes.length; s++) {
+            for (int base = 0; base < baseTiles.length; base++) {
+                size += 4 * (1 + slots[s][base].length);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(race).putInt(width);
+        putArray(buffer, baseTiles);
+        putArray(buffer, shapes);
+        for (int s = 0; s < shapes.length; s++) {
+            for (int base = 0; base < baseTiles.length; base++) {
+                putArray(buffer, slots[s][base]);
+            }
+        }
+        buffer.flip();
+
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(0);
+            out.getChannel().write(buffer);
+        }
+    }
+
+    /**
+     * Loads slots from given file and returns true, or returns false if they were planned for another race or
+     * other base locations.
+     */
+    private static boolean load(File file, int race, int[] baseTiles) throws IOException {
+        ByteBuffer buffer = FileUtil.readFully(file);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported base layouts format");
+        }
+        if (buffer.getInt() != race || buffer.getInt() != width || !Arrays.equals(getArray(buffer), baseTiles)) {
+            return false;
+        }
+        int[] loadedShapes = getArray(buffer);
+        int[][][] loadedSlots = new int[loadedShapes.length][baseTiles.length][];
+        for (int s = 0; s < loadedShapes.length; s++) {
+            for (int base = 0; base < baseTiles.length; base++) {
+                loadedSlots[s][base] = getArray(buffer);
+            }
+        }
+        shapes = loadedShapes;
+        slots = loadedSlots;
+        return true;
+    }
+
+    private static void putArray(ByteBuffer buffer, int[] array) {
+        buffer.putInt(array.length);
+        for (int value : array) {
+            buffer.putInt(value);
+        }
+    }
+
+    private static int[] getArray(ByteBuffer buffer) {
+        int[] array = new int[buffer.getInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = buffer.getInt();
+        }
+        return array;
+    }
+
+}
@@ -0,0 +1,309 @@
+package atlantis.constructing.position;
+
+import atlantis.Atlantis;
+import atlantis.constructing.ConstructionOrder;
+import atlantis.information.AtlantisMapCache;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bwapi.Game;
+import bwapi.Position;
+import bwapi.TilePosition;
+import bwapi.Unit;
+import bwapi.UnitType;
+import bwta.BaseLocation;
+
+/**
+ * Build tile bitmaps used by position finders to reject places for new buildings without asking BWAPI:
+ * <ul>
+ * <li>buildable terrain, read once at the start of the game,</li>
+ * <li>occupancy by buildings, minerals and geysers of all players,</li>
+ * <li>our buildings (new buildings can't touch them, except Supply Depots that can be stacked),</li>
+ * <li>footprints reserved by planned constructions,</li>
+ * <li>places too close to minerals and geysers near base locations, as buildings there slow down mining.</li>
+ * </ul>
+ * Bitmaps are updated when buildings are created, destroyed or discovered and when constructions are planned,
+ * so only the final position has to be confirmed with <b>canBuildHere</b>.
+ */
+public class PlacementGrid {
+
+    /**
+     * Buildings can't be placed this close (in build tiles) to minerals and geysers, if they're also that
+     * close to a base location.
+     */
+    private static final int RESOURCE_EXCLUSION_TILES = 4;
+    private static final int BASE_EXCLUSION_TILES = 8;
+
+    private static final int TILE = 32;
+
+    private static int width = 0;
+    private static int height = 0;
+
+    private static boolean[] buildable = new boolean[0];
+    private static boolean[] nearResources = new boolean[0];
+
+    // How many buildings (or reservations) cover every tile
+    private static int[] occupied = new int[0];
+    private static int[] ourBuildings = new int[0];
+    private static int[] ourDepots = new int[0];
+    private static int[] reserved = new int[0];
+
+    /**
+     * Footprints {left, top, width, height, flags} of buildings by unit ID and of planned constructions.
+     */
+    private static final Map<Integer, int[]> buildingFootprints = new HashMap<>();
+    private static final Map<ConstructionOrder, int[]> reservations = new HashMap<>();
+
+    private static final int FLAG_OUR = 1;
+    private static final int FLAG_DEPOT = 2;
+
+    private static int removals = 0;
+
+    public static final int FREE = 0;
+    public static final int BLOCKED_BY_TERRAIN = 1;
+    public static final int BLOCKED_BY_BUILDING = 2;
+    public static final int BLOCKED_BY_RESERVATION = 3;
+    public static final int BLOCKED_BY_RESOURCES = 4;
+
+    // =========================================================
+    // Initialization
+    /**
+     * Reads buildable terrain and resources of the current map. Must be called after map analysis.
+     */
+    public static void init() {
+        Game game = Atlantis.getBwapi();
+        width = game.mapWidth();
+        height = game.mapHeight();
+        buildable = new boolean[width * height];
+        nearResources = new boolean[width * height];
+        occupied = new int[width * height];
+        ourBuildings = new int[width * height];
+        ourDepots = new int[width * height];
+        reserved = new int[width * height];
+        buildingFootprints.clear();
+        reservations.clear();
+
+        for (int ty = 0; ty < height; ty++) {
+            for (int tx = 0; tx < width; tx++) {
+                buildable[ty * width + tx] = game.isBuildable(tx, ty, false);
+            }
+        }
+
+        markResources(game.getStaticMinerals());
+        markResources(game.getStaticGeysers());
+    }
+
+    /**
+     * Marks resources as occupied and tiles near them (if they're near a base location) as excluded.
+     */
+    private static void markResources(List<Unit> resources) {
+        List<BaseLocation> baseLocations = AtlantisMapCache.getBaseLocations();
+        for (Unit resource : resources) {
+            TilePosition tile = resource.getInitialTilePosition();
+            UnitType type = resource.getInitialType();
+            addFootprint(resource.getID(), tile.getX(), tile.getY(), type.tileWidth(), type.tileHeight(), 0);
+
+            Position center = resource.getInitialPosition();
+            boolean nearBase = false;
+            for (BaseLocation baseLocation : baseLocations) {
+                if (distanceInTiles(center, baseLocation.getX(), baseLocation.getY()) <= BASE_EXCLUSION_TILES) {
+                    nearBase = true;
+                    break;
+                }
+            }
+            if (!nearBase) {
+                continue;
+            }
+
+            int cx = center.getX() / TILE;
+            int cy = center.getY() / TILE;
+            for (int ty = Math.max(0, cy - RESOURCE_EXCLUSION_TILES);
+                    ty <= Math.min(height - 1, cy + RESOURCE_EXCLUSION_TILES); ty++) {
+                for (int tx = Math.max(0, cx - RESOURCE_EXCLUSION_TILES);
+                        tx <= Math.min(width - 1, cx + RESOURCE_EXCLUSION_TILES); tx++) {
+                    if (distanceInTiles(center, tx * TILE, ty * TILE) <= RESOURCE_EXCLUSION_TILES) {
+                        nearResources[ty * width + tx] = true;
+                    }
+                }
+            }
+        }
+    }
+
+    public static boolean isReady() {
+        return width > 0;
+    }
+
+    // =========================================================
+    // Updates
+    /**
+     * Building appeared (it's been placed, discovered or morphed from a unit). Other units are ignored.
+     */
+    public static void buildingAdded(Unit unit) {
+        UnitType type = unit.getType();
+        if (!isReady() || !type.isBuilding() || unit.isLifted() || buildingFootprints.containsKey(unit.getID())) {
+            return;
+        }
+        TilePosition tile = unit.getTilePosition();
+        int flags = 0;
+        if (unit.getPlayer().equals(Atlantis.getBwapi().self())) {
+            flags |= FLAG_OUR;
+            if (type.equals(UnitType.Terran_Supply_Depot)) {
+                flags |= FLAG_DEPOT;
+            }
+        }
+        addFootprint(unit.getID(), tile.getX(), tile.getY(), type.tileWidth(), type.tileHeight(), flags);
+    }
+
+    /**
+     * Building (or resource) with given ID has been destroyed, or it's not a building anymore.
+     */
+    public static void buildingRemoved(int unitID) {
+        int[] footprint = buildingFootprints.remove(unitID);
+        if (footprint != null) {
+            markFootprint(footprint, -1);
+            removals++;
+        }
+    }
+
+    /**
+     * Reserves place for planned construction; previous reservation of this order is released. Null position
+     * only releases it.
+     */
+    public static void reserve(ConstructionOrder order, UnitType building, Position position) {
+        release(order);
+        if (!isReady() || position == null) {
+            return;
+        }
+
+        // Surrounding tiles are reserved as well, other buildings can't touch planned ones
+        int[] footprint = {position.getX() / TILE - 1, position.getY() / TILE - 1, building.tileWidth() + 2,
+            building.tileHeight() + 2, 0};
+        reservations.put(order, footprint);
+        markReserved(footprint, 1);
+    }
+
+    /**
+     * Releases place reserved by given construction order, e.g. when construction has started.
+     */
+    public static void release(ConstructionOrder order) {
+        int[] footprint = reservations.remove(order);
+        if (footprint != null) {
+            markReserved(footprint, -1);
+        }
+    }
+
+    private static void addFootprint(int unitID, int left, int top, int w, int h, int flags) {
+        int[] footprint = {left, top, w, h, flags};
+        buildingFootprints.put(unitID, footprint);
+        markFootprint(footprint, 1);
+    }
+
+    private static void markFootprint(int[] footprint, int delta) {
+        boolean our = (footprint[4] & FLAG_OUR) != 0;
+        boolean depot = (footprint[4] & FLAG_DEPOT) != 0;
+        for (int ty = Math.max(0, footprint[1]); ty < Math.min(height, footprint[1] + footprint[3]); ty++) {
+            for (int tx = Math.max(0, footprint[0]); tx < Math.min(width, footprint[0] + footprint[2]); tx++) {
+                int tile = ty * width + tx;
+                occupied[tile] += delta;
+                if (our) {
+                    ourBuildings[tile] += delta;
+                }
+                if (depot) {
+                    ourDepots[tile] += delta;
+                }
+            }
+        }
+    }
+
+    private static void markReserved(int[] footprint, int delta) {
+        for (int ty = Math.max(0, footprint[1]); ty < Math.min(height, footprint[1] + footprint[3]); ty++) {
+            for (int tx = Math.max(0, footprint[0]); tx < Math.min(width, footprint[0] + footprint[2]); tx++) {
+                reserved[ty * width + tx] += delta;
+            }
+        }
+    }
+
+    // =========================================================
+    // Queries
+    /**
+     * Returns description of result of <b>check</b>.
+     */
+    public static String describe(int result) {
+        if (result == BLOCKED_BY_TERRAIN) {
+            return "CAN'T PHYSICALLY BUILD";
+        }
+        else if (result == BLOCKED_BY_RESOURCES) {
+            return "TOO CLOSE TO MINERALS OR GEYSER";
+        }
+        else if (result == BLOCKED_BY_BUILDING) {
+            return "BUILDING TOO CLOSE";
+        }
+        else if (result == BLOCKED_BY_RESERVATION) {
+            return "PLANNED BUILDING TOO CLOSE";
+        }
+        return "FREE";
+    }
+
+    /**
+     * Checks place of <b>w</b> x <b>h</b> build tiles with top left corner at (tx, ty) for new building
+     * (<b>order</b>, if not null, can overlap its own reservation) and returns FREE or
+     * the reason why it's blocked: BLOCKED_BY_TERRAIN (unbuildable or off the map), BLOCKED_BY_RESOURCES,
+     * BLOCKED_BY_BUILDING (overlaps a building or touches our one) or BLOCKED_BY_RESERVATION.
+     */
+    public static int check(int tx, int ty, int w, int h, boolean resourceDepot, boolean depot, ConstructionOrder order) {
+        if (tx < 0 || ty < 0 || tx + w > width || ty + h > height) {
+            return BLOCKED_BY_TERRAIN;
+        }
+        if (!resourceDepot && nearResources[ty * width + tx]) {
+            return BLOCKED_BY_RESOURCES;
+        }
+
+        int[] ownReservation = order == null ? null : reservations.get(order);
+        boolean reservedByOthers = false;
+        for (int y = ty; y < ty + h; y++) {
+            for (int x = tx; x < tx + w; x++) {
+                int tile = y * width + x;
+                if (!buildable[tile]) {
+                    return BLOCKED_BY_TERRAIN;
+                }
+                if (occupied[tile] > 0) {
+                    return BLOCKED_BY_BUILDING;
+                }
+                if (reserved[tile] - (contains(ownReservation, x, y) ? 1 : 0) > 0) {
+                    reservedByOthers = true;
+                }
+            }
+        }
+
+        // Our buildings can't touch the new one, unless both are depots
+        for (int y = Math.max(0, ty - 1); y <= Math.min(height - 1, ty + h); y++) {
+            for (int x = Math.max(0, tx - 1); x <= Math.min(width - 1, tx + w); x++) {
+                int tile = y * width + x;
+                if (ourBuildings[tile] - (depot ? ourDepots[tile] : 0) > 0) {
+                    return BLOCKED_BY_BUILDING;
+                }
+            }
+        }
+        return reservedByOthers ? BLOCKED_BY_RESERVATION : FREE;
+    }
+
+    /**
+     * Incremented whenever a building disappears, so places that were blocked by buildings may be free again.
+     */
+    public static int getRemovalsCount() {
+        return removals;
+    }
+
+    // =========================================================
+    // Helpers
+    private static boolean contains(int[] footprint, int x, int y) {
+        return footprint != null && x >= footprint[0] && y >= footprint[1] && x < footprint[0] + footprint[2]
+                && y < footprint[1] + footprint[3];
+    }
+
+    private static double distanceInTiles(Position position, int px, int py) {
+        return Math.hypot(position.getX() - px, position.getY() - py) / TILE;
+    }
+
+}
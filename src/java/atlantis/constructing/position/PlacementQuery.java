@@ -0,0 +1,162 @@
+package atlantis.constructing.position;
+
+import atlantis.constructing.ConstructionOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import bwapi.Position;
+import bwapi.Unit;
+import bwapi.UnitType;
+
+/**
+ * Search for position of one new building: what is placed, by whom, where to search, and the outcome, i.e.
+ * found position and reasons why other places were rejected. All search state lives here (nothing in static
+ * fields), so searches don't interfere with each other.
+ * <br />
+ * Search can be split in two steps: <b>AtlantisPositionFinder.prepare</b> collects places that are free
+ * according to PlacementGrid and doesn't touch BWAPI, so many queries can be prepared in parallel;
+ * <b>AtlantisPositionFinder.find</b> must be called in the main thread, it confirms prepared places (or
+ * searches from scratch) and stores the result.
+ */
+public class PlacementQuery {
+
+    /**
+     * Preparing stops after this many free places have been found.
+     */
+    private static final int MAX_CANDIDATES = 8;
+
+    private final Unit builder;
+    private final UnitType building;
+    private final ConstructionOrder constructionOrder;
+    private Position nearTo;
+    private double maxDistance;
+
+    private boolean preparing = false;
+    private final List<Position> candidates = new ArrayList<>();
+
+    private Position result = null;
+    private String lastRejection = null;
+    private final Map<String, Integer> rejections = new TreeMap<>();
+
+    // =========================================================
+
+    /**
+     * Query for position of <b>building</b> not further than <b>maxDistance</b> build tiles from
+     * <b>nearTo</b>. Null nearTo and negative maxDistance mean default area (near the main base).
+     * <b>constructionOrder</b> can be null.
+     */
+    public PlacementQuery(Unit builder, UnitType building, ConstructionOrder constructionOrder, Position nearTo,
+            double maxDistance) {
+        this.builder = builder;
+        this.building = building;
+        this.constructionOrder = constructionOrder;
+        this.nearTo = nearTo;
+        this.maxDistance = maxDistance;
+    }
+
+    public PlacementQuery(Unit builder, UnitType building, ConstructionOrder constructionOrder) {
+        this(builder, building, constructionOrder, null, -1);
+    }
+
+    // =========================================================
+    // Search state
+    /**
+     * Changes area where building will be searched for.
+     */
+    public void searchNear(Position nearTo, double maxDistance) {
+        this.nearTo = nearTo;
+        this.maxDistance = maxDistance;
+    }
+
+    protected void startPreparing() {
+        preparing = true;
+        candidates.clear();
+    }
+
+    protected void stopPreparing() {
+        preparing = false;
+    }
+
+    /**
+     * Returns true if only places free according to PlacementGrid are collected now, without asking BWAPI.
+     */
+    protected boolean isPreparing() {
+        return preparing;
+    }
+
+    /**
+     * Remembers place found when preparing and returns true if enough places have been found.
+     */
+    protected boolean addCandidate(Position position) {
+        if (!candidates.contains(position)) {
+            candidates.add(position);
+        }
+        return candidates.size() >= MAX_CANDIDATES;
+    }
+
+    protected List<Position> getCandidates() {
+        return candidates;
+    }
+
+    protected void reject(String condition) {
+        lastRejection = condition;
+        Integer count = rejections.get(condition);
+        rejections.put(condition, count == null ? 1 : count + 1);
+    }
+
+    protected void setResult(Position result) {
+        this.result = result;
+    }
+
+    // =========================================================
+    // Getters
+    public Unit getBuilder() {
+        return builder;
+    }
+
+    public UnitType getBuilding() {
+        return building;
+    }
+
+    public ConstructionOrder getConstructionOrder() {
+        return constructionOrder;
+    }
+
+    public Position getNearTo() {
+        return nearTo;
+    }
+
+    public double getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Returns found position or null if there's none (or the query hasn't been run yet).
+     */
+    public Position getResult() {
+        return result;
+    }
+
+    /**
+     * Returns reason why the last checked place was rejected, or null.
+     */
+    public String getLastRejection() {
+        return lastRejection;
+    }
+
+    /**
+     * Returns how many times each reason of rejecting a place occurred.
+     */
+    public Map<String, Integer> getRejections() {
+        return rejections;
+    }
+
+    @Override
+    public String toString() {
+        return "PlacementQuery{" + "building=" + building + ", nearTo=" + nearTo + ", maxDistance=" + maxDistance
+                + ", result=" + result + ", rejections=" + rejections + '}';
+    }
+
+}
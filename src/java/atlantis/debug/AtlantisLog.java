@@ -0,0 +1,597 @@
+package atlantis.debug;
+
+import atlantis.AtlantisConfig;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging that never blocks the game thread. Messages are copied into a preallocated ring buffer and a
+ * background thread writes them to <b>AtlantisConfig.LOG_FILE_PATH</b> (rotated when it grows too big) and
+ * optionally to the console.
+ * <br />
+ * Every message has a <b>Level</b> and a <b>Category</b>; messages below the level set for their category are
+ * discarded right away. Messages repeated too often (counted per message text, e.g. "Builder is null") are
+ * suppressed, see <b>Category.repeatLimit</b>.
+ * <br />
+ * Usage: <b>AtlantisLog.warn(Category.CONSTRUCTION, "Can't find position for", building);</b>
+ * Message should be a constant string (it's the key for repeat limits); arguments are appended after it. Strings
+ * and numbers are copied without allocating anything (use overloads taking long or double to avoid boxing),
+ * other objects are converted with toString(). Log only from the game thread.
+ */
+public class AtlantisLog {
+
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    public enum Category {
+
+        GENERAL(Level.INFO, 10),
+        COMBAT(Level.WARN, 5),
+        CONSTRUCTION(Level.INFO, 5),
+        MAP(Level.INFO, 10),
+        PRODUCTION(Level.INFO, 5),
+        TIMINGS(Level.INFO, 100);
+
+        private Level level;
+        private int repeatLimit;
+
+        private Category(Level level, int repeatLimit) {
+            this.level = level;
+            this.repeatLimit = repeatLimit;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        /**
+         * Sets the lowest level of messages that will be logged in this category.
+         */
+        public void setLevel(Level level) {
+            this.level = level;
+        }
+
+        public int getRepeatLimit() {
+            return repeatLimit;
+        }
+
+        /**
+         * Sets how many times the same message can be logged within <b>AtlantisConfig.LOG_REPEAT_WINDOW_MS</b>.
+         * Next ones are suppressed and only their number is logged afterwards.
+         */
+        public void setRepeatLimit(int repeatLimit) {
+            this.repeatLimit = repeatLimit;
+        }
+
+    }
+
+    private static final int CAPACITY = 2048;
+    private static final int MESSAGE_LENGTH = 256;
+    private static final int REPEAT_TABLE_SIZE = 512;
+    private static final int REPEAT_TABLE_PROBES = 8;
+    private static final long DRAIN_INTERVAL_MS = 50;
+
+    // =========================================================
+    // Ring buffer, written only by the game thread, read only by the drain thread
+
+    private static final Entry[] entries = new Entry[CAPACITY];
+    private static final AtomicLong head = new AtomicLong();
+    private static final AtomicLong tail = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static Entry current = null;
+    private static volatile int frame = 0;
+    private static Thread drainThread = null;
+
+    // Repeated messages, keyed by the message text
+    private static final String[] repeatKeys = new String[REPEAT_TABLE_SIZE];
+    private static final long[] repeatWindowStart = new long[REPEAT_TABLE_SIZE];
+    private static final int[] repeatCount = new int[REPEAT_TABLE_SIZE];
+    private static final int[] repeatSuppressed = new int[REPEAT_TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            entries[i] = new Entry();
+        }
+    }
+
+    // =========================================================
+    // Logging
+
+    public static void debug(Category category, String message) {
+        log(Level.DEBUG, category, message, null, null);
+    }
+
+    public static void debug(Category category, String message, Object argument) {
+        log(Level.DEBUG, category, message, argument, null);
+    }
+
+    public static void debug(Category category, String message, Object argument1, Object argument2) {
+        log(Level.DEBUG, category, message, argument1, argument2);
+    }
+
+    public static void debug(Category category, String message, long value) {
+        log(Level.DEBUG, category, message, null, value);
+    }
+
+    public static void debug(Category category, String message, double value) {
+        log(Level.DEBUG, category, message, null, value);
+    }
+
+    public static void debug(Category category, String message, Object argument, long value) {
+        log(Level.DEBUG, category, message, argument, value);
+    }
+
+    public static void info(Category category, String message) {
+        log(Level.INFO, category, message, null, null);
+    }
+
+    public static void info(Category category, String message, Object argument) {
+        log(Level.INFO, category, message, argument, null);
+    }
+
+    public static void info(Category category, String message, Object argument1, Object argument2) {
+        log(Level.INFO, category, message, argument1, argument2);
+    }
+
+    public static void info(Category category, String message, long value) {
+        log(Level.INFO, category, message, null, value);
+    }
+
+    public static void info(Category category, String message, double value) {
+        log(Level.INFO, category, message, null, value);
+    }
+
+    public static void info(Category category, String message, Object argument, long value) {
+        log(Level.INFO, category, message, argument, value);
+    }
+
+    public static void warn(Category category, String message) {
+        log(Level.WARN, category, message, null, null);
+    }
+
+    public static void warn(Category category, String message, Object argument) {
+        log(Level.WARN, category, message, argument, null);
+    }
+
+    public static void warn(Category category, String message, Object argument1, Object argument2) {
+        log(Level.WARN, category, message, argument1, argument2);
+    }
+
+    public static void warn(Category category, String message, long value) {
+        log(Level.WARN, category, message, null, value);
+    }
+
+    public static void warn(Category category, String message, double value) {
+        log(Level.WARN, category, message, null, value);
+    }
+
+    public static void warn(Category category, String message, Object argument, long value) {
+        log(Level.WARN, category, message, argument, value);
+    }
+
+    public static void error(Category category, String message) {
+        log(Level.ERROR, category, message, null, null);
+    }
+
+    public static void error(Category category, String message, Object argument) {
+        log(Level.ERROR, category, message, argument, null);
+    }
+
+    /**
+     * Logs error with stack trace of the exception. The trace is formatted by the drain thread.
+     */
+    public static void error(Category category, String message, Throwable throwable) {
+        if (begin(Level.ERROR, category, message)) {
+            current.throwable = throwable;
+            end();
+        }
+    }
+
+    /**
+     * Logs message followed by (optional, can be null) arguments separated with spaces.
+     */
+    public static void log(Level level, Category category, String message, Object argument1, Object argument2) {
+        if (begin(level, category, message)) {
+            if (argument1 != null) {
+                append(' ');
+                append(argument1);
+            }
+            if (argument2 != null) {
+                append(' ');
+                append(argument2);
+            }
+            end();
+        }
+    }
+
+    /**
+     * Logs message followed by a number; doesn't allocate anything.
+     */
+    public static void log(Level level, Category category, String message, long value) {
+        log(level, category, message, null, value);
+    }
+
+    /**
+     * Logs message followed by (optional, can be null) argument and a number; doesn't box the number.
+     */
+    public static void log(Level level, Category category, String message, Object argument, long value) {
+        if (begin(level, category, message)) {
+            if (argument != null) {
+                append(' ');
+                append(argument);
+            }
+            append(' ');
+            append(value);
+            end();
+        }
+    }
+
+    /**
+     * Logs message followed by (optional, can be null) argument and a number; doesn't box the number.
+     */
+    public static void log(Level level, Category category, String message, Object argument, double value) {
+        if (begin(level, category, message)) {
+            if (argument != null) {
+                append(' ');
+                append(argument);
+            }
+            append(' ');
+            append(value);
+            end();
+        }
+    }
+
+    /**
+     * Returns true if messages of this level and category are logged at all. Use it to skip computing
+     * expensive arguments.
+     */
+    public static boolean isEnabled(Level level, Category category) {
+        return level.compareTo(category.level) >= 0 && level != Level.OFF;
+    }
+
+    /**
+     * Sets frame number that is written with every next message.
+     */
+    public static void setFrame(int frame) {
+        AtlantisLog.frame = frame;
+    }
+
+    // =========================================================
+    // Drain thread
+
+    /**
+     * Starts background thread that writes messages to the file. Called automatically with the first message.
+     */
+    public static synchronized void start() {
+        if (drainThread != null) {
+            return;
+        }
+        drainThread = new Thread(new Drain(), "AtlantisLog");
+        drainThread.setDaemon(true);
+        drainThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                flush();
+            }
+        });
+    }
+
+    /**
+     * Blocks until all messages logged so far are written, e.g. at the end of the game.
+     */
+    public static void flush() {
+        long target = tail.get();
+        long deadline = System.currentTimeMillis() + 1000;
+        while (head.get() < target && drainThread != null && drainThread.isAlive()
+                && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // =========================================================
+    // Writing to the ring buffer
+
+    private static boolean begin(Level level, Category category, String message) {
+        if (!isEnabled(level, category)) {
+            return false;
+        }
+        int repeatIndex = repeatIndex(message);
+        if (isRepeatedTooOften(repeatIndex, category, message)) {
+            return false;
+        }
+        if (drainThread == null) {
+            start();
+        }
+
+        long position = tail.get();
+        if (position - head.get() >= CAPACITY) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        current = entries[(int) (position & (CAPACITY - 1))];
+        current.level = level;
+        current.category = category;
+        current.frame = frame;
+        current.time = System.currentTimeMillis();
+        current.length = 0;
+        current.suppressed = 0;
+        current.throwable = null;
+        append(message);
+        current.suppressed = repeatSuppressed[repeatIndex];
+        repeatSuppressed[repeatIndex] = 0;
+        return true;
+    }
+
+    private static void end() {
+        current = null;
+        tail.lazySet(tail.get() + 1);
+    }
+
+    private static void append(char c) {
+        if (current.length < MESSAGE_LENGTH) {
+            current.text[current.length++] = c;
+        }
+    }
+
+    private static void append(String string) {
+        int length = Math.min(string.length(), MESSAGE_LENGTH - current.length);
+        string.getChars(0, length, current.text, current.length);
+        current.length += length;
+    }
+
+    private static void append(long value) {
+        if (value == Long.MIN_VALUE) {
+            append("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            append((char) ('0' + value / divisor % 10));
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Appends number with up to 3 decimal places.
+     */
+    private static void append(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= Long.MAX_VALUE / 1000) {
+            append(String.valueOf(value));
+            return;
+        }
+        long thousandths = Math.round(Math.abs(value) * 1000);
+        if (value < 0 && thousandths > 0) {
+            append('-');
+        }
+        append(thousandths / 1000);
+        long fraction = thousandths % 1000;
+        if (fraction > 0) {
+            append('.');
+            append((char) ('0' + fraction / 100));
+            if (fraction % 100 > 0) {
+                append((char) ('0' + fraction / 10 % 10));
+                if (fraction % 10 > 0) {
+                    append((char) ('0' + fraction % 10));
+                }
+            }
+        }
+    }
+
+    private static void append(Object argument) {
+        if (argument instanceof String) {
+            append((String) argument);
+        }
+        else if (argument instanceof Integer || argument instanceof Long || argument instanceof Short
+                || argument instanceof Byte) {
+            append(((Number) argument).longValue());
+        }
+        else if (argument instanceof Double || argument instanceof Float) {
+            append(((Number) argument).doubleValue());
+        }
+        else {
+            append(String.valueOf(argument));
+        }
+    }
+
+    // =========================================================
+    // Rate limiting
+
+    /**
+     * Returns true if this message has already been logged <b>repeatLimit</b> times within the current window.
+     * Suppressed messages are counted and their number is appended to the next logged one.
+     */
+    private static boolean isRepeatedTooOften(int index, Category category, String message) {
+        long now = System.currentTimeMillis();
+        if (repeatKeys[index] == null || !repeatKeys[index].equals(message)) {
+            repeatKeys[index] = message;
+            repeatWindowStart[index] = now;
+            repeatCount[index] = 0;
+            repeatSuppressed[index] = 0;
+        }
+        else if (now - repeatWindowStart[index] > AtlantisConfig.LOG_REPEAT_WINDOW_MS) {
+            repeatWindowStart[index] = now;
+            repeatCount[index] = 0;
+        }
+
+        if (repeatCount[index] >= category.repeatLimit) {
+            repeatSuppressed[index]++;
+            return true;
+        }
+        repeatCount[index]++;
+        return false;
+    }
+
+    /**
+     * Returns slot for the message in the repeat table. If the message isn't there and there's no free slot
+     * nearby, the slot used least recently is taken over, so the table never fills up.
+     */
+    private static int repeatIndex(String message) {
+        int index = message.hashCode() & (REPEAT_TABLE_SIZE - 1);
+        int oldest = index;
+        for (int probe = 0; probe < REPEAT_TABLE_PROBES; probe++) {
+            String key = repeatKeys[index];
+            if (key == null || key == message || key.equals(message)) {
+                return index;
+            }
+            if (repeatWindowStart[index] < repeatWindowStart[oldest]) {
+                oldest = index;
+            }
+            index = (index + 1) & (REPEAT_TABLE_SIZE - 1);
+        }
+        return oldest;
+    }
+
+    // =========================================================
+    /**
+     * Single message in the ring buffer, reused over and over.
+     */
+    private static class Entry {
+
+        private final char[] text = new char[MESSAGE_LENGTH];
+        private int length;
+        private Level level;
+        private Category category;
+        private int frame;
+        private long time;
+        private int suppressed;
+        private Throwable throwable;
+
+    }
+
+    /**
+     * Background thread moving messages from the ring buffer to the log file.
+     */
+    private static class Drain implements Runnable {
+
+        private Writer writer = null;
+        private long fileSize = 0;
+        private final StringBuilder line = new StringBuilder(MESSAGE_LENGTH + 64);
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    drain();
+                    Thread.sleep(DRAIN_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    drain();
+                    return;
+                } catch (Exception e) {
+                    System.err.println("AtlantisLog: " + e);
+                }
+            }
+        }
+
+        private void drain() {
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                write(String.format("%d messages dropped, log buffer was full", lost), null, System.err);
+            }
+
+            while (head.get() < tail.get()) {
+                Entry entry = entries[(int) (head.get() & (CAPACITY - 1))];
+                line.setLength(0);
+                line.append(String.format("%7d %-5s %-12s ", entry.frame, entry.level, entry.category));
+                line.append(entry.text, 0, entry.length);
+                if (entry.suppressed > 0) {
+                    line.append(" (").append(entry.suppressed).append(" similar messages suppressed)");
+                }
+                String text = line.toString();
+                Throwable throwable = entry.throwable;
+                PrintStream console = entry.level.compareTo(Level.WARN) >= 0 ? System.err : System.out;
+                entry.throwable = null;
+                head.lazySet(head.get() + 1);
+
+                write(text, throwable, console);
+            }
+
+            try {
+                if (writer != null) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                System.err.println("AtlantisLog: " + e);
+            }
+        }
+
+        private void write(String text, Throwable throwable, PrintStream console) {
+            if (AtlantisConfig.LOG_TO_CONSOLE) {
+                console.println(text);
+                if (throwable != null) {
+                    throwable.printStackTrace(console);
+                }
+            }
+
+            StringBuilder output = new StringBuilder(text).append(System.lineSeparator());
+            if (throwable != null) {
+                output.append(throwable).append(System.lineSeparator());
+                for (StackTraceElement element : throwable.getStackTrace()) {
+                    output.append("\tat ").append(element).append(System.lineSeparator());
+                }
+            }
+
+            try {
+                if (writer == null || fileSize > AtlantisConfig.LOG_FILE_MAX_BYTES) {
+                    rotate();
+                }
+                writer.write(output.toString());
+                fileSize += output.length();
+            } catch (IOException e) {
+                System.err.println("AtlantisLog: can't write to " + AtlantisConfig.LOG_FILE_PATH + ": " + e);
+            }
+        }
+
+        /**
+         * Closes the current file and renames it (and older ones) to atlantis.log.1, atlantis.log.2 etc.
+         */
+        private void rotate() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+
+            File file = new File(AtlantisConfig.LOG_FILE_PATH);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            if (file.exists()) {
+                for (int i = AtlantisConfig.LOG_FILES_KEPT - 1; i >= 1; i--) {
+                    File older = new File(file.getPath() + "." + i);
+                    File previous = i == 1 ? file : new File(file.getPath() + "." + (i - 1));
+                    if (previous.exists()) {
+                        older.delete();
+                        previous.renameTo(older);
+                    }
+                }
+                file.delete();
+            }
+
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8")));
+            fileSize = 0;
+        }
+
+    }
+
+}
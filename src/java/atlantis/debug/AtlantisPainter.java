@@ -21,9 +21,11 @@ import atlantis.util.PositionUtil;
 import atlantis.util.RUtilities;
 import atlantis.util.UnitUtil;
 import atlantis.workers.AtlantisWorkerManager;
+import atlantis.wrappers.CommandBuffer;
 import atlantis.wrappers.MappingCounter;
 import atlantis.wrappers.Select;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
 
@@ -39,6 +41,14 @@ import bwapi.UnitType;
 public class AtlantisPainter {
 
     private static Game bwapi;
+    
+    /**
+     * Size of the visible part of the map in pixels; units further than the margin from it aren't painted.
+     */
+    private static final int SCREEN_WIDTH = 640;
+    private static final int SCREEN_HEIGHT = 480;
+    private static final int SCREEN_MARGIN = 64;
+    
     private static int sideMessageTopCounter = 0;
     private static int sideMessageMiddleCounter = 0;
     private static int sideMessageBottomCounter = 0;
@@ -76,10 +86,11 @@ public class AtlantisPainter {
         paintConstructionsPending();
         paintKilledAndLost();
         paintTemporaryTargets();
+        paintTimings();
 
         // =========================================================
         // Paint TOOLTIPS over units
-        for (Unit unit : Select.our().list()) {
+        for (Unit unit : onScreen(Select.our())) {
             if (TooltipManager.hasTooltip(unit)) { // unit.hasTooltip()
             	//System.out.println("-tooltip: " + TooltipManager.getTooltipObject(unit)); //TODO DEBUG
                 paintTextCentered(unit.getPosition(), TooltipManager.getTooltip(unit), false);
@@ -103,6 +114,16 @@ public class AtlantisPainter {
         // Gas workers
         paintSideMessage("Gas workers: " + AtlantisGasManager.defineMinGasWorkersPerBuilding(), Color.Grey);
         
+        // =========================================================
+        // Orders sent to the game / dropped as redundant in the last frame
+        paintSideMessage("Orders: " + CommandBuffer.getIssuedLastFrame() + " sent, " 
+                + CommandBuffer.getSuppressedLastFrame() + " dropped", Color.Grey);
+        
+        // =========================================================
+        // Combat evaluations reused from previous frames / computed again
+        paintSideMessage("Combat eval cache: " + AtlantisCombatEvaluator.getCacheHits() + " hits, " 
+                + AtlantisCombatEvaluator.getCacheMisses() + " misses", Color.Grey);
+        
         // =========================================================
         // Global mission
         paintSideMessage("Mission: " + AtlantisGroupManager.getAlphaGroup().getMission().getName(), Color.White);
@@ -127,7 +148,7 @@ public class AtlantisPainter {
      * Paints small progress bars over units that have cooldown.
      */
     private static void paintSpecialsOverUnits() {
-        for (Unit unit : Select.ourCombatUnits().list()) {
+        for (Unit unit : onScreen(Select.ourCombatUnits())) {
 
             // =========================================================
             // === Paint life bars bars over wounded units
@@ -405,7 +426,7 @@ public class AtlantisPainter {
      * Paints circles around units which mean what's their mission.
      */
     private static void paintColorCirclesAroundUnits() {
-        for (Unit unit : Select.ourCombatUnits().list()) {
+        for (Unit unit : onScreen(Select.ourCombatUnits())) {
 
             // STARTING ATTACK
 //            if (unit.isStartingAttack()) {
@@ -619,6 +640,34 @@ public class AtlantisPainter {
         paintMessage((balance >= 0 ? "+" : "") + balance, color, x + dx, y + 3 * dy, true);
     }
     
+    /**
+     * Paints p50, p99 and max time of every measured stage on the right side of the screen, see
+     * <b>AtlantisTimings</b>.
+     */
+    private static void paintTimings() {
+        if (!AtlantisConfig.PAINT_TIMINGS) {
+            return;
+        }
+
+        int x = 440;
+        int y = 60;
+        int dy = 10;
+
+        paintMessage("Frames > 55ms: " + AtlantisTimings.FRAME.countAbove(AtlantisTimings.FRAME_LIMIT_55_MS)
+                + ", > 85ms: " + AtlantisTimings.FRAME.countAbove(AtlantisTimings.FRAME_LIMIT_85_MS), 
+                Color.White, x, y, true);
+        for (TimingHistogram histogram : AtlantisTimings.getStages()) {
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            y += dy;
+            Color color = histogram.getPercentile(99) > AtlantisTimings.FRAME_LIMIT_55_MS ? Color.Red : Color.Grey;
+            paintMessage(String.format("%s: %.1f / %.1f / %.1f ms", histogram.getName(), 
+                    histogram.getPercentile(50) / 1000000.0, histogram.getPercentile(99) / 1000000.0, 
+                    histogram.getMax() / 1000000.0), color, x, y, true);
+        }
+    }
+    
     /**
      * Paint red "X" on every enemy unit that has been targetted.
      */
@@ -635,6 +684,20 @@ public class AtlantisPainter {
 
     // =========================================================
     // Lo-level
+    
+    /**
+     * Returns units of the selection that are on the screen (or just next to it), so nothing is painted over
+     * units that can't be seen anyway.
+     */
+    private static List<Unit> onScreen(Select<Unit> units) {
+        Position screen = bwapi.getScreenPosition();
+        return units.inRectangle(
+                new Position(screen.getX() - SCREEN_MARGIN, screen.getY() - SCREEN_MARGIN),
+                new Position(screen.getX() + SCREEN_WIDTH + SCREEN_MARGIN, 
+                        screen.getY() + SCREEN_HEIGHT + SCREEN_MARGIN)
+        ).list();
+    }
+    
     private static void paintSideMessage(String text, Color color) {
         paintSideMessage(text, color, 0);
     }
@@ -0,0 +1,110 @@
+package atlantis.debug;
+
+import atlantis.AtlantisConfig;
+import atlantis.debug.AtlantisLog.Category;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects timings of whole frames, of every commander (see <b>AtlantisScheduler</b>) and of the most
+ * expensive methods. Statistics are saved to <b>AtlantisConfig.TIMINGS_FILE_PATH</b> at the end of the game
+ * and can be painted in game, see <b>AtlantisConfig.PAINT_TIMINGS</b>.
+ * <br />
+ * Usage: <b>long start = System.nanoTime(); ... AtlantisTimings.COMBAT_EVAL.recordSince(start);</b>
+ * Histograms are not thread-safe, record only in the main thread.
+ */
+public class AtlantisTimings {
+
+    /**
+     * Tournament rules: bot loses if it has too many frames longer than these limits.
+     */
+    public static final long FRAME_LIMIT_55_MS = 55000000L;
+    public static final long FRAME_LIMIT_85_MS = 85000000L;
+
+    private static final Map<String, TimingHistogram> stages = new LinkedHashMap<>();
+
+    // =========================================================
+    // Stages measured outside of the scheduler
+    public static final TimingHistogram FRAME = stage("Frame");
+    public static final TimingHistogram COMBAT_EVAL = stage("Combat eval");
+    public static final TimingHistogram COMBAT_DECISION_PHASE = stage("Combat decision phase");
+    public static final TimingHistogram TARGETING = stage("Targeting");
+    public static final TimingHistogram POSITION_FINDING = stage("Position finding");
+    public static final TimingHistogram QUEUE_REBUILD = stage("Queue rebuild");
+
+    // =========================================================
+    /**
+     * Returns histogram for the stage with given name, creating it if needed.
+     */
+    public static TimingHistogram stage(String name) {
+        TimingHistogram histogram = stages.get(name);
+        if (histogram == null) {
+            histogram = new TimingHistogram(name);
+            stages.put(name, histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns histograms of all stages, in order of creation.
+     */
+    public static List<TimingHistogram> getStages() {
+        return new ArrayList<>(stages.values());
+    }
+
+    /**
+     * Clears statistics of all stages, e.g. when new game starts.
+     */
+    public static void reset() {
+        for (TimingHistogram histogram : stages.values()) {
+            histogram.reset();
+        }
+    }
+
+    // =========================================================
+    // Export
+    /**
+     * Returns statistics of all stages and numbers of frames over the tournament limits.
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Frames over 55 ms: %d, over 85 ms: %d%n",
+                FRAME.countAbove(FRAME_LIMIT_55_MS), FRAME.countAbove(FRAME_LIMIT_85_MS)));
+        for (TimingHistogram histogram : stages.values()) {
+            if (histogram.getCount() > 0) {
+                report.append(histogram).append(String.format("%n"));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes report to the log, line by line.
+     */
+    public static void logReport() {
+        for (String line : getReport().split("\\r?\\n")) {
+            AtlantisLog.info(Category.TIMINGS, "Timings:", line);
+        }
+    }
+
+    /**
+     * Saves report to <b>AtlantisConfig.TIMINGS_FILE_PATH</b>.
+     */
+    public static void saveReport() {
+        File file = new File(AtlantisConfig.TIMINGS_FILE_PATH);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.print(getReport());
+        } catch (IOException e) {
+            AtlantisLog.warn(Category.TIMINGS, "Can't save timings:", e);
+        }
+    }
+
+}
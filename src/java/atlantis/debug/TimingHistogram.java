@@ -0,0 +1,134 @@
+package atlantis.debug;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds with logarithmic buckets (like HdrHistogram): every power of two
+ * is split into <b>SUB_BUCKETS</b> equal buckets, so percentiles are accurate to about 3% for any duration.
+ * Recording is a few arithmetic operations and doesn't allocate anything.
+ */
+public class TimingHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    // =========================================================
+    public TimingHistogram(String name) {
+        this.name = name;
+    }
+
+    // =========================================================
+    /**
+     * Records single duration (in nanoseconds).
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[bucketOf(nanos)]++;
+        count++;
+        total += nanos;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    /**
+     * Records time elapsed since <b>startNanos</b> (value returned by System.nanoTime()).
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    // =========================================================
+    // Statistics
+    /**
+     * Returns duration (in nanoseconds) not exceeded by given percent of recorded values.
+     */
+    public long getPercentile(double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        long needed = Math.max(1, (long) Math.ceil(count * percent / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= needed) {
+                return Math.min(max, highestValueIn(bucket));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns how many recorded values were greater than <b>nanos</b> (approximately, with bucket precision).
+     */
+    public long countAbove(long nanos) {
+        long result = 0;
+        for (int bucket = bucketOf(nanos) + 1; bucket < BUCKETS; bucket++) {
+            result += counts[bucket];
+        }
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-22s count %8d, mean %8.3f ms, p50 %8.3f ms, p95 %8.3f ms, p99 %8.3f ms, "
+                + "max %8.3f ms", name, count, getMean() / 1000000, getPercentile(50) / 1000000.0,
+                getPercentile(95) / 1000000.0, getPercentile(99) / 1000000.0, max / 1000000.0);
+    }
+
+    // =========================================================
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+}
@@ -1,13 +1,14 @@
 package atlantis.debug.tooltip;
 
-import java.util.HashMap;
-
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.util.UnitUtil;
+import atlantis.wrappers.UnitSideTable;
 import bwapi.Unit;
 import bwapi.UnitType;
 
 public class TooltipManager {
-	private static HashMap<Unit, Tooltip> tooltips = new HashMap<>();
+	private static UnitSideTable<Tooltip> tooltips = new UnitSideTable<>();
 	
 	private TooltipManager() { }
 	
@@ -21,7 +22,7 @@ public class TooltipManager {
 		
 		tooltips.put(unit, new Tooltip(unit, tooltip));
 		if(unit.getType().equals(UnitType.Terran_Marine)){
-			System.out.println("--set: " + tooltip + " // " + tooltips.get(unit)); //TODO debug
+			AtlantisLog.debug(Category.GENERAL, "--set:", tooltip, tooltips.get(unit));
 		}
 		
 	}
@@ -37,7 +38,7 @@ public class TooltipManager {
     	if(! tooltips.containsKey(unit)) return null;
     	
     	if(unit.getType().equals(UnitType.Terran_Marine)){
-			System.out.println("--get: " + tooltips.get(unit)); //TODO debug
+			AtlantisLog.debug(Category.GENERAL, "--get:", tooltips.get(unit));
 		}
     	
     	return tooltips.get(unit).getTooltip();
@@ -0,0 +1,338 @@
+package atlantis.headless;
+
+import atlantis.AtlantisConfig;
+import atlantis.AtlantisGame;
+import atlantis.combat.AtlantisCombatEvaluator;
+import atlantis.combat.simulation.AtlantisCombatSimulator;
+import atlantis.combat.simulation.SimUnitTypes;
+import atlantis.constructing.position.PlacementQuery;
+import atlantis.constructing.position.TerranPositionFinder;
+import atlantis.headless.SyntheticPopulation.Clustering;
+import atlantis.information.UnitGrid;
+import atlantis.information.WorldSnapshot;
+import atlantis.wrappers.Select;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import bwapi.Position;
+import bwapi.Unit;
+import bwapi.UnitType;
+
+/**
+ * Micro benchmarks of unit queries, run without StarCraft on <b>SyntheticPopulation</b>s of different sizes
+ * and clustering.
+ * <br />
+ * Cases of decisions of the bot (combat evaluation, building placement, production queue) need the whole bot,
+ * so they're run in the <b>HeadlessGame</b> instead, after the bot has played a few hundred frames; units of
+ * the population are created in the game for the time of the measurement.
+ * <br />
+ * Every case is warmed up first, then measured for a fixed time. Reported are throughput (operations per
+ * second), average and 99th percentile time of a single operation and bytes allocated per operation.
+ */
+public class HeadlessBenchmark {
+
+    public static final int[] POPULATION_SIZES = {10, 50, 200, 400};
+
+    private static final long WARMUP_NANOS = 300000000L;
+    private static final long MEASUREMENT_NANOS = 1000000000L;
+
+    /**
+     * Times of this many last operations are used to compute the percentile.
+     */
+    private static final int LATENCY_SAMPLES = 1 << 20;
+
+    /**
+     * Frames played by the bot before cases run in the headless game are measured.
+     */
+    private static final int GAME_WARMUP_FRAMES = 500;
+
+    /**
+     * Prevents JIT from removing benchmarked code as dead.
+     */
+    private static long blackhole = 0;
+
+    private final List<BenchmarkCase> cases = new ArrayList<>();
+
+    // Synthetic unit types for combat simulations: marine-like and zealot-like
+    private int rangedType;
+    private int meleeType;
+
+    // Headless game, started only if any case needs it
+    private final String mapPath;
+    private HeadlessSimulation simulation = null;
+    private Unit builder = null;
+    private Position basePosition = null;
+    private final List<HeadlessUnit> ourCreatedUnits = new ArrayList<>();
+
+    // =========================================================
+    /**
+     * Cases run in the headless game use map from given .jbwta file.
+     */
+    public HeadlessBenchmark(String mapPath) {
+        this.mapPath = mapPath;
+        cases.add(new BenchmarkCase("WorldSnapshot rebuild") {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                population.writeSnapshot(i);
+                return WorldSnapshot.size();
+            }
+        });
+        cases.add(new BenchmarkCase("Select.enemy().nearestTo") {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                return Select.enemy().nearestTo(positionOf(population, i)) == null ? 0 : 1;
+            }
+        });
+        cases.add(new BenchmarkCase("Select.enemy().inRadius(12).count") {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                return Select.enemy().inRadius(12, positionOf(population, i)).count();
+            }
+        });
+        cases.add(new BenchmarkCase("Select.our().ofType().count") {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                return Select.our().ofType(UnitType.Terran_Marine).count();
+            }
+        });
+        cases.add(new BenchmarkCase("UnitGrid.nearestIndex") {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                return UnitGrid.nearestIndex(WorldSnapshot.OWNER_ENEMY, population.getX(i), population.getY(i));
+            }
+        });
+        cases.add(new BenchmarkCase("AtlantisCombatSimulator 96 frames") {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                return simulateFight(population);
+            }
+        });
+
+        // =========================================================
+        // Cases run in the headless game
+        cases.add(new BenchmarkCase("evaluateSituation, all our units", true) {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                expireCachedEvaluations();
+                int favorable = 0;
+                for (HeadlessUnit unit : ourCreatedUnits) {
+                    if (AtlantisCombatEvaluator.evaluateSituation(unit) >= 0) {
+                        favorable++;
+                    }
+                }
+                return favorable;
+            }
+        });
+        cases.add(new BenchmarkCase("findStandardPositionFor", true) {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                UnitType building = i % 2 == 0 ? UnitType.Terran_Supply_Depot : UnitType.Terran_Barracks;
+                PlacementQuery query = new PlacementQuery(builder, building, null, basePosition, 30);
+                return TerranPositionFinder.findStandardPositionFor(query) == null ? 0 : 1;
+            }
+        });
+        cases.add(new BenchmarkCase("rebuildQueue", true) {
+            @Override
+            protected int run(SyntheticPopulation population, int i) {
+                AtlantisGame.getProductionStrategy().rebuildQueue();
+                return 1;
+            }
+        });
+    }
+
+    // =========================================================
+    /**
+     * Runs every case whose name contains <b>filter</b> (all cases if it's null) for every population size
+     * and clustering and prints the results.
+     */
+    public void runAll(String filter) throws IOException {
+        List<BenchmarkCase> selected = new ArrayList<>();
+        for (BenchmarkCase benchmarkCase : cases) {
+            if (filter == null || benchmarkCase.name.contains(filter)) {
+                selected.add(benchmarkCase);
+                if (benchmarkCase.inGame && simulation == null) {
+                    startGame();
+                }
+            }
+        }
+
+        // Starting the game reloads types of the combat simulator, synthetic types have to be added after it
+        rangedType = SimUnitTypes.addType(40, 0, 0, SimUnitTypes.SIZE_SMALL, false, 4, 50, 6, 15, 128);
+        meleeType = SimUnitTypes.addType(100, 60, 1, SimUnitTypes.SIZE_SMALL, false, 4, 100, 16, 22, 15);
+
+        System.out.println(String.format("%-36s %-12s %6s %14s %12s %12s %12s", "Case", "Clustering", "Units",
+                "ops/s", "avg ns/op", "p99 ns/op", "bytes/op"));
+        for (BenchmarkCase benchmarkCase : selected) {
+            for (Clustering clustering : Clustering.values()) {
+                for (int size : POPULATION_SIZES) {
+                    SyntheticPopulation population = new SyntheticPopulation(size, clustering, size);
+                    if (benchmarkCase.inGame) {
+                        List<HeadlessUnit> created = createInGame(population);
+                        System.out.println(benchmarkCase.measure(population));
+                        removeFromGame(created);
+                    }
+                    else {
+                        population.writeSnapshot(0);
+                        System.out.println(benchmarkCase.measure(population));
+                    }
+                }
+            }
+        }
+        if (blackhole == 42) {
+            System.out.println();
+        }
+    }
+
+    // =========================================================
+    // Headless game
+    /**
+     * Starts the bot in the headless game and lets it play for a while, so it has its build order going and
+     * knows where to build.
+     */
+    private void startGame() throws IOException {
+        simulation = new HeadlessSimulation(HeadlessMap.load(mapPath, 0), 1);
+        for (int i = 0; i < GAME_WARMUP_FRAMES; i++) {
+            simulation.step();
+        }
+        builder = Select.ourWorkers().first();
+        basePosition = Select.mainBase().getPosition();
+    }
+
+    /**
+     * Creates units of the population in the game and informs the bot about them.
+     */
+    private List<HeadlessUnit> createInGame(SyntheticPopulation population) {
+        HeadlessGame game = simulation.getGame();
+        List<HeadlessUnit> created = population.createUnits(game);
+        game.dispatchEvents();
+        ourCreatedUnits.clear();
+        for (HeadlessUnit unit : created) {
+            if (unit.getPlayer() == game.getSelf()) {
+                ourCreatedUnits.add(unit);
+            }
+        }
+        WorldSnapshot.update();
+        return created;
+    }
+
+    private void removeFromGame(List<HeadlessUnit> created) {
+        HeadlessGame game = simulation.getGame();
+        for (HeadlessUnit unit : created) {
+            game.destroy(unit, false);
+        }
+        game.dispatchEvents();
+        ourCreatedUnits.clear();
+        WorldSnapshot.update();
+    }
+
+    /**
+     * Moves the game so many frames forward that no cached combat evaluation can be used, and rebuilds the
+     * snapshot for the new frame. It's what happens in the game when units move, so the measured time
+     * includes the snapshot rebuild.
+     */
+    private void expireCachedEvaluations() {
+        simulation.getGame().skipFrames(AtlantisConfig.COMBAT_EVAL_CACHE_TTL_FRAMES);
+        WorldSnapshot.update();
+    }
+
+    // =========================================================
+    /**
+     * Simulates fight of ranged units (first half of population) against melee units (second half), with
+     * synthetic unit types, as type data of StarCraft isn't available here.
+     */
+    private int simulateFight(SyntheticPopulation population) {
+        int perSide = Math.min(population.getSize() / 2, AtlantisCombatSimulator.MAX_UNITS);
+        AtlantisCombatSimulator simulator = AtlantisCombatSimulator.acquire();
+        for (int k = 0; k < perSide; k++) {
+            simulator.addUnit(AtlantisCombatSimulator.OUR, rangedType, population.getX(k), population.getY(k), 40, 0);
+            simulator.addUnit(AtlantisCombatSimulator.ENEMY, meleeType, population.getX(perSide + k), 
+                    population.getY(perSide + k), 100, 60);
+        }
+        simulator.simulate(96);
+        int survivors = simulator.getUnitsCount(AtlantisCombatSimulator.OUR);
+        simulator.release();
+        return survivors;
+    }
+
+    private static Position positionOf(SyntheticPopulation population, int i) {
+        return new Position(population.getX(i), population.getY(i));
+    }
+
+    /**
+     * Returns number of bytes allocated so far by the current thread, or -1 if JVM can't tell.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    // =========================================================
+    /**
+     * Single benchmarked operation.
+     */
+    private static abstract class BenchmarkCase {
+
+        private final String name;
+        private final boolean inGame;
+
+        public BenchmarkCase(String name) {
+            this(name, false);
+        }
+
+        /**
+         * If <b>inGame</b> is true, the operation is measured in the headless game, with units of the
+         * population created in it.
+         */
+        public BenchmarkCase(String name, boolean inGame) {
+            this.name = name;
+            this.inGame = inGame;
+        }
+
+        /**
+         * Executes the operation once; <b>i</b> is the number of this execution.
+         */
+        protected abstract int run(SyntheticPopulation population, int i);
+
+        private String measure(SyntheticPopulation population) {
+
+            // Warm up
+            long start = System.nanoTime();
+            for (int i = 0; System.nanoTime() - start < WARMUP_NANOS; i++) {
+                blackhole += run(population, i);
+            }
+            if (!inGame) {
+                population.writeSnapshot(0);
+            }
+
+            // Measure
+            long[] times = new long[LATENCY_SAMPLES];
+            int operations = 0;
+            long allocatedBefore = allocatedBytes();
+            start = System.nanoTime();
+            long now = start;
+            while (now - start < MEASUREMENT_NANOS) {
+                long before = now;
+                blackhole += run(population, operations);
+                now = System.nanoTime();
+                times[operations++ % LATENCY_SAMPLES] = now - before;
+            }
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            int samples = Math.min(operations, LATENCY_SAMPLES);
+            Arrays.sort(times, 0, samples);
+            double seconds = (now - start) / 1000000000.0;
+            return String.format("%-36s %-12s %6d %14.0f %12.0f %12d %12s", name, population.getClustering(),
+                    population.getSize(), operations / seconds, (now - start) / (double) operations,
+                    times[Math.min(samples - 1, (int) (samples * 99L / 100))],
+                    allocatedBefore < 0 ? "n/a" : String.format("%.1f", allocated / (double) operations));
+        }
+
+    }
+
+}
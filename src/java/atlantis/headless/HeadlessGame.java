@@ -0,0 +1,864 @@
+package atlantis.headless;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bwapi.BWEventListener;
+import bwapi.Color;
+import bwapi.Game;
+import bwapi.Player;
+import bwapi.Position;
+import bwapi.Race;
+import bwapi.TilePosition;
+import bwapi.Unit;
+import bwapi.UnitType;
+import bwapi.WalkPosition;
+import bwta.BaseLocation;
+
+/**
+ * Game played without StarCraft, on a <b>HeadlessMap</b>: overrides methods of the BWAPI game used by the
+ * bot, so the real <b>Atlantis</b> can be driven by it (see <b>HeadlessSimulation</b>). Units are
+ * <b>HeadlessUnit</b>s and players are <b>HeadlessPlayer</b>s; the whole map is visible to both players.
+ * <br />
+ * Mineral fields and geysers aren't stored in the map file, so they're placed next to every base location,
+ * on the side with the most walkable tiles. Drawing and other methods related to the screen do nothing.
+ */
+public class HeadlessGame extends Game {
+
+    private static final int TILE = 32;
+    private static final int MINERAL_FIELD_AMOUNT = 1500;
+
+    /**
+     * Distance maps of this many destinations are cached, then the cache is cleared.
+     */
+    private static final int MAX_DISTANCE_MAPS = 256;
+
+    // =========================================================
+    // Events sent to the listener
+    private static final int CREATE = 0;
+    private static final int DISCOVER = 1;
+    private static final int SHOW = 2;
+    private static final int COMPLETE = 3;
+    private static final int MORPH = 4;
+    private static final int DESTROY = 5;
+
+    // =========================================================
+    private final HeadlessMap map;
+    private final HeadlessPlayer self;
+    private final HeadlessPlayer enemy;
+    private final HeadlessPlayer neutral;
+    private final List<HeadlessUnit> units = new ArrayList<>();
+    private final List<Unit> staticMinerals = new ArrayList<>();
+    private final List<Unit> staticGeysers = new ArrayList<>();
+    private final List<TilePosition> startLocations = new ArrayList<>();
+    private final Map<Integer, int[]> distanceMaps = new HashMap<>();
+
+    private final List<Integer> eventTypes = new ArrayList<>();
+    private final List<HeadlessUnit> eventUnits = new ArrayList<>();
+    private BWEventListener listener = null;
+
+    private int frame = 0;
+    private int nextId = 0;
+
+    // =========================================================
+    /**
+     * Creates game between our and enemy Terran players, starting at the first start location of the map and
+     * at the start location farthest from it.
+     */
+    public HeadlessGame(HeadlessMap map) {
+        this.map = map;
+
+        List<BaseLocation> baseLocations = map.getBaseLocations();
+        for (BaseLocation base : baseLocations) {
+            if (base.isStartLocation()) {
+                startLocations.add(base.getTilePosition());
+            }
+        }
+        if (startLocations.size() < 2) {
+            throw new IllegalArgumentException("Map " + map.getHash() + " has less than 2 start locations");
+        }
+        TilePosition ourStart = startLocations.get(0);
+        TilePosition enemyStart = startLocations.get(1);
+        for (TilePosition start : startLocations) {
+            if (start.getDistance(ourStart) > enemyStart.getDistance(ourStart)) {
+                enemyStart = start;
+            }
+        }
+
+        self = new HeadlessPlayer(0, "Atlantis", Race.Terran, ourStart);
+        enemy = new HeadlessPlayer(1, "Opponent", Race.Terran, enemyStart);
+        neutral = new HeadlessPlayer(2, "Neutral", Race.None, TilePosition.None);
+        self.setEnemy(enemy);
+        enemy.setEnemy(self);
+
+        for (int i = 0; i < baseLocations.size(); i++) {
+            placeResources(i, baseLocations.get(i));
+        }
+    }
+
+    /**
+     * Sets the bot which receives events of units, sent by <b>dispatchEvents()</b>.
+     */
+    public void setListener(BWEventListener listener) {
+        this.listener = listener;
+    }
+
+    // =========================================================
+    // Simulation
+    /**
+     * Simulates single frame of every unit. Units created in this frame act from the next one.
+     */
+    public void update() {
+        for (HeadlessUnit unit : new ArrayList<>(units)) {
+            if (unit.exists()) {
+                unit.update();
+            }
+        }
+        frame++;
+    }
+
+    /**
+     * Advances the frame counter without simulating units, so values the bot caches for several frames
+     * expire. Used by <b>HeadlessBenchmark</b>.
+     */
+    void skipFrames(int frames) {
+        frame += frames;
+    }
+
+    /**
+     * Sends events of units which happened since the last call to the listener, in the order they happened.
+     */
+    public void dispatchEvents() {
+        for (int i = 0; i < eventTypes.size(); i++) {
+            HeadlessUnit unit = eventUnits.get(i);
+            switch (eventTypes.get(i)) {
+                case CREATE:
+                    listener.onUnitCreate(unit);
+                    break;
+                case DISCOVER:
+                    listener.onUnitDiscover(unit);
+                    break;
+                case SHOW:
+                    listener.onUnitShow(unit);
+                    break;
+                case COMPLETE:
+                    listener.onUnitComplete(unit);
+                    break;
+                case MORPH:
+                    listener.onUnitMorph(unit);
+                    break;
+                case DESTROY:
+                    listener.onUnitDestroy(unit);
+                    break;
+            }
+        }
+        eventTypes.clear();
+        eventUnits.clear();
+    }
+
+    /**
+     * Creates unit at given position. Units which exist when the game starts should be completed, they're only
+     * discovered by the bot; units created later are also reported as created.
+     */
+    public HeadlessUnit createUnit(HeadlessPlayer owner, UnitType type, int x, int y, boolean completed) {
+        HeadlessUnit unit = new HeadlessUnit(this, nextId++, owner, type, x, y, completed);
+        units.add(unit);
+        owner.addUnit(unit);
+        if (frame > 0 || !completed) {
+            addEvent(CREATE, unit);
+        }
+        addEvent(DISCOVER, unit);
+        addEvent(SHOW, unit);
+        return unit;
+    }
+
+    /**
+     * Creates completed building with its top left corner at given tile.
+     */
+    public HeadlessUnit createBuilding(HeadlessPlayer owner, UnitType type, TilePosition tile) {
+        return createUnit(owner, type, tile.getX() * TILE + type.tileWidth() * TILE / 2,
+                tile.getY() * TILE + type.tileHeight() * TILE / 2, true);
+    }
+
+    /**
+     * Starts construction of given building, not completed yet. Refinery is built on the geyser, which
+     * becomes the refinery.
+     */
+    HeadlessUnit startBuilding(HeadlessPlayer owner, UnitType type, TilePosition tile) {
+        if (type.isRefinery()) {
+            HeadlessUnit geyser = geyserAt(tile);
+            neutral.removeUnit(geyser, false);
+            geyser.morph(owner, type);
+            owner.addUnit(geyser);
+            addEvent(MORPH, geyser);
+            return geyser;
+        }
+        return createUnit(owner, type, tile.getX() * TILE + type.tileWidth() * TILE / 2,
+                tile.getY() * TILE + type.tileHeight() * TILE / 2, false);
+    }
+
+    void unitCompleted(HeadlessUnit unit) {
+        addEvent(COMPLETE, unit);
+    }
+
+    void destroy(HeadlessUnit unit, boolean killedByEnemy) {
+        unit.markDestroyed();
+        units.remove(unit);
+        ((HeadlessPlayer) unit.getPlayer()).removeUnit(unit, killedByEnemy);
+        addEvent(DESTROY, unit);
+    }
+
+    private void addEvent(int type, HeadlessUnit unit) {
+        eventTypes.add(type);
+        eventUnits.add(unit);
+    }
+
+    // =========================================================
+    // Queries of units
+    /**
+     * Returns enemy unit nearest to given unit within given distance (between edges), or null.
+     */
+    HeadlessUnit nearestEnemy(HeadlessUnit unit, int maxDistance) {
+        HeadlessPlayer enemyOfUnit = unit.getPlayer() == self ? enemy : (unit.getPlayer() == enemy ? self : null);
+        if (enemyOfUnit == null) {
+            return null;
+        }
+        HeadlessUnit nearest = null;
+        int nearestDistance = maxDistance;
+        for (HeadlessUnit other : enemyOfUnit.getHeadlessUnits()) {
+            int distance = unit.getDistance(other);
+            if (distance <= nearestDistance) {
+                nearest = other;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Returns completed resource depot of given player nearest to (x, y), or null.
+     */
+    HeadlessUnit nearestDepot(HeadlessPlayer owner, double x, double y) {
+        HeadlessUnit nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (HeadlessUnit unit : owner.getHeadlessUnits()) {
+            if (unit.getType().isResourceDepot() && unit.isCompleted()) {
+                double distance = unit.getPosition().getDistance((int) x, (int) y);
+                if (distance < nearestDistance) {
+                    nearest = unit;
+                    nearestDistance = distance;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Returns mineral field nearest to (x, y) within 10 tiles, or null. If <b>free</b> is true, only mineral
+     * fields which aren't being gathered are considered.
+     */
+    HeadlessUnit nearestMineral(double x, double y, boolean free) {
+        HeadlessUnit nearest = null;
+        double nearestDistance = 10 * TILE;
+        for (HeadlessUnit unit : neutral.getHeadlessUnits()) {
+            if (unit.getType().isMineralField() && !(free && unit.isBeingGathered())) {
+                double distance = unit.getPosition().getDistance((int) x, (int) y);
+                if (distance < nearestDistance) {
+                    nearest = unit;
+                    nearestDistance = distance;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private HeadlessUnit geyserAt(TilePosition tile) {
+        for (HeadlessUnit unit : neutral.getHeadlessUnits()) {
+            if (unit.getType() == UnitType.Resource_Vespene_Geyser && unit.getTilePosition().getX() == tile.getX()
+                    && unit.getTilePosition().getY() == tile.getY()) {
+                return unit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if any building or resource occupies build tile (tx, ty).
+     */
+    private boolean isOccupied(int tx, int ty) {
+        for (HeadlessUnit unit : units) {
+            UnitType type = unit.getType();
+            if (type.isBuilding() || type.isResourceContainer()) {
+                TilePosition tile = unit.getTilePosition();
+                if (tx >= tile.getX() && ty >= tile.getY() && tx < tile.getX() + type.tileWidth()
+                        && ty < tile.getY() + type.tileHeight()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns point (x, y) towards which a ground unit at (fromX, fromY) should move to get to (toX, toY): the
+     * center of the next tile of the shortest path, or the destination itself if it's in the neighbouring
+     * tile or isn't reachable.
+     */
+    double[] nextStep(double fromX, double fromY, double toX, double toY) {
+        int width = map.getWidth();
+        int from = (int) (fromY / TILE) * width + (int) (fromX / TILE);
+        int to = (int) (toY / TILE) * width + (int) (toX / TILE);
+        int[] distances = distanceMap(to);
+        if (distances == null || from < 0 || from >= distances.length || distances[from] <= 1) {
+            return new double[] {toX, toY};
+        }
+
+        int best = from;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int tx = from % width + dx;
+                int ty = from / width + dy;
+                if (map.isWalkable(tx, ty) && distances[ty * width + tx] >= 0
+                        && distances[ty * width + tx] < distances[best]) {
+                    best = ty * width + tx;
+                }
+            }
+        }
+        return new double[] {best % width * TILE + TILE / 2, best / width * TILE + TILE / 2};
+    }
+
+    /**
+     * Breadth-first search over walkable tiles, returns walking distance (in tiles) from every tile to the given
+     * one, -1 if unreachable. Diagonal steps can't cut corners. Returns null if the tile isn't walkable.
+     */
+    private int[] distanceMap(int to) {
+        int[] distances = distanceMaps.get(to);
+        if (distances != null) {
+            return distances;
+        }
+        int width = map.getWidth();
+        if (to < 0 || !map.isWalkable(to % width, to / width)) {
+            return null;
+        }
+        if (distanceMaps.size() >= MAX_DISTANCE_MAPS) {
+            distanceMaps.clear();
+        }
+
+        distances = new int[width * map.getHeight()];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        distances[to] = 0;
+        queue[tail++] = to;
+        while (head < tail) {
+            int tile = queue[head++];
+            int tx = tile % width;
+            int ty = tile / width;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = tx + dx;
+                    int ny = ty + dy;
+                    if (map.isWalkable(nx, ny) && distances[ny * width + nx] < 0 && map.isWalkable(nx, ty)
+                            && map.isWalkable(tx, ny)) {
+                        distances[ny * width + nx] = distances[tile] + 1;
+                        queue[tail++] = ny * width + nx;
+                    }
+                }
+            }
+        }
+        distanceMaps.put(to, distances);
+        return distances;
+    }
+
+    boolean isWalkablePixel(double x, double y) {
+        return x >= 0 && y >= 0 && map.isWalkable((int) (x / TILE), (int) (y / TILE));
+    }
+
+    // =========================================================
+    // Setting up the game
+    /**
+     * Places mineral fields (in a line of 2x1 tiles) on the side of the base location with the most walkable
+     * tiles, and the geyser on the second best side.
+     */
+    private void placeResources(int baseIndex, BaseLocation base) {
+        int tx = base.getTilePosition().getX();
+        int ty = base.getTilePosition().getY();
+
+        // Left, right, above and below the 4x3 resource depot
+        int[][] sides = {{tx - 7, ty - 3, 2, 9}, {tx + 7, ty - 3, 2, 9}, {tx - 5, ty - 6, 14, 2},
+            {tx - 5, ty + 6, 14, 2}};
+        Integer[] order = {0, 1, 2, 3};
+        final int[] walkable = new int[sides.length];
+        for (int side = 0; side < sides.length; side++) {
+            walkable[side] = countWalkable(sides[side][0], sides[side][1], sides[side][2], sides[side][3]);
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return walkable[b] != walkable[a] ? walkable[b] - walkable[a] : a - b;
+            }
+        });
+
+        // Mineral fields
+        int[] mineralSide = sides[order[0]];
+        boolean vertical = mineralSide[2] == 2;
+        int fields = Math.max(1, Math.min(9, base.minerals() / MINERAL_FIELD_AMOUNT));
+        int placed = 0;
+        for (int i = 0; placed < fields && i < (vertical ? 9 : 7); i++) {
+            int fx = vertical ? mineralSide[0] : mineralSide[0] + 2 * i;
+            int fy = vertical ? mineralSide[1] + i : mineralSide[1] + (i % 2);
+            if (countWalkable(fx, fy, 2, 1) == 2) {
+                HeadlessUnit mineral = createBuilding(neutral, UnitType.Resource_Mineral_Field,
+                        new TilePosition(fx, fy));
+                mineral.setResources(MINERAL_FIELD_AMOUNT);
+                staticMinerals.add(mineral);
+                map.addResource(baseIndex, mineral);
+                placed++;
+            }
+        }
+
+        // Geyser
+        if (base.gas() > 0) {
+            int[] geyserSide = sides[order[1]];
+            int gx = geyserSide[2] == 2 ? (geyserSide[0] < tx ? tx - 7 : tx + 7) : tx;
+            int gy = geyserSide[2] == 2 ? ty : (geyserSide[1] < ty ? ty - 5 : ty + 6);
+            if (isFreeArea(gx, gy, 4, 2)) {
+                HeadlessUnit geyser = createBuilding(neutral, UnitType.Resource_Vespene_Geyser,
+                        new TilePosition(gx, gy));
+                geyser.setResources(base.gas());
+                staticGeysers.add(geyser);
+                map.addResource(baseIndex, geyser);
+            }
+        }
+    }
+
+    private int countWalkable(int tx, int ty, int width, int height) {
+        int count = 0;
+        for (int y = ty; y < ty + height; y++) {
+            for (int x = tx; x < tx + width; x++) {
+                if (map.isWalkable(x, y)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if all build tiles of given area are walkable and not occupied by any building or resource.
+     */
+    boolean isFreeArea(int tx, int ty, int width, int height) {
+        for (int y = ty; y < ty + height; y++) {
+            for (int x = tx; x < tx + width; x++) {
+                if (!map.isWalkable(x, y) || isOccupied(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // =========================================================
+    // Players and units
+    public HeadlessPlayer getSelf() {
+        return self;
+    }
+
+    public HeadlessPlayer getEnemy() {
+        return enemy;
+    }
+
+    public HeadlessMap getHeadlessMap() {
+        return map;
+    }
+
+    /**
+     * Returns all units which exist, in order of creation.
+     */
+    public List<HeadlessUnit> getHeadlessUnits() {
+        return units;
+    }
+
+    @Override
+    public Player self() {
+        return self;
+    }
+
+    @Override
+    public Player enemy() {
+        return enemy;
+    }
+
+    @Override
+    public Player neutral() {
+        return neutral;
+    }
+
+    @Override
+    public List<Player> enemies() {
+        return new ArrayList<Player>(Arrays.asList(enemy));
+    }
+
+    @Override
+    public List<Player> allies() {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public List<Player> getPlayers() {
+        return new ArrayList<Player>(Arrays.asList(self, enemy, neutral));
+    }
+
+    @Override
+    public List<Unit> getAllUnits() {
+        return new ArrayList<Unit>(units);
+    }
+
+    @Override
+    public List<Unit> getNeutralUnits() {
+        return neutral.getUnits();
+    }
+
+    @Override
+    public List<Unit> getMinerals() {
+        List<Unit> minerals = new ArrayList<>();
+        for (HeadlessUnit unit : neutral.getHeadlessUnits()) {
+            if (unit.getType().isMineralField()) {
+                minerals.add(unit);
+            }
+        }
+        return minerals;
+    }
+
+    @Override
+    public List<Unit> getGeysers() {
+        List<Unit> geysers = new ArrayList<>();
+        for (HeadlessUnit unit : neutral.getHeadlessUnits()) {
+            if (unit.getType() == UnitType.Resource_Vespene_Geyser) {
+                geysers.add(unit);
+            }
+        }
+        return geysers;
+    }
+
+    @Override
+    public List<Unit> getStaticMinerals() {
+        return new ArrayList<>(staticMinerals);
+    }
+
+    @Override
+    public List<Unit> getStaticGeysers() {
+        return new ArrayList<>(staticGeysers);
+    }
+
+    @Override
+    public List<Unit> getStaticNeutralUnits() {
+        List<Unit> neutralUnits = new ArrayList<>(staticMinerals);
+        neutralUnits.addAll(staticGeysers);
+        return neutralUnits;
+    }
+
+    @Override
+    public Unit getUnit(int id) {
+        for (HeadlessUnit unit : units) {
+            if (unit.getID() == id) {
+                return unit;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Unit> getUnitsInRadius(Position position, int radius) {
+        List<Unit> inRadius = new ArrayList<>();
+        for (HeadlessUnit unit : units) {
+            if (unit.getDistance(position) <= radius) {
+                inRadius.add(unit);
+            }
+        }
+        return inRadius;
+    }
+
+    @Override
+    public List<Unit> getUnitsInRadius(int x, int y, int radius) {
+        return getUnitsInRadius(new Position(x, y), radius);
+    }
+
+    @Override
+    public List<TilePosition> getStartLocations() {
+        return new ArrayList<>(startLocations);
+    }
+
+    @Override
+    public int getFrameCount() {
+        return frame;
+    }
+
+    @Override
+    public int elapsedTime() {
+        return frame * 42 / 1000;
+    }
+
+    @Override
+    public int getLatency() {
+        return 0;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return false;
+    }
+
+    @Override
+    public boolean isReplay() {
+        return false;
+    }
+
+    // =========================================================
+    // Map
+    @Override
+    public int mapWidth() {
+        return map.getWidth();
+    }
+
+    @Override
+    public int mapHeight() {
+        return map.getHeight();
+    }
+
+    @Override
+    public String mapHash() {
+        return map.getHash();
+    }
+
+    @Override
+    public String mapFileName() {
+        return map.getHash() + ".jbwta";
+    }
+
+    @Override
+    public String mapName() {
+        return map.getHash();
+    }
+
+    /**
+     * Walk tile (8x8 pixels) is walkable if its build tile is.
+     */
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return map.isWalkable(x / 4, y / 4);
+    }
+
+    @Override
+    public boolean isWalkable(WalkPosition walkPosition) {
+        return isWalkable(walkPosition.getX(), walkPosition.getY());
+    }
+
+    @Override
+    public boolean isBuildable(int x, int y) {
+        return map.isWalkable(x, y);
+    }
+
+    @Override
+    public boolean isBuildable(int x, int y, boolean includeBuildings) {
+        return map.isWalkable(x, y) && !(includeBuildings && isOccupied(x, y));
+    }
+
+    @Override
+    public boolean isBuildable(TilePosition tilePosition) {
+        return isBuildable(tilePosition.getX(), tilePosition.getY());
+    }
+
+    @Override
+    public boolean isBuildable(TilePosition tilePosition, boolean includeBuildings) {
+        return isBuildable(tilePosition.getX(), tilePosition.getY(), includeBuildings);
+    }
+
+    @Override
+    public boolean isVisible(int x, int y) {
+        return true;
+    }
+
+    @Override
+    public boolean isVisible(TilePosition tilePosition) {
+        return true;
+    }
+
+    @Override
+    public boolean isExplored(int x, int y) {
+        return true;
+    }
+
+    @Override
+    public boolean isExplored(TilePosition tilePosition) {
+        return true;
+    }
+
+    @Override
+    public boolean hasCreep(int x, int y) {
+        return false;
+    }
+
+    @Override
+    public boolean hasCreep(TilePosition tilePosition) {
+        return false;
+    }
+
+    @Override
+    public boolean hasPower(int x, int y) {
+        return false;
+    }
+
+    @Override
+    public boolean hasPower(TilePosition tilePosition) {
+        return false;
+    }
+
+    @Override
+    public boolean hasPower(TilePosition tilePosition, UnitType unitType) {
+        return false;
+    }
+
+    @Override
+    public boolean hasPower(TilePosition tilePosition, int tileWidth, int tileHeight) {
+        return false;
+    }
+
+    @Override
+    public boolean hasPower(TilePosition tilePosition, int tileWidth, int tileHeight, UnitType unitType) {
+        return false;
+    }
+
+    /**
+     * Refinery can be built only on a geyser; other buildings on walkable tiles not occupied by any building
+     * or resource. Units don't block buildings.
+     */
+    @Override
+    public boolean canBuildHere(TilePosition tilePosition, UnitType unitType, Unit unit) {
+        if (unitType.isRefinery()) {
+            return geyserAt(tilePosition) != null;
+        }
+        return isFreeArea(tilePosition.getX(), tilePosition.getY(), unitType.tileWidth(), unitType.tileHeight());
+    }
+
+    @Override
+    public boolean canBuildHere(TilePosition tilePosition, UnitType unitType) {
+        return canBuildHere(tilePosition, unitType, null);
+    }
+
+    @Override
+    public boolean canBuildHere(TilePosition tilePosition, UnitType unitType, Unit unit, boolean checkExplored) {
+        return canBuildHere(tilePosition, unitType, unit);
+    }
+
+    // =========================================================
+    // Screen, nothing is drawn
+    @Override
+    public Position getScreenPosition() {
+        return new Position(0, 0);
+    }
+
+    @Override
+    public void setLocalSpeed(int speed) {
+    }
+
+    @Override
+    public void enableFlag(int flag) {
+    }
+
+    @Override
+    public void sendText(String text) {
+    }
+
+    @Override
+    public void printf(String text) {
+    }
+
+    @Override
+    public void drawText(bwapi.CoordinateType.Enum coordinateType, int x, int y, String text) {
+    }
+
+    @Override
+    public void drawTextMap(int x, int y, String text) {
+    }
+
+    @Override
+    public void drawTextMap(Position position, String text) {
+    }
+
+    @Override
+    public void drawTextScreen(int x, int y, String text) {
+    }
+
+    @Override
+    public void drawTextScreen(Position position, String text) {
+    }
+
+    @Override
+    public void drawBox(bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color) {
+    }
+
+    @Override
+    public void drawBox(bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color,
+            boolean isSolid) {
+    }
+
+    @Override
+    public void drawBoxMap(int x1, int y1, int x2, int y2, Color color) {
+    }
+
+    @Override
+    public void drawBoxMap(int x1, int y1, int x2, int y2, Color color, boolean isSolid) {
+    }
+
+    @Override
+    public void drawBoxMap(Position position1, Position position2, Color color) {
+    }
+
+    @Override
+    public void drawBoxMap(Position position1, Position position2, Color color, boolean isSolid) {
+    }
+
+    @Override
+    public void drawCircle(bwapi.CoordinateType.Enum coordinateType, int x, int y, int radius, Color color) {
+    }
+
+    @Override
+    public void drawCircle(bwapi.CoordinateType.Enum coordinateType, int x, int y, int radius, Color color,
+            boolean isSolid) {
+    }
+
+    @Override
+    public void drawCircleMap(int x, int y, int radius, Color color) {
+    }
+
+    @Override
+    public void drawCircleMap(int x, int y, int radius, Color color, boolean isSolid) {
+    }
+
+    @Override
+    public void drawCircleMap(Position position, int radius, Color color) {
+    }
+
+    @Override
+    public void drawCircleMap(Position position, int radius, Color color, boolean isSolid) {
+    }
+
+    @Override
+    public void drawLine(bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color) {
+    }
+
+    @Override
+    public void drawLineMap(int x1, int y1, int x2, int y2, Color color) {
+    }
+
+    @Override
+    public void drawLineMap(Position position1, Position position2, Color color) {
+    }
+
+}
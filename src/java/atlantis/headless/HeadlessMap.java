@@ -0,0 +1,491 @@
+package atlantis.headless;
+
+import atlantis.information.AtlantisGroundDistance;
+import atlantis.wrappers.MapAnalysis;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import bwapi.Pair;
+import bwapi.Position;
+import bwapi.TilePosition;
+import bwapi.Unit;
+import bwta.BaseLocation;
+import bwta.Chokepoint;
+import bwta.Polygon;
+import bwta.Region;
+
+/**
+ * Map used by the <b>HeadlessGame</b>, read from a <b>.jbwta</b> file (BWTA analysis saved in mapData/). It
+ * is also the map analysis (see <b>MapAnalysis.Source</b>) of the headless game, used instead of BWTA.
+ * <br />
+ * Lines of the file, values separated with commas:
+ * <ol>
+ * <li>region number of every build tile, row by row, where 0 means that the tile isn't walkable,</li>
+ * <li>every region: number, center x, center y,</li>
+ * <li>every chokepoint: center x, center y, width * 100, regions on both sides, x and y of both sides,</li>
+ * <li>every base location: x, y, tile x, tile y, region, minerals, gas, whether it's an island, whether it's
+ * mineral only and whether it's a start location (0 or 1).</li>
+ * </ol>
+ * The file doesn't contain dimensions of the map, so width has to be given; if it's not, the map is assumed
+ * to be square. Mineral fields and geysers aren't stored either, <b>HeadlessGame</b> places them itself.
+ */
+public class HeadlessMap implements MapAnalysis.Source {
+
+    private static final int TILE = 32;
+
+    private final String hash;
+    private final int width;
+    private final int height;
+    private final int[] tileRegions;
+
+    private final List<MapRegion> regions = new ArrayList<>();
+    private final List<MapChokepoint> chokepoints = new ArrayList<>();
+    private final List<MapBaseLocation> baseLocations = new ArrayList<>();
+
+    // =========================================================
+    private HeadlessMap(String hash, int width, int height, int[] tileRegions) {
+        this.hash = hash;
+        this.width = width;
+        this.height = height;
+        this.tileRegions = tileRegions;
+    }
+
+    /**
+     * Returns path of the first map stored in mapData/, used when no map is given.
+     */
+    public static String defaultPath() throws IOException {
+        File[] maps = new File("mapData").listFiles();
+        if (maps == null || maps.length == 0) {
+            throw new IOException("No maps found in mapData/");
+        }
+        Arrays.sort(maps);
+        return maps[0].getPath();
+    }
+
+    /**
+     * Loads map from given .jbwta file. If <b>width</b> is 0 or less, the map is assumed to be square.
+     */
+    public static HeadlessMap load(String path, int width) throws IOException {
+        List<int[]> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(parse(line));
+            }
+        }
+        if (lines.size() < 4) {
+            throw new IOException("Map file " + path + " has " + lines.size() + " lines instead of at least 4");
+        }
+
+        int[] tiles = lines.get(0);
+        if (width <= 0) {
+            width = (int) Math.round(Math.sqrt(tiles.length));
+        }
+        if (width * (tiles.length / width) != tiles.length) {
+            throw new IOException("Map " + path + " has " + tiles.length + " tiles, which doesn't match width "
+                    + width + ", map width has to be given explicitly");
+        }
+
+        String name = new File(path).getName();
+        String hash = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
+        HeadlessMap map = new HeadlessMap(hash, width, tiles.length / width, tiles);
+        map.readRegions(lines.get(1));
+        map.readChokepoints(lines.get(2));
+        map.readBaseLocations(lines.get(3));
+        map.connectRegions();
+        return map;
+    }
+
+    private static int[] parse(String line) {
+        List<Integer> values = new ArrayList<>();
+        for (String value : line.split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(Integer.parseInt(value.trim()));
+            }
+        }
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private void readRegions(int[] values) {
+        for (int i = 0; i + 2 < values.length; i += 3) {
+            regions.add(new MapRegion(values[i], new Position(values[i + 1], values[i + 2])));
+        }
+
+        // Farthest tile of every region from its center
+        for (int ty = 0; ty < height; ty++) {
+            for (int tx = 0; tx < width; tx++) {
+                MapRegion region = regionByNumber(tileRegions[ty * width + tx]);
+                if (region != null) {
+                    double dist = region.center.getDistance(tx * TILE + TILE / 2, ty * TILE + TILE / 2);
+                    region.maxDistance = Math.max(region.maxDistance, (int) dist);
+                }
+            }
+        }
+    }
+
+    private void readChokepoints(int[] values) {
+        for (int i = 0; i + 8 < values.length; i += 9) {
+            MapRegion first = regionByNumber(values[i + 3]);
+            MapRegion second = regionByNumber(values[i + 4]);
+            MapChokepoint choke = new MapChokepoint(new Position(values[i], values[i + 1]), values[i + 2] / 100.0,
+                    first, second, new Position(values[i + 5], values[i + 6]),
+                    new Position(values[i + 7], values[i + 8]));
+            chokepoints.add(choke);
+            if (first != null) {
+                first.chokepoints.add(choke);
+            }
+            if (second != null) {
+                second.chokepoints.add(choke);
+            }
+        }
+    }
+
+    private void readBaseLocations(int[] values) {
+        for (int i = 0; i + 9 < values.length; i += 10) {
+            MapRegion region = regionByNumber(values[i + 4]);
+            MapBaseLocation base = new MapBaseLocation(new Position(values[i], values[i + 1]),
+                    new TilePosition(values[i + 2], values[i + 3]), region, values[i + 5], values[i + 6],
+                    values[i + 7] != 0, values[i + 8] != 0, values[i + 9] != 0);
+            baseLocations.add(base);
+            if (region != null) {
+                region.baseLocations.add(base);
+            }
+        }
+    }
+
+    /**
+     * Finds regions reachable from every region, through chokepoints.
+     */
+    private void connectRegions() {
+        for (MapRegion region : regions) {
+            if (!region.reachable.isEmpty()) {
+                continue;
+            }
+            List<Region> component = new ArrayList<>();
+            component.add(region);
+            for (int head = 0; head < component.size(); head++) {
+                for (Chokepoint choke : component.get(head).getChokepoints()) {
+                    for (Region next : new Region[] {choke.getRegions().first, choke.getRegions().second}) {
+                        if (next != null && !component.contains(next)) {
+                            component.add(next);
+                        }
+                    }
+                }
+            }
+            for (Region member : component) {
+                ((MapRegion) member).reachable = Collections.unmodifiableList(component);
+            }
+        }
+    }
+
+    // =========================================================
+    // Terrain
+    /**
+     * Returns true if build tile (tx, ty) is inside the map and is walkable.
+     */
+    public boolean isWalkable(int tx, int ty) {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height && tileRegions[ty * width + tx] != 0;
+    }
+
+    /**
+     * Returns region number of build tile (tx, ty), 0 if it's not walkable.
+     */
+    public int getRegionNumber(int tx, int ty) {
+        return isWalkable(tx, ty) ? tileRegions[ty * width + tx] : 0;
+    }
+
+    /**
+     * Width in build tiles.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Height in build tiles.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Name of the map file, without extension; it's the hash of the map.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Adds mineral field or geyser placed by the game to the base location with given index.
+     */
+    public void addResource(int baseIndex, Unit resource) {
+        MapBaseLocation base = baseLocations.get(baseIndex);
+        if (resource.getType().isMineralField()) {
+            base.minerals.add(resource);
+        } else {
+            base.geysers.add(resource);
+        }
+    }
+
+    private MapRegion regionByNumber(int number) {
+        for (MapRegion region : regions) {
+            if (region.number == number) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    // =========================================================
+    // Map analysis
+    @Override
+    public void analyze() {
+
+        // Everything has been read from the file already
+    }
+
+    @Override
+    public List<Region> getRegions() {
+        return new ArrayList<Region>(regions);
+    }
+
+    @Override
+    public List<Chokepoint> getChokepoints() {
+        return new ArrayList<Chokepoint>(chokepoints);
+    }
+
+    @Override
+    public List<BaseLocation> getBaseLocations() {
+        return new ArrayList<BaseLocation>(baseLocations);
+    }
+
+    @Override
+    public Region getRegion(int tileX, int tileY) {
+        return regionByNumber(getRegionNumber(tileX, tileY));
+    }
+
+    @Override
+    public Region getRegion(Position position) {
+        return getRegion(position.getX() / TILE, position.getY() / TILE);
+    }
+
+    /**
+     * Uses tables of <b>AtlantisGroundDistance</b>, which are computed from this map in onStart.
+     */
+    @Override
+    public double getGroundDistance(TilePosition from, TilePosition to) {
+        double distance = AtlantisGroundDistance.groundDistance(from.toPosition(), to.toPosition());
+        return Double.isInfinite(distance) ? -1 : distance * TILE;
+    }
+
+    // =========================================================
+    /**
+     * Region read from the map file.
+     */
+    private static class MapRegion extends Region {
+
+        private final int number;
+        private final Position center;
+        private final List<Chokepoint> chokepoints = new ArrayList<>();
+        private final List<BaseLocation> baseLocations = new ArrayList<>();
+        private List<Region> reachable = Collections.emptyList();
+        private int maxDistance = 0;
+
+        public MapRegion(int number, Position center) {
+            this.number = number;
+            this.center = center;
+        }
+
+        @Override
+        public Polygon getPolygon() {
+            return null;
+        }
+
+        @Override
+        public Position getCenter() {
+            return center;
+        }
+
+        @Override
+        public List<Chokepoint> getChokepoints() {
+            return chokepoints;
+        }
+
+        @Override
+        public List<BaseLocation> getBaseLocations() {
+            return baseLocations;
+        }
+
+        @Override
+        public boolean isReachable(Region region) {
+            return reachable.contains(region);
+        }
+
+        @Override
+        public List<Region> getReachableRegions() {
+            return reachable;
+        }
+
+        @Override
+        public int getMaxDistance() {
+            return maxDistance;
+        }
+
+    }
+
+    /**
+     * Chokepoint read from the map file.
+     */
+    private static class MapChokepoint extends Chokepoint {
+
+        private final Position center;
+        private final double width;
+        private final Pair<Region, Region> regions;
+        private final Pair<Position, Position> sides;
+
+        public MapChokepoint(Position center, double width, MapRegion first, MapRegion second, Position side1,
+                Position side2) {
+            this.center = center;
+            this.width = width;
+            this.regions = new Pair<Region, Region>(first, second);
+            this.sides = new Pair<>(side1, side2);
+        }
+
+        @Override
+        public Pair<Region, Region> getRegions() {
+            return regions;
+        }
+
+        @Override
+        public Pair<Position, Position> getSides() {
+            return sides;
+        }
+
+        @Override
+        public Position getCenter() {
+            return center;
+        }
+
+        @Override
+        public double getWidth() {
+            return width;
+        }
+
+    }
+
+    /**
+     * Base location read from the map file, with mineral fields and geysers placed by the game.
+     */
+    private static class MapBaseLocation extends BaseLocation {
+
+        private final Position position;
+        private final TilePosition tilePosition;
+        private final Region region;
+        private final int mineralsTotal;
+        private final int gasTotal;
+        private final boolean island;
+        private final boolean mineralOnly;
+        private final boolean startLocation;
+        private final List<Unit> minerals = new ArrayList<>();
+        private final List<Unit> geysers = new ArrayList<>();
+
+        public MapBaseLocation(Position position, TilePosition tilePosition, Region region, int mineralsTotal,
+                int gasTotal, boolean island, boolean mineralOnly, boolean startLocation) {
+            this.position = position;
+            this.tilePosition = tilePosition;
+            this.region = region;
+            this.mineralsTotal = mineralsTotal;
+            this.gasTotal = gasTotal;
+            this.island = island;
+            this.mineralOnly = mineralOnly;
+            this.startLocation = startLocation;
+        }
+
+        @Override
+        public Position getPosition() {
+            return position;
+        }
+
+        @Override
+        public TilePosition getTilePosition() {
+            return tilePosition;
+        }
+
+        @Override
+        public Region getRegion() {
+            return region;
+        }
+
+        @Override
+        public int minerals() {
+            return mineralsTotal;
+        }
+
+        @Override
+        public int gas() {
+            return gasTotal;
+        }
+
+        /**
+         * Returns mineral fields of this base which still exist.
+         */
+        @Override
+        public List<Unit> getMinerals() {
+            List<Unit> existing = new ArrayList<>();
+            for (Unit mineral : minerals) {
+                if (mineral.exists()) {
+                    existing.add(mineral);
+                }
+            }
+            return existing;
+        }
+
+        @Override
+        public List<Unit> getStaticMinerals() {
+            return new ArrayList<>(minerals);
+        }
+
+        @Override
+        public List<Unit> getGeysers() {
+            return new ArrayList<>(geysers);
+        }
+
+        @Override
+        public double getGroundDistance(BaseLocation baseLocation) {
+            double distance = AtlantisGroundDistance.groundDistance(position, baseLocation.getPosition());
+            return Double.isInfinite(distance) ? -1 : distance * TILE;
+        }
+
+        @Override
+        public double getAirDistance(BaseLocation baseLocation) {
+            return position.getDistance(baseLocation.getPosition());
+        }
+
+        @Override
+        public boolean isIsland() {
+            return island;
+        }
+
+        @Override
+        public boolean isMineralOnly() {
+            return mineralOnly;
+        }
+
+        @Override
+        public boolean isStartLocation() {
+            return startLocation;
+        }
+
+    }
+
+}
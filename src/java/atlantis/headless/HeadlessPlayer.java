@@ -0,0 +1,334 @@
+package atlantis.headless;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bwapi.Player;
+import bwapi.Race;
+import bwapi.TechType;
+import bwapi.TilePosition;
+import bwapi.Unit;
+import bwapi.UnitType;
+import bwapi.UpgradeType;
+
+/**
+ * Player of the <b>HeadlessGame</b>: resources, supply, units and upgrades. Supply is computed from units
+ * the same way StarCraft does: units being trained already use it, buildings provide it once completed.
+ */
+public class HeadlessPlayer extends Player {
+
+    private final int id;
+    private final String name;
+    private final Race race;
+    private final TilePosition startLocation;
+    private final List<HeadlessUnit> units = new ArrayList<>();
+    private final Map<UpgradeType, Integer> upgradeLevels = new HashMap<>();
+    private final List<UpgradeType> upgrading = new ArrayList<>();
+    private HeadlessPlayer enemy = null;
+
+    private int minerals = 0;
+    private int gas = 0;
+    private int gatheredMinerals = 0;
+    private int gatheredGas = 0;
+    private int spentMinerals = 0;
+    private int spentGas = 0;
+    private int deadUnits = 0;
+    private int killedUnits = 0;
+
+    // =========================================================
+    public HeadlessPlayer(int id, String name, Race race, TilePosition startLocation) {
+        this.id = id;
+        this.name = name;
+        this.race = race;
+        this.startLocation = startLocation;
+    }
+
+    // =========================================================
+    // Changed by the game
+    void setEnemy(HeadlessPlayer enemy) {
+        this.enemy = enemy;
+    }
+
+    void addUnit(HeadlessUnit unit) {
+        units.add(unit);
+    }
+
+    void removeUnit(HeadlessUnit unit, boolean killedByEnemy) {
+        units.remove(unit);
+        deadUnits++;
+        if (killedByEnemy && enemy != null) {
+            enemy.killedUnits++;
+        }
+    }
+
+    void gather(int mineralsGathered, int gasGathered) {
+        minerals += mineralsGathered;
+        gas += gasGathered;
+        gatheredMinerals += mineralsGathered;
+        gatheredGas += gasGathered;
+    }
+
+    /**
+     * Pays given price if player can afford it. Returns false (and pays nothing) if it can't.
+     */
+    boolean spend(int mineralPrice, int gasPrice) {
+        if (minerals < mineralPrice || gas < gasPrice) {
+            return false;
+        }
+        minerals -= mineralPrice;
+        gas -= gasPrice;
+        spentMinerals += mineralPrice;
+        spentGas += gasPrice;
+        return true;
+    }
+
+    void refund(int mineralPrice, int gasPrice) {
+        minerals += mineralPrice;
+        gas += gasPrice;
+        spentMinerals -= mineralPrice;
+        spentGas -= gasPrice;
+    }
+
+    void startUpgrade(UpgradeType upgrade) {
+        upgrading.add(upgrade);
+    }
+
+    void finishUpgrade(UpgradeType upgrade) {
+        upgrading.remove(upgrade);
+        upgradeLevels.put(upgrade, getUpgradeLevel(upgrade) + 1);
+    }
+
+    List<HeadlessUnit> getHeadlessUnits() {
+        return units;
+    }
+
+    // =========================================================
+    // Player
+    @Override
+    public int getID() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<Unit> getUnits() {
+        return new ArrayList<Unit>(units);
+    }
+
+    @Override
+    public Race getRace() {
+        return race;
+    }
+
+    @Override
+    public boolean isAlly(Player player) {
+        return player == this;
+    }
+
+    @Override
+    public boolean isEnemy(Player player) {
+        return player != null && player == enemy;
+    }
+
+    @Override
+    public boolean isNeutral() {
+        return enemy == null;
+    }
+
+    @Override
+    public TilePosition getStartLocation() {
+        return startLocation;
+    }
+
+    @Override
+    public boolean isVictorious() {
+        return enemy != null && enemy.isDefeated();
+    }
+
+    @Override
+    public boolean isDefeated() {
+        if (isNeutral()) {
+            return false;
+        }
+        for (HeadlessUnit unit : units) {
+            if (unit.getType().isBuilding()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean leftGame() {
+        return false;
+    }
+
+    @Override
+    public boolean isObserver() {
+        return false;
+    }
+
+    // =========================================================
+    // Resources and supply
+    @Override
+    public int minerals() {
+        return minerals;
+    }
+
+    @Override
+    public int gas() {
+        return gas;
+    }
+
+    @Override
+    public int gatheredMinerals() {
+        return gatheredMinerals;
+    }
+
+    @Override
+    public int gatheredGas() {
+        return gatheredGas;
+    }
+
+    @Override
+    public int spentMinerals() {
+        return spentMinerals;
+    }
+
+    @Override
+    public int spentGas() {
+        return spentGas;
+    }
+
+    @Override
+    public int supplyTotal() {
+        int total = 0;
+        for (HeadlessUnit unit : units) {
+            if (unit.isCompleted()) {
+                total += unit.getType().supplyProvided();
+            }
+        }
+        return Math.min(400, total);
+    }
+
+    @Override
+    public int supplyTotal(Race supplyRace) {
+        return supplyRace == race ? supplyTotal() : 0;
+    }
+
+    @Override
+    public int supplyUsed() {
+        int used = 0;
+        for (HeadlessUnit unit : units) {
+            used += unit.getType().supplyRequired();
+        }
+        return used;
+    }
+
+    @Override
+    public int supplyUsed(Race supplyRace) {
+        return supplyRace == race ? supplyUsed() : 0;
+    }
+
+    // =========================================================
+    // Unit counts
+    @Override
+    public int allUnitCount() {
+        return units.size();
+    }
+
+    @Override
+    public int allUnitCount(UnitType unitType) {
+        return completedUnitCount(unitType) + incompleteUnitCount(unitType);
+    }
+
+    @Override
+    public int visibleUnitCount() {
+        return units.size();
+    }
+
+    @Override
+    public int visibleUnitCount(UnitType unitType) {
+        return allUnitCount(unitType);
+    }
+
+    @Override
+    public int completedUnitCount() {
+        return completedUnitCount(null);
+    }
+
+    @Override
+    public int completedUnitCount(UnitType unitType) {
+        int count = 0;
+        for (HeadlessUnit unit : units) {
+            if (unit.isCompleted() && (unitType == null || unit.getType() == unitType)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int incompleteUnitCount() {
+        return incompleteUnitCount(null);
+    }
+
+    @Override
+    public int incompleteUnitCount(UnitType unitType) {
+        int count = 0;
+        for (HeadlessUnit unit : units) {
+            if (!unit.isCompleted() && (unitType == null || unit.getType() == unitType)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int deadUnitCount() {
+        return deadUnits;
+    }
+
+    @Override
+    public int killedUnitCount() {
+        return killedUnits;
+    }
+
+    // =========================================================
+    // Upgrades and tech
+    @Override
+    public int getUpgradeLevel(UpgradeType upgradeType) {
+        Integer level = upgradeLevels.get(upgradeType);
+        return level == null ? 0 : level;
+    }
+
+    @Override
+    public boolean isUpgrading(UpgradeType upgradeType) {
+        return upgrading.contains(upgradeType);
+    }
+
+    @Override
+    public int getMaxUpgradeLevel(UpgradeType upgradeType) {
+        return upgradeType.maxRepeats();
+    }
+
+    /**
+     * Tech isn't simulated, nothing is ever researched.
+     */
+    @Override
+    public boolean hasResearched(TechType techType) {
+        return false;
+    }
+
+    @Override
+    public boolean isResearching(TechType techType) {
+        return false;
+    }
+
+}
@@ -0,0 +1,305 @@
+package atlantis.headless;
+
+import atlantis.Atlantis;
+import atlantis.AtlantisConfig;
+import atlantis.util.RUtilities;
+import atlantis.wrappers.MapAnalysis;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import bwapi.Position;
+import bwapi.TilePosition;
+import bwapi.UnitType;
+
+/**
+ * Plays the real bot (<b>Atlantis</b> with all its managers and commanders) without StarCraft: the
+ * <b>HeadlessGame</b> implements the BWAPI game, players and units used by the bot, and this class calls
+ * <b>onStart</b>, unit events and <b>onFrame</b> of the bot exactly like BWMirror does.
+ * <br />
+ * The bot plays Terran against a simple scripted Terran opponent, which starts with barracks and supply
+ * depots already built, trains workers and marines and sends marines to attack our base in waves.
+ * <br />
+ * Time of every frame of the bot (onFrame) and separately of the game update is measured. Everything which
+ * could make the game differ between runs is disabled (reloading build orders, frame time budget of the
+ * scheduler) and the bot's random generator is seeded, so the same map, seed and number of frames always
+ * give the same result, see <b>getChecksum()</b>.
+ */
+public class HeadlessSimulation {
+
+    private static final int TILE = 32;
+    private static final int OPPONENT_MAX_WORKERS = 12;
+    private static final int OPPONENT_BARRACKS = 2;
+    private static final int OPPONENT_SUPPLY_DEPOTS = 3;
+
+    /**
+     * The opponent decides once per this many frames.
+     */
+    private static final int OPPONENT_INTERVAL = 8;
+
+    // =========================================================
+    private final HeadlessMap map;
+    private final HeadlessGame game;
+    private final Atlantis atlantis;
+    private final Random random;
+    private int nextWaveSize;
+
+    private long[] frameTimes = new long[0];
+    private long[] gameTimes = new long[0];
+
+    // =========================================================
+    public HeadlessSimulation(HeadlessMap map, long seed) {
+        this.map = map;
+        this.random = new Random(seed);
+        this.nextWaveSize = 6 + random.nextInt(6);
+        configure(seed);
+
+        HeadlessTypes.load();
+        MapAnalysis.setSource(map);
+        game = new HeadlessGame(map);
+        createStartingUnits();
+
+        atlantis = new Atlantis();
+        atlantis.runHeadless(game);
+        game.setListener(atlantis);
+        atlantis.onStart();
+        game.dispatchEvents();
+    }
+
+    /**
+     * Disables everything which depends on the time or on files changed outside, and writes files of the
+     * bot to the temporary directory. Files left there by the previous run are deleted, so map data is
+     * computed in every run and the result doesn't depend on whether it was loaded or not.
+     */
+    private static void configure(long seed) {
+        File directory = new File(System.getProperty("java.io.tmpdir"), "atlantis-headless");
+        directory.mkdirs();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        AtlantisConfig.MAP_DATA_DIR = directory.getPath();
+        AtlantisConfig.LOG_FILE_PATH = new File(directory, "atlantis.log").getPath();
+        AtlantisConfig.TIMINGS_FILE_PATH = new File(directory, "atlantis_timings.txt").getPath();
+        AtlantisConfig.LOG_TO_CONSOLE = false;
+        AtlantisConfig.RELOAD_BUILD_ORDERS = false;
+        AtlantisConfig.FRAME_TIME_BUDGET_MS = Double.MAX_VALUE;
+        RUtilities.random.setSeed(seed);
+    }
+
+    // =========================================================
+    // Main loop
+    /**
+     * Plays given number of frames, measuring time of every one of them.
+     */
+    public void run(int frames) {
+        frameTimes = new long[frames];
+        gameTimes = new long[frames];
+        for (int i = 0; i < frames; i++) {
+            long start = System.nanoTime();
+            updateGame();
+            gameTimes[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            atlantis.onFrame();
+            frameTimes[i] = System.nanoTime() - start;
+        }
+        atlantis.onEnd(game.getEnemy().isDefeated());
+    }
+
+    /**
+     * Plays single frame: the opponent decides, the game is updated and the bot is informed about events of
+     * units and then plays its frame.
+     */
+    public void step() {
+        updateGame();
+        atlantis.onFrame();
+    }
+
+    private void updateGame() {
+        if (game.getFrameCount() % OPPONENT_INTERVAL == 0) {
+            updateOpponent();
+        }
+        game.update();
+        game.dispatchEvents();
+    }
+
+    public HeadlessGame getGame() {
+        return game;
+    }
+
+    // =========================================================
+    // Scripted opponent
+    private void updateOpponent() {
+        HeadlessPlayer opponent = game.getEnemy();
+        List<HeadlessUnit> idleMarines = new ArrayList<>();
+        int workers = 0;
+
+        List<HeadlessUnit> units = new ArrayList<>(opponent.getHeadlessUnits());
+        for (HeadlessUnit unit : units) {
+            if (!unit.isCompleted()) {
+                continue;
+            }
+            UnitType type = unit.getType();
+            if (type.isWorker()) {
+                workers++;
+                if (unit.isIdle()) {
+                    HeadlessUnit mineral = game.nearestMineral(unit.getPosition().getX(),
+                            unit.getPosition().getY(), true);
+                    if (mineral != null) {
+                        unit.gather(mineral);
+                    }
+                }
+            }
+            else if (type == UnitType.Terran_Marine && unit.isIdle()) {
+                idleMarines.add(unit);
+            }
+        }
+
+        for (HeadlessUnit unit : units) {
+            if (unit.getType() == UnitType.Terran_Command_Center && unit.isIdle() && workers < OPPONENT_MAX_WORKERS) {
+                unit.train(UnitType.Terran_SCV);
+            }
+            else if (unit.getType() == UnitType.Terran_Barracks && unit.isIdle()) {
+                unit.train(UnitType.Terran_Marine);
+            }
+        }
+
+        // Attack our base once the wave is big enough
+        if (idleMarines.size() >= nextWaveSize) {
+            TilePosition target = game.getSelf().getStartLocation();
+            Position position = new Position(target.getX() * TILE + 2 * TILE, target.getY() * TILE + TILE);
+            for (HeadlessUnit marine : idleMarines) {
+                marine.attack(position);
+            }
+            nextWaveSize = 6 + random.nextInt(6);
+        }
+    }
+
+    // =========================================================
+    // Setting up the game
+    private void createStartingUnits() {
+        for (HeadlessPlayer player : new HeadlessPlayer[] {game.getSelf(), game.getEnemy()}) {
+            TilePosition start = player.getStartLocation();
+            HeadlessUnit base = game.createBuilding(player, UnitType.Terran_Command_Center, start);
+            player.gather(50, 0);
+            for (int i = 0; i < 4; i++) {
+                game.createUnit(player, UnitType.Terran_SCV, base.getPosition().getX() - 24 + 16 * i,
+                        base.getBottom() + 12, true);
+            }
+        }
+
+        HeadlessPlayer opponent = game.getEnemy();
+        for (int i = 0; i < OPPONENT_BARRACKS; i++) {
+            placeBuilding(opponent, UnitType.Terran_Barracks);
+        }
+        for (int i = 0; i < OPPONENT_SUPPLY_DEPOTS; i++) {
+            placeBuilding(opponent, UnitType.Terran_Supply_Depot);
+        }
+    }
+
+    /**
+     * Creates completed building at the free place nearest to the start location of given player, leaving
+     * space around the building.
+     */
+    private void placeBuilding(HeadlessPlayer player, UnitType type) {
+        TilePosition start = player.getStartLocation();
+        for (int radius = 4; radius < 20; radius++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                for (int dx = -radius; dx <= radius; dx++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) != radius) {
+                        continue;
+                    }
+                    int tx = start.getX() + dx;
+                    int ty = start.getY() + dy;
+                    if (game.isFreeArea(tx - 1, ty - 1, type.tileWidth() + 2, type.tileHeight() + 2)) {
+                        game.createBuilding(player, type, new TilePosition(tx, ty));
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    // =========================================================
+    // Results
+    /**
+     * Returns number which depends on the state of every unit and the resources of both players. Two runs with
+     * the same map, seed and number of frames should always give the same checksum; if they don't, the game
+     * isn't deterministic.
+     */
+    public long getChecksum() {
+        long checksum = 17;
+        for (HeadlessUnit unit : game.getHeadlessUnits()) {
+            checksum = 31 * checksum + unit.getID();
+            checksum = 31 * checksum + unit.getType().toString().hashCode();
+            checksum = 31 * checksum + unit.getHitPoints();
+            checksum = 31 * checksum + unit.getPosition().getX();
+            checksum = 31 * checksum + unit.getPosition().getY();
+        }
+        for (HeadlessPlayer player : new HeadlessPlayer[] {game.getSelf(), game.getEnemy()}) {
+            checksum = 31 * checksum + player.minerals();
+            checksum = 31 * checksum + player.gas();
+        }
+        return checksum;
+    }
+
+    /**
+     * Returns summary of the game: state of both players and statistics of frame times.
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Frames: %d, map %dx%d%n", game.getFrameCount(), map.getWidth(),
+                map.getHeight()));
+        for (HeadlessPlayer player : new HeadlessPlayer[] {game.getSelf(), game.getEnemy()}) {
+            report.append(String.format("%s: %d workers, %d marines, %d buildings, %d minerals gathered, "
+                    + "%d gas gathered, %d killed, %d lost%n", player.getName(),
+                    countUnits(player, UnitType.Terran_SCV), countUnits(player, UnitType.Terran_Marine),
+                    countBuildings(player), player.gatheredMinerals(), player.gatheredGas(),
+                    player.killedUnitCount(), player.deadUnitCount()));
+        }
+
+        if (frameTimes.length > 0) {
+            appendTimes(report, "Frame time", frameTimes);
+            appendTimes(report, "Game update", gameTimes);
+        }
+        report.append(String.format("Checksum: %016x", getChecksum()));
+        return report.toString();
+    }
+
+    private static int countUnits(HeadlessPlayer player, UnitType type) {
+        return player.completedUnitCount(type);
+    }
+
+    private static int countBuildings(HeadlessPlayer player) {
+        int total = 0;
+        for (HeadlessUnit unit : player.getHeadlessUnits()) {
+            if (unit.getType().isBuilding()) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static void appendTimes(StringBuilder report, String name, long[] times) {
+        long[] sorted = Arrays.copyOf(times, times.length);
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long time : sorted) {
+            total += time;
+        }
+        report.append(String.format("%s: avg %.3f ms, p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms%n", name,
+                total / 1000000.0 / sorted.length, percentile(sorted, 50), percentile(sorted, 95),
+                percentile(sorted, 99), sorted[sorted.length - 1] / 1000000.0));
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        int index = Math.min(sorted.length - 1, sorted.length * percent / 100);
+        return sorted[index] / 1000000.0;
+    }
+
+}
@@ -0,0 +1,199 @@
+package atlantis.headless;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import bwapi.DamageType;
+import bwapi.ExplosionType;
+import bwapi.Race;
+import bwapi.UnitSizeType;
+import bwapi.UnitType;
+import bwapi.UpgradeType;
+import bwapi.WeaponType;
+
+/**
+ * Static type data of StarCraft for the headless game, which can't read it from BWAPI: Terran units and
+ * buildings used by the default build order, their weapons and upgrades, mineral fields and geysers. Values
+ * are the same as in BWAPI.
+ * <br />
+ * Every other unit, weapon and upgrade type is loaded with no attributes (zero hit points, no weapons etc),
+ * so that it can still be named and asked about, e.g. <b>UnitType.Zerg_Larva.isBuilding()</b>.
+ */
+public class HeadlessTypes {
+
+    private static final long GROUND = WeaponType.FLAG_TARGETS_GROUND;
+    private static final long AIR_AND_GROUND = WeaponType.FLAG_TARGETS_AIR | WeaponType.FLAG_TARGETS_GROUND;
+
+    private static final long INFANTRY = UnitType.FLAG_CAN_MOVE | UnitType.FLAG_IS_ORGANIC;
+    private static final long BUILDING = UnitType.FLAG_IS_BUILDING | UnitType.FLAG_IS_MECHANICAL;
+    private static final long RESOURCE = UnitType.FLAG_IS_NEUTRAL | UnitType.FLAG_IS_RESOURCE_CONTAINER
+            | UnitType.FLAG_IS_INVINCIBLE;
+
+    // =========================================================
+    /**
+     * Replaces type data of all unit, weapon and upgrade types. Must be called before <b>Atlantis.onStart</b>.
+     */
+    public static void load() {
+        WeaponType.loadTypeData(weapons());
+        UpgradeType.loadTypeData(upgrades());
+        UnitType.loadTypeData(units());
+    }
+
+    private static List<WeaponType.Data> weapons() {
+        List<WeaponType.Data> data = new ArrayList<>();
+        data.add(new WeaponType.Data(WeaponType.Gauss_Rifle, "Gauss_Rifle", AIR_AND_GROUND)
+                .damage(6, 1, 15, 1, DamageType.Normal).range(0, 128).splash(ExplosionType.Normal, 0, 0, 0)
+                .upgradeType(UpgradeType.Terran_Infantry_Weapons));
+        data.add(new WeaponType.Data(WeaponType.Fusion_Cutter, "Fusion_Cutter", GROUND)
+                .damage(5, 1, 15, 1, DamageType.Normal).range(0, 10).splash(ExplosionType.Normal, 0, 0, 0)
+                .upgradeType(UpgradeType.None));
+        data.add(new WeaponType.Data(WeaponType.Flame_Thrower, "Flame_Thrower", GROUND)
+                .damage(8, 1, 22, 2, DamageType.Concussive).range(0, 32)
+                .splash(ExplosionType.Enemy_Splash, 15, 20, 25).upgradeType(UpgradeType.Terran_Infantry_Weapons));
+
+        Set<WeaponType> described = new HashSet<>();
+        for (WeaponType.Data weapon : data) {
+            described.add(weapon.getType());
+        }
+        for (Field field : constants(WeaponType.class)) {
+            WeaponType type = constant(field, WeaponType.class);
+            if (described.add(type)) {
+                data.add(new WeaponType.Data(type, field.getName(), 0));
+            }
+        }
+        return data;
+    }
+
+    private static List<UpgradeType.Data> upgrades() {
+        List<UpgradeType.Data> data = new ArrayList<>();
+        data.add(new UpgradeType.Data(UpgradeType.U_238_Shells, "U_238_Shells", Race.Terran,
+                UnitType.Terran_Academy).price(150, 150, 1500));
+        data.add(new UpgradeType.Data(UpgradeType.Terran_Infantry_Weapons, "Terran_Infantry_Weapons", Race.Terran,
+                UnitType.Terran_Engineering_Bay).price(100, 100, 4000).levels(3, 75, 75, 480));
+        data.add(new UpgradeType.Data(UpgradeType.Terran_Infantry_Armor, "Terran_Infantry_Armor", Race.Terran,
+                UnitType.Terran_Engineering_Bay).price(100, 100, 4000).levels(3, 75, 75, 480));
+
+        Set<UpgradeType> described = new HashSet<>();
+        for (UpgradeType.Data upgrade : data) {
+            described.add(upgrade.getType());
+        }
+        for (Field field : constants(UpgradeType.class)) {
+            UpgradeType type = constant(field, UpgradeType.class);
+            if (described.add(type)) {
+                data.add(new UpgradeType.Data(type, field.getName(), Race.None, UnitType.None));
+            }
+        }
+        return data;
+    }
+
+    private static List<UnitType.Data> units() {
+        List<UnitType.Data> data = new ArrayList<>();
+
+        // Infantry
+        data.add(new UnitType.Data(UnitType.Terran_SCV, "Terran_SCV", Race.Terran, INFANTRY
+                | UnitType.FLAG_CAN_ATTACK | UnitType.FLAG_IS_MECHANICAL | UnitType.FLAG_IS_WORKER)
+                .hitPoints(60, 0, 0, 0).price(50, 0, 300).supply(2, 0).space(1, 0)
+                .size(UnitSizeType.Small, 1, 1, 11, 11, 11, 11).movement(4.92, 67, 12227, 40).ranges(32, 224)
+                .groundWeapon(WeaponType.Fusion_Cutter, 1).whatBuilds(UnitType.Terran_Command_Center, 1)
+                .armorUpgrade(UpgradeType.Terran_Infantry_Armor));
+        data.add(new UnitType.Data(UnitType.Terran_Marine, "Terran_Marine", Race.Terran,
+                INFANTRY | UnitType.FLAG_CAN_ATTACK)
+                .hitPoints(40, 0, 0, 0).price(50, 0, 360).supply(2, 0).space(1, 0)
+                .size(UnitSizeType.Small, 1, 1, 8, 9, 8, 10).movement(4, 1, 1, 40).ranges(0, 224)
+                .groundWeapon(WeaponType.Gauss_Rifle, 1).airWeapon(WeaponType.Gauss_Rifle, 1)
+                .whatBuilds(UnitType.Terran_Barracks, 1).armorUpgrade(UpgradeType.Terran_Infantry_Armor));
+        data.add(new UnitType.Data(UnitType.Terran_Firebat, "Terran_Firebat", Race.Terran,
+                INFANTRY | UnitType.FLAG_CAN_ATTACK)
+                .hitPoints(50, 0, 0, 1).price(50, 25, 360).supply(2, 0).space(1, 0)
+                .size(UnitSizeType.Small, 1, 1, 11, 7, 11, 14).movement(4, 1, 1, 40).ranges(0, 224)
+                .groundWeapon(WeaponType.Flame_Thrower, 1).whatBuilds(UnitType.Terran_Barracks, 1)
+                .requires(UnitType.Terran_Academy).armorUpgrade(UpgradeType.Terran_Infantry_Armor));
+        data.add(new UnitType.Data(UnitType.Terran_Medic, "Terran_Medic", Race.Terran,
+                INFANTRY | UnitType.FLAG_IS_SPELLCASTER)
+                .hitPoints(60, 0, 200, 1).price(50, 25, 450).supply(2, 0).space(1, 0)
+                .size(UnitSizeType.Small, 1, 1, 8, 9, 8, 10).movement(4, 1, 1, 40).ranges(288, 288)
+                .whatBuilds(UnitType.Terran_Barracks, 1).requires(UnitType.Terran_Academy)
+                .armorUpgrade(UpgradeType.Terran_Infantry_Armor));
+
+        // Buildings
+        data.add(new UnitType.Data(UnitType.Terran_Command_Center, "Terran_Command_Center", Race.Terran, BUILDING
+                | UnitType.FLAG_CAN_PRODUCE | UnitType.FLAG_IS_RESOURCE_DEPOT | UnitType.FLAG_IS_FLYING_BUILDING
+                | UnitType.FLAG_CAN_BUILD_ADDON)
+                .hitPoints(1500, 0, 0, 1).price(400, 0, 1800).supply(0, 20)
+                .size(UnitSizeType.Large, 4, 3, 58, 41, 58, 41).ranges(0, 320)
+                .whatBuilds(UnitType.Terran_SCV, 1));
+        data.add(new UnitType.Data(UnitType.Terran_Supply_Depot, "Terran_Supply_Depot", Race.Terran, BUILDING)
+                .hitPoints(500, 0, 0, 1).price(100, 0, 600).supply(0, 16)
+                .size(UnitSizeType.Large, 3, 2, 38, 22, 38, 26).ranges(0, 256)
+                .whatBuilds(UnitType.Terran_SCV, 1));
+        data.add(new UnitType.Data(UnitType.Terran_Refinery, "Terran_Refinery", Race.Terran, BUILDING
+                | UnitType.FLAG_IS_REFINERY | UnitType.FLAG_IS_RESOURCE_CONTAINER)
+                .hitPoints(750, 0, 0, 1).price(100, 0, 600)
+                .size(UnitSizeType.Large, 4, 2, 56, 32, 56, 31).ranges(0, 224)
+                .whatBuilds(UnitType.Terran_SCV, 1));
+        data.add(new UnitType.Data(UnitType.Terran_Barracks, "Terran_Barracks", Race.Terran, BUILDING
+                | UnitType.FLAG_CAN_PRODUCE | UnitType.FLAG_IS_FLYING_BUILDING)
+                .hitPoints(1000, 0, 0, 1).price(150, 0, 1200)
+                .size(UnitSizeType.Large, 4, 3, 48, 40, 56, 32).ranges(0, 256)
+                .whatBuilds(UnitType.Terran_SCV, 1).requires(UnitType.Terran_Command_Center));
+        data.add(new UnitType.Data(UnitType.Terran_Engineering_Bay, "Terran_Engineering_Bay", Race.Terran,
+                BUILDING | UnitType.FLAG_IS_FLYING_BUILDING)
+                .hitPoints(850, 0, 0, 1).price(125, 0, 900)
+                .size(UnitSizeType.Large, 4, 3, 48, 32, 48, 28).ranges(0, 256)
+                .whatBuilds(UnitType.Terran_SCV, 1).requires(UnitType.Terran_Command_Center));
+        data.add(new UnitType.Data(UnitType.Terran_Academy, "Terran_Academy", Race.Terran, BUILDING)
+                .hitPoints(600, 0, 0, 1).price(150, 0, 1200)
+                .size(UnitSizeType.Large, 3, 2, 40, 32, 47, 24).ranges(0, 256)
+                .whatBuilds(UnitType.Terran_SCV, 1).requires(UnitType.Terran_Barracks));
+        data.add(new UnitType.Data(UnitType.Terran_Bunker, "Terran_Bunker", Race.Terran, BUILDING)
+                .hitPoints(350, 0, 0, 1).price(100, 0, 450).space(0, 4)
+                .size(UnitSizeType.Large, 3, 2, 32, 24, 32, 16).ranges(0, 320)
+                .whatBuilds(UnitType.Terran_SCV, 1).requires(UnitType.Terran_Barracks));
+
+        // Resources
+        data.add(new UnitType.Data(UnitType.Resource_Mineral_Field, "Resource_Mineral_Field", Race.None,
+                RESOURCE | UnitType.FLAG_IS_MINERAL_FIELD)
+                .hitPoints(100000, 0, 0, 1).size(UnitSizeType.Independent, 2, 1, 32, 16, 31, 15).ranges(0, 288));
+        data.add(new UnitType.Data(UnitType.Resource_Vespene_Geyser, "Resource_Vespene_Geyser", Race.None, RESOURCE)
+                .hitPoints(100000, 0, 0, 1).size(UnitSizeType.Independent, 4, 2, 64, 32, 63, 31).ranges(0, 288));
+
+        Set<UnitType> described = new HashSet<>();
+        for (UnitType.Data unit : data) {
+            described.add(unit.getType());
+        }
+        for (Field field : constants(UnitType.class)) {
+            UnitType type = constant(field, UnitType.class);
+            if (described.add(type)) {
+                data.add(new UnitType.Data(type, field.getName(), Race.None, 0));
+            }
+        }
+        return data;
+    }
+
+    // =========================================================
+    /**
+     * Returns public static fields of <b>type</b> which hold its constants, in order of declaration.
+     */
+    private static List<Field> constants(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == type) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static <T> T constant(Field field, Class<T> type) {
+        try {
+            return type.cast(field.get(null));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't read constant " + field, e);
+        }
+    }
+
+}
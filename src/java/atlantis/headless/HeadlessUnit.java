@@ -0,0 +1,1164 @@
+package atlantis.headless;
+
+import atlantis.information.AtlantisGroundDistance;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import bwapi.DamageType;
+import bwapi.Order;
+import bwapi.Player;
+import bwapi.Position;
+import bwapi.TechType;
+import bwapi.TilePosition;
+import bwapi.Unit;
+import bwapi.UnitSizeType;
+import bwapi.UnitType;
+import bwapi.UpgradeType;
+import bwapi.WeaponType;
+
+/**
+ * Unit of the <b>HeadlessGame</b>: overrides getters and orders of the BWAPI unit used by the bot, so it can
+ * play without StarCraft. Orders are simplified versions of StarCraft ones: units move straight (sliding
+ * along unwalkable tiles) and ignore collisions, workers mine 8 minerals (or gas) per trip, buildings are
+ * built by a worker standing next to them and train one unit at a time.
+ */
+public class HeadlessUnit extends Unit {
+
+    private static final int MINERALS_PER_TRIP = 8;
+    private static final int GAS_PER_TRIP = 8;
+    private static final int MINING_FRAMES = 80;
+    private static final int GAS_FRAMES = 37;
+    private static final int UNDER_ATTACK_FRAMES = 24;
+
+    // =========================================================
+    // Commands given to the unit
+    private static final int IDLE = 0;
+    private static final int MOVE = 1;
+    private static final int ATTACK_UNIT = 2;
+    private static final int ATTACK_MOVE = 3;
+    private static final int GATHER = 4;
+    private static final int BUILD = 5;
+
+    // =========================================================
+    private final HeadlessGame game;
+    private final int id;
+    private final UnitType initialType;
+    private final Position initialPosition;
+    private HeadlessPlayer player;
+    private UnitType type;
+    private double x;
+    private double y;
+    private int hitPoints;
+    private int shields;
+    private int resources = 0;
+    private int initialResources = 0;
+    private boolean exists = true;
+    private boolean completed;
+    private int remainingBuildTime;
+
+    /**
+     * Building constructed by this worker, worker constructing this building or producer training this unit.
+     */
+    private HeadlessUnit buildUnit = null;
+
+    private int command = IDLE;
+    private Order order = Order.PlayerGuard;
+    private HeadlessUnit target = null;
+    private Position targetPosition = null;
+    private int cooldown = 0;
+    private int lastAttackFrame = -1;
+    private int lastDamagedFrame = -UNDER_ATTACK_FRAMES;
+    private int lastCommandFrame = 0;
+    private int killCount = 0;
+    private boolean moved = false;
+
+    // Gathering
+    private HeadlessUnit gatherTarget = null;
+    private HeadlessUnit miner = null;
+    private int carrying = 0;
+    private boolean carryingGas = false;
+    private int miningTimer = 0;
+
+    // Construction
+    private UnitType buildType = UnitType.None;
+    private TilePosition buildTile = null;
+
+    // Production
+    private HeadlessUnit trainee = null;
+    private UpgradeType upgrade = UpgradeType.None;
+    private int remainingUpgradeTime = 0;
+
+    // =========================================================
+    HeadlessUnit(HeadlessGame game, int id, HeadlessPlayer player, UnitType type, int x, int y, boolean completed) {
+        this.game = game;
+        this.id = id;
+        this.player = player;
+        this.type = type;
+        this.initialType = type;
+        this.initialPosition = new Position(x, y);
+        this.x = x;
+        this.y = y;
+        this.completed = completed;
+        this.remainingBuildTime = completed ? 0 : type.buildTime();
+        this.hitPoints = completed ? type.maxHitPoints() : Math.max(1, type.maxHitPoints() / 10);
+        this.shields = completed ? type.maxShields() : 0;
+        if (!completed) {
+            order = type.isBuilding() ? Order.IncompleteBuilding : Order.Nothing;
+        }
+    }
+
+    // =========================================================
+    // Changed by the game
+    void setResources(int amount) {
+        resources = amount;
+        initialResources = amount;
+    }
+
+    /**
+     * Changes type and owner of this unit, e.g. when refinery is built on the vespene geyser.
+     */
+    void morph(HeadlessPlayer newPlayer, UnitType newType) {
+        player = newPlayer;
+        type = newType;
+        completed = false;
+        remainingBuildTime = newType.buildTime();
+        hitPoints = Math.max(1, newType.maxHitPoints() / 10);
+        order = Order.IncompleteBuilding;
+    }
+
+    void markDestroyed() {
+        exists = false;
+        hitPoints = 0;
+        if (gatherTarget != null && gatherTarget.miner == this) {
+            gatherTarget.miner = null;
+        }
+    }
+
+    /**
+     * Simulates single frame of this unit.
+     */
+    void update() {
+        moved = false;
+        if (!completed) {
+            updateConstruction();
+            return;
+        }
+
+        if (cooldown > 0) {
+            cooldown--;
+        }
+        if (upgrade != UpgradeType.None && --remainingUpgradeTime <= 0) {
+            player.finishUpgrade(upgrade);
+            upgrade = UpgradeType.None;
+        }
+
+        switch (command) {
+            case MOVE:
+                order = Order.Move;
+                if (moveTowards(targetPosition.getX(), targetPosition.getY(), 8)) {
+                    setIdle();
+                }
+                break;
+            case ATTACK_UNIT:
+                if (!isAlive(target)) {
+                    setIdle();
+                }
+                else {
+                    attackOrApproach(target);
+                }
+                break;
+            case ATTACK_MOVE:
+                if (!isAlive(target)) {
+                    target = game.nearestEnemy(this, Math.max(type.sightRange(), weaponRange()));
+                }
+                if (target != null) {
+                    attackOrApproach(target);
+                }
+                else {
+                    order = Order.AttackMove;
+                    if (moveTowards(targetPosition.getX(), targetPosition.getY(), 16)) {
+                        setIdle();
+                    }
+                }
+                break;
+            case GATHER:
+                updateGathering();
+                break;
+            case BUILD:
+                updateBuilding();
+                break;
+            default:
+                updateIdle();
+                break;
+        }
+    }
+
+    // =========================================================
+    // Behavior
+    private void updateConstruction() {
+        boolean inProgress = buildUnit == null
+                || (buildUnit.exists && (buildUnit.buildUnit == this || buildUnit.trainee == this));
+        if (!inProgress) {
+            return;
+        }
+
+        int buildTime = Math.max(1, type.buildTime());
+        int maxHitPoints = type.maxHitPoints();
+        int before = maxHitPoints * 9 / 10 * (buildTime - remainingBuildTime) / buildTime;
+        remainingBuildTime--;
+        int after = maxHitPoints * 9 / 10 * (buildTime - remainingBuildTime) / buildTime;
+        hitPoints = Math.min(maxHitPoints, hitPoints + after - before);
+
+        if (remainingBuildTime <= 0) {
+            completed = true;
+            shields = type.maxShields();
+            order = Order.PlayerGuard;
+            if (buildUnit != null) {
+                if (buildUnit.trainee == this) {
+                    buildUnit.trainee = null;
+
+                    // Trained unit leaves the building below it
+                    y = buildUnit.getBottom() + type.dimensionUp() + 2;
+                }
+                else if (buildUnit.buildUnit == this) {
+                    buildUnit.buildUnit = null;
+                    buildUnit.setIdle();
+                }
+                buildUnit = null;
+            }
+            game.unitCompleted(this);
+        }
+    }
+
+    private void updateIdle() {
+        order = Order.PlayerGuard;
+        if (type.canAttack() && !type.isWorker()) {
+            HeadlessUnit enemy = game.nearestEnemy(this, weaponRange());
+            if (enemy != null && isInWeaponRange(enemy)) {
+                attackOrApproach(enemy);
+            }
+        }
+    }
+
+    private void attackOrApproach(HeadlessUnit enemy) {
+        order = Order.AttackUnit;
+        if (!isInWeaponRange(enemy)) {
+            moveTowards(enemy.x, enemy.y, 0);
+            return;
+        }
+        if (cooldown > 0) {
+            return;
+        }
+
+        WeaponType weapon = weaponAgainst(enemy);
+        cooldown = weapon.damageCooldown();
+        lastAttackFrame = game.getFrameCount();
+        enemy.receiveDamage(damageOf(weapon, enemy), this);
+    }
+
+    /**
+     * Damage of single attack: weapon damage with upgrades, reduced by armor and modified by damage type
+     * against unit size.
+     */
+    private int damageOf(WeaponType weapon, HeadlessUnit enemy) {
+        int level = weapon.upgradeType() != UpgradeType.None ? player.getUpgradeLevel(weapon.upgradeType()) : 0;
+        int armor = enemy.type.armor();
+        if (enemy.type.armorUpgrade() != UpgradeType.None) {
+            armor += enemy.player.getUpgradeLevel(enemy.type.armorUpgrade());
+        }
+
+        int perHit = Math.max(1, weapon.damageAmount() + level * weapon.damageBonus() - armor);
+        DamageType damageType = weapon.damageType();
+        UnitSizeType size = enemy.type.size();
+        if (damageType == DamageType.Concussive) {
+            perHit = size == UnitSizeType.Large ? perHit / 4 : (size == UnitSizeType.Medium ? perHit / 2 : perHit);
+        }
+        else if (damageType == DamageType.Explosive) {
+            perHit = size == UnitSizeType.Small ? perHit / 2 : (size == UnitSizeType.Medium ? perHit * 3 / 4 : perHit);
+        }
+        return Math.max(1, perHit) * Math.max(1, weapon.damageFactor());
+    }
+
+    private void receiveDamage(int damage, HeadlessUnit attacker) {
+        lastDamagedFrame = game.getFrameCount();
+        int absorbed = Math.min(shields, damage);
+        shields -= absorbed;
+        hitPoints -= damage - absorbed;
+        if (hitPoints <= 0 && exists) {
+            attacker.killCount++;
+            game.destroy(this, true);
+        }
+    }
+
+    private void updateGathering() {
+
+        // Bring cargo to the nearest base
+        if (carrying > 0) {
+            HeadlessUnit depot = game.nearestDepot(player, x, y);
+            if (depot == null) {
+                setIdle();
+                return;
+            }
+            order = carryingGas ? Order.ReturnGas : Order.ReturnMinerals;
+            if (moveNextTo(depot)) {
+                player.gather(carryingGas ? 0 : carrying, carryingGas ? carrying : 0);
+                carrying = 0;
+                if (gatherTarget == null) {
+                    setIdle();
+                }
+            }
+            return;
+        }
+
+        // Depleted mineral field, continue with the nearest one
+        if (!isAlive(gatherTarget)) {
+            gatherTarget = game.nearestMineral(x, y, false);
+            if (gatherTarget == null) {
+                setIdle();
+                return;
+            }
+        }
+
+        boolean gas = gatherTarget.type.isRefinery();
+        if (miningTimer > 0) {
+            order = gas ? Order.HarvestGas : Order.MiningMinerals;
+            if (--miningTimer == 0) {
+                gatherTarget.miner = null;
+                carryingGas = gas;
+                carrying = gas ? (gatherTarget.resources > 0 ? GAS_PER_TRIP : 2)
+                        : Math.min(MINERALS_PER_TRIP, gatherTarget.resources);
+                gatherTarget.resources = Math.max(0, gatherTarget.resources - carrying);
+                if (!gas && gatherTarget.resources == 0) {
+                    game.destroy(gatherTarget, false);
+                }
+            }
+            return;
+        }
+
+        order = gas ? Order.MoveToGas : Order.MoveToMinerals;
+        if (moveNextTo(gatherTarget)) {
+
+            // Only one worker can mine at the same time, others wait or go to a free mineral field
+            if (isAlive(gatherTarget.miner) && gatherTarget.miner != this) {
+                HeadlessUnit free = gas ? null : game.nearestMineral(x, y, true);
+                if (free != null) {
+                    gatherTarget = free;
+                }
+                order = gas ? Order.WaitForGas : Order.MiningMinerals;
+                return;
+            }
+            gatherTarget.miner = this;
+            miningTimer = gas ? GAS_FRAMES : MINING_FRAMES;
+        }
+    }
+
+    private void updateBuilding() {
+
+        // Already constructing, stay next to the building
+        if (buildUnit != null) {
+            order = Order.ConstructingBuilding;
+            if (!buildUnit.exists || buildUnit.completed) {
+                setIdle();
+            }
+            return;
+        }
+
+        order = Order.PlaceBuilding;
+        double centerX = buildTile.getX() * 32 + buildType.tileWidth() * 16;
+        double centerY = buildTile.getY() * 32 + buildType.tileHeight() * 16;
+        if (!moveTowards(centerX, centerY, Math.max(buildType.tileWidth(), buildType.tileHeight()) * 16)) {
+            return;
+        }
+
+        if (!game.canBuildHere(buildTile, buildType, this) || !meetsRequirements(buildType)
+                || !player.spend(buildType.mineralPrice(), buildType.gasPrice())) {
+            setIdle();
+            return;
+        }
+        buildUnit = game.startBuilding(player, buildType, buildTile);
+        buildUnit.buildUnit = this;
+    }
+
+    // =========================================================
+    // Auxiliary
+    private void setIdle() {
+        command = IDLE;
+        order = Order.PlayerGuard;
+        target = null;
+        targetPosition = null;
+        buildType = UnitType.None;
+        buildTile = null;
+        if (miningTimer > 0 && gatherTarget != null && gatherTarget.miner == this) {
+            gatherTarget.miner = null;
+        }
+        miningTimer = 0;
+        if (buildUnit != null && buildUnit.buildUnit == this && type.isWorker()) {
+            buildUnit = null;
+        }
+    }
+
+    private void newCommand(int newCommand) {
+        setIdle();
+        command = newCommand;
+        lastCommandFrame = game.getFrameCount();
+    }
+
+    private static boolean isAlive(HeadlessUnit unit) {
+        return unit != null && unit.exists;
+    }
+
+    /**
+     * Moves unit by one step towards (tx, ty). Returns true if it's already within <b>tolerance</b> pixels.
+     */
+    private boolean moveTowards(double tx, double ty, double tolerance) {
+        double dx = tx - x;
+        double dy = ty - y;
+        double dist = Math.sqrt(dx * dx + dy * dy);
+        if (dist <= tolerance) {
+            return true;
+        }
+
+        double step = Math.min(type.topSpeed(), dist);
+        if (step <= 0) {
+            return false;
+        }
+
+        // Go around obstacles, towards the next tile of the shortest path
+        double[] waypoint = game.nextStep(x, y, tx, ty);
+        dx = waypoint[0] - x;
+        dy = waypoint[1] - y;
+        dist = Math.max(step, Math.sqrt(dx * dx + dy * dy));
+        double nx = x + dx / dist * step;
+        double ny = y + dy / dist * step;
+        if (game.isWalkablePixel(nx, ny)) {
+            x = nx;
+            y = ny;
+        }
+        else if (game.isWalkablePixel(nx, y)) {
+            x = nx;
+        }
+        else if (game.isWalkablePixel(x, ny)) {
+            y = ny;
+        }
+        else {
+            return false;
+        }
+        moved = true;
+        return false;
+    }
+
+    private boolean moveNextTo(HeadlessUnit unit) {
+        return getDistance(unit) <= 4 || moveTowards(unit.x, unit.y, 0);
+    }
+
+    private WeaponType weaponAgainst(HeadlessUnit enemy) {
+        return enemy.type.isFlyer() ? type.airWeapon() : type.groundWeapon();
+    }
+
+    private int weaponRange() {
+        return Math.max(type.groundWeapon().maxRange(), type.airWeapon().maxRange());
+    }
+
+    private boolean meetsRequirements(UnitType unitType) {
+        for (UnitType required : unitType.requiredUnits().keySet()) {
+            if (required != type && player.completedUnitCount(required) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isResource(HeadlessUnit unit) {
+        return unit.type.isMineralField() || (unit.type.isRefinery() && unit.player == player && unit.completed);
+    }
+
+    // =========================================================
+    // State
+    @Override
+    public int getID() {
+        return id;
+    }
+
+    @Override
+    public boolean exists() {
+        return exists;
+    }
+
+    @Override
+    public Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public UnitType getType() {
+        return type;
+    }
+
+    @Override
+    public Position getPosition() {
+        return new Position((int) x, (int) y);
+    }
+
+    @Override
+    public TilePosition getTilePosition() {
+        return new TilePosition(((int) x - type.tileWidth() * 16) / 32, ((int) y - type.tileHeight() * 16) / 32);
+    }
+
+    @Override
+    public int getLeft() {
+        return (int) x - type.dimensionLeft();
+    }
+
+    @Override
+    public int getTop() {
+        return (int) y - type.dimensionUp();
+    }
+
+    @Override
+    public int getRight() {
+        return (int) x + type.dimensionRight();
+    }
+
+    @Override
+    public int getBottom() {
+        return (int) y + type.dimensionDown();
+    }
+
+    @Override
+    public int getHitPoints() {
+        return hitPoints;
+    }
+
+    @Override
+    public int getShields() {
+        return shields;
+    }
+
+    @Override
+    public int getEnergy() {
+        return 0;
+    }
+
+    @Override
+    public int getResources() {
+        return resources;
+    }
+
+    @Override
+    public int getInitialResources() {
+        return initialResources;
+    }
+
+    @Override
+    public UnitType getInitialType() {
+        return initialType;
+    }
+
+    @Override
+    public Position getInitialPosition() {
+        return initialPosition;
+    }
+
+    @Override
+    public TilePosition getInitialTilePosition() {
+        return new TilePosition((initialPosition.getX() - initialType.tileWidth() * 16) / 32,
+                (initialPosition.getY() - initialType.tileHeight() * 16) / 32);
+    }
+
+    @Override
+    public int getKillCount() {
+        return killCount;
+    }
+
+    @Override
+    public int getLastCommandFrame() {
+        return lastCommandFrame;
+    }
+
+    @Override
+    public double getAngle() {
+        return 0;
+    }
+
+    @Override
+    public double getVelocityX() {
+        return 0;
+    }
+
+    @Override
+    public double getVelocityY() {
+        return 0;
+    }
+
+    @Override
+    public int getGroundWeaponCooldown() {
+        return cooldown;
+    }
+
+    @Override
+    public int getAirWeaponCooldown() {
+        return cooldown;
+    }
+
+    /**
+     * Distance between the closest edges of both units, like in BWAPI.
+     */
+    @Override
+    public int getDistance(Unit target) {
+        int xDist = getLeft() - (target.getRight() + 1);
+        if (xDist < 0) {
+            xDist = Math.max(0, target.getLeft() - 1 - getRight());
+        }
+        int yDist = getTop() - (target.getBottom() + 1);
+        if (yDist < 0) {
+            yDist = Math.max(0, target.getTop() - 1 - getBottom());
+        }
+        return (int) Math.sqrt(xDist * xDist + yDist * yDist);
+    }
+
+    @Override
+    public int getDistance(Position target) {
+        int xDist = getLeft() - (target.getX() + 1);
+        if (xDist < 0) {
+            xDist = Math.max(0, target.getX() - (getRight() + 1));
+        }
+        int yDist = getTop() - (target.getY() + 1);
+        if (yDist < 0) {
+            yDist = Math.max(0, target.getY() - (getBottom() + 1));
+        }
+        return (int) Math.sqrt(xDist * xDist + yDist * yDist);
+    }
+
+    @Override
+    public boolean hasPath(Position target) {
+        return AtlantisGroundDistance.isReachable(getPosition(), target);
+    }
+
+    @Override
+    public boolean hasPath(Unit target) {
+        return hasPath(target.getPosition());
+    }
+
+    @Override
+    public boolean isInWeaponRange(Unit target) {
+        if (!(target instanceof HeadlessUnit)) {
+            return false;
+        }
+        WeaponType weapon = weaponAgainst((HeadlessUnit) target);
+        return weapon != WeaponType.None && getDistance(target) <= weapon.maxRange();
+    }
+
+    // =========================================================
+    // Orders and their targets
+    @Override
+    public Order getOrder() {
+        return order;
+    }
+
+    @Override
+    public Unit getTarget() {
+        return command == GATHER ? gatherTarget : target;
+    }
+
+    @Override
+    public Unit getOrderTarget() {
+        if (command == GATHER && carrying > 0) {
+            return game.nearestDepot(player, x, y);
+        }
+        return getTarget();
+    }
+
+    @Override
+    public Position getTargetPosition() {
+        if (targetPosition != null) {
+            return targetPosition;
+        }
+        Unit targetUnit = getTarget();
+        return targetUnit != null ? targetUnit.getPosition() : Position.None;
+    }
+
+    @Override
+    public Position getOrderTargetPosition() {
+        return getTargetPosition();
+    }
+
+    @Override
+    public UnitType getBuildType() {
+        if (command == BUILD) {
+            return buildType;
+        }
+        return trainee != null ? trainee.type : UnitType.None;
+    }
+
+    @Override
+    public Unit getBuildUnit() {
+        return buildUnit;
+    }
+
+    @Override
+    public List<UnitType> getTrainingQueue() {
+        List<UnitType> queue = new ArrayList<>();
+        if (trainee != null) {
+            queue.add(trainee.type);
+        }
+        return queue;
+    }
+
+    @Override
+    public int getRemainingTrainTime() {
+        return trainee != null ? trainee.remainingBuildTime : 0;
+    }
+
+    @Override
+    public int getRemainingBuildTime() {
+        return remainingBuildTime;
+    }
+
+    @Override
+    public int getRemainingUpgradeTime() {
+        return remainingUpgradeTime;
+    }
+
+    @Override
+    public UpgradeType getUpgrade() {
+        return upgrade;
+    }
+
+    @Override
+    public TechType getTech() {
+        return TechType.None;
+    }
+
+    @Override
+    public List<Unit> getLarva() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<Unit> getLoadedUnits() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Unit getTransport() {
+        return null;
+    }
+
+    @Override
+    public Unit getAddon() {
+        return null;
+    }
+
+    // =========================================================
+    // Flags
+    @Override
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public boolean isVisible() {
+        return exists;
+    }
+
+    @Override
+    public boolean isVisible(Player player) {
+        return exists;
+    }
+
+    @Override
+    public boolean isDetected() {
+        return exists;
+    }
+
+    @Override
+    public boolean isTargetable() {
+        return exists;
+    }
+
+    @Override
+    public boolean isIdle() {
+        return completed && command == IDLE && trainee == null && upgrade == UpgradeType.None;
+    }
+
+    @Override
+    public boolean isMoving() {
+        return moved;
+    }
+
+    @Override
+    public boolean isAttacking() {
+        return command == ATTACK_UNIT || (command == ATTACK_MOVE && target != null)
+                || lastAttackFrame >= game.getFrameCount() - cooldown;
+    }
+
+    @Override
+    public boolean isStartingAttack() {
+        return lastAttackFrame == game.getFrameCount();
+    }
+
+    @Override
+    public boolean isAttackFrame() {
+        return lastAttackFrame == game.getFrameCount();
+    }
+
+    @Override
+    public boolean isUnderAttack() {
+        return game.getFrameCount() - lastDamagedFrame < UNDER_ATTACK_FRAMES;
+    }
+
+    @Override
+    public boolean isConstructing() {
+        return command == BUILD || (!completed && type.isBuilding());
+    }
+
+    @Override
+    public boolean isBeingConstructed() {
+        return !completed && type.isBuilding() && buildUnit != null;
+    }
+
+    @Override
+    public boolean isTraining() {
+        return trainee != null;
+    }
+
+    @Override
+    public boolean isUpgrading() {
+        return upgrade != UpgradeType.None;
+    }
+
+    @Override
+    public boolean isResearching() {
+        return false;
+    }
+
+    @Override
+    public boolean isGatheringMinerals() {
+        return command == GATHER && !carryingGas && (gatherTarget == null || !gatherTarget.type.isRefinery());
+    }
+
+    @Override
+    public boolean isGatheringGas() {
+        return command == GATHER && (carryingGas || (gatherTarget != null && gatherTarget.type.isRefinery()));
+    }
+
+    @Override
+    public boolean isCarryingMinerals() {
+        return carrying > 0 && !carryingGas;
+    }
+
+    @Override
+    public boolean isCarryingGas() {
+        return carrying > 0 && carryingGas;
+    }
+
+    @Override
+    public boolean isBeingGathered() {
+        return isAlive(miner);
+    }
+
+    @Override
+    public boolean isInterruptible() {
+        return true;
+    }
+
+    @Override
+    public boolean isPowered() {
+        return true;
+    }
+
+    @Override
+    public boolean isFlying() {
+        return type.isFlyer();
+    }
+
+    @Override
+    public boolean isLifted() {
+        return false;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return false;
+    }
+
+    @Override
+    public boolean isMorphing() {
+        return false;
+    }
+
+    @Override
+    public boolean isRepairing() {
+        return false;
+    }
+
+    @Override
+    public boolean isCloaked() {
+        return false;
+    }
+
+    @Override
+    public boolean isBurrowed() {
+        return false;
+    }
+
+    @Override
+    public boolean isSieged() {
+        return false;
+    }
+
+    @Override
+    public boolean isStuck() {
+        return false;
+    }
+
+    @Override
+    public boolean isStimmed() {
+        return false;
+    }
+
+    @Override
+    public boolean isHoldingPosition() {
+        return false;
+    }
+
+    @Override
+    public boolean isPatrolling() {
+        return false;
+    }
+
+    @Override
+    public boolean isBeingHealed() {
+        return false;
+    }
+
+    @Override
+    public boolean isHallucination() {
+        return false;
+    }
+
+    @Override
+    public boolean canAttack() {
+        return completed && type.canAttack();
+    }
+
+    @Override
+    public boolean canBuildAddon() {
+        return false;
+    }
+
+    // =========================================================
+    // Orders, shift-queued commands are executed immediately
+    @Override
+    public boolean move(Position target) {
+        if (!completed || type.topSpeed() <= 0) {
+            return false;
+        }
+        newCommand(MOVE);
+        targetPosition = target;
+        return true;
+    }
+
+    @Override
+    public boolean move(Position target, boolean shiftQueueCommand) {
+        return move(target);
+    }
+
+    @Override
+    public boolean attack(Position target) {
+        if (!canAttack()) {
+            return false;
+        }
+        newCommand(ATTACK_MOVE);
+        targetPosition = target;
+        return true;
+    }
+
+    @Override
+    public boolean attack(Position target, boolean shiftQueueCommand) {
+        return attack(target);
+    }
+
+    @Override
+    public boolean attack(Unit target) {
+        if (!canAttack() || !(target instanceof HeadlessUnit) || !target.exists()) {
+            return false;
+        }
+        newCommand(ATTACK_UNIT);
+        this.target = (HeadlessUnit) target;
+        return true;
+    }
+
+    @Override
+    public boolean attack(Unit target, boolean shiftQueueCommand) {
+        return attack(target);
+    }
+
+    @Override
+    public boolean gather(Unit target) {
+        if (!completed || !type.isWorker() || !(target instanceof HeadlessUnit)
+                || !isResource((HeadlessUnit) target)) {
+            return false;
+        }
+        int cargo = carrying;
+        newCommand(GATHER);
+        gatherTarget = (HeadlessUnit) target;
+        carrying = cargo;
+        return true;
+    }
+
+    @Override
+    public boolean gather(Unit target, boolean shiftQueueCommand) {
+        return gather(target);
+    }
+
+    @Override
+    public boolean returnCargo() {
+        if (carrying == 0) {
+            return false;
+        }
+        HeadlessUnit resource = command == GATHER ? gatherTarget : null;
+        newCommand(GATHER);
+        gatherTarget = resource;
+        return true;
+    }
+
+    @Override
+    public boolean returnCargo(boolean shiftQueueCommand) {
+        return returnCargo();
+    }
+
+    @Override
+    public boolean rightClick(Position target) {
+        return move(target);
+    }
+
+    @Override
+    public boolean rightClick(Position target, boolean shiftQueueCommand) {
+        return move(target);
+    }
+
+    @Override
+    public boolean rightClick(Unit target) {
+        if (!(target instanceof HeadlessUnit)) {
+            return false;
+        }
+        HeadlessUnit unit = (HeadlessUnit) target;
+        if (type.isWorker() && isResource(unit)) {
+            return gather(unit);
+        }
+        if (player.isEnemy(unit.player)) {
+            return attack(unit);
+        }
+        return move(unit.getPosition());
+    }
+
+    @Override
+    public boolean rightClick(Unit target, boolean shiftQueueCommand) {
+        return rightClick(target);
+    }
+
+    @Override
+    public boolean stop() {
+        if (!completed) {
+            return false;
+        }
+        newCommand(IDLE);
+        return true;
+    }
+
+    @Override
+    public boolean stop(boolean shiftQueueCommand) {
+        return stop();
+    }
+
+    @Override
+    public boolean holdPosition() {
+        return stop();
+    }
+
+    @Override
+    public boolean holdPosition(boolean shiftQueueCommand) {
+        return stop();
+    }
+
+    @Override
+    public boolean build(UnitType type, TilePosition target) {
+        if (!completed || !this.type.isWorker() || !type.isBuilding() || type.whatBuilds().first != this.type
+                || player.minerals() < type.mineralPrice() || player.gas() < type.gasPrice()
+                || !meetsRequirements(type) || !game.canBuildHere(target, type, this)) {
+            return false;
+        }
+        newCommand(BUILD);
+        buildType = type;
+        buildTile = target;
+        return true;
+    }
+
+    @Override
+    public boolean train(UnitType type) {
+        if (!completed || trainee != null || upgrade != UpgradeType.None || type.whatBuilds().first != this.type
+                || player.supplyUsed() + type.supplyRequired() > player.supplyTotal() || !meetsRequirements(type)
+                || !player.spend(type.mineralPrice(), type.gasPrice())) {
+            return false;
+        }
+        trainee = game.createUnit(player, type, (int) x, (int) y, false);
+        trainee.buildUnit = this;
+        lastCommandFrame = game.getFrameCount();
+        return true;
+    }
+
+    @Override
+    public boolean upgrade(UpgradeType upgrade) {
+        int level = player.getUpgradeLevel(upgrade) + 1;
+        if (!completed || trainee != null || this.upgrade != UpgradeType.None || upgrade.whatUpgrades() != type
+                || player.isUpgrading(upgrade) || level > upgrade.maxRepeats()
+                || !player.spend(upgrade.mineralPrice(level), upgrade.gasPrice(level))) {
+            return false;
+        }
+        this.upgrade = upgrade;
+        remainingUpgradeTime = upgrade.upgradeTime(level);
+        player.startUpgrade(upgrade);
+        lastCommandFrame = game.getFrameCount();
+        return true;
+    }
+
+    /**
+     * Cancels construction of this building (returning 75% of its price) or of the building this worker
+     * was about to start.
+     */
+    @Override
+    public boolean cancelConstruction() {
+        if (command == BUILD) {
+            return stop();
+        }
+        if (completed || !type.isBuilding()) {
+            return false;
+        }
+        player.refund(type.mineralPrice() * 3 / 4, type.gasPrice() * 3 / 4);
+        game.destroy(this, false);
+        return true;
+    }
+
+    @Override
+    public boolean load(Unit target) {
+        return false;
+    }
+
+    @Override
+    public boolean load(Unit target, boolean shiftQueueCommand) {
+        return false;
+    }
+
+    @Override
+    public boolean repair(Unit target) {
+        return false;
+    }
+
+    @Override
+    public boolean repair(Unit target, boolean shiftQueueCommand) {
+        return false;
+    }
+
+}
@@ -0,0 +1,161 @@
+package atlantis.headless;
+
+import atlantis.information.UnitGrid;
+import atlantis.information.WorldSnapshot;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import bwapi.Unit;
+import bwapi.UnitType;
+
+/**
+ * Random, but reproducible, set of units written to the <b>WorldSnapshot</b> without StarCraft or created in
+ * the <b>HeadlessGame</b>, used by <b>HeadlessBenchmark</b>. Half of the units are ours, half are enemy's,
+ * plus a few neutral minerals.
+ */
+public class SyntheticPopulation {
+
+    /**
+     * Size of the synthetic map in build tiles.
+     */
+    public static final int MAP_SIZE = 128;
+
+    private static final int TILE = 32;
+    private static final int MINERALS = 8;
+
+    private static final UnitType[] OUR_TYPES = {
+        UnitType.Terran_Marine, UnitType.Terran_Marine, UnitType.Terran_Medic, UnitType.Terran_SCV,
+        UnitType.Terran_Siege_Tank_Tank_Mode
+    };
+    private static final UnitType[] ENEMY_TYPES = {
+        UnitType.Zerg_Zergling, UnitType.Zerg_Zergling, UnitType.Zerg_Hydralisk, UnitType.Zerg_Drone,
+        UnitType.Zerg_Mutalisk
+    };
+    private static final UnitType[] GAME_TYPES = {
+        UnitType.Terran_Marine, UnitType.Terran_Marine, UnitType.Terran_Medic, UnitType.Terran_SCV,
+        UnitType.Terran_Firebat
+    };
+
+    /**
+     * How units are spread over the map.
+     */
+    public enum Clustering {
+
+        /**
+         * Evenly over the whole map.
+         */
+        UNIFORM,
+        /**
+         * In several groups of about 5 tiles radius.
+         */
+        CLUSTERED,
+        /**
+         * All units in a single group of about 5 tiles radius, like one big battle.
+         */
+        SINGLE_BLOB
+
+    }
+
+    private final int size;
+    private final Clustering clustering;
+    private final int[] x;
+    private final int[] y;
+    private final Unit[] units;
+
+    // =========================================================
+    public SyntheticPopulation(int size, Clustering clustering, long seed) {
+        this.size = size;
+        this.clustering = clustering;
+        this.x = new int[size];
+        this.y = new int[size];
+        this.units = new Unit[size + MINERALS];
+        for (int i = 0; i < units.length; i++) {
+            units[i] = Unit.createHeadless();
+        }
+
+        Random random = new Random(seed);
+        int clusters = clustering == Clustering.CLUSTERED ? Math.max(2, size / 25) : 1;
+        int[] clusterX = new int[clusters];
+        int[] clusterY = new int[clusters];
+        for (int c = 0; c < clusters; c++) {
+            clusterX[c] = (16 + random.nextInt(MAP_SIZE - 32)) * TILE;
+            clusterY[c] = (16 + random.nextInt(MAP_SIZE - 32)) * TILE;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (clustering == Clustering.UNIFORM) {
+                x[i] = random.nextInt(MAP_SIZE * TILE);
+                y[i] = random.nextInt(MAP_SIZE * TILE);
+            }
+            else {
+                int c = random.nextInt(clusters);
+                x[i] = clamp(clusterX[c] + (int) (random.nextGaussian() * 5 * TILE));
+                y[i] = clamp(clusterY[c] + (int) (random.nextGaussian() * 5 * TILE));
+            }
+        }
+    }
+
+    // =========================================================
+    /**
+     * Writes all units to the WorldSnapshot (which also rebuilds the UnitGrid).
+     */
+    public void writeSnapshot(int frame) {
+        UnitGrid.setMapSize(MAP_SIZE, MAP_SIZE);
+        WorldSnapshot.beginUpdate();
+        for (int i = 0; i < size; i += 2) {
+            WorldSnapshot.addUnit(units[i], i, OUR_TYPES[i / 2 % OUR_TYPES.length], WorldSnapshot.OWNER_OUR, x[i], y[i],
+                    40, 0, true, true, true, null);
+        }
+        for (int i = 1; i < size; i += 2) {
+            WorldSnapshot.addUnit(units[i], i, ENEMY_TYPES[i / 2 % ENEMY_TYPES.length], WorldSnapshot.OWNER_ENEMY,
+                    x[i], y[i], 40, 0, true, true, true, null);
+        }
+        for (int i = 0; i < MINERALS; i++) {
+            WorldSnapshot.addUnit(units[size + i], size + i, UnitType.Resource_Mineral_Field, WorldSnapshot.OWNER_NEUTRAL,
+                    x[0] + i * TILE, y[0], 1500, 0, true, true, true, null);
+        }
+        WorldSnapshot.finishUpdate(frame);
+    }
+
+    /**
+     * Creates all units (without minerals) as completed units of both players of the headless game, so that
+     * the bot itself sees them. As the headless game only knows Terran types, both sides get Terran
+     * infantry and workers. Units outside of the map are moved to its edge.
+     */
+    public List<HeadlessUnit> createUnits(HeadlessGame game) {
+        int maxX = game.getHeadlessMap().getWidth() * TILE - 1;
+        int maxY = game.getHeadlessMap().getHeight() * TILE - 1;
+        List<HeadlessUnit> created = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            HeadlessPlayer owner = i % 2 == 0 ? game.getSelf() : game.getEnemy();
+            created.add(game.createUnit(owner, GAME_TYPES[i / 2 % GAME_TYPES.length], Math.min(x[i], maxX),
+                    Math.min(y[i], maxY), true));
+        }
+        return created;
+    }
+
+    /**
+     * Returns position (in pixels) of i-th unit; i can be any number, it wraps around.
+     */
+    public int getX(int i) {
+        return x[i % size];
+    }
+
+    public int getY(int i) {
+        return y[i % size];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Clustering getClustering() {
+        return clustering;
+    }
+
+    private static int clamp(int coordinate) {
+        return Math.max(0, Math.min(MAP_SIZE * TILE - 1, coordinate));
+    }
+
+}
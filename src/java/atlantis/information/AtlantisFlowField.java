@@ -0,0 +1,342 @@
+package atlantis.information;
+
+import atlantis.Atlantis;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bwapi.Position;
+import bwapi.Unit;
+import bwapi.UnitType;
+
+/**
+ * Flow fields leading ground units to our bases, used when units retreat. For every base there's one field:
+ * ground distance from every build tile to the base and the tile a unit should walk to next (a few tiles ahead
+ * on the shortest path), so finding where to run is a single array lookup.
+ * <br />
+ * Fields avoid unwalkable terrain and buildings. They're computed lazily, when they're used for the first
+ * time, and computed again only when a building placed, destroyed or seen for the first time changes which
+ * tiles are walkable (see <b>buildingAdded</b> and <b>buildingRemoved</b>).
+ */
+public class AtlantisFlowField {
+
+    /**
+     * Waypoint returned for a tile is this many steps further on the path to the base.
+     */
+    private static final int LOOKAHEAD = 4;
+
+    private static final int TILE = 32;
+
+    private static int width = 0;
+    private static int height = 0;
+
+    /**
+     * Tiles that can be walked on: walkable terrain without buildings, valid for <b>walkableVersion</b>.
+     */
+    private static boolean[] walkable = new boolean[0];
+    private static int walkableVersion = -1;
+
+    /**
+     * Incremented whenever buildings change walkability of any tile, fields computed for older versions are
+     * outdated.
+     */
+    private static int version = 0;
+
+    /**
+     * Tiles occupied by every known ground building (by unit ID): {left, top, right, bottom}, exclusive.
+     */
+    private static final Map<Integer, int[]> footprints = new HashMap<>();
+
+    /**
+     * Number of known buildings standing on every tile.
+     */
+    private static int[] buildingsAt = new int[0];
+
+    private static final List<Field> fields = new ArrayList<>();
+
+    // Dijkstra work arrays
+    private static boolean[] baseWalkable = new boolean[0];
+    private static long[] heap = new long[0];
+    private static int[] next = new int[0];
+
+    // =========================================================
+    /**
+     * Flow field leading to one base.
+     */
+    private static class Field {
+
+        private final int baseTile;
+        private int version = -1;
+
+        /**
+         * Ground distance (in tenths of build tile) to the base, Integer.MAX_VALUE if it can't be reached.
+         */
+        private int[] distances;
+
+        /**
+         * Tile to walk to next, or -1 if the base can't be reached.
+         */
+        private int[] waypoints;
+
+        private Field(int baseTile) {
+            this.baseTile = baseTile;
+        }
+
+    }
+
+    // =========================================================
+    // Invalidation
+    /**
+     * Forgets all fields, e.g. when new game starts.
+     */
+    public static void reset() {
+        fields.clear();
+        footprints.clear();
+        width = 0;
+        height = 0;
+        buildingsAt = new int[0];
+        version++;
+    }
+
+    /**
+     * Remembers tiles occupied by our or enemy building that has been placed, discovered or has morphed. 
+     * Fields become outdated only if it's new building or it occupies other tiles than before, so seeing 
+     * the same building again costs nothing.
+     */
+    public static void buildingAdded(Unit building) {
+        UnitType type = building.getType();
+        if (!type.isBuilding() || type.isFlyer() || building.getPlayer().isNeutral()) {
+            buildingRemoved(building.getID());
+            return;
+        }
+        ensureSize();
+        int left = (building.getX() - type.tileWidth() * TILE / 2) / TILE;
+        int top = (building.getY() - type.tileHeight() * TILE / 2) / TILE;
+        int[] footprint = {
+            Math.max(0, left), Math.max(0, top), 
+            Math.min(width, left + type.tileWidth()), Math.min(height, top + type.tileHeight())
+        };
+
+        int[] previous = footprints.put(building.getID(), footprint);
+        if (Arrays.equals(previous, footprint)) {
+            return;
+        }
+        boolean changed = previous != null && stamp(previous, -1);
+        if (stamp(footprint, 1) || changed) {
+            version++;
+        }
+    }
+
+    /**
+     * Forgets tiles occupied by given building, e.g. when it's destroyed. Fields become outdated only if it
+     * was known building.
+     */
+    public static void buildingRemoved(int unitID) {
+        int[] footprint = footprints.remove(unitID);
+        if (footprint != null && stamp(footprint, -1)) {
+            version++;
+        }
+    }
+
+    /**
+     * Adds (<b>sign</b> = 1) or removes (<b>sign</b> = -1) building from its tiles. Returns true if any tile
+     * became free or occupied.
+     */
+    private static boolean stamp(int[] footprint, int sign) {
+        boolean changed = false;
+        for (int y = footprint[1]; y < footprint[3]; y++) {
+            for (int x = footprint[0]; x < footprint[2]; x++) {
+                int tile = y * width + x;
+                buildingsAt[tile] += sign;
+                changed |= sign > 0 ? buildingsAt[tile] == 1 : buildingsAt[tile] == 0;
+            }
+        }
+        return changed;
+    }
+
+    private static void ensureSize() {
+        if (width == 0) {
+            width = Atlantis.getBwapi().mapWidth();
+            height = Atlantis.getBwapi().mapHeight();
+        }
+        if (buildingsAt.length != width * height) {
+            buildingsAt = new int[width * height];
+        }
+    }
+
+    // =========================================================
+    // Queries
+    /**
+     * Returns position a ground unit at <b>from</b> should walk to, to get to the base at <b>base</b>, or
+     * null if it can't get there.
+     */
+    public static Position getWaypoint(Position from, Position base) {
+        Field field = fieldFor(base);
+        if (field == null) {
+            return null;
+        }
+        int tile = reachableTileAt(field, from);
+        if (tile < 0 || field.waypoints[tile] < 0) {
+            return null;
+        }
+        int waypoint = field.waypoints[tile];
+        return new Position((waypoint % width) * TILE + TILE / 2, (waypoint / width) * TILE + TILE / 2);
+    }
+
+    /**
+     * Returns ground distance (in build tiles) from <b>from</b> to the base at <b>base</b>, or infinity if
+     * it can't be reached.
+     */
+    public static double getDistance(Position from, Position base) {
+        Field field = fieldFor(base);
+        if (field == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int tile = reachableTileAt(field, from);
+        return tile < 0 ? Double.POSITIVE_INFINITY : field.distances[tile] / 10.0;
+    }
+
+    // =========================================================
+    // Computing fields
+    /**
+     * Returns up-to-date field for the base at given position, or null if ground distances aren't ready.
+     */
+    private static Field fieldFor(Position base) {
+        if (!AtlantisGroundDistance.isReady()) {
+            return null;
+        }
+        ensureSize();
+
+        int baseTile = tileOf(base.getX(), base.getY());
+        Field field = null;
+        for (Field existing : fields) {
+            if (existing.baseTile == baseTile) {
+                field = existing;
+                break;
+            }
+        }
+        if (field == null) {
+            field = new Field(baseTile);
+            fields.add(field);
+        }
+        if (field.version != version) {
+            compute(field);
+        }
+        return field;
+    }
+
+    private static void compute(Field field) {
+        updateWalkable();
+        if (field.distances == null) {
+            field.distances = new int[width * height];
+            field.waypoints = new int[width * height];
+        }
+
+        // Tiles of the base itself are walkable, so paths can reach it
+        System.arraycopy(walkable, 0, baseWalkable, 0, walkable.length);
+        int bx = field.baseTile % width;
+        int by = field.baseTile / width;
+        for (int y = Math.max(0, by - 2); y <= Math.min(height - 1, by + 2); y++) {
+            for (int x = Math.max(0, bx - 2); x <= Math.min(width - 1, bx + 2); x++) {
+                baseWalkable[y * width + x] |= AtlantisGroundDistance.isWalkable(x, y);
+            }
+        }
+        baseWalkable[field.baseTile] = true;
+        AtlantisGroundDistance.dijkstra(baseWalkable, field.baseTile, field.distances, heap);
+
+        // Next tile is the neighbour nearest to the base
+        for (int tile = 0; tile < width * height; tile++) {
+            next[tile] = -1;
+            int best = field.distances[tile];
+            if (best == Integer.MAX_VALUE) {
+                continue;
+            }
+            int x = tile % width;
+            int y = tile / width;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int neighbour = AtlantisGroundDistance.stepTo(baseWalkable, x, y, dx, dy);
+                    if (neighbour >= 0 && field.distances[neighbour] < best) {
+                        best = field.distances[neighbour];
+                        next[tile] = neighbour;
+                    }
+                }
+            }
+        }
+
+        // Waypoint is a few steps further, so units don't have to be given new orders every tile
+        for (int tile = 0; tile < width * height; tile++) {
+            if (field.distances[tile] == Integer.MAX_VALUE) {
+                field.waypoints[tile] = -1;
+                continue;
+            }
+            int waypoint = tile;
+            for (int step = 0; step < LOOKAHEAD && next[waypoint] >= 0; step++) {
+                waypoint = next[waypoint];
+            }
+            field.waypoints[tile] = waypoint;
+        }
+
+        field.version = version;
+    }
+
+    /**
+     * Marks tiles with walkable terrain and no buildings, unless it's been done for the current version.
+     */
+    private static void updateWalkable() {
+        if (walkableVersion == version && walkable.length == width * height) {
+            return;
+        }
+        if (walkable.length != width * height) {
+            walkable = new boolean[width * height];
+            baseWalkable = new boolean[width * height];
+            heap = new long[width * height * 8 + 1];
+            next = new int[width * height];
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                walkable[y * width + x] = AtlantisGroundDistance.isWalkable(x, y) && buildingsAt[y * width + x] == 0;
+            }
+        }
+        walkableVersion = version;
+    }
+
+    // =========================================================
+    // Helpers
+    private static int tileOf(int px, int py) {
+        int tx = Math.max(0, Math.min(width - 1, px / TILE));
+        int ty = Math.max(0, Math.min(height - 1, py / TILE));
+        return ty * width + tx;
+    }
+
+    /**
+     * Returns tile at given position, or a neighbouring one if units standing there can't reach the base
+     * (e.g. unit stands at the edge of a building), or -1.
+     */
+    private static int reachableTileAt(Field field, Position position) {
+        int tile = tileOf(position.getX(), position.getY());
+        if (field.distances[tile] != Integer.MAX_VALUE) {
+            return tile;
+        }
+        int x = tile % width;
+        int y = tile / width;
+        int best = -1;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if (nx >= 0 && ny >= 0 && nx < width && ny < height) {
+                    int neighbour = ny * width + nx;
+                    if (field.distances[neighbour] != Integer.MAX_VALUE
+                            && (best < 0 || field.distances[neighbour] < field.distances[best])) {
+                        best = neighbour;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+}
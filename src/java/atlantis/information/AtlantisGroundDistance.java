@@ -0,0 +1,525 @@
+package atlantis.information;
+
+import atlantis.Atlantis;
+import atlantis.AtlantisConfig;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
+import atlantis.wrappers.MapAnalysis;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import bwapi.Game;
+import bwapi.Position;
+import bwta.Chokepoint;
+import bwta.Region;
+
+/**
+ * Ground connectivity and ground distances, answered from tables instead of <b>Unit.hasPath</b>,
+ * <b>Game.hasPath</b> or <b>BWTA.isConnected</b>.
+ * <br />
+ * For every build tile we know if it's walkable, to which connected component (area reachable by ground)
+ * and to which BWTA region it belongs. Ground distances between all pairs of chokepoints are computed with
+ * Dijkstra over walkable tiles. Ground distance between two positions is then the straight line if they're in
+ * the same region, or the shortest way through the chokepoints of both regions otherwise.
+ * <br />
+ * Tables are computed once per map and stored in <b>AtlantisConfig.MAP_DATA_DIR</b> as [map hash].jgd, next to
+ * the .jbwta files, so next games on the same map only load them.
+ */
+public class AtlantisGroundDistance {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Cost of a straight and a diagonal step between tiles.
+     */
+    private static final int STRAIGHT = 10;
+    private static final int DIAGONAL = 14;
+
+    private static final int TILE = 32;
+
+    private static int width = 0;
+    private static int height = 0;
+
+    /**
+     * Connected component of every tile, 0 if it's not walkable.
+     */
+    private static int[] components = null;
+
+    /**
+     * BWTA region of every tile (index in MapAnalysis.getRegions() + 1), 0 if none.
+     */
+    private static int[] regions = null;
+
+    private static int regionsCount = 0;
+    private static int[] chokeTiles = new int[0];
+    private static int[] chokeRegionsA = new int[0];
+    private static int[] chokeRegionsB = new int[0];
+
+    /**
+     * Ground distance (in build tiles) between every pair of chokepoints, infinity if not connected.
+     */
+    private static float[][] chokeDistances = new float[0][0];
+
+    /**
+     * For every region, indices of its chokepoints.
+     */
+    private static int[][] regionChokes = new int[0][0];
+
+    // =========================================================
+    // Initialization
+    /**
+     * Loads tables for the current map from the map data directory, or computes and saves them if they're
+     * missing or outdated. Must be called after BWTA analysis.
+     */
+    public static void init() {
+        long start = System.currentTimeMillis();
+        Game game = Atlantis.getBwapi();
+        File file = new File(AtlantisConfig.MAP_DATA_DIR, game.mapHash() + ".jgd");
+
+        List<Region> bwtaRegions = MapAnalysis.getRegions();
+        List<Chokepoint> bwtaChokes = MapAnalysis.getChokepoints();
+        int[] expectedChokeTiles = new int[bwtaChokes.size()];
+        int mapWidth = game.mapWidth();
+        for (int i = 0; i < bwtaChokes.size(); i++) {
+            Position center = bwtaChokes.get(i).getCenter();
+            expectedChokeTiles[i] = center.getY() / TILE * mapWidth + center.getX() / TILE;
+        }
+
+        if (file.exists()) {
+            try {
+                load(file);
+                if (width == mapWidth && height == game.mapHeight() && regionsCount == bwtaRegions.size()
+                        && Arrays.equals(chokeTiles, expectedChokeTiles)) {
+                    AtlantisLog.info(Category.MAP, "Ground distances loaded from", file);
+                    return;
+                }
+            } catch (IOException e) {
+                AtlantisLog.warn(Category.MAP, "Can't read ground distances, computing them again:", e);
+            }
+        }
+
+        compute(game, bwtaRegions, bwtaChokes);
+        try {
+            save(file);
+        } catch (IOException e) {
+            AtlantisLog.warn(Category.MAP, "Can't save ground distances:", e);
+        }
+        AtlantisLog.log(AtlantisLog.Level.INFO, Category.MAP, "Ground distances computed in ms:",
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Reads walkability and BWTA regions of all build tiles from the game and computes the tables.
+     */
+    private static void compute(Game game, List<Region> bwtaRegions, List<Chokepoint> bwtaChokes) {
+        int w = game.mapWidth();
+        int h = game.mapHeight();
+
+        // Build tile is walkable if most of its 16 walk tiles are
+        boolean[] walkable = new boolean[w * h];
+        for (int ty = 0; ty < h; ty++) {
+            for (int tx = 0; tx < w; tx++) {
+                int walkableCount = 0;
+                for (int dy = 0; dy < 4; dy++) {
+                    for (int dx = 0; dx < 4; dx++) {
+                        if (game.isWalkable(tx * 4 + dx, ty * 4 + dy)) {
+                            walkableCount++;
+                        }
+                    }
+                }
+                walkable[ty * w + tx] = walkableCount >= 8;
+            }
+        }
+
+        Map<Region, Integer> regionIndex = new HashMap<>();
+        for (int i = 0; i < bwtaRegions.size(); i++) {
+            regionIndex.put(bwtaRegions.get(i), i + 1);
+        }
+        int[] tileRegions = new int[w * h];
+        for (int ty = 0; ty < h; ty++) {
+            for (int tx = 0; tx < w; tx++) {
+                Region region = MapAnalysis.getRegion(tx, ty);
+                Integer index = region == null ? null : regionIndex.get(region);
+                tileRegions[ty * w + tx] = index == null ? 0 : index;
+            }
+        }
+
+        int chokes = bwtaChokes.size();
+        int[] tiles = new int[chokes];
+        int[] sideA = new int[chokes];
+        int[] sideB = new int[chokes];
+        for (int i = 0; i < chokes; i++) {
+            Chokepoint choke = bwtaChokes.get(i);
+            tiles[i] = choke.getCenter().getY() / TILE * w + choke.getCenter().getX() / TILE;
+            Integer a = regionIndex.get(choke.getRegions().first);
+            Integer b = regionIndex.get(choke.getRegions().second);
+            sideA[i] = a == null ? 0 : a;
+            sideB[i] = b == null ? 0 : b;
+        }
+
+        compute(w, h, walkable, tileRegions, bwtaRegions.size(), tiles, sideA, sideB);
+    }
+
+    /**
+     * Computes all tables from given map layout; it doesn't use BWAPI, so it can also be used without the game.
+     *
+     * @param walkable for every build tile (row by row) whether it's walkable
+     * @param tileRegions for every build tile its region number (1..regionsCount), 0 if none
+     * @param tiles build tile index (y * width + x) of every chokepoint
+     * @param sideA region number on one side of every chokepoint
+     * @param sideB region number on the other side of every chokepoint
+     */
+    public static void compute(int w, int h, boolean[] walkable, int[] tileRegions, int regionsCount, int[] tiles,
+            int[] sideA, int[] sideB) {
+        width = w;
+        height = h;
+        regions = tileRegions;
+        AtlantisGroundDistance.regionsCount = regionsCount;
+        chokeTiles = tiles;
+        chokeRegionsA = sideA;
+        chokeRegionsB = sideB;
+
+        // Connected components, flood fill
+        components = new int[w * h];
+        int[] queue = new int[w * h];
+        int componentsCount = 0;
+        for (int tile = 0; tile < w * h; tile++) {
+            if (!walkable[tile] || components[tile] != 0) {
+                continue;
+            }
+            componentsCount++;
+            components[tile] = componentsCount;
+            int queueHead = 0;
+            int queueTail = 0;
+            queue[queueTail++] = tile;
+            while (queueHead < queueTail) {
+                int current = queue[queueHead++];
+                int x = current % w;
+                int y = current / w;
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int next = stepTo(walkable, x, y, dx, dy);
+                        if (next >= 0 && components[next] == 0) {
+                            components[next] = componentsCount;
+                            queue[queueTail++] = next;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Distances between chokepoints
+        int chokes = tiles.length;
+        chokeDistances = new float[chokes][chokes];
+        int[] distances = new int[w * h];
+        long[] heap = new long[w * h * 8 + 1];
+        for (int i = 0; i < chokes; i++) {
+            dijkstra(walkable, nearestWalkable(walkable, tiles[i]), distances, heap);
+            for (int j = 0; j < chokes; j++) {
+                int target = nearestWalkable(walkable, tiles[j]);
+                chokeDistances[i][j] = target < 0 || distances[target] == Integer.MAX_VALUE
+                        ? Float.POSITIVE_INFINITY : distances[target] / (float) STRAIGHT;
+            }
+        }
+
+        buildRegionChokes();
+    }
+
+    // =========================================================
+    // Queries
+    /**
+     * Returns true if tables have been computed or loaded for the current map.
+     */
+    public static boolean isReady() {
+        return components != null;
+    }
+
+    /**
+     * Returns true if build tile (tx, ty) is walkable, only terrain is considered.
+     */
+    public static boolean isWalkable(int tx, int ty) {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height && components[ty * width + tx] != 0;
+    }
+
+    /**
+     * Returns true if a ground unit can walk from <b>a</b> to <b>b</b>. Only terrain is considered, not
+     * buildings or other units. If tables are not ready, assumes it can.
+     */
+    public static boolean isReachable(Position a, Position b) {
+        if (!isReady()) {
+            return true;
+        }
+        int componentA = componentAt(a);
+        return componentA != 0 && componentA == componentAt(b);
+    }
+
+    /**
+     * Returns approximate length (in build tiles, like <b>PositionUtil.distanceTo</b>) of the shortest ground
+     * path from <b>a</b> to <b>b</b>, or infinity if <b>b</b> can't be reached by ground. If tables are not
+     * ready, returns the straight line distance.
+     */
+    public static double groundDistance(Position a, Position b) {
+        double straight = Math.hypot(a.getX() - b.getX(), a.getY() - b.getY()) / TILE;
+        if (!isReady()) {
+            return straight;
+        }
+        if (!isReachable(a, b)) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        int regionA = regionAt(a);
+        int regionB = regionAt(b);
+        if (regionA == regionB || regionA == 0 || regionB == 0) {
+            return straight;
+        }
+
+        double best = Double.POSITIVE_INFINITY;
+        for (int chokeA : regionChokes[regionA]) {
+            double toChokeA = distanceToTile(a, chokeTiles[chokeA]);
+            for (int chokeB : regionChokes[regionB]) {
+                double total = toChokeA + chokeDistances[chokeA][chokeB] + distanceToTile(b, chokeTiles[chokeB]);
+                if (total < best) {
+                    best = total;
+                }
+            }
+        }
+        return Math.max(straight, Double.isInfinite(best) ? straight : best);
+    }
+
+    // =========================================================
+    // Persistence
+    private static void save(File file) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(file))))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(regionsCount);
+            for (int tile = 0; tile < width * height; tile++) {
+                out.writeInt(components[tile]);
+                out.writeShort(regions[tile]);
+            }
+            out.writeInt(chokeTiles.length);
+            for (int i = 0; i < chokeTiles.length; i++) {
+                out.writeInt(chokeTiles[i]);
+                out.writeShort(chokeRegionsA[i]);
+                out.writeShort(chokeRegionsB[i]);
+                for (int j = 0; j < chokeTiles.length; j++) {
+                    out.writeFloat(chokeDistances[i][j]);
+                }
+            }
+        }
+    }
+
+    private static void load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported format version");
+            }
+            width = in.readInt();
+            height = in.readInt();
+            regionsCount = in.readInt();
+            components = new int[width * height];
+            regions = new int[width * height];
+            for (int tile = 0; tile < width * height; tile++) {
+                components[tile] = in.readInt();
+                regions[tile] = in.readShort();
+            }
+            int chokes = in.readInt();
+            chokeTiles = new int[chokes];
+            chokeRegionsA = new int[chokes];
+            chokeRegionsB = new int[chokes];
+            chokeDistances = new float[chokes][chokes];
+            for (int i = 0; i < chokes; i++) {
+                chokeTiles[i] = in.readInt();
+                chokeRegionsA[i] = in.readShort();
+                chokeRegionsB[i] = in.readShort();
+                for (int j = 0; j < chokes; j++) {
+                    chokeDistances[i][j] = in.readFloat();
+                }
+            }
+        } catch (IOException e) {
+            components = null;
+            throw e;
+        }
+        buildRegionChokes();
+    }
+
+    // =========================================================
+    // Helpers
+    private static void buildRegionChokes() {
+        int[] counts = new int[regionsCount + 1];
+        for (int i = 0; i < chokeTiles.length; i++) {
+            counts[chokeRegionsA[i]]++;
+            counts[chokeRegionsB[i]]++;
+        }
+        regionChokes = new int[regionsCount + 1][];
+        for (int region = 0; region <= regionsCount; region++) {
+            regionChokes[region] = new int[counts[region]];
+            counts[region] = 0;
+        }
+        for (int i = 0; i < chokeTiles.length; i++) {
+            regionChokes[chokeRegionsA[i]][counts[chokeRegionsA[i]]++] = i;
+            regionChokes[chokeRegionsB[i]][counts[chokeRegionsB[i]]++] = i;
+        }
+    }
+
+    /**
+     * Returns tile reached by step (dx, dy) from (x, y), or -1 if it's not walkable. Diagonal steps require
+     * both adjacent tiles to be walkable, so units can't squeeze between two corners.
+     */
+    static int stepTo(boolean[] walkable, int x, int y, int dx, int dy) {
+        int nx = x + dx;
+        int ny = y + dy;
+        if ((dx == 0 && dy == 0) || nx < 0 || ny < 0 || nx >= width || ny >= height || !walkable[ny * width + nx]) {
+            return -1;
+        }
+        if (dx != 0 && dy != 0 && (!walkable[y * width + nx] || !walkable[ny * width + x])) {
+            return -1;
+        }
+        return ny * width + nx;
+    }
+
+    /**
+     * Fills <b>distances</b> with ground distances (in tenths of build tile) from <b>source</b> to every tile.
+     * <b>heap</b> is a binary heap of (distance << 32 | tile), big enough to hold 8 entries per tile.
+     */
+    static void dijkstra(boolean[] walkable, int source, int[] distances, long[] heap) {
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        if (source < 0) {
+            return;
+        }
+
+        int heapSize = 0;
+        distances[source] = 0;
+        heap[heapSize++] = source;
+        while (heapSize > 0) {
+            long top = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+
+            int tile = (int) top;
+            int distance = (int) (top >>> 32);
+            if (distance > distances[tile]) {
+                continue;
+            }
+            int x = tile % width;
+            int y = tile / width;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int next = stepTo(walkable, x, y, dx, dy);
+                    int nextDistance = distance + (dx != 0 && dy != 0 ? DIAGONAL : STRAIGHT);
+                    if (next >= 0 && nextDistance < distances[next]) {
+                        distances[next] = nextDistance;
+                        heap[heapSize] = ((long) nextDistance << 32) | next;
+                        siftUp(heap, heapSize++);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long value = heap[index];
+        while (index > 0 && heap[(index - 1) / 2] > value) {
+            heap[index] = heap[(index - 1) / 2];
+            index = (index - 1) / 2;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        if (size == 0) {
+            return;
+        }
+        long value = heap[0];
+        int index = 0;
+        while (index * 2 + 1 < size) {
+            int child = index * 2 + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= value) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    /**
+     * Returns given tile if it's walkable, otherwise the nearest walkable one within 3 tiles, or -1.
+     */
+    private static int nearestWalkable(boolean[] walkable, int tile) {
+        if (tile < 0 || tile >= width * height) {
+            return -1;
+        }
+        if (walkable[tile]) {
+            return tile;
+        }
+        int x = tile % width;
+        int y = tile / width;
+        for (int radius = 1; radius <= 3; radius++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                for (int dx = -radius; dx <= radius; dx++) {
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if (nx >= 0 && ny >= 0 && nx < width && ny < height && walkable[ny * width + nx]) {
+                        return ny * width + nx;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns component of the tile at given position; units standing at the edge of unwalkable tile take
+     * component of a neighbouring tile.
+     */
+    private static int componentAt(Position position) {
+        int x = Math.max(0, Math.min(width - 1, position.getX() / TILE));
+        int y = Math.max(0, Math.min(height - 1, position.getY() / TILE));
+        int component = components[y * width + x];
+        for (int dy = -1; dy <= 1 && component == 0; dy++) {
+            for (int dx = -1; dx <= 1 && component == 0; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if (nx >= 0 && ny >= 0 && nx < width && ny < height) {
+                    component = components[ny * width + nx];
+                }
+            }
+        }
+        return component;
+    }
+
+    private static int regionAt(Position position) {
+        int x = Math.max(0, Math.min(width - 1, position.getX() / TILE));
+        int y = Math.max(0, Math.min(height - 1, position.getY() / TILE));
+        return regions[y * width + x];
+    }
+
+    private static double distanceToTile(Position position, int tile) {
+        double x = (tile % width) * TILE + TILE / 2;
+        double y = (tile / width) * TILE + TILE / 2;
+        return Math.hypot(position.getX() - x, position.getY() - y) / TILE;
+    }
+
+}
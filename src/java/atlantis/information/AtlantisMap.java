@@ -1,6 +1,8 @@
 package atlantis.information;
 
 import atlantis.Atlantis;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.util.PositionUtil;
 import atlantis.util.RUtilities;
 import atlantis.wrappers.Positions;
@@ -17,6 +19,7 @@ import bwta.Region;
 import bwta.Chokepoint;
 import bwapi.Unit;
 import bwta.BWTA;
+import atlantis.wrappers.MapAnalysis;
 import bwta.BaseLocation;
 
 /**
@@ -36,6 +39,13 @@ public class AtlantisMap {
      * method returns this choke point. It's perfect position to defend (because it's *choke* point).
      */
     public static Chokepoint getMainBaseChokepoint() {
+        if (cached_mainBaseChokepoint == null && AtlantisMapCache.isReady()) {
+            int ourBase = AtlantisMapCache.getBaseLocationIndex(getOurStartLocation());
+            if (ourBase >= 0) {
+                cached_mainBaseChokepoint = AtlantisMapCache.getMainChokepoint(ourBase);
+            }
+        }
+        
         if (cached_mainBaseChokepoint == null) {
             Unit mainBase = Select.mainBase();
             if (mainBase != null) {
@@ -82,6 +92,20 @@ public class AtlantisMap {
         return cached_mainBaseChokepoint;
     }
 
+    /**
+     * Returns choke point leading out of the region of our natural base (the second nearest base location).
+     * It's the place to defend once we expand.
+     */
+    public static Chokepoint getNaturalChokepoint() {
+        if (AtlantisMapCache.isReady()) {
+            int ourBase = AtlantisMapCache.getBaseLocationIndex(getOurStartLocation());
+            if (ourBase >= 0) {
+                return AtlantisMapCache.getNaturalChokepoint(ourBase);
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns starting location that's nearest to given position and is not yet explored (black space, not
      * fog of war).
@@ -90,6 +114,18 @@ public class AtlantisMap {
         if (nearestTo == null) {
             return null;
         }
+        
+        // Use order precomputed at the start of the game, if given position is one of base locations
+        int baseIndex = AtlantisMapCache.isReady() ? AtlantisMapCache.getBaseLocationIndex(nearestTo) : -1;
+        if (baseIndex >= 0) {
+            List<BaseLocation> startingLocations = getStartingLocations(true);
+            for (BaseLocation baseLocation : AtlantisMapCache.getBaseLocationsByDistanceFrom(baseIndex)) {
+                if (startingLocations.contains(baseLocation) && !isExplored(baseLocation.getPosition())) {
+                    return baseLocation;
+                }
+            }
+            return null;
+        }
 
         // Get list of all starting locations
         Positions<BaseLocation> startingLocations = new Positions<BaseLocation>();
@@ -118,6 +154,18 @@ public class AtlantisMap {
      * Returns nearest free base location where we don't have base built yet.
      */
     public static BaseLocation getNearestBaseLocationToExpand(Position nearestTo) {
+        
+        // Use order precomputed at the start of the game, if given position is one of base locations
+        int baseIndex = AtlantisMapCache.isReady() && nearestTo != null 
+                ? AtlantisMapCache.getBaseLocationIndex(nearestTo) : -1;
+        if (baseIndex >= 0) {
+            for (BaseLocation baseLocation : AtlantisMapCache.getBaseLocationsByDistanceFrom(baseIndex)) {
+                if (isBaseLocationFreeOfBuildingsAndEnemyUnits(baseLocation)) {
+                    return baseLocation;
+                }
+            }
+            return null;
+        }
 
         // Get list of all base locations
         Positions<BaseLocation> baseLocations = new Positions<BaseLocation>();
@@ -141,6 +189,11 @@ public class AtlantisMap {
      * Returns nearest base location (by the actual ground distance) to the given base location.
      */
     private static BaseLocation getSecondNearestBaseLocation(Position nearestTo) {
+        int baseIndex = AtlantisMapCache.isReady() ? AtlantisMapCache.getBaseLocationIndex(nearestTo) : -1;
+        if (baseIndex >= 0) {
+            List<BaseLocation> baseLocations = AtlantisMapCache.getBaseLocationsByDistanceFrom(baseIndex);
+            return baseLocations.size() > 1 ? baseLocations.get(1) : null;
+        }
 
         // Get list of all base locations
         Positions<BaseLocation> baseLocations = new Positions<BaseLocation>();
@@ -169,7 +222,7 @@ public class AtlantisMap {
             int maxRadius = 30 * TilePosition.SIZE_IN_PIXELS;	//TODO: check whether this scaling to TilePosition is oK
             int dx = -maxRadius + RUtilities.rand(0, 2 * maxRadius);
             int dy = -maxRadius + RUtilities.rand(0, 2 * maxRadius);
-            position = PositionUtil.translate(startPoint, dx, dy).makeValid();
+            position = PositionUtil.makeValid(PositionUtil.translate(startPoint, dx, dy));
             if (!isVisible(position)) {
                 return position;
             }
@@ -177,6 +230,13 @@ public class AtlantisMap {
         return position;
     }
 
+    /**
+     * Returns position of our starting location.
+     */
+    private static Position getOurStartLocation() {
+        return Atlantis.getBwapi().self().getStartLocation().toPosition();
+    }
+
     // =========================================================
     // Generic methods - wrappers for JNIBWAPI methods
     /**
@@ -191,7 +251,10 @@ public class AtlantisMap {
      * a base. Starting locations are also included here.
      */
     public static List<BaseLocation> getBaseLocations() {
-        return BWTA.getBaseLocations();
+        if (AtlantisMapCache.isReady()) {
+            return AtlantisMapCache.getBaseLocations();
+        }
+        return MapAnalysis.getBaseLocations();
     }
 
     /**
@@ -201,7 +264,9 @@ public class AtlantisMap {
      */
     public static List<BaseLocation> getStartingLocations(boolean excludeOurStartLocation) {
         ArrayList<BaseLocation> startingLocations = new ArrayList<>();
-        for (BaseLocation baseLocation : AtlantisMap.getBaseLocations()) {
+        List<BaseLocation> candidates = AtlantisMapCache.isReady() 
+                ? AtlantisMapCache.getStartLocations() : AtlantisMap.getBaseLocations();
+        for (BaseLocation baseLocation : candidates) {
             if (baseLocation.isStartLocation()) {
                 
                 // Exclude our base location if needed.
@@ -225,7 +290,9 @@ public class AtlantisMap {
     public static List<Chokepoint> getChokePoints() {
         if (cached_chokePoints == null) {
             cached_chokePoints = new ArrayList<>();
-            for (Chokepoint choke : BWTA.getChokepoints()) {
+            List<Chokepoint> allChokepoints = AtlantisMapCache.isReady() 
+                    ? AtlantisMapCache.getChokepoints() : MapAnalysis.getChokepoints();
+            for (Chokepoint choke : allChokepoints) {
                 if (!disabledChokepoints.contains(choke)) { // choke.isDisabled()
                     cached_chokePoints.add(choke);
                 }
@@ -241,7 +308,7 @@ public class AtlantisMap {
      * @see Region
      */
     public static Region getRegion(Position position) {
-        return BWTA.getRegion(position);
+        return MapAnalysis.getRegion(position);
     }
 
     /**
@@ -269,20 +336,20 @@ public class AtlantisMap {
     public static void disableSomeOfTheChokePoints() {
         Unit mainBase = Select.mainBase();
         if (mainBase == null) {
-            System.out.println("Error #821493a");
+            AtlantisLog.error(Category.MAP, "Can't disable choke points, no main base");
             return;
         }
 
         Region baseRegion = getRegion(mainBase.getPosition());
         if (baseRegion == null) {
-            System.out.println("Error #821493b");
+            AtlantisLog.error(Category.MAP, "Can't disable choke points, no region for main base");
             return;
         }
 
         Collection<Chokepoint> chokes = baseRegion.getChokepoints();
         for (Chokepoint choke : chokes) {
             if (baseRegion.getChokepoints().contains(choke)) {
-                System.out.println("Disabling choke point: " + choke);
+                AtlantisLog.info(Category.MAP, "Disabling choke point:", choke);
                 disabledChokepoints.add(choke);	//choke.setDisabled(true);
             }
         }
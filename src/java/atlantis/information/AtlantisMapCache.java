@@ -0,0 +1,334 @@
+package atlantis.information;
+
+import atlantis.Atlantis;
+import atlantis.AtlantisConfig;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
+import atlantis.wrappers.MapAnalysis;
+import atlantis.util.FileUtil;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bwapi.Position;
+import bwta.BaseLocation;
+import bwta.Chokepoint;
+import bwta.Region;
+
+/**
+ * Everything <b>AtlantisMap</b> derives from the BWTA analysis, computed at the start of the game instead of
+ * lazily in the middle of it: lists of regions, chokepoints and base locations, order of base locations by
+ * ground distance from every start location, and main and natural choke of every start location.
+ * <br />
+ * Derived data is stored in <b>AtlantisConfig.MAP_DATA_DIR</b> as [map hash].jmap, next to the .jbwta file of
+ * BWTA, and on the next game on the same map it's only memory-mapped and validated against BWTA. BWTA objects
+ * themselves (which come from native code) are referenced by their index in the BWTA lists.
+ */
+public class AtlantisMapCache {
+
+    private static final int MAGIC = 0x4A4D4150;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int TILE = 32;
+
+    private static List<Region> regions = new ArrayList<>();
+    private static List<Chokepoint> chokepoints = new ArrayList<>();
+    private static List<BaseLocation> baseLocations = new ArrayList<>();
+    private static List<BaseLocation> startLocations = new ArrayList<>();
+    private static boolean ready = false;
+
+    // Derived data, arrays indexed by index of base location in MapAnalysis.getBaseLocations()
+    private static int[][] baseOrder = new int[0][];
+    private static int[] mainChoke = new int[0];
+    private static int[] naturalChoke = new int[0];
+
+    // Geometry used to check that the cached file still matches BWTA analysis
+    private static int[] regionTiles = new int[0];
+    private static int[] chokeTiles = new int[0];
+    private static int[] baseTiles = new int[0];
+
+    // =========================================================
+    // Initialization
+    /**
+     * Loads derived map data from the map data directory, or computes and saves it. Must be called after
+     * BWTA analysis and <b>AtlantisGroundDistance.init()</b>.
+     */
+    public static void init() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        regions = new ArrayList<>(MapAnalysis.getRegions());
+        chokepoints = new ArrayList<>(MapAnalysis.getChokepoints());
+        baseLocations = new ArrayList<>(MapAnalysis.getBaseLocations());
+        startLocations = new ArrayList<>();
+        for (BaseLocation baseLocation : baseLocations) {
+            if (baseLocation.isStartLocation()) {
+                startLocations.add(baseLocation);
+            }
+        }
+
+        int mapWidth = Atlantis.getBwapi().mapWidth();
+        int[] expectedRegionTiles = new int[regions.size()];
+        for (int i = 0; i < regions.size(); i++) {
+            expectedRegionTiles[i] = tileOf(regions.get(i).getCenter(), mapWidth);
+        }
+        int[] expectedChokeTiles = new int[chokepoints.size()];
+        for (int i = 0; i < chokepoints.size(); i++) {
+            expectedChokeTiles[i] = tileOf(chokepoints.get(i).getCenter(), mapWidth);
+        }
+        int[] expectedBaseTiles = new int[baseLocations.size()];
+        for (int i = 0; i < baseLocations.size(); i++) {
+            expectedBaseTiles[i] = tileOf(baseLocations.get(i).getPosition(), mapWidth);
+        }
+
+        File file = new File(AtlantisConfig.MAP_DATA_DIR, Atlantis.getBwapi().mapHash() + ".jmap");
+        if (file.exists()) {
+            try {
+                load(file);
+                if (Arrays.equals(regionTiles, expectedRegionTiles) && Arrays.equals(chokeTiles, expectedChokeTiles)
+                        && Arrays.equals(baseTiles, expectedBaseTiles)) {
+                    ready = true;
+                    AtlantisLog.info(Category.MAP, "Map data loaded from", file);
+                    return;
+                }
+                AtlantisLog.info(Category.MAP, "Map data outdated, computing it again:", file);
+            } catch (IOException | RuntimeException e) {
+                AtlantisLog.warn(Category.MAP, "Can't read map data, computing it again:", e);
+            }
+        }
+
+        regionTiles = expectedRegionTiles;
+        chokeTiles = expectedChokeTiles;
+        baseTiles = expectedBaseTiles;
+        compute();
+        ready = true;
+        try {
+            save(file);
+        } catch (IOException e) {
+            AtlantisLog.warn(Category.MAP, "Can't save map data:", e);
+        }
+        AtlantisLog.log(AtlantisLog.Level.INFO, Category.MAP, "Map data computed in ms:",
+                System.currentTimeMillis() - start);
+    }
+
+    private static void compute() {
+        Map<Region, Integer> regionIndex = new HashMap<>();
+        for (int i = 0; i < regions.size(); i++) {
+            regionIndex.put(regions.get(i), i);
+        }
+
+        int bases = baseLocations.size();
+        baseOrder = new int[bases][];
+        mainChoke = new int[bases];
+        naturalChoke = new int[bases];
+        for (int base = 0; base < bases; base++) {
+            baseOrder[base] = orderByGroundDistance(baseLocations.get(base).getPosition());
+            mainChoke[base] = -1;
+            naturalChoke[base] = -1;
+
+            // Main choke connects region of this base with region of the nearest other base (natural)
+            Integer mainRegion = regionIndex.get(baseLocations.get(base).getRegion());
+            if (mainRegion == null || bases < 2) {
+                continue;
+            }
+            Integer naturalRegion = regionIndex.get(baseLocations.get(baseOrder[base][1]).getRegion());
+            for (int choke = 0; choke < chokepoints.size(); choke++) {
+                Integer a = regionIndex.get(chokepoints.get(choke).getRegions().first);
+                Integer b = regionIndex.get(chokepoints.get(choke).getRegions().second);
+                boolean touchesMain = mainRegion.equals(a) || mainRegion.equals(b);
+                if (touchesMain && mainChoke[base] < 0) {
+                    mainChoke[base] = choke;
+                }
+                if (touchesMain && naturalRegion != null && (naturalRegion.equals(a) || naturalRegion.equals(b))) {
+                    mainChoke[base] = choke;
+                }
+            }
+
+            // Natural choke is the choke of the natural's region (other than main choke) nearest to the natural
+            if (naturalRegion == null || naturalRegion.equals(mainRegion)) {
+                continue;
+            }
+            Position natural = baseLocations.get(baseOrder[base][1]).getPosition();
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int choke = 0; choke < chokepoints.size(); choke++) {
+                Integer a = regionIndex.get(chokepoints.get(choke).getRegions().first);
+                Integer b = regionIndex.get(chokepoints.get(choke).getRegions().second);
+                if (choke == mainChoke[base] || !(naturalRegion.equals(a) || naturalRegion.equals(b))) {
+                    continue;
+                }
+                double distance = AtlantisGroundDistance.groundDistance(natural, chokepoints.get(choke).getCenter());
+                if (naturalChoke[base] < 0 || distance < bestDistance) {
+                    naturalChoke[base] = choke;
+                    bestDistance = distance;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns indices of all base locations sorted by ground distance from given position (unreachable last).
+     */
+    private static int[] orderByGroundDistance(final Position from) {
+        final double[] distances = new double[baseLocations.size()];
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < baseLocations.size(); i++) {
+            Position position = baseLocations.get(i).getPosition();
+            double ground = AtlantisGroundDistance.groundDistance(from, position);
+            double air = Math.hypot(from.getX() - position.getX(), from.getY() - position.getY()) / TILE;
+            distances[i] = Double.isInfinite(ground) ? 100000 + air : ground;
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(distances[a], distances[b]);
+            }
+        });
+
+        int[] result = new int[order.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = order.get(i);
+        }
+        return result;
+    }
+
+    // =========================================================
+    // Persistence
+    private static void save(File file) throws IOException {
+        int bases = baseTiles.length;
+        int size = 4 * (5 + regionTiles.length + chokeTiles.length + bases + bases * (3 + bases));
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION);
+        putArray(buffer, regionTiles);
+        putArray(buffer, chokeTiles);
+        putArray(buffer, baseTiles);
+        for (int base = 0; base < bases; base++) {
+            buffer.putInt(mainChoke[base]);
+            buffer.putInt(naturalChoke[base]);
+            putArray(buffer, baseOrder[base]);
+        }
+        buffer.flip();
+
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(0);
+            out.getChannel().write(buffer);
+        }
+    }
+
+    private static void load(File file) throws IOException {
+        ByteBuffer buffer = FileUtil.readFully(file);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported map data format");
+        }
+        regionTiles = getArray(buffer);
+        chokeTiles = getArray(buffer);
+        baseTiles = getArray(buffer);
+        int bases = baseTiles.length;
+        baseOrder = new int[bases][];
+        mainChoke = new int[bases];
+        naturalChoke = new int[bases];
+        for (int base = 0; base < bases; base++) {
+            mainChoke[base] = buffer.getInt();
+            naturalChoke[base] = buffer.getInt();
+            baseOrder[base] = getArray(buffer);
+        }
+    }
+
+    private static void putArray(ByteBuffer buffer, int[] array) {
+        buffer.putInt(array.length);
+        for (int value : array) {
+            buffer.putInt(value);
+        }
+    }
+
+    private static int[] getArray(ByteBuffer buffer) {
+        int[] array = new int[buffer.getInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = buffer.getInt();
+        }
+        return array;
+    }
+
+    private static int tileOf(Position position, int mapWidth) {
+        return position.getY() / TILE * mapWidth + position.getX() / TILE;
+    }
+
+    // =========================================================
+    // Getters
+    /**
+     * Returns true if map data has been loaded or computed for the current game.
+     */
+    public static boolean isReady() {
+        return ready;
+    }
+
+    public static List<Region> getRegions() {
+        return regions;
+    }
+
+    public static List<Chokepoint> getChokepoints() {
+        return chokepoints;
+    }
+
+    public static List<BaseLocation> getBaseLocations() {
+        return baseLocations;
+    }
+
+    public static List<BaseLocation> getStartLocations() {
+        return startLocations;
+    }
+
+    /**
+     * Returns index of the base location nearest to given position, if it's within 10 tiles, or -1.
+     */
+    public static int getBaseLocationIndex(Position position) {
+        int nearest = -1;
+        long nearestDistSq = Long.MAX_VALUE;
+        for (int i = 0; i < baseLocations.size(); i++) {
+            Position base = baseLocations.get(i).getPosition();
+            long dx = base.getX() - position.getX();
+            long dy = base.getY() - position.getY();
+            if (Math.abs(dx) <= 10 * TILE && Math.abs(dy) <= 10 * TILE && dx * dx + dy * dy < nearestDistSq) {
+                nearest = i;
+                nearestDistSq = dx * dx + dy * dy;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Returns all base locations sorted by ground distance from the base location with given index.
+     */
+    public static List<BaseLocation> getBaseLocationsByDistanceFrom(int baseIndex) {
+        List<BaseLocation> result = new ArrayList<>(baseLocations.size());
+        for (int index : baseOrder[baseIndex]) {
+            result.add(baseLocations.get(index));
+        }
+        return result;
+    }
+
+    /**
+     * Returns choke leading out of the region of the base location with given index, toward its natural.
+     */
+    public static Chokepoint getMainChokepoint(int baseIndex) {
+        return mainChoke[baseIndex] < 0 ? null : chokepoints.get(mainChoke[baseIndex]);
+    }
+
+    /**
+     * Returns choke leading out of the region of the natural of the base location with given index.
+     */
+    public static Chokepoint getNaturalChokepoint(int baseIndex) {
+        return naturalChoke[baseIndex] < 0 ? null : chokepoints.get(naturalChoke[baseIndex]);
+    }
+
+}
@@ -2,27 +2,38 @@ package atlantis.information;
 
 import atlantis.Atlantis;
 import atlantis.AtlantisConfig;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.MappingCounter;
 import atlantis.wrappers.Select;
+import atlantis.wrappers.UnitSideTable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 import bwapi.Unit;
 import bwapi.UnitType;	
 
 public class AtlantisUnitInformationManager {
 
-    protected static HashMap<Integer, UnitData> allUnits = new HashMap<>();
+    protected static UnitSideTable<UnitData> allUnits = new UnitSideTable<>();
 
-//    protected static MappingCounter<UnitType> ourUnitsFininised = new MappingCounter<>();
-//    protected static MappingCounter<UnitType> ourUnitsUnfininised = new MappingCounter<>();
+    protected static MappingCounter<UnitType> ourUnitsFinished = new MappingCounter<>();
+    protected static MappingCounter<UnitType> ourUnitsUnfinished = new MappingCounter<>();
     protected static MappingCounter<UnitType> enemyUnitsDiscoveredCounter = new MappingCounter<>();
     protected static MappingCounter<UnitType> enemyUnitsVisibleCounter = new MappingCounter<>();
 
     protected static HashMap<Integer, UnitData> enemyUnitsDiscovered = new HashMap<>();
     protected static HashMap<Integer, Unit> enemyUnitsVisible = new HashMap<>();
 
+    /**
+     * Type and state under which every of our units is currently counted in ourUnitsFinished or
+     * ourUnitsUnfinished.
+     */
+    private static UnitSideTable<CountedUnit> ourUnitsCounted = new UnitSideTable<>();
+
     // =========================================================
     // Special methods
     /**
@@ -63,17 +74,97 @@ public class AtlantisUnitInformationManager {
     // =========================================================
     // Number of units changed
     /**
-     * Saves information about our new unit being trained, so counting units works properly.
+     * Makes sure that given unit is counted under its current type and state (finished or unfinished), or
+     * isn't counted at all if it's not our unit. Should be called whenever unit is created, completed,
+     * morphed or changes its owner. It's safe to call it many times for the same unit.
+     * <br />
+     * Counting works like <b>Select.ourIncludingUnfinished().ofType(type)</b>: Spider Mines are skipped and
+     * Eggs and Cocoons are counted also as unfinished units of type they're morphing into.
      */
-//    public static void addOurUnfinishedUnit(UnitType type) {
-//        ourUnitsUnfininised.incrementValueFor(type);
-//    }
+    public static void updateOurUnitCount(Unit unit) {
+        uncountOurUnit(unit);
+
+        UnitType type = unit.getType();
+        if (unit.exists() && unit.getPlayer().equals(Atlantis.getBwapi().self())
+                && !type.equals(UnitType.Terran_Vulture_Spider_Mine)) {
+            UnitType buildType = UnitUtil.isEggOrCocoon(type) ? unit.getBuildType() : null;
+            if (UnitType.None.equals(buildType) || UnitType.Unknown.equals(buildType)) {
+                buildType = null;
+            }
+            CountedUnit counted = new CountedUnit(type, buildType, unit.isCompleted());
+            if (counted.completed) {
+                ourUnitsFinished.incrementValueFor(counted.type);
+            } else {
+                ourUnitsUnfinished.incrementValueFor(counted.type);
+            }
+            if (counted.buildType != null) {
+                ourUnitsUnfinished.incrementValueFor(counted.buildType);
+            }
+            ourUnitsCounted.put(unit, counted);
+        }
+    }
+
+    /**
+     * Saves information about given unit being destroyed (or not being ours anymore), so counting units
+     * works properly.
+     */
+    public static void uncountOurUnit(Unit unit) {
+        CountedUnit counted = ourUnitsCounted.remove(unit);
+        if (counted != null) {
+            if (counted.completed) {
+                ourUnitsFinished.decrementValueFor(counted.type);
+            } else {
+                ourUnitsUnfinished.decrementValueFor(counted.type);
+            }
+            if (counted.buildType != null) {
+                ourUnitsUnfinished.decrementValueFor(counted.buildType);
+            }
+        }
+    }
+
+    /**
+     * Returns type under which our unit is counted now, which before <b>updateOurUnitCount</b> is called after
+     * a morph is still the previous type, or null if the unit isn't counted.
+     */
+    public static UnitType getCountedTypeOf(Unit unit) {
+        CountedUnit counted = ourUnitsCounted.get(unit);
+        return counted != null ? counted.type : null;
+    }
+
+    /**
+     * Returns type of unit that given Egg or Cocoon is counted as (it's morphing into), or null.
+     */
+    public static UnitType getCountedBuildTypeOf(Unit unit) {
+        CountedUnit counted = ourUnitsCounted.get(unit);
+        return counted != null ? counted.buildType : null;
+    }
+
     /**
-     * Saves information about new unit being created successfully, so counting units works properly.
+     * Compares counters with <b>Select.ourIncludingUnfinished().ofType(type)</b>, which they replace, and
+     * reports every type for which they're wrong. It's meant for debugging only, see
+     * <b>AtlantisConfig.CHECK_UNIT_COUNTERS</b>.
      */
-//    public static void addOurFinishedUnit(UnitType type) {
-//        ourUnitsFininised.incrementValueFor(type);
-//    }
+    public static void checkOurUnitCounters() {
+        Set<UnitType> types = new HashSet<>();
+        for (int i = WorldSnapshot.ownerStart(WorldSnapshot.OWNER_OUR);
+                i < WorldSnapshot.ownerEnd(WorldSnapshot.OWNER_OUR); i++) {
+            types.add(WorldSnapshot.type(i));
+            if (UnitUtil.isEggOrCocoon(WorldSnapshot.type(i))) {
+                types.add(WorldSnapshot.unit(i).getBuildType());
+            }
+        }
+        types.addAll(ourUnitsFinished.map().keySet());
+        types.addAll(ourUnitsUnfinished.map().keySet());
+        
+        for (UnitType type : types) {
+            int expected = Select.ourIncludingUnfinished().ofType(type).count();
+            if (expected != countOurUnitsOfType(type)) {
+                AtlantisLog.warn(Category.GENERAL, "Unit counter mismatch (counted minus actual):", type, 
+                        countOurUnitsOfType(type) - expected);
+            }
+        }
+    }
+
     /**
      * Saves information about enemy unit that we see for the first time.
      */
@@ -117,23 +208,24 @@ public class AtlantisUnitInformationManager {
     // =========================================================
     // COUNT
     /**
-     * Returns cached amount of our units of given type.
+     * Returns cached amount of our units of given type, both finished and unfinished.
      */
     public static int countOurUnitsOfType(UnitType type) {
+        return ourUnitsFinished.getValueFor(type) + ourUnitsUnfinished.getValueFor(type);
+    }
 
-        // Bas building
-        if (type.isGasBuilding()) {
-            int total = 0;
-            for (UnitData unit : allUnits.values()) {
-                if (type.equals(unit.getType())) {
-                    total++;
-                }
-            }
-            return total;
-        } else { // Anything but gas building
-//            return ourUnitsUnfininised.getValueFor(type);
-            return Select.ourIncludingUnfinished().ofType(type).count();
-        }
+    /**
+     * Returns cached amount of our finished units of given type.
+     */
+    public static int countOurFinishedUnitsOfType(UnitType type) {
+        return ourUnitsFinished.getValueFor(type);
+    }
+
+    /**
+     * Returns cached amount of our units of given type that are still being trained or constructed.
+     */
+    public static int countOurUnfinishedUnitsOfType(UnitType type) {
+        return ourUnitsUnfinished.getValueFor(type);
     }
 
     /**
@@ -166,4 +258,23 @@ public class AtlantisUnitInformationManager {
         return total;
     }
 
+    // =========================================================
+    
+    /**
+     * Type and state under which unit has been counted.
+     */
+    private static class CountedUnit {
+
+        private final UnitType type;
+        private final UnitType buildType;
+        private final boolean completed;
+
+        public CountedUnit(UnitType type, UnitType buildType, boolean completed) {
+            this.type = type;
+            this.buildType = buildType;
+            this.completed = completed;
+        }
+
+    }
+
 }
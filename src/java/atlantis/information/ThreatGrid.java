@@ -0,0 +1,282 @@
+package atlantis.information;
+
+import atlantis.Atlantis;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bwapi.Position;
+import bwapi.Unit;
+import bwapi.UnitType;
+import bwapi.WeaponType;
+
+/**
+ * Build tile grid of damage per second that our and enemy units can deal to ground and to air units at every
+ * tile, i.e. the sum of DPS of all units whose weapon range covers the tile.
+ * <br />
+ * It's updated from the <b>WorldSnapshot</b> every frame, but incrementally: every unit remembers the tile
+ * it was "stamped" at, and only units that moved to another tile (or appeared, died, finished training or
+ * morphed) are removed from the grid and stamped again. Values are stored as integers (hundredths of DPS),
+ * so removing a unit restores exactly the previous values.
+ * <br />
+ * Only units with a weapon are counted, so e.g. Bunkers, Reavers or Carriers add no threat.
+ */
+public class ThreatGrid {
+
+    public static final int GROUND = 0;
+    public static final int AIR = 1;
+
+    private static final int TILE = 32;
+
+    /**
+     * Extra distance (in pixels) added to weapon range, as range is measured from the edges of units.
+     */
+    private static final int RANGE_MARGIN = 16;
+
+    private static int width = 0;
+    private static int height = 0;
+
+    /**
+     * DPS (in hundredths) at every tile, dps[owner][GROUND or AIR][tile], for owners OUR and ENEMY.
+     */
+    private static int[][][] dps = new int[2][2][0];
+
+    // Where every unit (by ID) is currently stamped; -1 if it's not in the grid
+    private static int[] stampTile = new int[0];
+    private static UnitType[] stampType = new UnitType[0];
+    private static byte[] stampOwner = new byte[0];
+    private static int[] seenInUpdate = new int[0];
+
+    // IDs of units currently stamped in the grid
+    private static int[] stampedIds = new int[256];
+    private static int stampedCount = 0;
+
+    private static int updateNumber = 0;
+
+    /**
+     * DPS (in hundredths) and radius (in tiles) of weapons of every unit type seen so far:
+     * {ground DPS, ground radius, air DPS, air radius}.
+     */
+    private static Map<UnitType, int[]> weapons = new HashMap<>();
+
+    /**
+     * Tile offsets (dx, dy pairs) of a disc of given radius in tiles.
+     */
+    private static List<int[]> discs = new ArrayList<>();
+
+    // =========================================================
+    // Updating the grid
+    /**
+     * Clears the grid and sets its size, e.g. at the start of a new game.
+     */
+    public static void setMapSize(int mapWidth, int mapHeight) {
+        width = mapWidth;
+        height = mapHeight;
+        dps = new int[2][2][width * height];
+        Arrays.fill(stampTile, -1);
+        stampedCount = 0;
+    }
+
+    /**
+     * Clears the grid, it will be sized again on the next update.
+     */
+    public static void reset() {
+        width = 0;
+        height = 0;
+    }
+
+    /**
+     * Brings the grid up to date with our and enemy units in the <b>WorldSnapshot</b>.
+     */
+    public static void update() {
+        if (width == 0) {
+            setMapSize(Atlantis.getBwapi().mapWidth(), Atlantis.getBwapi().mapHeight());
+        }
+        updateNumber++;
+
+        int end = WorldSnapshot.ownerEnd(WorldSnapshot.OWNER_ENEMY);
+        for (int i = WorldSnapshot.ownerStart(WorldSnapshot.OWNER_OUR); i < end; i++) {
+            int id = WorldSnapshot.id(i);
+            if (id < 0) {
+                continue;
+            }
+            ensureCapacity(id);
+            seenInUpdate[id] = updateNumber;
+
+            UnitType type = WorldSnapshot.type(i);
+            byte owner = WorldSnapshot.owner(i);
+            int tile = WorldSnapshot.isCompleted(i) && WorldSnapshot.exists(i)
+                    ? tileOf(WorldSnapshot.x(i), WorldSnapshot.y(i)) : -1;
+            if (tile == stampTile[id] && type == stampType[id] && owner == stampOwner[id]) {
+                continue;
+            }
+
+            // Unit moved to other tile or changed, stamp it again
+            boolean wasStamped = stampTile[id] >= 0;
+            if (wasStamped) {
+                stamp(stampOwner[id], stampType[id], stampTile[id], -1);
+            }
+            stampTile[id] = tile;
+            stampType[id] = type;
+            stampOwner[id] = owner;
+            if (tile >= 0) {
+                stamp(owner, type, tile, 1);
+                if (!wasStamped) {
+                    addStampedId(id);
+                }
+            }
+        }
+
+        // Remove units that are gone or don't count anymore
+        int kept = 0;
+        for (int i = 0; i < stampedCount; i++) {
+            int id = stampedIds[i];
+            if (stampTile[id] >= 0 && seenInUpdate[id] != updateNumber) {
+                stamp(stampOwner[id], stampType[id], stampTile[id], -1);
+                stampTile[id] = -1;
+            }
+            if (stampTile[id] >= 0) {
+                stampedIds[kept++] = id;
+            }
+        }
+        stampedCount = kept;
+    }
+
+    /**
+     * Adds (<b>sign</b> = 1) or removes (<b>sign</b> = -1) DPS of given unit type to all tiles in its range.
+     */
+    private static void stamp(byte owner, UnitType type, int tile, int sign) {
+        int[] typeWeapons = weaponsOf(type);
+        stampWeapon(dps[owner][GROUND], sign * typeWeapons[0], typeWeapons[1], tile);
+        stampWeapon(dps[owner][AIR], sign * typeWeapons[2], typeWeapons[3], tile);
+    }
+
+    private static int[] weaponsOf(UnitType type) {
+        int[] typeWeapons = weapons.get(type);
+        if (typeWeapons == null) {
+            typeWeapons = new int[4];
+            loadWeapon(typeWeapons, GROUND, type, type.groundWeapon());
+            loadWeapon(typeWeapons, AIR, type, type.airWeapon());
+            weapons.put(type, typeWeapons);
+        }
+        return typeWeapons;
+    }
+
+    private static void loadWeapon(int[] typeWeapons, int kind, UnitType type, WeaponType weapon) {
+        if (weapon == null || weapon == WeaponType.None || weapon.damageCooldown() <= 0) {
+            return;
+        }
+        typeWeapons[2 * kind] = (int) Math.round(weapon.getNormalizedDamage() * 24 * 100 / weapon.damageCooldown());
+        typeWeapons[2 * kind + 1] = (weapon.maxRange() + type.dimensionRight() + RANGE_MARGIN + TILE - 1) / TILE;
+    }
+
+    private static void stampWeapon(int[] grid, int value, int radius, int tile) {
+        if (value == 0) {
+            return;
+        }
+        int x = tile % width;
+        int y = tile / width;
+
+        int[] disc = disc(radius);
+        for (int k = 0; k < disc.length; k += 2) {
+            int nx = x + disc[k];
+            int ny = y + disc[k + 1];
+            if (nx >= 0 && ny >= 0 && nx < width && ny < height) {
+                grid[ny * width + nx] += value;
+            }
+        }
+    }
+
+    // =========================================================
+    // Queries
+    /**
+     * Returns summed DPS of all enemy units that can shoot at given unit at its current position.
+     */
+    public static double threatTo(Unit unit) {
+        return threatTo(unit, unit.getPosition());
+    }
+
+    /**
+     * Returns summed DPS of all enemy units that could shoot at given unit if it stood at <b>position</b>.
+     */
+    public static double threatTo(Unit unit, Position position) {
+        return valueAt(WorldSnapshot.OWNER_ENEMY, unit.getType().isFlyer() ? AIR : GROUND, position);
+    }
+
+    /**
+     * Returns summed DPS of all enemy units able to shoot at ground units at given position.
+     */
+    public static double enemyGroundThreat(Position position) {
+        return valueAt(WorldSnapshot.OWNER_ENEMY, GROUND, position);
+    }
+
+    /**
+     * Returns summed DPS of all enemy units able to shoot at air units at given position.
+     */
+    public static double enemyAirThreat(Position position) {
+        return valueAt(WorldSnapshot.OWNER_ENEMY, AIR, position);
+    }
+
+    /**
+     * Returns summed DPS of all our units able to shoot at enemy ground (or air) units at given position.
+     */
+    public static double ourStrength(Position position, boolean againstAir) {
+        return valueAt(WorldSnapshot.OWNER_OUR, againstAir ? AIR : GROUND, position);
+    }
+
+    private static double valueAt(byte owner, int kind, Position position) {
+        if (width == 0) {
+            return 0;
+        }
+        return dps[owner][kind][tileOf(position.getX(), position.getY())] / 100.0;
+    }
+
+    // =========================================================
+    // Helpers
+    private static int tileOf(int px, int py) {
+        int tx = Math.max(0, Math.min(width - 1, px / TILE));
+        int ty = Math.max(0, Math.min(height - 1, py / TILE));
+        return ty * width + tx;
+    }
+
+    private static int[] disc(int radius) {
+        while (discs.size() <= radius) {
+            int r = discs.size();
+            int[] offsets = new int[2 * (2 * r + 1) * (2 * r + 1)];
+            int n = 0;
+            for (int dy = -r; dy <= r; dy++) {
+                for (int dx = -r; dx <= r; dx++) {
+                    if (dx * dx + dy * dy <= r * r) {
+                        offsets[n++] = dx;
+                        offsets[n++] = dy;
+                    }
+                }
+            }
+            discs.add(Arrays.copyOf(offsets, n));
+        }
+        return discs.get(radius);
+    }
+
+    private static void ensureCapacity(int id) {
+        if (id < stampTile.length) {
+            return;
+        }
+        int oldLength = stampTile.length;
+        int newLength = Math.max(id + 1, Math.max(256, oldLength * 2));
+        stampTile = Arrays.copyOf(stampTile, newLength);
+        Arrays.fill(stampTile, oldLength, newLength, -1);
+        stampType = Arrays.copyOf(stampType, newLength);
+        stampOwner = Arrays.copyOf(stampOwner, newLength);
+        seenInUpdate = Arrays.copyOf(seenInUpdate, newLength);
+    }
+
+    private static void addStampedId(int id) {
+        if (stampedCount == stampedIds.length) {
+            stampedIds = Arrays.copyOf(stampedIds, stampedCount * 2);
+        }
+        stampedIds[stampedCount++] = id;
+    }
+
+}
@@ -0,0 +1,384 @@
+package atlantis.information;
+
+import atlantis.Atlantis;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import bwapi.Position;
+import bwapi.TilePosition;
+import bwapi.Unit;
+
+/**
+ * Uniform grid over all units stored in the <b>WorldSnapshot</b>, separately for our, enemy and neutral
+ * units. It's rebuilt together with the snapshot, once per frame, and allows to find units in radius,
+ * k nearest units or units in a rectangle by visiting only nearby grid cells instead of all units.<br />
+ * Distances are given in build tiles, just like in <b>PositionUtil.distanceTo</b>.
+ */
+public class UnitGrid {
+
+    /**
+     * Size of one grid cell in pixels (4 build tiles).
+     */
+    public static final int CELL_SIZE = 128;
+
+    private static final int OWNERS = 3;
+
+    private static int columns = 0;
+    private static int rows = 0;
+
+    /**
+     * For every owner, snapshot indices of units in cell <b>c</b> are stored in
+     * cellUnits[owner][cellStart[owner][c] .. cellStart[owner][c + 1] - 1].
+     */
+    private static int[][] cellStart = new int[OWNERS][];
+    private static int[][] cellUnits = new int[OWNERS][];
+
+    /**
+     * Condition checked against unit stored in the WorldSnapshot under given index, see <b>nearestIndices</b>.
+     */
+    public interface IndexFilter {
+        boolean accepts(int index);
+    }
+
+    // =========================================================
+    // Building the grid
+    /**
+     * Rebuilds the grid from the current <b>WorldSnapshot</b>.
+     */
+    public static void rebuild() {
+        if (columns == 0) {
+            setMapSize(Atlantis.getBwapi().mapWidth(), Atlantis.getBwapi().mapHeight());
+        }
+        int cells = columns * rows;
+        int size = WorldSnapshot.size();
+
+        for (int owner = 0; owner < OWNERS; owner++) {
+            if (cellStart[owner] == null || cellStart[owner].length != cells + 1) {
+                cellStart[owner] = new int[cells + 1];
+            } else {
+                Arrays.fill(cellStart[owner], 0);
+            }
+            if (cellUnits[owner] == null || cellUnits[owner].length < size) {
+                cellUnits[owner] = new int[Math.max(size, 64)];
+            }
+        }
+
+        // Count units in every cell, then turn counts into start offsets
+        for (int i = 0; i < size; i++) {
+            cellStart[WorldSnapshot.owner(i)][cellOf(WorldSnapshot.x(i), WorldSnapshot.y(i)) + 1]++;
+        }
+        for (int owner = 0; owner < OWNERS; owner++) {
+            int[] start = cellStart[owner];
+            for (int c = 1; c <= cells; c++) {
+                start[c] += start[c - 1];
+            }
+        }
+
+        // Put every unit in its cell
+        int[][] fill = new int[OWNERS][];
+        for (int owner = 0; owner < OWNERS; owner++) {
+            fill[owner] = Arrays.copyOf(cellStart[owner], cells);
+        }
+        for (int i = 0; i < size; i++) {
+            byte owner = WorldSnapshot.owner(i);
+            cellUnits[owner][fill[owner][cellOf(WorldSnapshot.x(i), WorldSnapshot.y(i))]++] = i;
+        }
+    }
+
+    /**
+     * Forgets size of the map, so it's taken from BWAPI again when the grid is rebuilt. Must be called at the
+     * start of every game.
+     */
+    public static void reset() {
+        columns = 0;
+        rows = 0;
+    }
+
+    /**
+     * Defines size of the map (in build tiles) covered by the grid. By default it's taken from BWAPI.
+     */
+    public static void setMapSize(int mapWidth, int mapHeight) {
+        columns = Math.max(1, mapWidth * TilePosition.SIZE_IN_PIXELS / CELL_SIZE);
+        rows = Math.max(1, mapHeight * TilePosition.SIZE_IN_PIXELS / CELL_SIZE);
+    }
+
+    // =========================================================
+    // Queries
+    /**
+     * Returns units of given owner that are not further than <b>maxDist</b> build tiles from
+     * <b>position</b>.
+     */
+    public static List<Unit> inRadius(byte owner, Position position, double maxDist) {
+        List<Unit> result = new ArrayList<>();
+        double maxDistPx = maxDist * TilePosition.SIZE_IN_PIXELS;
+        double maxDistSq = maxDistPx * maxDistPx;
+        int px = position.getX();
+        int py = position.getY();
+        int[] start = cellStart[owner];
+        int[] units = cellUnits[owner];
+
+        int minCol = columnOf(px - (int) maxDistPx);
+        int maxCol = columnOf(px + (int) maxDistPx);
+        int minRow = rowOf(py - (int) maxDistPx);
+        int maxRow = rowOf(py + (int) maxDistPx);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = row * columns + col;
+                for (int j = start[cell]; j < start[cell + 1]; j++) {
+                    int i = units[j];
+                    if (distanceSq(i, px, py) <= maxDistSq) {
+                        result.add(WorldSnapshot.unit(i));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Puts snapshot indices of units of given owner not further than <b>maxDist</b> build tiles from point
+     * (px, py) into <b>result</b> and returns how many were found. <b>result</b> should be able to hold
+     * <b>WorldSnapshot.size()</b> indices, units that don't fit are skipped. Doesn't allocate anything.
+     */
+    public static int indicesInRadius(byte owner, int px, int py, double maxDist, int[] result) {
+        double maxDistPx = maxDist * TilePosition.SIZE_IN_PIXELS;
+        double maxDistSq = maxDistPx * maxDistPx;
+        int[] start = cellStart[owner];
+        int[] units = cellUnits[owner];
+        int found = 0;
+
+        int minCol = columnOf(px - (int) maxDistPx);
+        int maxCol = columnOf(px + (int) maxDistPx);
+        int minRow = rowOf(py - (int) maxDistPx);
+        int maxRow = rowOf(py + (int) maxDistPx);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = row * columns + col;
+                for (int j = start[cell]; j < start[cell + 1]; j++) {
+                    int i = units[j];
+                    if (distanceSq(i, px, py) <= maxDistSq && found < result.length) {
+                        result[found++] = i;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns snapshot indices of units of given owner not further than <b>maxDist</b> build tiles from point
+     * (px, py). Allocates only the returned array.
+     */
+    public static int[] indicesInRadius(byte owner, int px, int py, double maxDist) {
+        int[] result = new int[countInRadius(owner, px, py, maxDist)];
+        indicesInRadius(owner, px, py, maxDist, result);
+        return result;
+    }
+
+    private static int countInRadius(byte owner, int px, int py, double maxDist) {
+        double maxDistPx = maxDist * TilePosition.SIZE_IN_PIXELS;
+        double maxDistSq = maxDistPx * maxDistPx;
+        int[] start = cellStart[owner];
+        int[] units = cellUnits[owner];
+        int found = 0;
+
+        int minCol = columnOf(px - (int) maxDistPx);
+        int maxCol = columnOf(px + (int) maxDistPx);
+        int minRow = rowOf(py - (int) maxDistPx);
+        int maxRow = rowOf(py + (int) maxDistPx);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = row * columns + col;
+                for (int j = start[cell]; j < start[cell + 1]; j++) {
+                    if (distanceSq(units[j], px, py) <= maxDistSq) {
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns at most <b>k</b> units of given owner nearest to <b>position</b>, nearest first.
+     */
+    public static List<Unit> nearest(byte owner, Position position, int k) {
+        int[] best = new int[k];
+        int found = nearestIndices(owner, position.getX(), position.getY(), k, best);
+
+        List<Unit> result = new ArrayList<>(found);
+        for (int n = 0; n < found; n++) {
+            result.add(WorldSnapshot.unit(best[n]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns snapshot index of the unit of given owner nearest to point (px, py) or -1 if there are no
+     * such units.
+     */
+    public static int nearestIndex(byte owner, int px, int py) {
+        int[] best = new int[1];
+        return nearestIndices(owner, px, py, 1, best) > 0 ? best[0] : -1;
+    }
+
+    /**
+     * Puts snapshot indices of at most <b>k</b> units of given owner nearest to point (px, py) into
+     * <b>best</b>, nearest first, and returns how many were found.
+     */
+    public static int nearestIndices(byte owner, int px, int py, int k, int[] best) {
+        return nearestIndices(owner, px, py, k, best, Double.MAX_VALUE, null);
+    }
+
+    /**
+     * Puts snapshot indices of at most <b>k</b> units of given owner nearest to point (px, py) into
+     * <b>best</b>, nearest first, and returns how many were found. Only units not further than <b>maxDist</b>
+     * build tiles and accepted by <b>filter</b> (if it's not null) are taken into account. Grid cells are
+     * visited in rings around the point, until no unit in further rings can be nearer than the ones found.
+     */
+    public static int nearestIndices(byte owner, int px, int py, int k, int[] best, double maxDist,
+            IndexFilter filter) {
+        if (k <= 0) {
+            return 0;
+        }
+        int[] start = cellStart[owner];
+        int[] units = cellUnits[owner];
+        int centerCol = columnOf(px);
+        int centerRow = rowOf(py);
+        int maxRing = Math.max(columns, rows);
+        double maxDistPx = Math.min(maxDist * TilePosition.SIZE_IN_PIXELS, Integer.MAX_VALUE);
+        double maxDistSq = maxDistPx * maxDistPx;
+        if (maxDistPx < Integer.MAX_VALUE) {
+            maxRing = Math.min(maxRing, (int) maxDistPx / CELL_SIZE + 1);
+        }
+
+        double[] bestDistSq = new double[k];
+        int found = 0;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                boolean isEdgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = isEdgeRow ? 1 : 2 * ring;
+                for (int col = centerCol - ring; col <= centerCol + ring; col += Math.max(step, 1)) {
+                    if (col < 0 || col >= columns) {
+                        continue;
+                    }
+                    int cell = row * columns + col;
+                    for (int j = start[cell]; j < start[cell + 1]; j++) {
+                        int i = units[j];
+                        double distSq = distanceSq(i, px, py);
+                        if (distSq > maxDistSq || (found == k && distSq >= bestDistSq[k - 1])
+                                || (filter != null && !filter.accepts(i))) {
+                            continue;
+                        }
+
+                        // Insertion into the sorted list of best candidates
+                        int pos = found < k ? found++ : k - 1;
+                        while (pos > 0 && bestDistSq[pos - 1] > distSq) {
+                            best[pos] = best[pos - 1];
+                            bestDistSq[pos] = bestDistSq[pos - 1];
+                            pos--;
+                        }
+                        best[pos] = i;
+                        bestDistSq[pos] = distSq;
+                    }
+                }
+            }
+
+            // Units in further rings are at least ring * CELL_SIZE pixels away
+            double nextRingMinDist = (double) ring * CELL_SIZE;
+            if (found == k && bestDistSq[k - 1] <= nextRingMinDist * nextRingMinDist) {
+                break;
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Returns nearest unit of given owner or null if there are no such units.
+     */
+    public static Unit nearest(byte owner, Position position) {
+        List<Unit> nearest = nearest(owner, position, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * Returns units of given owner whose position is within the rectangle (in pixels).
+     */
+    public static List<Unit> inRectangle(byte owner, Position topLeft, Position bottomRight) {
+        int[] indices = indicesInRectangle(owner, topLeft.getX(), topLeft.getY(), bottomRight.getX(), 
+                bottomRight.getY());
+        List<Unit> result = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            result.add(WorldSnapshot.unit(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns snapshot indices of units of given owner whose position is within the rectangle (in pixels).
+     * Allocates only the returned array.
+     */
+    public static int[] indicesInRectangle(byte owner, int left, int top, int right, int bottom) {
+        int[] result = new int[visitRectangle(owner, left, top, right, bottom, null)];
+        visitRectangle(owner, left, top, right, bottom, result);
+        return result;
+    }
+
+    /**
+     * Counts units of given owner within the rectangle and, if <b>result</b> is not null, puts their
+     * snapshot indices there.
+     */
+    private static int visitRectangle(byte owner, int left, int top, int right, int bottom, int[] result) {
+        int[] start = cellStart[owner];
+        int[] units = cellUnits[owner];
+        int found = 0;
+
+        for (int row = rowOf(top); row <= rowOf(bottom); row++) {
+            for (int col = columnOf(left); col <= columnOf(right); col++) {
+                int cell = row * columns + col;
+                for (int j = start[cell]; j < start[cell + 1]; j++) {
+                    int i = units[j];
+                    int x = WorldSnapshot.x(i);
+                    int y = WorldSnapshot.y(i);
+                    if (x >= left && x <= right && y >= top && y <= bottom) {
+                        if (result != null) {
+                            result[found] = i;
+                        }
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // =========================================================
+    // Auxiliary methods
+    /**
+     * Returns squared distance in pixels between unit with given snapshot index and given point.
+     */
+    private static double distanceSq(int index, int px, int py) {
+        double dx = WorldSnapshot.x(index) - px;
+        double dy = WorldSnapshot.y(index) - py;
+        return dx * dx + dy * dy;
+    }
+
+    private static int columnOf(int x) {
+        return Math.min(columns - 1, Math.max(0, x / CELL_SIZE));
+    }
+
+    private static int rowOf(int y) {
+        return Math.min(rows - 1, Math.max(0, y / CELL_SIZE));
+    }
+
+    private static int cellOf(int x, int y) {
+        return rowOf(y) * columns + columnOf(x);
+    }
+
+}
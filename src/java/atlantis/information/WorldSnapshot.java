@@ -0,0 +1,293 @@
+package atlantis.information;
+
+import atlantis.Atlantis;
+import java.util.Arrays;
+import java.util.List;
+
+import bwapi.Game;
+import bwapi.Order;
+import bwapi.Position;
+import bwapi.Unit;
+import bwapi.UnitType;
+
+/**
+ * Copy of the state of every unit (ours, enemy's and neutral) taken <b>once per frame</b>, at the very
+ * beginning of <b>onFrame</b>. Every native getter is called exactly once per unit and the results are
+ * stored in flat arrays, so that <b>Select</b> and other code can filter units without crossing JNI
+ * dozens of times per frame.<br />
+ * Unit with given index <b>i</b> is described by <b>unit[i]</b>, <b>type[i]</b>, <b>x[i]</b> etc.
+ */
+public class WorldSnapshot {
+
+    public static final byte OWNER_OUR = 0;
+    public static final byte OWNER_ENEMY = 1;
+    public static final byte OWNER_NEUTRAL = 2;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // =========================================================
+    // Snapshot data, index-aligned
+    private static int size = 0;
+    private static int frame = -1;
+    private static int generation = 0;
+    private static byte currentOwner = OWNER_OUR;
+
+    // True if snapshot is filled by other source than BWAPI, then it's never rebuilt automatically
+    private static boolean external = false;
+
+    // Units of every owner are stored one after another, in range ownerStart[owner] .. ownerEnd[owner] - 1
+    private static int[] ownerStart = new int[3];
+    private static int[] ownerEnd = new int[3];
+
+    private static Unit[] unit = new Unit[INITIAL_CAPACITY];
+    private static int[] id = new int[INITIAL_CAPACITY];
+    private static UnitType[] type = new UnitType[INITIAL_CAPACITY];
+    private static byte[] owner = new byte[INITIAL_CAPACITY];
+    private static int[] x = new int[INITIAL_CAPACITY];
+    private static int[] y = new int[INITIAL_CAPACITY];
+    private static int[] hitPoints = new int[INITIAL_CAPACITY];
+    private static int[] shields = new int[INITIAL_CAPACITY];
+    private static boolean[] exists = new boolean[INITIAL_CAPACITY];
+    private static boolean[] visible = new boolean[INITIAL_CAPACITY];
+    private static boolean[] completed = new boolean[INITIAL_CAPACITY];
+    private static Order[] order = new Order[INITIAL_CAPACITY];
+
+    /**
+     * Maps unit ID to its index in the snapshot (or -1 if unit isn't in the snapshot).
+     */
+    private static int[] indexOfId = new int[INITIAL_CAPACITY];
+
+    // =========================================================
+    // Building the snapshot
+    /**
+     * Rebuilds the snapshot from the current game state and updates the <b>ThreatGrid</b>. Should be called at
+     * the beginning of every frame.
+     */
+    public static void update() {
+        Game game = Atlantis.getBwapi();
+        clear();
+        external = false;
+        addUnits(game.self().getUnits(), OWNER_OUR);
+        addUnits(game.enemy().getUnits(), OWNER_ENEMY);
+        addUnits(game.getNeutralUnits(), OWNER_NEUTRAL);
+        finishUpdate(game.getFrameCount());
+        ThreatGrid.update();
+    }
+
+    /**
+     * Starts building new snapshot. Together with <b>addUnit</b> and <b>finishUpdate</b> it allows to fill
+     * the snapshot from a source other than BWAPI, e.g. the headless simulation.
+     */
+    public static void beginUpdate() {
+        clear();
+        external = true;
+    }
+
+    private static void clear() {
+        Arrays.fill(indexOfId, -1);
+        size = 0;
+        generation++;
+        currentOwner = OWNER_OUR;
+        Arrays.fill(ownerStart, 0);
+        Arrays.fill(ownerEnd, 0);
+    }
+
+    /**
+     * Adds one unit to the snapshot. Units have to be added grouped by owner: our first, then enemy's, then
+     * neutral. <b>u</b> can be null if there's no BWAPI object behind the unit.
+     */
+    public static void addUnit(Unit u, int unitID, UnitType unitType, byte unitOwner, int unitX, int unitY,
+            int unitHitPoints, int unitShields, boolean unitExists, boolean unitVisible, 
+            boolean unitCompleted, Order unitOrder) {
+        while (currentOwner < unitOwner) {
+            ownerEnd[currentOwner] = size;
+            currentOwner++;
+            ownerStart[currentOwner] = size;
+        }
+
+        ensureCapacity(size + 1);
+        int i = size++;
+
+        unit[i] = u;
+        id[i] = unitID;
+        type[i] = unitType;
+        owner[i] = unitOwner;
+        x[i] = unitX;
+        y[i] = unitY;
+        hitPoints[i] = unitHitPoints;
+        shields[i] = unitShields;
+        exists[i] = unitExists;
+        visible[i] = unitVisible;
+        completed[i] = unitCompleted;
+        order[i] = unitOrder;
+        if (u != null) {
+            u.setSnapshotIndex(i, generation);
+        }
+
+        if (unitID >= indexOfId.length) {
+            int oldLength = indexOfId.length;
+            indexOfId = Arrays.copyOf(indexOfId, Math.max(unitID + 1, oldLength * 2));
+            Arrays.fill(indexOfId, oldLength, indexOfId.length, -1);
+        }
+        if (unitID >= 0) {
+            indexOfId[unitID] = i;
+        }
+    }
+
+    /**
+     * Finishes building the snapshot started with <b>beginUpdate</b> and rebuilds the <b>UnitGrid</b>.
+     */
+    public static void finishUpdate(int currentFrame) {
+        while (currentOwner < OWNER_NEUTRAL) {
+            ownerEnd[currentOwner] = size;
+            currentOwner++;
+            ownerStart[currentOwner] = size;
+        }
+        ownerEnd[currentOwner] = size;
+
+        frame = currentFrame;
+        UnitGrid.rebuild();
+    }
+
+    /**
+     * Makes sure the snapshot describes the current frame. Events like <b>onUnitCreate</b> may fire before
+     * <b>onFrame</b> built the snapshot, in such case it's rebuilt here.
+     */
+    public static void ensureUpToDate() {
+        if (!external && frame != Atlantis.getBwapi().getFrameCount()) {
+            update();
+        }
+    }
+
+    private static void addUnits(List<Unit> units, byte unitOwner) {
+        for (Unit u : units) {
+            Position position = u.getPosition();
+            addUnit(u, u.getID(), u.getType(), unitOwner, position.getX(), position.getY(), u.getHitPoints(),
+                    u.getShields(), u.exists(), u.isVisible(), u.isCompleted(), u.getOrder());
+        }
+    }
+
+    private static void ensureCapacity(int capacity) {
+        if (capacity <= unit.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, unit.length * 2);
+        unit = Arrays.copyOf(unit, newLength);
+        id = Arrays.copyOf(id, newLength);
+        type = Arrays.copyOf(type, newLength);
+        owner = Arrays.copyOf(owner, newLength);
+        x = Arrays.copyOf(x, newLength);
+        y = Arrays.copyOf(y, newLength);
+        hitPoints = Arrays.copyOf(hitPoints, newLength);
+        shields = Arrays.copyOf(shields, newLength);
+        exists = Arrays.copyOf(exists, newLength);
+        visible = Arrays.copyOf(visible, newLength);
+        completed = Arrays.copyOf(completed, newLength);
+        order = Arrays.copyOf(order, newLength);
+    }
+
+    // =========================================================
+    // Getters
+    /**
+     * Returns number of units stored in the snapshot.
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * Returns index of the first unit of given owner (WorldSnapshot.OWNER_*).
+     */
+    public static int ownerStart(byte unitOwner) {
+        return ownerStart[unitOwner];
+    }
+
+    /**
+     * Returns index after the last unit of given owner (WorldSnapshot.OWNER_*).
+     */
+    public static int ownerEnd(byte unitOwner) {
+        return ownerEnd[unitOwner];
+    }
+
+    /**
+     * Returns frame number at which the snapshot was taken.
+     */
+    public static int getFrame() {
+        return frame;
+    }
+
+    /**
+     * Returns index of the unit with given ID or -1 if unit wasn't present when the snapshot was taken.
+     */
+    public static int indexOf(int unitID) {
+        return unitID >= 0 && unitID < indexOfId.length ? indexOfId[unitID] : -1;
+    }
+
+    /**
+     * Returns index of the given unit or -1 if unit wasn't present when the snapshot was taken.
+     */
+    public static int indexOf(Unit u) {
+        return u.getSnapshotIndex(generation);
+    }
+
+    public static Unit unit(int index) {
+        return unit[index];
+    }
+
+    public static int id(int index) {
+        return id[index];
+    }
+
+    public static UnitType type(int index) {
+        return type[index];
+    }
+
+    public static byte owner(int index) {
+        return owner[index];
+    }
+
+    public static boolean isOur(int index) {
+        return owner[index] == OWNER_OUR;
+    }
+
+    public static boolean isEnemy(int index) {
+        return owner[index] == OWNER_ENEMY;
+    }
+
+    public static boolean isNeutral(int index) {
+        return owner[index] == OWNER_NEUTRAL;
+    }
+
+    public static int x(int index) {
+        return x[index];
+    }
+
+    public static int y(int index) {
+        return y[index];
+    }
+
+    public static int hitPoints(int index) {
+        return hitPoints[index];
+    }
+
+    public static int shields(int index) {
+        return shields[index];
+    }
+
+    public static boolean exists(int index) {
+        return exists[index];
+    }
+
+    public static boolean isVisible(int index) {
+        return visible[index];
+    }
+
+    public static boolean isCompleted(int index) {
+        return completed[index];
+    }
+
+    public static Order order(int index) {
+        return order[index];
+    }
+
+}
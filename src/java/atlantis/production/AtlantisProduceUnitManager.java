@@ -2,6 +2,8 @@ package atlantis.production;
 
 import atlantis.AtlantisConfig;
 import atlantis.constructing.AtlantisConstructingManager;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
 import atlantis.production.strategies.AtlantisProductionStrategy;
 import atlantis.wrappers.Select;
 import java.util.ArrayList;
@@ -61,7 +63,7 @@ public class AtlantisProduceUnitManager {
         // =========================================================
         // We don't know what to do
         else {
-            System.err.println("UNHANDLED UNIT TYPE TO PRODUCE: " + unitType);
+            AtlantisLog.error(Category.PRODUCTION, "UNHANDLED UNIT TYPE TO PRODUCE:", unitType);
         }
     }
 
@@ -80,7 +82,7 @@ public class AtlantisProduceUnitManager {
     
     private static void produceBuilding(UnitType unitType, ProductionOrder order) {
         if (!unitType.isBuilding()) {
-            System.err.println("produceBuilding has been given wrong argument: " + unitType);
+            AtlantisLog.error(Category.PRODUCTION, "produceBuilding has been given wrong argument:", unitType);
         }
         AtlantisConstructingManager.requestConstructionOf(unitType, order);
     }
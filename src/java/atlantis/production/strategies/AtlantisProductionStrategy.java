@@ -4,15 +4,20 @@ import atlantis.Atlantis;
 import atlantis.AtlantisConfig;
 import atlantis.AtlantisGame;
 import atlantis.constructing.AtlantisConstructingManager;
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
+import atlantis.debug.AtlantisTimings;
 import atlantis.information.AtlantisUnitInformationManager;
 import atlantis.production.ProductionOrder;
-import atlantis.util.NameUtil;
-import atlantis.util.RUtilities;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.AtlantisTech;
 import atlantis.wrappers.MappingCounter;
 import atlantis.wrappers.Select;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import bwapi.TechType;
 import bwapi.UnitType;
 import bwapi.UpgradeType;
@@ -22,7 +27,12 @@ import bwapi.UpgradeType;
  */
 public abstract class AtlantisProductionStrategy {
 
-    private static final String BUILD_ORDERS_PATH = "bwapi-data/read/build_orders/";
+    public static final String BUILD_ORDERS_PATH = "bwapi-data/read/build_orders/";
+
+    /**
+     * Every this many frames build order file is checked for changes.
+     */
+    private static final int BUILD_ORDER_RELOAD_INTERVAL = 24;
 
     // =========================================================
     
@@ -37,11 +47,27 @@ public abstract class AtlantisProductionStrategy {
      */
     private ArrayList<ProductionOrder> currentProductionQueue = new ArrayList<>();
 
+    /**
+     * Current queue contains at most this many orders.
+     */
+    private static final int MAX_QUEUE_SIZE = 15;
+
+    // Incremental state: indices of initial queue orders for every unit type, how many units of every type were
+    // counted last time, which orders are fulfilled and first order that may not be fulfilled
+    private final HashMap<UnitType, ArrayList<Integer>> ordersByType = new HashMap<>();
+    private final HashMap<UnitType, Integer> countedUnits = new HashMap<>();
+    private boolean[] fulfilled = new boolean[0];
+    private int cursor = 0;
+    private boolean queueDirty = false;
+
+    private long buildOrderLastModified = 0;
+
     // =========================================================
     // Constructor
     
     public AtlantisProductionStrategy() {
         readBuildOrdersFile();
+        indexInitialQueue();
     }
 
     /**
@@ -93,12 +119,73 @@ public abstract class AtlantisProductionStrategy {
      * queue read from file). <br />
      * This method will detect which units we lack and assign to <b>currentProductionQueue</b> list next units
      * that we need. Note this method doesn't check if we can afford them, it only sets up proper sequence of
-     * next units to produce.
+     * next units to produce. <br />
+     * Normally the queue is updated incrementally (see <b>unitCountChanged</b>), full rebuild is the fallback
+     * which also resynchronizes incremental state.
      */
     public void rebuildQueue() {
+        long start = System.nanoTime();
+
+        computeQueueFromScratch(currentProductionQueue);
+
+        // Resynchronize incremental state with actual unit counts
+        countedUnits.clear();
+        for (UnitType type : ordersByType.keySet()) {
+            setCountedUnits(type, countUnitsForQueue(type));
+        }
+        cursor = 0;
+        queueDirty = false;
+        
+        AtlantisTimings.QUEUE_REBUILD.recordSince(start);
+    }
+
+    /**
+     * Must be called whenever amount of our units (or planned buildings) of given type may have changed. Only
+     * orders for this type are updated, so it's cheap, especially for types not present in the build order
+     * (like Zerg Larvae and Eggs). Current queue is recreated lazily, when it's needed.
+     */
+    public void unitCountChanged(UnitType type) {
+        if (type == null) {
+            return;
+        }
+        
+        // Sunken and Spore Colonies are counted as Creep Colonies as well
+        if (type.equals(UnitType.Zerg_Sunken_Colony) || type.equals(UnitType.Zerg_Spore_Colony)) {
+            unitCountChanged(UnitType.Zerg_Creep_Colony);
+        }
+        if (!ordersByType.containsKey(type)) {
+            return;
+        }
+        
+        long start = System.nanoTime();
+        setCountedUnits(type, countUnitsForQueue(type));
+        AtlantisTimings.QUEUE_REBUILD.recordSince(start);
+    }
+
+    /**
+     * Compares incrementally updated queue with the one computed from scratch and reports the difference.
+     * It's meant for debugging only, see <b>AtlantisConfig.CHECK_PRODUCTION_QUEUE</b>. On mismatch the queue
+     * is rebuilt from scratch.
+     */
+    public void checkQueue() {
+        ArrayList<ProductionOrder> expected = new ArrayList<>();
+        computeQueueFromScratch(expected);
+        queueDirty = true;
+        ArrayList<ProductionOrder> actual = getCurrentQueue();
+        if (!expected.equals(actual)) {
+            AtlantisLog.warn(Category.PRODUCTION, "Production queue mismatch: incremental", actual, 
+                    "from scratch " + expected);
+            rebuildQueue();
+        }
+    }
+
+    /**
+     * Walks entire initial queue and puts into <b>result</b> first orders that aren't fulfilled yet.
+     */
+    private void computeQueueFromScratch(ArrayList<ProductionOrder> result) {
 
         // Clear old production queue.
-        currentProductionQueue.clear();
+        result.clear();
 
         // It will store [UnitType->(int)howMany] mapping as we gonna process initial production queue and check if we
         // currently have units needed
@@ -117,11 +204,7 @@ public abstract class AtlantisProductionStrategy {
                 virtualCounter.incrementValueFor(type);
 
                 int shouldHaveThisManyUnits = (type.isWorker() ? 4 : 0) + virtualCounter.getValueFor(type);
-                int weHaveThisManyUnits = countUnitsOfGivenTypeOrSimilar(type);
-
-                if (type.isBuilding()) {
-                    weHaveThisManyUnits += AtlantisConstructingManager.countNotFinishedConstructionsOfType(type);
-                }
+                int weHaveThisManyUnits = countUnitsForQueue(type);
                 
 //                System.out.println("       " + weHaveThisManyUnits + " / " + shouldHaveThisManyUnits);
 
@@ -130,23 +213,141 @@ public abstract class AtlantisProductionStrategy {
                     isOkayToAdd = true;
                 }
             } 
-            // Upgrade
-            else if (order.getUpgrade() != null) {
-                isOkayToAdd = !AtlantisTech.isResearched(order.getUpgrade());
-            } 
-            // Tech
-            else if (order.getTech() != null) {
-                isOkayToAdd = !AtlantisTech.isResearched(order.getTech());
+            // Upgrade or tech
+            else {
+                isOkayToAdd = isResearchOrderNeeded(order);
             }
 
             // =========================================================
             if (isOkayToAdd) {
+                result.add(order);
+                if (result.size() >= MAX_QUEUE_SIZE) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // =========================================================
+    // Incremental queue
+    
+    /**
+     * Indexes orders of initial queue by unit type: n-th order for given type is fulfilled when we have more
+     * than <b>requiredBefore</b> + n units of this type.
+     */
+    private void indexInitialQueue() {
+        ordersByType.clear();
+        for (int i = 0; i < initialProductionQueue.size(); i++) {
+            UnitType type = initialProductionQueue.get(i).getUnitType();
+            if (type != null) {
+                ArrayList<Integer> orders = ordersByType.get(type);
+                if (orders == null) {
+                    orders = new ArrayList<>();
+                    ordersByType.put(type, orders);
+                }
+                orders.add(i);
+            }
+        }
+        fulfilled = new boolean[initialProductionQueue.size()];
+        countedUnits.clear();
+        cursor = 0;
+        queueDirty = true;
+    }
+
+    /**
+     * Updates fulfilled state of orders for given type when we have <b>count</b> units of it. Only orders
+     * between previous and new count change.
+     */
+    private void setCountedUnits(UnitType type, int count) {
+        ArrayList<Integer> orders = ordersByType.get(type);
+        int requiredBefore = type.isWorker() ? 4 : 0;
+        Integer previous = countedUnits.get(type);
+        int previousFulfilled = previous == null ? 0 : clampOrders(previous - requiredBefore, orders);
+        int nowFulfilled = clampOrders(count - requiredBefore, orders);
+        countedUnits.put(type, count);
+
+        // Orders [0 .. nowFulfilled - 1] are fulfilled, the rest aren't
+        if (previous == null) {
+            for (int n = 0; n < orders.size(); n++) {
+                fulfilled[orders.get(n)] = n < nowFulfilled;
+            }
+            queueDirty = true;
+        }
+        else if (nowFulfilled > previousFulfilled) {
+            for (int n = previousFulfilled; n < nowFulfilled; n++) {
+                fulfilled[orders.get(n)] = true;
+            }
+            queueDirty = true;
+        }
+        else if (nowFulfilled < previousFulfilled) {
+            for (int n = nowFulfilled; n < previousFulfilled; n++) {
+                fulfilled[orders.get(n)] = false;
+            }
+            cursor = Math.min(cursor, orders.get(nowFulfilled));
+            queueDirty = true;
+        }
+    }
+
+    private static int clampOrders(int value, ArrayList<Integer> orders) {
+        return Math.max(0, Math.min(orders.size(), value));
+    }
+
+    /**
+     * Returns current production queue, recreating it if any unit count changed. Unit orders before the cursor
+     * are all fulfilled, so only orders after it are visited.
+     */
+    private ArrayList<ProductionOrder> getCurrentQueue() {
+        if (!queueDirty) {
+            return currentProductionQueue;
+        }
+        long start = System.nanoTime();
+        
+        currentProductionQueue.clear();
+        boolean cursorMoves = true;
+        for (int i = cursor; i < initialProductionQueue.size(); i++) {
+            ProductionOrder order = initialProductionQueue.get(i);
+            boolean isUnit = order.getUnitType() != null;
+            if (isUnit && fulfilled[i]) {
+                if (cursorMoves) {
+                    cursor = i + 1;
+                }
+                continue;
+            }
+            cursorMoves = false;
+
+            if (isUnit || isResearchOrderNeeded(order)) {
                 currentProductionQueue.add(order);
-                if (currentProductionQueue.size() >= 15) {
+                if (currentProductionQueue.size() >= MAX_QUEUE_SIZE) {
                     break;
                 }
             }
         }
+        queueDirty = false;
+        
+        AtlantisTimings.QUEUE_REBUILD.recordSince(start);
+        return currentProductionQueue;
+    }
+
+    /**
+     * Returns how many units of given type we have in terms of the build order: existing ones, including
+     * similar ones (see <b>countUnitsOfGivenTypeOrSimilar</b>), and for buildings also planned ones.
+     */
+    private int countUnitsForQueue(UnitType type) {
+        int count = countUnitsOfGivenTypeOrSimilar(type);
+        if (type.isBuilding()) {
+            count += AtlantisConstructingManager.countNotFinishedConstructionsOfType(type);
+        }
+        return count;
+    }
+
+    private boolean isResearchOrderNeeded(ProductionOrder order) {
+        if (order.getUpgrade() != null) {
+            return !AtlantisTech.isResearched(order.getUpgrade());
+        } 
+        else if (order.getTech() != null) {
+            return !AtlantisTech.isResearched(order.getTech());
+        }
+        return false;
     }
 
     /**
@@ -171,7 +372,7 @@ public abstract class AtlantisProductionStrategy {
 //        System.out.println(order.getUnitType());
 //        }
         
-        for (ProductionOrder order : currentProductionQueue) {
+        for (ProductionOrder order : getCurrentQueue()) {
             UnitType unitType = order.getUnitType();
             UpgradeType upgrade = order.getUpgrade();
             TechType tech = order.getTech();
@@ -248,9 +449,10 @@ public abstract class AtlantisProductionStrategy {
      */
     public ArrayList<ProductionOrder> getProductionQueueNext(int howMany) {
         ArrayList<ProductionOrder> result = new ArrayList<>();
+        ArrayList<ProductionOrder> currentQueue = getCurrentQueue();
 
-        for (int i = 0; i < howMany && i < currentProductionQueue.size(); i++) {
-            ProductionOrder productionOrder = currentProductionQueue.get(i);
+        for (int i = 0; i < howMany && i < currentQueue.size(); i++) {
+            ProductionOrder productionOrder = currentQueue.get(i);
 //            if (productionOrder.getUnitType() != null 
 //                    && !AtlantisGame.hasBuildingsToProduce(productionOrder.getUnitType())) {
 //                continue;
@@ -267,219 +469,78 @@ public abstract class AtlantisProductionStrategy {
     }
 
     // =========================================================
-    // Private defined methods
+    // Build order file
     
     /**
-     * Populates <b>productionOrdersFromFile</b> with data from CSV file.
+     * Reads build orders from file (compiled from CSV, see <b>CompiledBuildOrder</b>). Invalid build order
+     * stops the bot, as before.
      */
-    private void createProductionOrderListFromStringArray() {
-        final int NUMBER_OF_COLUMNS_IN_FILE = 2;
-
-        // Read file into 2D String array
-        String path = BUILD_ORDERS_PATH + getFilename();
-        String[][] loadedFile = RUtilities.loadCsv(path, NUMBER_OF_COLUMNS_IN_FILE);
-
-        // We can display file here, if we want to
-//         displayLoadedFile(loadedFile);
-
-        // =========================================================
-        // Skip first row as it's CSV header
-        for (int i = 0; i < loadedFile.length; i++) {
-            String[] row = loadedFile[i];
-
-            // =========================================================
-            
-            parseCsvRow(row);
+    private void readBuildOrdersFile() {
+        File file = new File(BUILD_ORDERS_PATH + getFilename());
+        try {
+            applyBuildOrder(CompiledBuildOrder.load(file));
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(-1);
         }
+        buildOrderLastModified = file.lastModified();
     }
-   
+
     /**
-     * Analyzes CSV row, where each array element is one column.
+     * Reloads build order if its file has changed since it was read, so it can be edited during the game.
+     * Invalid file is reported and the old build order is kept. Must be called between frames.
      */
-    private void parseCsvRow(String[] row) {
-        
-        // =========================================================
-        // Ignore comments and blank lines
-        if (isUnimportantLine(row)) {
+    public void reloadIfChanged() {
+        if (AtlantisGame.getTimeFrames() % BUILD_ORDER_RELOAD_INTERVAL != 0) {
             return;
         }
-
-        // Check for special commands that start with #
-        if (isSpecialCommand(row)) {
-            handleSpecialCommand(row);
+        File file = new File(BUILD_ORDERS_PATH + getFilename());
+        long lastModified = file.lastModified();
+        if (lastModified == buildOrderLastModified) {
             return;
         }
-        
-        int inRowCounter = 1; // Skip first column as it's only order number / description / whatever
-        ProductionOrder order = null;
-
-        // =========================================================
-        // Parse entire row of strings
-        // Define type of entry: Unit / Research / Tech
-        String nameString = row[inRowCounter++].toLowerCase().trim();
-
-        // =========================================================
-        // Try getting objects of each type as we don't know if it's unit, research or tech.
-        // UNIT
-        NameUtil.disableErrorReporting = true;
-        UnitType unitType = NameUtil.getUnitTypeByName(nameString);	
-        NameUtil.disableErrorReporting = false;
-
-        // UPGRADE
-        NameUtil.disableErrorReporting = true;
-        UpgradeType upgrade = NameUtil.getUpgradeTypeByName(nameString); //TODO: put this in UpgradeUtil
-        NameUtil.disableErrorReporting = false;
-
-        // TECH
-        NameUtil.disableErrorReporting = true;
-        TechType tech = NameUtil.getTechTypeByName(nameString); //TODO: put this in TechUtil
-        NameUtil.disableErrorReporting = false;
-
-        // Define convienience boolean variables
-        boolean isUnit = unitType != null;
-        boolean isUpgrade = upgrade != null;
-        boolean isTech = tech != null;
-
-        // Check if no error occured like no object found
-        if (!isUnit && !isUpgrade && !isTech) {
-            System.err.println("Invalid production order entry: " + nameString);
-            System.exit(-1);
-        }
-
-        // =========================================================
-        // Unit
-        if (isUnit) {
-            order = new ProductionOrder(unitType);
-        } // Upgrade
-        else if (isUpgrade) {
-            order = new ProductionOrder(upgrade);
-        } // Tech
-        else if (isTech) {
-            order = new ProductionOrder(tech);
-        } // Invalid entry type
-        else {
-            System.err.println("Invalid entry type: " + nameString);
-            System.exit(-1);
-        }
-        
-        // =========================================================
-        // Check for modifiers
-        
-        if (row.length >= 3) {
-            String modifierString = row[inRowCounter++].toUpperCase().trim();
-            order.setModifier(modifierString);
+        buildOrderLastModified = lastModified;
+
+        try {
+            CompiledBuildOrder buildOrder = CompiledBuildOrder.load(file);
+            initialProductionQueue.clear();
+            applyBuildOrder(buildOrder);
+            indexInitialQueue();
+            rebuildQueue();
+            AtlantisLog.info(Category.PRODUCTION, "Reloaded build order:", file);
+        } catch (IOException e) {
+            AtlantisLog.warn(Category.PRODUCTION, "Keeping old build order:", e.getMessage());
         }
-
-        // =========================================================
-        // Blocking
-        // boolean isBlocking;
-        // String blockingString = row[inRowCounter++].toLowerCase().trim();
-        // if (blockingString.isEmpty() || blockingString.equals("") || blockingString.toLowerCase().equals("no")) {
-        // isBlocking = false;
-        // } else {
-        // isBlocking = true;
-        // }
-        // Priority
-        // boolean isLowestPriority = false;
-        // boolean isHighestPriority = false;
-        // String priorityString = row[inRowCounter++].toLowerCase().trim();
-        // if (!priorityString.isEmpty()) {
-        // priorityString = priorityString.toLowerCase();
-        // if (priorityString.contains("low")) {
-        // isLowestPriority = true;
-        // } else if (priorityString.contains("high")) {
-        // isHighestPriority = true;
-        // }
-        // }
-        // =========================================================
-        // Create ProductionOrder object from strings-row
-        // if (isBlocking) {
-        // order.markAsBlocking();
-        // }
-        // if (isHighestPriority) {
-        // order.priorityHighest();
-        // }
-        // if (isLowestPriority) {
-        // order.priorityLowest();
-        // }
-        // Enqueue created order
-        initialProductionQueue.add(order);
-        currentProductionQueue.add(order);
-    }
-
-    /**
-     * Reads build orders from CSV file and converts them into ArrayList.
-     */
-    private void readBuildOrdersFile() {
-
-        // Convert 2D String array into ArrayList of ProductionOrder
-        createProductionOrderListFromStringArray();
     }
 
-    /**
-     * Auxiliary method that can be run to see what was loaded from CSV file.
-     */
-    @SuppressWarnings("unused")
-    private void displayLoadedFile(String[][] loadedFile) {
-        int rowCounter = 0;
-        for (String[] rows : loadedFile) {
-//            if (rowCounter == 0) {
-//                rowCounter++;
-//                continue;
-//            }
-
-            // =========================================================
-            for (String value : rows) {
-                System.out.print(value + " | ");
-            }
-            System.out.println();
-
-            // =========================================================
-            rowCounter++;
+    private void applyBuildOrder(CompiledBuildOrder buildOrder) {
+        for (Map.Entry<String, Integer> directive : buildOrder.getDirectives().entrySet()) {
+            handleSpecialCommand(directive.getKey(), directive.getValue());
         }
-
-        System.exit(0);
+        initialProductionQueue.addAll(buildOrder.getOrders());
+        currentProductionQueue.clear();
+        currentProductionQueue.addAll(buildOrder.getOrders());
     }
 
     // =========================================================
     // Special commands
-    
-    /**
-     * If the first character in column is # it means it's special command.
-     */
-    private boolean isSpecialCommand(String[] row) {
-        return (row.length >= 1 && row[0].charAt(0) == '#');
-    }
-
-    /**
-     * // Means comment - should skip it. We can also have blank lines.
-     */
-    private boolean isUnimportantLine(String[] row) {
-        return row.length == 0 || row[0].isEmpty() || row[0].equals("")
-                || row[0].equals("Number")|| row[0].equals("Order") || row[0].equals(";");
-    }
 
     /**
-     * If the first character in column is # it means it's special command. Here we handle all of them.
+     * Special commands are rows starting with # in the build order file, e.g. #SCOUT_IS_NTH_WORKER=8. Here
+     * we handle all of them.
      */
-    private void handleSpecialCommand(String[] row) {
-        String command = row[0].substring(1).toUpperCase();
-
-        if (command.startsWith("AUTO_PRODUCE_WORKERS_UNTIL_N_WORKERS")) {
-            AtlantisConfig.AUTO_PRODUCE_WORKERS_UNTIL_N_WORKERS = extractSpecialCommandValue(row);
-        } else if (command.startsWith("AUTO_PRODUCE_WORKERS_SINCE_N_WORKERS")) {
-            AtlantisConfig.AUTO_PRODUCE_WORKERS_SINCE_N_WORKERS = extractSpecialCommandValue(row);
-        } else if (command.startsWith("AUTO_PRODUCE_WORKERS_MAX_WORKERS")) {
-            AtlantisConfig.AUTO_PRODUCE_WORKERS_MAX_WORKERS = extractSpecialCommandValue(row);
-        } else if (command.startsWith("SCOUT_IS_NTH_WORKER")) {
-            AtlantisConfig.SCOUT_IS_NTH_WORKER = extractSpecialCommandValue(row);
-        } else if (command.startsWith("USE_AUTO_SUPPLY_MANAGER_WHEN_SUPPLY_EXCEEDS")) {
-            AtlantisConfig.USE_AUTO_SUPPLY_MANAGER_WHEN_SUPPLY_EXCEEDS = extractSpecialCommandValue(row);
+    private void handleSpecialCommand(String command, int value) {
+        if (command.equals("AUTO_PRODUCE_WORKERS_UNTIL_N_WORKERS")) {
+            AtlantisConfig.AUTO_PRODUCE_WORKERS_UNTIL_N_WORKERS = value;
+        } else if (command.equals("AUTO_PRODUCE_WORKERS_SINCE_N_WORKERS")) {
+            AtlantisConfig.AUTO_PRODUCE_WORKERS_SINCE_N_WORKERS = value;
+        } else if (command.equals("AUTO_PRODUCE_WORKERS_MAX_WORKERS")) {
+            AtlantisConfig.AUTO_PRODUCE_WORKERS_MAX_WORKERS = value;
+        } else if (command.equals("SCOUT_IS_NTH_WORKER")) {
+            AtlantisConfig.SCOUT_IS_NTH_WORKER = value;
+        } else if (command.equals("USE_AUTO_SUPPLY_MANAGER_WHEN_SUPPLY_EXCEEDS")) {
+            AtlantisConfig.USE_AUTO_SUPPLY_MANAGER_WHEN_SUPPLY_EXCEEDS = value;
         }
     }
 
-    private int extractSpecialCommandValue(String[] row) {
-        return Integer.parseInt(row[0].substring(row[0].lastIndexOf("=") + 1));
-    }
-
 }
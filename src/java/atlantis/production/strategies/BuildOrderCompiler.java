@@ -0,0 +1,208 @@
+package atlantis.production.strategies;
+
+import atlantis.util.NameUtil;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles build order from CSV file into binary form read by <b>CompiledBuildOrder</b>. Every row is
+ * validated: unknown names, special commands and values are reported (with line numbers) instead of stopping
+ * the bot in the middle of reading the file.
+ * <br />
+ * CSV format: rows "number;name[;modifier]", where name is unit, upgrade or tech (e.g. "Marine", "Stim_Packs"),
+ * special commands "#NAME=value", comments starting with // and a header row.
+ */
+public class BuildOrderCompiler {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final List<String> errors = new ArrayList<>();
+
+    // Compiled data
+    private final List<String> strings = new ArrayList<>();
+    private final List<int[]> directives = new ArrayList<>();
+    private final List<int[]> orders = new ArrayList<>();
+
+    // =========================================================
+
+    /**
+     * Compiles given CSV file and returns compiled build order, or null if there were errors (see
+     * <b>getErrors()</b>).
+     */
+    public ByteBuffer compile(File csv) {
+        errors.clear();
+        strings.clear();
+        directives.clear();
+        orders.clear();
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(csv.toPath(), UTF8);
+        } catch (IOException e) {
+            errors.add(csv + ": can't read file: " + e.getMessage());
+            return null;
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            parseLine(lines.get(i), csv.getName() + ":" + (i + 1));
+        }
+        if (orders.isEmpty()) {
+            errors.add(csv + ": no production orders");
+        }
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        return write(csv.lastModified(), csv.length());
+    }
+
+    /**
+     * Compiles given CSV file and saves the result next to it (see <b>compiledFileFor</b>). Returns true on
+     * success.
+     */
+    public boolean compileToFile(File csv) throws IOException {
+        ByteBuffer compiled = compile(csv);
+        if (compiled == null) {
+            return false;
+        }
+        save(csv, compiled);
+        return true;
+    }
+
+    /**
+     * Saves compiled build order next to given CSV file. Buffer is rewound afterwards.
+     */
+    static void save(File csv, ByteBuffer compiled) throws IOException {
+        try (RandomAccessFile out = new RandomAccessFile(compiledFileFor(csv), "rw")) {
+            out.setLength(0);
+            out.getChannel().write(compiled);
+        } finally {
+            compiled.rewind();
+        }
+    }
+
+    /**
+     * Returns file with compiled build order for given CSV file: the same name with .jbo extension.
+     */
+    public static File compiledFileFor(File csv) {
+        String name = csv.getName();
+        int dot = name.lastIndexOf('.');
+        return new File(csv.getParentFile(), (dot > 0 ? name.substring(0, dot) : name) + ".jbo");
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    // =========================================================
+    // Parsing
+    private void parseLine(String line, String where) {
+        if (line.isEmpty() || line.startsWith("//")) {
+            return;
+        }
+        String[] row = line.split(";");
+
+        // Special command, e.g. #SCOUT_IS_NTH_WORKER=8
+        if (row.length >= 1 && !row[0].isEmpty() && row[0].charAt(0) == '#') {
+            parseSpecialCommand(row[0], where);
+            return;
+        }
+
+        // Comments, blank rows and header
+        if (row.length == 0 || row[0].isEmpty() || row[0].equals("Number") || row[0].equals("Order")
+                || row[0].equals(";")) {
+            return;
+        }
+        if (row.length < 2) {
+            errors.add(where + ": expected at least 2 fields: '" + line + "'");
+            return;
+        }
+
+        // Try getting objects of each type as we don't know if it's unit, research or tech.
+        String name = row[1].toLowerCase().trim();
+        int kind;
+        String fieldName = NameUtil.getUnitTypeFieldName(name);
+        if (fieldName != null) {
+            kind = CompiledBuildOrder.KIND_UNIT;
+        }
+        else if ((fieldName = NameUtil.getUpgradeTypeFieldName(name)) != null) {
+            kind = CompiledBuildOrder.KIND_UPGRADE;
+        }
+        else if ((fieldName = NameUtil.getTechTypeFieldName(name)) != null) {
+            kind = CompiledBuildOrder.KIND_TECH;
+        }
+        else {
+            errors.add(where + ": invalid production order entry: '" + name + "'");
+            return;
+        }
+
+        int modifier = row.length >= 3 ? intern(row[2].toUpperCase().trim()) : -1;
+        orders.add(new int[] {kind, intern(fieldName), modifier});
+    }
+
+    private void parseSpecialCommand(String command, String where) {
+        int equals = command.lastIndexOf('=');
+        String name = command.substring(1, equals > 0 ? equals : command.length()).toUpperCase().trim();
+        String directive = null;
+        for (String known : CompiledBuildOrder.DIRECTIVES) {
+            if (name.startsWith(known)) {
+                directive = known;
+            }
+        }
+        if (directive == null) {
+            errors.add(where + ": unknown special command: '" + command + "'");
+            return;
+        }
+
+        try {
+            int value = Integer.parseInt(command.substring(equals + 1).trim());
+            directives.add(new int[] {intern(directive), value});
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            errors.add(where + ": invalid value of special command: '" + command + "'");
+        }
+    }
+
+    private int intern(String string) {
+        int index = strings.indexOf(string);
+        if (index < 0) {
+            strings.add(string);
+            index = strings.size() - 1;
+        }
+        return index;
+    }
+
+    // =========================================================
+    // Binary format, see CompiledBuildOrder
+    private ByteBuffer write(long sourceLastModified, long sourceLength) {
+        List<byte[]> encoded = new ArrayList<>();
+        int size = 4 * 2 + 8 * 2 + 4 * 3 + directives.size() * 8 + orders.size() * 9;
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(UTF8);
+            encoded.add(bytes);
+            size += 2 + bytes.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(CompiledBuildOrder.MAGIC).putInt(CompiledBuildOrder.FORMAT_VERSION);
+        buffer.putLong(sourceLastModified).putLong(sourceLength);
+        buffer.putInt(encoded.size());
+        for (byte[] bytes : encoded) {
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+        buffer.putInt(directives.size());
+        for (int[] directive : directives) {
+            buffer.putInt(directive[0]).putInt(directive[1]);
+        }
+        buffer.putInt(orders.size());
+        for (int[] order : orders) {
+            buffer.put((byte) order[0]).putInt(order[1]).putInt(order[2]);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+}
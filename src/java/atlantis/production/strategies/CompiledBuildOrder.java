@@ -0,0 +1,186 @@
+package atlantis.production.strategies;
+
+import atlantis.debug.AtlantisLog;
+import atlantis.debug.AtlantisLog.Category;
+import atlantis.production.ProductionOrder;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import bwapi.TechType;
+import bwapi.UnitType;
+import bwapi.UpgradeType;
+
+/**
+ * Build order compiled by <b>BuildOrderCompiler</b>: production orders with unit, upgrade and tech types
+ * referenced by interned names of their constants, and parsed special commands. File is read at once and
+ * every type is resolved once, so nothing is matched by name at runtime. It isn't memory-mapped, because
+ * mapped file can't be overwritten on Windows until buffer is garbage collected.
+ * <br />
+ * Format: magic, version, last modification time and length of the source CSV file, string table, special
+ * commands [name, value] and orders [kind, type name, modifier or -1].
+ */
+public class CompiledBuildOrder {
+
+    static final int MAGIC = 0x4A424F31;
+    static final int FORMAT_VERSION = 1;
+
+    static final int KIND_UNIT = 0;
+    static final int KIND_UPGRADE = 1;
+    static final int KIND_TECH = 2;
+
+    /**
+     * Special commands that can be used in build orders, see <b>AtlantisProductionStrategy</b>.
+     */
+    static final String[] DIRECTIVES = {
+        "AUTO_PRODUCE_WORKERS_UNTIL_N_WORKERS",
+        "AUTO_PRODUCE_WORKERS_SINCE_N_WORKERS",
+        "AUTO_PRODUCE_WORKERS_MAX_WORKERS",
+        "SCOUT_IS_NTH_WORKER",
+        "USE_AUTO_SUPPLY_MANAGER_WHEN_SUPPLY_EXCEEDS"
+    };
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private long sourceLastModified;
+    private long sourceLength;
+    private final List<ProductionOrder> orders = new ArrayList<>();
+    private final Map<String, Integer> directives = new LinkedHashMap<>();
+
+    // =========================================================
+    // Loading
+    /**
+     * Returns compiled build order for given CSV file. Compiled file is used if it's up to date, otherwise
+     * CSV is compiled again (and saved, if possible).
+     */
+    public static CompiledBuildOrder load(File csv) throws IOException {
+        File compiledFile = BuildOrderCompiler.compiledFileFor(csv);
+        if (compiledFile.exists()) {
+            try {
+                CompiledBuildOrder buildOrder = readFile(compiledFile);
+                if (buildOrder.isCompiledFrom(csv)) {
+                    return buildOrder;
+                }
+            } catch (IOException | RuntimeException e) {
+                AtlantisLog.warn(Category.PRODUCTION, "Can't read compiled build order, compiling it again:", e);
+            }
+        }
+
+        BuildOrderCompiler compiler = new BuildOrderCompiler();
+        ByteBuffer compiled = compiler.compile(csv);
+        if (compiled == null) {
+            throw new IOException("Invalid build order " + csv + ": " + compiler.getErrors());
+        }
+        try {
+            BuildOrderCompiler.save(csv, compiled);
+        } catch (IOException e) {
+            AtlantisLog.warn(Category.PRODUCTION, "Can't save compiled build order:", e);
+        }
+        return read(compiled);
+    }
+
+    private static CompiledBuildOrder readFile(File compiledFile) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(compiledFile, "r")) {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of compiled build order " + compiledFile);
+                }
+            }
+            buffer.flip();
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Decodes compiled build order and resolves its types.
+     */
+    public static CompiledBuildOrder read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported compiled build order format");
+        }
+        CompiledBuildOrder buildOrder = new CompiledBuildOrder();
+        buildOrder.sourceLastModified = buffer.getLong();
+        buildOrder.sourceLength = buffer.getLong();
+
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getShort()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, UTF8);
+        }
+
+        int directivesCount = buffer.getInt();
+        for (int i = 0; i < directivesCount; i++) {
+            String name = strings[buffer.getInt()];
+            buildOrder.directives.put(name, buffer.getInt());
+        }
+
+        int ordersCount = buffer.getInt();
+        for (int i = 0; i < ordersCount; i++) {
+            int kind = buffer.get();
+            String typeName = strings[buffer.getInt()];
+            int modifier = buffer.getInt();
+
+            ProductionOrder order;
+            if (kind == KIND_UNIT) {
+                order = new ProductionOrder((UnitType) constant(UnitType.class, typeName));
+            }
+            else if (kind == KIND_UPGRADE) {
+                order = new ProductionOrder((UpgradeType) constant(UpgradeType.class, typeName));
+            }
+            else if (kind == KIND_TECH) {
+                order = new ProductionOrder((TechType) constant(TechType.class, typeName));
+            }
+            else {
+                throw new IOException("Invalid kind of production order: " + kind);
+            }
+            if (modifier >= 0) {
+                order.setModifier(strings[modifier]);
+            }
+            buildOrder.orders.add(order);
+        }
+        return buildOrder;
+    }
+
+    private static Object constant(Class<?> type, String name) throws IOException {
+        try {
+            Object value = type.getField(name).get(null);
+            if (value == null) {
+                throw new IOException("Type not initialized: " + name);
+            }
+            return value;
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IOException("Unknown type in compiled build order: " + name, e);
+        }
+    }
+
+    // =========================================================
+
+    /**
+     * Returns true if this build order has been compiled from the current version of given CSV file.
+     */
+    public boolean isCompiledFrom(File csv) {
+        return sourceLastModified == csv.lastModified() && sourceLength == csv.length();
+    }
+
+    public List<ProductionOrder> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Returns special commands [name -> value], in order of the file.
+     */
+    public Map<String, Integer> getDirectives() {
+        return directives;
+    }
+
+}
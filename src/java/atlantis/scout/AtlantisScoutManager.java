@@ -8,6 +8,7 @@ import atlantis.information.AtlantisMap;
 import atlantis.information.AtlantisUnitInformationManager;
 import atlantis.util.UnitUtil;
 import atlantis.wrappers.Select;
+import atlantis.wrappers.CommandBuffer;
 import java.util.ArrayList;
 import bwta.BaseLocation;
 import bwapi.Unit;
@@ -113,7 +114,7 @@ public class AtlantisScoutManager {
         if (startingLocation != null) {
         	TooltipManager.setTooltip(scout, "Scout!");
             //scout.setTooltip("Scout!");
-            scout.move(startingLocation.getPosition(), false);
+            CommandBuffer.move(scout, startingLocation.getPosition());
         }
     }
 
@@ -153,7 +154,7 @@ public class AtlantisScoutManager {
     private static void scoutForTheNextBase(Unit scout) {
         BaseLocation baseLocation = AtlantisMap.getNearestUnexploredStartingLocation(scout.getPosition());
         if (baseLocation != null) {
-            scout.move(baseLocation.getPosition());
+            CommandBuffer.move(scout, baseLocation.getPosition());
         }
     }
 
@@ -0,0 +1,29 @@
+package atlantis.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class FileUtil {
+
+    /**
+     * Reads whole file into a heap buffer, ready to be read from its beginning. The file isn't memory-mapped,
+     * because mapped file can't be overwritten on Windows until the buffer is garbage collected.
+     */
+    public static ByteBuffer readFully(File file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of file " + file);
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+}
@@ -74,6 +74,41 @@ public class NameUtil {
         return null;
     }
     
+    // =========================================================
+    // Names of constants, used to compile build orders without StarCraft
+    
+    /**
+     * Returns name of UnitType constant matching given name the same way as <b>getUnitTypeByName</b>, e.g.
+     * "Terran_Marine" for "marine", or null.
+     */
+    public static String getUnitTypeFieldName(String string) {
+        return findFieldName(UnitType.class, string.replace(" ", "_").toLowerCase());
+    }
+
+    /**
+     * Returns name of UpgradeType constant matching given name the same way as <b>getUpgradeTypeByName</b>,
+     * or null.
+     */
+    public static String getUpgradeTypeFieldName(String string) {
+        return findFieldName(UpgradeType.class, string.replace(" ", "_").replace("-", "_").toLowerCase());
+    }
+
+    /**
+     * Returns name of TechType constant matching given name the same way as <b>getTechTypeByName</b>, or null.
+     */
+    public static String getTechTypeFieldName(String name) {
+        return findFieldName(TechType.class, name.replace(" ", "_").toLowerCase());
+    }
+
+    private static String findFieldName(Class<?> type, String lowerCaseName) {
+        for (Field field : type.getFields()) {
+            if (field.getType().equals(type) && field.getName().toLowerCase().contains(lowerCaseName)) {
+                return field.getName();
+            }
+        }
+        return null;
+    }
+    
     public static TechType getTechTypeByName(String name) {
 		name = name.replace(" ", "_").toLowerCase();
 
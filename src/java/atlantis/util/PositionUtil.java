@@ -1,5 +1,6 @@
 package atlantis.util;
 
+import atlantis.Atlantis;
 import bwapi.Position;
 import bwapi.TilePosition;
 import bwapi.Unit;
@@ -18,7 +19,7 @@ public class PositionUtil {
         // Calculate approximate distance between the units. If it's less than let's say X tiles, we probably should
         // consider calculating more precise value
         //TODO: check if approxDistance * Tile_Size is equivalent to getApproxBDistance
-        double distanceApprx = one.getApproxDistance(other)  / TilePosition.SIZE_IN_PIXELS; // getApproxBDistance(other);
+        double distanceApprx = approxDistance(dx, dy) / TilePosition.SIZE_IN_PIXELS; // getApproxBDistance(other);
         // Precision is fine, return approx value
         if (distanceApprx > 4.5) {
             return distanceApprx;
@@ -44,4 +45,35 @@ public class PositionUtil {
     public static Position translate(Position p, int deltaPixelX, int deltaPixelY) {
         return new Position(p.getX() + deltaPixelX, p.getY() + deltaPixelY);
     }
+
+    /**
+     * The same as <b>Position.getApproxDistance</b> of BWAPI, computed in Java instead of calling it through
+     * JNI. Returns approximate distance in pixels for difference of coordinates [dx, dy].
+     */
+    public static int approxDistance(int dx, int dy) {
+        int min = Math.abs(dx);
+        int max = Math.abs(dy);
+        if (max < min) {
+            int swap = min;
+            min = max;
+            max = swap;
+        }
+        if (min < (max >> 2)) {
+            return max;
+        }
+        int minCalc = (3 * min) >> 3;
+        return (minCalc >> 5) + minCalc + max - (max >> 4) - (max >> 6);
+    }
+
+    /**
+     * The same as <b>Position.makeValid</b> of BWAPI, computed in Java: returns position moved to the nearest
+     * point inside the map.
+     */
+    public static Position makeValid(Position p) {
+        int maxX = Atlantis.getBwapi().mapWidth() * TilePosition.SIZE_IN_PIXELS - 1;
+        int maxY = Atlantis.getBwapi().mapHeight() * TilePosition.SIZE_IN_PIXELS - 1;
+        int x = Math.max(0, Math.min(maxX, p.getX()));
+        int y = Math.max(0, Math.min(maxY, p.getY()));
+        return x == p.getX() && y == p.getY() ? p : new Position(x, y);
+    }
 }
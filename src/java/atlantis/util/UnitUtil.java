@@ -77,6 +77,14 @@ public class UnitUtil {
         return t.matches(UnitType.Terran_Vulture_Spider_Mine, UnitType.Zerg_Larva, UnitType.Zerg_Egg);
     }*/
     
+    /**
+     * Returns true if given type is Zerg Egg, Lurker Egg or Cocoon, i.e. unit that is morphing into
+     * its <b>getBuildType()</b>.
+     */
+    public static boolean isEggOrCocoon(UnitType t) {
+        return t.matches(UnitType.Zerg_Egg, UnitType.Zerg_Lurker_Egg, UnitType.Zerg_Cocoon);
+    }
+    
     /**
      * Replaces variable _isMilitaryBuildingAntiGround of old Unit class
      * @param t
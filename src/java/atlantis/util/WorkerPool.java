@@ -0,0 +1,20 @@
+package atlantis.util;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Single pool of worker threads shared by all parts of the bot that split their work between threads (combat
+ * evaluation, preparing building positions). Both are invoked from the main thread one after another, so
+ * there's no point in keeping separate pools.
+ */
+public class WorkerPool {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    // =========================================================
+
+    public static ForkJoinPool get() {
+        return pool;
+    }
+
+}
@@ -2,12 +2,14 @@ package atlantis.workers;
 
 import atlantis.wrappers.Select;
 import atlantis.wrappers.Units;
+import atlantis.wrappers.CommandBuffer;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import bwapi.Position;
 import bwapi.Unit;
 
 /**
@@ -20,19 +22,20 @@ public class AtlantisMineralGathering {
      */
     public static void initialAssignWorkersToMinerals() {
 
-        // Get minerals near to our main base and sort them from closest to most distant one
-    	//TODO check safety of this cast
-        List<Unit> minerals = (List<Unit>) Select.minerals().inRadius(12, Select.mainBase().getPosition()).
-                sortDataByDistanceTo(Select.mainBase().getPosition(), true);
-
         // Get our workers
         Collection<Unit> workers = Select.ourWorkers().list();
 
+        // Get minerals near to our main base, from closest to most distant one (one for every worker)
+    	//TODO check safety of this cast
+        Position mainBasePosition = Select.mainBase().getPosition();
+        List<Unit> minerals = ((Select<Unit>) Select.minerals().inRadius(12, mainBasePosition))
+                .nearestTo(mainBasePosition, workers.size());
+
         // Assign every worker to the next free mineral
         int counter = 0;
         for (Unit unit : workers) {
             Unit mineral = minerals.get(counter);
-            unit.gather(mineral, false);
+            CommandBuffer.gather(unit, mineral);
 
             counter++;
         }
@@ -44,7 +47,7 @@ public class AtlantisMineralGathering {
     public static void gatherResources(Unit unit) {
         Unit mineralField = getMineralFieldToGather(unit);
         if (mineralField != null) {
-            unit.gather(mineralField, false);
+            CommandBuffer.gather(unit, mineralField);
         }
     }
 
@@ -57,11 +60,8 @@ public class AtlantisMineralGathering {
             return null;
         }
 
-        // Get minerals near to our main base and sort them from closest to most distant one
-        List<Unit> minerals = (List<Unit>) Select.minerals().inRadius(12, base.getPosition())
-                .sortDataByDistanceTo(Select.mainBase().getPosition(), true);
-        
-        if (!minerals.isEmpty()) {
+        // Check if there are any minerals near this base
+        if (Select.minerals().inRadius(12, base.getPosition()).anyExists()) {
 
             // Count how many other workers gather this mineral
         	Map<Unit, Integer> workersPerMineral = new HashMap<>();
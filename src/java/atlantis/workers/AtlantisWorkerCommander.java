@@ -2,11 +2,11 @@ package atlantis.workers;
 
 import atlantis.AtlantisConfig;
 import atlantis.AtlantisGame;
-import atlantis.buildings.managers.AtlantisGasManager;
 import atlantis.information.AtlantisUnitInformationManager;
 import atlantis.util.PositionUtil;
 import atlantis.wrappers.Select;
 import atlantis.wrappers.Units;
+import atlantis.wrappers.CommandBuffer;
 import java.util.Collection;
 import bwapi.Unit;
 
@@ -19,7 +19,6 @@ public class AtlantisWorkerCommander {
      * Executed only once per frame.
      */
     public static void update() {
-        AtlantisGasManager.handleGasBuildings();
         handleNumberOfWorkersNearBases();
 
         for (Unit unit : Select.ourWorkers().list()) {
@@ -126,7 +125,7 @@ public class AtlantisWorkerCommander {
                 baseWorkersRatios.getValueFor(baseWithFewestWorkers)) {
             Unit worker = (Unit) Select.ourWorkersThatGather().inRadius(10, baseWithMostWorkers.getPosition()).first();
             if (worker != null) {
-                worker.move(baseWithFewestWorkers.getPosition());
+                CommandBuffer.move(worker, baseWithFewestWorkers.getPosition());
             }
         }
     }
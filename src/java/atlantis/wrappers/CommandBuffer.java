@@ -0,0 +1,222 @@
+package atlantis.wrappers;
+
+import atlantis.AtlantisGame;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import bwapi.Position;
+import bwapi.TilePosition;
+import bwapi.Unit;
+import bwapi.UnitType;
+
+/**
+ * Buffers orders (<b>move</b>, <b>attack</b>, <b>gather</b>, <b>rightClick</b>, <b>stop</b> and
+ * <b>build</b>) issued during the frame and sends them to the game once, at the end of the frame. All unit
+ * orders should go through it, as order issued directly would be overridden by a buffered one.
+ * <br />
+ * If unit gets several orders in one frame, only the last one is issued. Order that is the same as the
+ * last order issued to this unit is dropped (unless it was issued long ago or unit became idle), so that
+ * units aren't interrupted by repeated orders and no JNI call is wasted. <b>stop</b> and <b>build</b> are
+ * never dropped this way.
+ */
+public class CommandBuffer {
+
+    /**
+     * The same order will be issued again after this many frames, even if it seems redundant.
+     */
+    private static final int REISSUE_AFTER_FRAMES = 24;
+
+    /**
+     * Positions closer than this (in pixels) are considered the same target.
+     */
+    private static final int SAME_POSITION_TOLERANCE = 32;
+
+    private static final UnitSideTable<Command> lastIssued = new UnitSideTable<>();
+    private static final Map<Unit, Command> pending = new LinkedHashMap<>();
+
+    // Statistics
+    private static int issuedThisFrame = 0;
+    private static int suppressedThisFrame = 0;
+    private static int issuedLastFrame = 0;
+    private static int suppressedLastFrame = 0;
+    private static long issuedTotal = 0;
+    private static long suppressedTotal = 0;
+
+    // =========================================================
+    // Orders
+
+    public static void move(Unit unit, Position position) {
+        add(unit, new Command(CommandType.MOVE, null, position));
+    }
+
+    /**
+     * Unit will move by given distance (in build tiles) from given position.
+     */
+    public static void moveAwayFrom(Unit unit, Position position, double moveDistance) {
+        Position unitPosition = unit.getPosition();
+        int dx = position.getX() - unitPosition.getX();
+        int dy = position.getY() - unitPosition.getY();
+        double vectorLength = Math.sqrt(dx * dx + dy * dy);
+        double modifier = (moveDistance * TilePosition.SIZE_IN_PIXELS) / vectorLength;
+        dx = (int) (dx * modifier);
+        dy = (int) (dy * modifier);
+
+        move(unit, new Position(unitPosition.getX() - dx, unitPosition.getY() - dy));
+    }
+
+    public static void attack(Unit unit, Position position) {
+        add(unit, new Command(CommandType.ATTACK_POSITION, null, position));
+    }
+
+    public static void attack(Unit unit, Unit target) {
+        add(unit, new Command(CommandType.ATTACK_UNIT, target, null));
+    }
+
+    public static void gather(Unit unit, Unit target) {
+        add(unit, new Command(CommandType.GATHER, target, null));
+    }
+
+    public static void rightClick(Unit unit, Unit target) {
+        add(unit, new Command(CommandType.RIGHT_CLICK, target, null));
+    }
+
+    public static void stop(Unit unit) {
+        add(unit, new Command(CommandType.STOP, null, null));
+    }
+
+    public static void build(Unit unit, UnitType building, TilePosition position) {
+        Command command = new Command(CommandType.BUILD, null, null);
+        command.building = building;
+        command.tilePosition = position;
+        add(unit, command);
+    }
+
+    // =========================================================
+
+    /**
+     * Issues all orders given in this frame. Should be called once, at the end of every frame.
+     */
+    public static void flush() {
+        int frame = AtlantisGame.getTimeFrames();
+
+        for (Map.Entry<Unit, Command> entry : pending.entrySet()) {
+            Unit unit = entry.getKey();
+            Command command = entry.getValue();
+
+            Command last = lastIssued.get(unit);
+            if (last != null && last.isSameAs(command) && frame - last.frame < REISSUE_AFTER_FRAMES
+                    && !unit.isIdle()) {
+                suppressedThisFrame++;
+                continue;
+            }
+
+            command.issue(unit);
+            command.frame = frame;
+            lastIssued.put(unit, command);
+            issuedThisFrame++;
+        }
+        pending.clear();
+
+        issuedLastFrame = issuedThisFrame;
+        suppressedLastFrame = suppressedThisFrame;
+        issuedTotal += issuedThisFrame;
+        suppressedTotal += suppressedThisFrame;
+        issuedThisFrame = 0;
+        suppressedThisFrame = 0;
+    }
+
+    private static void add(Unit unit, Command command) {
+
+        // Only the last order given in a frame matters
+        if (pending.put(unit, command) != null) {
+            suppressedThisFrame++;
+        }
+    }
+
+    // =========================================================
+    // Statistics
+
+    /**
+     * Returns number of orders actually sent to the game in the last frame.
+     */
+    public static int getIssuedLastFrame() {
+        return issuedLastFrame;
+    }
+
+    /**
+     * Returns number of orders dropped in the last frame (redundant or overridden by later order).
+     */
+    public static int getSuppressedLastFrame() {
+        return suppressedLastFrame;
+    }
+
+    public static long getIssuedTotal() {
+        return issuedTotal;
+    }
+
+    public static long getSuppressedTotal() {
+        return suppressedTotal;
+    }
+
+    // =========================================================
+
+    private enum CommandType {
+        MOVE, ATTACK_POSITION, ATTACK_UNIT, GATHER, RIGHT_CLICK, STOP, BUILD
+    }
+
+    private static class Command {
+
+        private final CommandType type;
+        private final Unit target;
+        private final Position position;
+        private UnitType building;
+        private TilePosition tilePosition;
+        private int frame;
+
+        public Command(CommandType type, Unit target, Position position) {
+            this.type = type;
+            this.target = target;
+            this.position = position;
+        }
+
+        private boolean isSameAs(Command other) {
+            if (type != other.type || type == CommandType.STOP || type == CommandType.BUILD) {
+                return false;
+            }
+            if (target != null) {
+                return target.equals(other.target);
+            }
+            int dx = position.getX() - other.position.getX();
+            int dy = position.getY() - other.position.getY();
+            return dx * dx + dy * dy <= SAME_POSITION_TOLERANCE * SAME_POSITION_TOLERANCE;
+        }
+
+        private void issue(Unit unit) {
+            switch (type) {
+                case MOVE:
+                    unit.move(position, false);
+                    break;
+                case ATTACK_POSITION:
+                    unit.attack(position, false);
+                    break;
+                case ATTACK_UNIT:
+                    unit.attack(target, false);
+                    break;
+                case GATHER:
+                    unit.gather(target, false);
+                    break;
+                case RIGHT_CLICK:
+                    unit.rightClick(target, false);
+                    break;
+                case STOP:
+                    unit.stop(false);
+                    break;
+                case BUILD:
+                    unit.build(building, tilePosition);
+                    break;
+            }
+        }
+
+    }
+
+}
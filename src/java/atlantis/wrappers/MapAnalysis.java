@@ -0,0 +1,125 @@
+package atlantis.wrappers;
+
+import bwapi.Position;
+import bwapi.TilePosition;
+import bwta.BWTA;
+import bwta.BaseLocation;
+import bwta.Chokepoint;
+import bwta.Region;
+import java.util.List;
+
+/**
+ * Access to the map analysis (regions, chokepoints and base locations). By default it's done by BWTA, but
+ * a different <b>Source</b> can be set, e.g. by the headless simulation that runs without StarCraft. All
+ * calls to BWTA should go through this class.
+ */
+public class MapAnalysis {
+
+    /**
+     * Provider of the map analysis, the same methods as in BWTA.
+     */
+    public interface Source {
+
+        /**
+         * Called once in onStart, before any other method.
+         */
+        void analyze();
+
+        List<Region> getRegions();
+
+        List<Chokepoint> getChokepoints();
+
+        List<BaseLocation> getBaseLocations();
+
+        /**
+         * Returns region containing given build tile or null if it's unwalkable.
+         */
+        Region getRegion(int tileX, int tileY);
+
+        Region getRegion(Position position);
+
+        /**
+         * Returns ground distance in pixels or negative value if there's no ground path.
+         */
+        double getGroundDistance(TilePosition from, TilePosition to);
+    }
+
+    /**
+     * Map analysis done by BWTA, in the running game.
+     */
+    public static final Source BWTA_SOURCE = new Source() {
+
+        @Override
+        public void analyze() {
+            BWTA.readMap();
+            BWTA.analyze();
+        }
+
+        @Override
+        public List<Region> getRegions() {
+            return BWTA.getRegions();
+        }
+
+        @Override
+        public List<Chokepoint> getChokepoints() {
+            return BWTA.getChokepoints();
+        }
+
+        @Override
+        public List<BaseLocation> getBaseLocations() {
+            return BWTA.getBaseLocations();
+        }
+
+        @Override
+        public Region getRegion(int tileX, int tileY) {
+            return BWTA.getRegion(tileX, tileY);
+        }
+
+        @Override
+        public Region getRegion(Position position) {
+            return BWTA.getRegion(position);
+        }
+
+        @Override
+        public double getGroundDistance(TilePosition from, TilePosition to) {
+            return BWTA.getGroundDistance(from, to);
+        }
+    };
+
+    private static Source source = BWTA_SOURCE;
+
+    // =========================================================
+
+    public static void setSource(Source newSource) {
+        source = newSource;
+    }
+
+    public static void analyze() {
+        source.analyze();
+    }
+
+    public static List<Region> getRegions() {
+        return source.getRegions();
+    }
+
+    public static List<Chokepoint> getChokepoints() {
+        return source.getChokepoints();
+    }
+
+    public static List<BaseLocation> getBaseLocations() {
+        return source.getBaseLocations();
+    }
+
+    public static Region getRegion(int tileX, int tileY) {
+        return source.getRegion(tileX, tileY);
+    }
+
+    public static Region getRegion(Position position) {
+        return source.getRegion(position);
+    }
+
+    public static double getGroundDistance(TilePosition from, TilePosition to) {
+        return source.getGroundDistance(from, to);
+    }
+
+}
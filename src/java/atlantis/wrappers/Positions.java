@@ -8,7 +8,6 @@ import java.util.HashMap;
 
 import bwapi.Position;
 import bwapi.PositionedObject;
-import bwta.BWTA;
 import atlantis.util.PositionUtil;
 import atlantis.util.RUtilities;
 
@@ -114,11 +113,11 @@ public class Positions<T extends PositionedObject> {
 		Collections.sort(positions, new Comparator<PositionedObject>() {
 			@Override
 			public int compare(PositionedObject u1, PositionedObject u2) {
-				double distToU1 = BWTA.getGroundDistance(position.toTilePosition(), u1.getPosition().toTilePosition());
+				double distToU1 = MapAnalysis.getGroundDistance(position.toTilePosition(), u1.getPosition().toTilePosition());
 				if (distToU1 < 0) {
 					distToU1 = 99999;
 				}
-				double distToU2 = BWTA.getGroundDistance(position.toTilePosition(), u2.getPosition().toTilePosition());
+				double distToU2 = MapAnalysis.getGroundDistance(position.toTilePosition(), u2.getPosition().toTilePosition());
 				return distToU1 < distToU2 ? (nearestFirst ? -1 : 1) : (nearestFirst ? 1 : -1);
 			}
 		});
@@ -1,9 +1,9 @@
 package atlantis.wrappers;
 
-import atlantis.Atlantis;
 import atlantis.AtlantisConfig;
 import atlantis.information.UnitData;
-import atlantis.util.PositionUtil;
+import atlantis.information.UnitGrid;
+import atlantis.information.WorldSnapshot;
 import atlantis.util.RUtilities;
 import atlantis.util.UnitUtil;
 
@@ -11,11 +11,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 
 import bwapi.Position;
 import bwapi.PositionedObject;
+import bwapi.TilePosition;
 import bwapi.Unit;
 import bwapi.UnitType;
 
@@ -26,14 +26,49 @@ import bwapi.UnitType;
  * <b> SelectUnits.our().ofType(UnitType.Terran_Marine).nearestTo(SelectUnits.mainBase()) </b>
  * </p>
  * It uses nice flow and every next method filters out units that do not fulfill certain conditions.<br />
- * Unless clearly specified otherwise, this class returns <b>ONLY COMPLETED</b> units.
+ * Unless clearly specified otherwise, this class returns <b>ONLY COMPLETED</b> units.<br />
+ * Filters are <b>lazy</b>: they're only remembered and all of them are checked in a single pass when one of
+ * the methods returning results is called (list(), count(), first(), nearestTo() etc). The count() and
+ * anyExists() methods don't create any list at all.
  */
 public class Select<T> {
 
+    /**
+     * Condition that every unit in the selection must fulfill.
+     */
+    private interface Condition<T> {
+        boolean accepts(T unitOrData);
+    }
+
+    /**
+     * Condition checked against unit stored in the WorldSnapshot under given index.
+     */
+    private interface SnapshotCondition {
+        boolean accepts(int index);
+    }
+
     // =====================================================================
-    // Collection<Unit> wrapper with extra methods
-    //private Units units;
-	private List<T> data;
+    // Source of units: either units of one owner from the WorldSnapshot or given list
+
+    // Owner (WorldSnapshot.OWNER_*) of all units in this selection or -1 if source is the list
+    private byte owner = -1;
+    private SnapshotCondition snapshotCondition = null;
+    private List<T> source = null;
+
+    // Optional area (radius or rectangle), for snapshot source it's handled using the UnitGrid
+    private Position radiusCenter = null;
+    private double radiusMaxDist = 0;
+    private Position rectangleTopLeft = null;
+    private Position rectangleBottomRight = null;
+
+    // Snapshot indices of units in the area, found when they're needed for the first time
+    private int[] areaIndices = null;
+
+    // Conditions added by filter methods
+    private final List<Condition<T>> conditions = new ArrayList<>();
+
+    // True if source already contains the result (and there are no conditions left)
+    private boolean materialized = false;
 
     // CACHED variables
     private static Unit _cached_mainBase = null;
@@ -41,106 +76,134 @@ public class Select<T> {
     // =====================================================================
     // Constructor is private, use our(), enemy() or neutral() methods
     private Select(Collection<T> unitsData) {
-    	data = new ArrayList<>();
-        data.addAll(unitsData);
+    	source = new ArrayList<>();
+        source.addAll(unitsData);
+        materialized = true;
     }
 
+    // Selection created from the WorldSnapshot, containing units of one owner only
+    private Select(byte owner, SnapshotCondition snapshotCondition) {
+        WorldSnapshot.ensureUpToDate();
+        this.owner = owner;
+        this.snapshotCondition = snapshotCondition;
+    }
+
+    // =====================================================================
+    // Conditions used by factory methods, checked directly against WorldSnapshot arrays
+    private static final SnapshotCondition OUR = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            return WorldSnapshot.exists(i) && WorldSnapshot.isCompleted(i)
+                    && !isNotActuallyUnit(WorldSnapshot.type(i));
+        }
+    };
+
+    private static final SnapshotCondition OUR_COMBAT_UNITS = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            UnitType type = WorldSnapshot.type(i);
+            return WorldSnapshot.exists(i) && WorldSnapshot.isCompleted(i)
+                    && !isNotActuallyUnit(type) && !type.isBuilding() && !type.equals(AtlantisConfig.WORKER);
+        }
+    };
+
+    private static final SnapshotCondition OUR_INCLUDING_UNFINISHED = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            return WorldSnapshot.exists(i) && !WorldSnapshot.type(i).equals(UnitType.Terran_Vulture_Spider_Mine);
+        }
+    };
+
+    private static final SnapshotCondition OUR_UNFINISHED = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            return WorldSnapshot.exists(i) && !WorldSnapshot.isCompleted(i);
+        }
+    };
+
+    private static final SnapshotCondition OUR_REAL_UNITS = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            UnitType type = WorldSnapshot.type(i);
+            return WorldSnapshot.exists(i) && WorldSnapshot.isCompleted(i)
+                    && !type.isBuilding() && !isNotActuallyUnit(type);
+        }
+    };
+
+    private static final SnapshotCondition OUR_UNFINISHED_REAL_UNITS = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            UnitType type = WorldSnapshot.type(i);
+            return WorldSnapshot.exists(i) && !WorldSnapshot.isCompleted(i)
+                    && !type.isBuilding() && !isNotActuallyUnit(type);
+        }
+    };
+
+    private static final SnapshotCondition ENEMY = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            return WorldSnapshot.isVisible(i) && WorldSnapshot.hitPoints(i) >= 1;
+        }
+    };
+
+    private static final SnapshotCondition ENEMY_REAL_UNITS = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            UnitType type = WorldSnapshot.type(i);
+            return WorldSnapshot.exists(i) && WorldSnapshot.isVisible(i)
+                    && !type.isBuilding() && !isNotActuallyUnit(type);
+        }
+    };
+
+    private static final SnapshotCondition ANY = new SnapshotCondition() {
+        @Override
+        public boolean accepts(int i) {
+            return true;
+        }
+    };
+
     // =====================================================================
     // Create base object
     /**
      * Selects all of our finished and existing units (units, buildings, but no spider mines etc).
      */
     public static Select<Unit> our() {
-        //Units units = new Units();
-    	List<Unit> data = new ArrayList<>();
-
-        //self().getUnits() replaces getMyUnits()
-        for (Unit unit : Atlantis.getBwapi().self().getUnits()) {
-            if (unit.exists() && unit.isCompleted() && ! unit.isType(UnitType.Terran_Vulture_Spider_Mine, UnitType.Zerg_Larva, UnitType.Zerg_Egg) ) {
-                data.add(unit);	//TODO: make it more efficient by just querying the cache of known units
-            }
-        }
-        return new Select<Unit>(data);
-        
+        return new Select<Unit>(WorldSnapshot.OWNER_OUR, OUR);
     }
 
     /**
      * Selects all of our finished combat units (no buildings, workers, spider mines etc).
      */
     public static Select<Unit> ourCombatUnits() {
-        //Units units = new Units();
-    	List<Unit> data = new ArrayList<>();
-
-        for (Unit unit : Atlantis.getBwapi().self().getUnits()) {
-            if (unit.exists() && unit.isCompleted() && ! unit.isNotActuallyUnit() && !unit.getType().isBuilding()
-                    && !unit.getType().equals(AtlantisConfig.WORKER)) {
-                data.add(unit);	//TODO: make it more efficient by just querying the cache of known units
-            }
-        }
-
-        return new Select<Unit>(data);
+        return new Select<Unit>(WorldSnapshot.OWNER_OUR, OUR_COMBAT_UNITS);
     }
 
     /**
      * Selects all of our units (units, buildings, but no spider mines etc), <b>even those unfinished</b>.
      */
     public static Select<Unit> ourIncludingUnfinished() {
-    	//Units units = new Units();
-    	List<Unit> data = new ArrayList<>();
-
-        for (Unit unit : Atlantis.getBwapi().self().getUnits()) {
-            if (unit.exists() && !unit.getType().equals(UnitType.Terran_Vulture_Spider_Mine)) {
-                data.add(unit);	//TODO: make it more efficient by just querying the cache of known units
-            }
-        }
-
-        return new Select<Unit>(data);
+        return new Select<Unit>(WorldSnapshot.OWNER_OUR, OUR_INCLUDING_UNFINISHED);
     }
 
     /**
      * Selects our unfinished units.
      */
     public static Select<Unit> ourUnfinished() {
-    	//Units units = new Units();
-    	List<Unit> data = new ArrayList<>();
-
-        for (Unit unit : Atlantis.getBwapi().self().getUnits()) {
-            if (unit.exists() && !unit.isCompleted()) {
-            	data.add(unit);
-            }
-        }
-
-        return new Select<Unit>(data);
+        return new Select<Unit>(WorldSnapshot.OWNER_OUR, OUR_UNFINISHED);
     }
 
     /**
      * Selects our unfinished units.
      */
     public static Select<Unit> ourRealUnits() {
-    	List<Unit> data = new ArrayList<>();
-
-        for (Unit unit : Atlantis.getBwapi().self().getUnits()) {
-            if (unit.exists() && unit.isCompleted() && !unit.getType().isBuilding() && ! unit.isNotActuallyUnit()) {
-                data.add(unit);
-            }
-        }
-
-        return new Select<Unit>(data);
+        return new Select<Unit>(WorldSnapshot.OWNER_OUR, OUR_REAL_UNITS);
     }
 
     /**
      * Selects our unfinished units.
      */
     public static Select<Unit> ourUnfinishedRealUnits() {
-    	List<Unit> data = new ArrayList<>();
-
-        for (Unit unit : Atlantis.getBwapi().self().getUnits()) {
-            if (unit.exists() && !unit.isCompleted() && !unit.getType().isBuilding() && ! unit.isNotActuallyUnit()) {
-                data.add(unit);
-            }
-        }
-
-        return new Select<Unit>(data);
+        return new Select<Unit>(WorldSnapshot.OWNER_OUR, OUR_UNFINISHED_REAL_UNITS);
     }
 
     /**
@@ -148,34 +211,24 @@ public class Select<T> {
      * Since they're visible, the parameterized type is Unit
      */
     public static Select<Unit> enemy() {
-    	List<Unit> data = new ArrayList<>();
-
-        //TODO: check whether enemy().getUnits() has the same behavior as  getEnemyUnits()
-        for (Unit unit : Atlantis.getBwapi().enemy().getUnits()) {
-            if (unit.isVisible() && unit.getHitPoints() >= 1) {
-                data.add(unit);
-            }
-        }
-
-        return new Select<Unit>(data);
+        return new Select<Unit>(WorldSnapshot.OWNER_ENEMY, ENEMY);
     }
 
     /**
      * Selects all visible enemy units.
      * Since they're visible, the parameterized type is Unit
      */
-    public static Select<Unit> enemy(boolean includeGroundUnits, boolean includeAirUnits) {
-    	List<Unit> data = new ArrayList<>();
-
-        for (Unit unit : Atlantis.getBwapi().enemy().getUnits()) {
-            if (unit.isVisible() && unit.getHitPoints() >= 1) {
-                if ((!unit.getType().isFlyer() && includeGroundUnits) || (unit.getType().isFlyer() && includeAirUnits)) {
-                    data.add(unit);
+    public static Select<Unit> enemy(final boolean includeGroundUnits, final boolean includeAirUnits) {
+        return new Select<Unit>(WorldSnapshot.OWNER_ENEMY, new SnapshotCondition() {
+            @Override
+            public boolean accepts(int i) {
+                if (!ENEMY.accepts(i)) {
+                    return false;
                 }
+                boolean isFlyer = WorldSnapshot.type(i).isFlyer();
+                return (!isFlyer && includeGroundUnits) || (isFlyer && includeAirUnits);
             }
-        }
-
-        return new Select<Unit>(data);
+        });
     }
 
     /**
@@ -183,33 +236,25 @@ public class Select<T> {
      * Since they're visible, the parameterized type is Unit
      */
     public static Select<Unit> enemyRealUnits() {
-    	List<Unit> data = new ArrayList<>();
-
-        for (Unit unit : Atlantis.getBwapi().enemy().getUnits()) {
-            if (unit.exists() && unit.isVisible() && !unit.getType().isBuilding() && ! unit.isNotActuallyUnit()) {
-                data.add(unit);
-            }
-        }
-
-        return new Select<Unit>(data);
+        return new Select<Unit>(WorldSnapshot.OWNER_ENEMY, ENEMY_REAL_UNITS);
     }
 
     /**
      * Selects all visible enemy units.
      * Since they're visible, the parameterized type is Unit
      */
-    public static Select<Unit> enemyRealUnits(boolean includeGroundUnits, boolean includeAirUnits) {
-    	List<Unit> data = new ArrayList<>();
-
-        for (Unit unit : Atlantis.getBwapi().enemy().getUnits()) {
-            if (unit.exists() && unit.isVisible() && !unit.getType().isBuilding() && !unit.isType(UnitType.Zerg_Larva, UnitType.Zerg_Egg)) {
-                if ((!unit.getType().isFlyer() && includeGroundUnits) || (unit.getType().isFlyer() && includeAirUnits)) {
-                    data.add(unit);
+    public static Select<Unit> enemyRealUnits(final boolean includeGroundUnits, final boolean includeAirUnits) {
+        return new Select<Unit>(WorldSnapshot.OWNER_ENEMY, new SnapshotCondition() {
+            @Override
+            public boolean accepts(int i) {
+                UnitType type = WorldSnapshot.type(i);
+                if (!WorldSnapshot.exists(i) || !WorldSnapshot.isVisible(i) || type.isBuilding()
+                        || type.matches(UnitType.Zerg_Larva, UnitType.Zerg_Egg)) {
+                    return false;
                 }
+                return (!type.isFlyer() && includeGroundUnits) || (type.isFlyer() && includeAirUnits);
             }
-        }
-
-        return new Select<Unit>(data);
+        });
     }
 
     /**
@@ -217,35 +262,23 @@ public class Select<T> {
      * Since they're visible, the parameterized type is Unit
      */
     public static Select<Unit> neutral() {
-    	List<Unit> data = new ArrayList<>();
-
-    	data.addAll(Atlantis.getBwapi().getNeutralUnits());
-
-        return new Select<Unit>(data);
+        return new Select<Unit>(WorldSnapshot.OWNER_NEUTRAL, ANY);
     }
 
     /**
      * Selects all (accessible) minerals on the map.
      */
+    @SuppressWarnings("unchecked")
     public static Select<Unit> minerals() {
-        /*Units units = new Units();
-
-        units.addUnits(Atlantis.getBwapi().getNeutralUnits());*/
-        Select<Unit> selectUnits = neutral();
-
-        return (Select<Unit>) selectUnits.ofType(UnitType.Resource_Mineral_Field);
+        return (Select<Unit>) neutral().ofType(UnitType.Resource_Mineral_Field);
     }
 
     /**
      * Selects all geysers on the map.
      */
+    @SuppressWarnings("unchecked")
     public static Select<Unit> geysers() {
-        /*Units units = new Units();
-
-        units.addUnits(Atlantis.getBwapi().getNeutralUnits());*/
-        Select<Unit> selectUnits = neutral();
-
-        return (Select<Unit>) selectUnits.ofType(UnitType.Resource_Vespene_Geyser);
+        return (Select<Unit>) neutral().ofType(UnitType.Resource_Vespene_Geyser);
     }
 
     /**
@@ -255,7 +288,7 @@ public class Select<T> {
         Select<Unit> selectUnits = new Select<Unit>(units);
         return selectUnits;
     }
-    
+
     /**
      * Create initial search-pool of units from given collection of units.
      */
@@ -264,107 +297,98 @@ public class Select<T> {
         return selectUnits;
     }
 
-
-
     /**
      * Returns all units that are closer than <b>maxDist</b> tiles from given <b>position</b>.
      */
-    public Select<?> inRadius(double maxDist, Position position) {
-        Iterator<T> unitsIterator = data.iterator();// units.iterator();
-        while (unitsIterator.hasNext()) {
-            PositionedObject unit = (PositionedObject) unitsIterator.next();
-            if (PositionUtil.distanceTo(unit.getPosition(),position) > maxDist) {
-                unitsIterator.remove();
-            }
+    public Select<?> inRadius(final double maxDist, final Position position) {
+
+        // Units of single owner are all in the UnitGrid, so only nearby grid cells need to be checked
+        if (owner >= 0 && !hasArea() && !materialized) {
+            radiusCenter = position;
+            radiusMaxDist = maxDist;
+            return this;
         }
 
-        return this;
+        final double maxDistPx = maxDist * TilePosition.SIZE_IN_PIXELS;
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return distanceSq(unitOrData, position) <= maxDistPx * maxDistPx;
+            }
+        });
     }
 
-    // =====================================================================
-    // Filter units
     /**
-     * Selects only units of given type(s).
+     * Returns all units whose position is within the rectangle (in pixels).
      */
-    public Select<?> ofType(UnitType... types) {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-            Object unitOrData = unitsIterator.next();
-            
-            boolean typeMatches = (unitOrData instanceof Unit ? typeMatches((Unit) unitOrData, types) : typeMatches((UnitData) unitOrData, types));
-            
-            
-            /*for (UnitType type : types) {
-                if (unit.getType().equals(type) 
-                        || (unit.getType().equals(UnitType.Zerg_Egg) && unit.getBuildType().equals(type))) {
-                    typeMatches = true;
-                    break;
-                }
-            }*/
-            if (!typeMatches) {
-                unitsIterator.remove();
-            }
+    public Select<T> inRectangle(final Position topLeft, final Position bottomRight) {
+
+        // Units of single owner are all in the UnitGrid, so only grid cells within the rectangle are checked
+        if (owner >= 0 && !hasArea() && !materialized) {
+            rectangleTopLeft = topLeft;
+            rectangleBottomRight = bottomRight;
+            return this;
         }
 
-        return this;
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                Position position = positionOf(unitOrData);
+                return position.getX() >= topLeft.getX() && position.getX() <= bottomRight.getX()
+                        && position.getY() >= topLeft.getY() && position.getY() <= bottomRight.getY();
+            }
+        });
     }
-    
+
+    // =====================================================================
+    // Filter units
     /**
-     * Returns whether the type in needle matches one in the haystack
-     * @param Unit|UnitData needle
-     * @param haystack
-     * @return
+     * Selects only units of given type(s).
      */
-    private boolean typeMatches(Unit needle, UnitType... haystack){
-    	Unit unit = unitFrom(needle);
-    	
-        for (UnitType type : haystack) {
-            if (unit.getType().equals(type) 
-                    || (unit.getType().equals(UnitType.Zerg_Egg) && unit.getBuildType().equals(type))) {
-                return true;
+    public Select<?> ofType(final UnitType... types) {
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return typeMatches(unitOrData, types);
             }
-        }
-        return false;
+        });
     }
-    
+
     /**
-     * Returns whether the type in needle matches one in the haystack
-     * @param needle
-     * @param haystack
-     * @return
+     * Returns whether the type of needle (Unit or UnitData) matches one in the haystack.
+     * Zerg Eggs (and Cocoons) match the type of unit they're morphing into.
      */
-    private boolean typeMatches(UnitData needle, UnitType... haystack){
+    private static boolean typeMatches(Object needle, UnitType... haystack) {
+        UnitType needleType = typeOf(needle);
+        UnitType buildType = null;
 
         for (UnitType type : haystack) {
-            if (needle.getType().equals(type) 
-                    || (needle.getType().equals(UnitType.Zerg_Egg) && needle.getBuildType().equals(type))) {
+            if (needleType.equals(type)) {
                 return true;
             }
+            if (UnitUtil.isEggOrCocoon(needleType)) {
+                if (buildType == null) {
+                    buildType = needle instanceof Unit ? ((Unit) needle).getBuildType()
+                            : ((UnitData) needle).getBuildType();
+                }
+                if (buildType.equals(type)) {
+                    return true;
+                }
+            }
         }
         return false;
     }
-    
+
     /**
-     * Selects only units of given type(s).
+     * Returns number of units of given type(s) in the selection.
      */
     public int countUnitsOfType(UnitType... types) {
         int total = 0;
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-        	Unit unit = unitFrom(unitsIterator.next());
-            boolean typeMatches = false;
-            for (UnitType type : types) {
-                if (unit.getType().equals(type) 
-                        || (unit.getType().equals(UnitType.Zerg_Egg) && unit.getBuildType().equals(type))) {
-                    typeMatches = true;
-                    break;
-                }
-            }
-            if (typeMatches) {
+        for (int pos = nextMatch(0); pos >= 0; pos = nextMatch(pos + 1)) {
+            if (typeMatches(elementAt(pos), types)) {
                 total++;
             }
         }
-
         return total;
     }
 
@@ -372,79 +396,65 @@ public class Select<T> {
      * Selects only those units which are idle. Idle is unit's class flag so be careful with that.
      */
     public Select<T> idle() {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-        	Unit unit = unitFrom(unitsIterator.next());	//TODO: will probably not work with enemy units
-            if (!unit.isIdle()) {
-                unitsIterator.remove();
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return unitFrom(unitOrData).isIdle();	//TODO: will probably not work with enemy units
             }
-        }
-
-        return this;
+        });
     }
 
     /**
      * Selects units that are gathering minerals.
      */
     public Select<T> gatheringMinerals(boolean onlyNotCarryingMinerals) {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-        	Unit unit = unitFrom(unitsIterator.next());	//TODO: will probably not work with enemy units
-            if (!unit.isGatheringMinerals()) {
-                if (onlyNotCarryingMinerals && !unit.isCarryingMinerals()) {
-                    unitsIterator.remove();
-                } else {
-                    unitsIterator.remove();
-                }
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return unitFrom(unitOrData).isGatheringMinerals();	//TODO: will probably not work with enemy units
             }
-        }
-
-        return this;
+        });
     }
 
     /**
      * Selects units being infantry.
      */
     public Select<T> infantry() {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-            UnitData unit = dataFrom(unitsIterator.next());	//(unitOrData instanceof Unit ? (Unit) unitOrData : ((UnitData)unitOrData).getUnit()); 
-            if (!unit.getType().isOrganic()) { //replaced  isInfantry()
-                unitsIterator.remove();
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return typeOf(unitOrData).isOrganic();	//replaced  isInfantry()
             }
-        }
-
-        return this;
+        });
     }
 
     /**
      * Selects only units that do not currently have max hit points.
      */
     public Select<T> wounded() {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-        	Unit unit = unitFrom(unitsIterator.next());	//TODO: will work properly only on visible units
-            // unit.getHitPoints() >= unit.getType().maxHitPoints() replaces !isWounded()
-            if (unit.getHitPoints() >= unit.getType().maxHitPoints()) {
-                unitsIterator.remove();
-            }
-        }
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                Unit unit = unitFrom(unitOrData);	//TODO: will work properly only on visible units
+                int index = WorldSnapshot.indexOf(unit);
+                int hitPoints = index >= 0 ? WorldSnapshot.hitPoints(index) : unit.getHitPoints();
 
-        return this;
+                // hitPoints < maxHitPoints() replaces isWounded()
+                return hitPoints < typeOf(unit).maxHitPoints();
+            }
+        });
     }
 
     /**
      * Selects only buildings.
      */
     public Select<T> buildings() {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-        	UnitData uData = dataFrom(unitsIterator.next());	
-            if (!uData.getType().isBuilding()) {
-                unitsIterator.remove();
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return typeOf(unitOrData).isBuilding();
             }
-        }
-        return this;
+        });
     }
 
     /**
@@ -452,21 +462,20 @@ public class Select<T> {
      * workers - military buildings like Photon Cannon, Bunker, Spore Colony, Sunken Colony
      */
     public Select<T> combatUnits() {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-        	UnitData uData = dataFrom(unitsIterator.next());
-            boolean isMilitaryBuilding = uData.getType().matches(	//TODO: test whether this works on units on fog of war
-                UnitType.Terran_Bunker,
-                UnitType.Protoss_Photon_Cannon,
-                UnitType.Zerg_Sunken_Colony,
-                UnitType.Zerg_Spore_Colony
-            );
-            Unit u = uData.getUnit();	//TODO: will work only on visible units...
-            if (!u.isCompleted() || !u.exists() || (uData.getType().isBuilding() && !isMilitaryBuilding)) {
-                unitsIterator.remove();
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                UnitType type = typeOf(unitOrData);
+                boolean isMilitaryBuilding = type.matches(	//TODO: test whether this works on units on fog of war
+                    UnitType.Terran_Bunker,
+                    UnitType.Protoss_Photon_Cannon,
+                    UnitType.Zerg_Sunken_Colony,
+                    UnitType.Zerg_Spore_Colony
+                );
+                Unit u = unitFrom(unitOrData);	//TODO: will work only on visible units...
+                return isCompletedAndExists(u) && (!type.isBuilding() || isMilitaryBuilding);
             }
-        }
-        return this;
+        });
     }
 
     /**
@@ -475,17 +484,17 @@ public class Select<T> {
      * - not 100% healthy<br />
      */
     public Select<T> toRepair() {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-            Unit unit = unitFrom(unitsIterator.next());
-            
-            //isMechanical replaces  isRepairableMechanically
-            //unit.getHitPoints() >= unit.getType().maxHitPoints() replaces isFullyHealthy
-            if (!unit.getType().isMechanical() || unit.getHitPoints() >= unit.getType().maxHitPoints()  || !unit.isCompleted()) {
-                unitsIterator.remove();
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                Unit unit = unitFrom(unitOrData);
+
+                //isMechanical replaces  isRepairableMechanically
+                //unit.getHitPoints() >= unit.getType().maxHitPoints() replaces isFullyHealthy
+                return unit.getType().isMechanical() && unit.getHitPoints() < unit.getType().maxHitPoints()
+                        && unit.isCompleted();
             }
-        }
-        return this;
+        });
     }
 
     // =========================================================
@@ -493,6 +502,7 @@ public class Select<T> {
     /**
      * Selects all of our bases.
      */
+    @SuppressWarnings("unchecked")
     public static Select<Unit> ourBases() {
         return (Select<Unit>) our().ofType(AtlantisConfig.BASE);	//cast is safe 'cuz our units are visible
     }
@@ -501,31 +511,25 @@ public class Select<T> {
      * Selects our workers (that is of type Terran SCV or Zerg Drone or Protoss Probe).
      */
     public static Select<Unit> ourWorkers() {
-        Select<Unit> selectedUnits = Select.our();
-        //for (Unit unit : selectedUnits.list()) {
-        for (Iterator<Unit> unitIter = selectedUnits.list().iterator(); unitIter.hasNext(); ) {
-        	Unit unit = unitIter.next();
-            if (!unit.getType().isWorker() && unit.exists()) {
-                unitIter.remove();
+        return Select.our().filter(new Condition<Unit>() {
+            @Override
+            public boolean accepts(Unit unit) {
+                return typeOf(unit).isWorker();
             }
-        }
-        return selectedUnits;
+        });
     }
 
     /**
-     * Selects our workers (that is of type Terran SCV or Zerg Drone or Protoss Probe) that are either 
+     * Selects our workers (that is of type Terran SCV or Zerg Drone or Protoss Probe) that are either
      * gathering minerals or gas.
      */
     public static Select<Unit> ourWorkersThatGather() {
-        Select<Unit> selectedUnits = Select.our();
-        //for (Unit unit : selectedUnits.list()) {
-        for (Iterator<Unit> unitIter = selectedUnits.list().iterator(); unitIter.hasNext(); ) {
-        	Unit unit = unitIter.next();
-            if (!unit.getType().isWorker() || (!unit.isGatheringGas() && !unit.isGatheringMinerals())) {
-            	unitIter.remove();
+        return Select.our().filter(new Condition<Unit>() {
+            @Override
+            public boolean accepts(Unit unit) {
+                return typeOf(unit).isWorker() && (unit.isGatheringGas() || unit.isGatheringMinerals());
             }
-        }
-        return selectedUnits;
+        });
     }
 
     /**
@@ -533,16 +537,12 @@ public class Select<T> {
      * repait any other unit or construct other building.
      */
     public static Select<Unit> ourWorkersFreeToBuildOrRepair() {
-        Select<Unit> selectedUnits = ourWorkers();
-
-        for (Iterator<Unit> unitIter = selectedUnits.list().iterator(); unitIter.hasNext(); ) {
-        	Unit unit = unitIter.next();
-            if (unit.isConstructing() || unit.isRepairing()) {
-            	unitIter.remove();
+        return ourWorkers().filter(new Condition<Unit>() {
+            @Override
+            public boolean accepts(Unit unit) {
+                return !unit.isConstructing() && !unit.isRepairing();
             }
-        }
-
-        return selectedUnits;
+        });
     }
 
     /**
@@ -556,19 +556,13 @@ public class Select<T> {
      * Selects all our buildings including those unfinished.
      */
     public static Select<Unit> ourBuildingsIncludingUnfinished() {
-        Select<Unit> selectedUnits = Select.ourIncludingUnfinished();
-        for (Iterator<Unit> unitIter = selectedUnits.list().iterator(); unitIter.hasNext(); ) {
-        	Unit unit = unitIter.next();
-            if (!unit.getType().isBuilding()) {
-            	unitIter.remove();
-            }
-        }
-        return selectedUnits;
+        return ourIncludingUnfinished().buildings();
     }
 
     /**
      * Selects all our tanks, both sieged and unsieged.
      */
+    @SuppressWarnings("unchecked")
     public static Select<Unit> ourTanks() {
     	//cast is safe 'cuz our units are visible
         return (Select<Unit>) our().ofType(UnitType.Terran_Siege_Tank_Siege_Mode, UnitType.Terran_Siege_Tank_Tank_Mode);
@@ -577,6 +571,7 @@ public class Select<T> {
     /**
      * Selects all our sieged tanks.
      */
+    @SuppressWarnings("unchecked")
     public static Select<Unit> ourTanksSieged() {
     	//cast is safe 'cuz our units are visible
         return (Select<Unit>) our().ofType(UnitType.Terran_Siege_Tank_Siege_Mode);
@@ -585,6 +580,7 @@ public class Select<T> {
     /**
      * Selects all of our Marines, Firebats, Ghosts and Medics.
      */
+    @SuppressWarnings("unchecked")
     public static Select<Unit> ourTerranInfantry() {
     	//cast is safe 'cuz our units are visible
         return (Select<Unit>) our().ofType(UnitType.Terran_Marine, UnitType.Terran_Medic,
@@ -594,6 +590,7 @@ public class Select<T> {
     /**
      * Selects all of our Marines, Firebats, Ghosts.
      */
+    @SuppressWarnings("unchecked")
     public static Select<Unit> ourTerranInfantryWithoutMedics() {
     	//cast is safe 'cuz our units are visible
         return (Select<Unit>) our().ofType(UnitType.Terran_Marine,
@@ -604,28 +601,24 @@ public class Select<T> {
      * Selects all of our Zerg Larvas.
      */
     public static Select<Unit> ourLarva() {
-        Select<Unit> selectedUnits = Select.ourIncludingUnfinished();
-        for (Iterator<Unit> unitIter = selectedUnits.list().iterator(); unitIter.hasNext(); ) {
-        	Unit unit = unitIter.next();
-            if (!unit.getType().equals(UnitType.Zerg_Larva)) {
-            	unitIter.remove();
+        return ourIncludingUnfinished().filter(new Condition<Unit>() {
+            @Override
+            public boolean accepts(Unit unit) {
+                return typeOf(unit).equals(UnitType.Zerg_Larva);
             }
-        }
-        return selectedUnits;
+        });
     }
 
     /**
      * Selects all of our Zerg Eggs.
      */
     public static Select<Unit> ourEggs() {
-        Select<Unit> selectedUnits = Select.ourIncludingUnfinished();
-        for (Iterator<Unit> unitIter = selectedUnits.list().iterator(); unitIter.hasNext(); ) {
-        	Unit unit = unitIter.next();
-            if (!unit.getType().equals(UnitType.Zerg_Egg)) {
-            	unitIter.remove();
+        return ourIncludingUnfinished().filter(new Condition<Unit>() {
+            @Override
+            public boolean accepts(Unit unit) {
+                return typeOf(unit).equals(UnitType.Zerg_Egg);
             }
-        }
-        return selectedUnits;
+        });
     }
 
     // =========================================================
@@ -633,13 +626,70 @@ public class Select<T> {
     /**
      * From all units currently in selection, returns closest unit to given <b>position</b>.
      */
+    @SuppressWarnings("unchecked")
     public T nearestTo(Position position) {
-        if (data.isEmpty() || position == null) {
+        if (position == null) {
             return null;
         }
 
-        sortDataByDistanceTo(position, true);
-        return data.get(0);	//first();
+        // Units of single owner are found with the UnitGrid, checking grid cells in rings around the position
+        if (owner >= 0) {
+            int[] best = new int[1];
+            return nearestInGrid(position, 1, best) > 0 ? (T) WorldSnapshot.unit(best[0]) : null;
+        }
+
+        // No need to sort everything just to get the first element
+        T nearest = null;
+        double nearestDistSq = Double.MAX_VALUE;
+        for (int pos = nextMatch(0); pos >= 0; pos = nextMatch(pos + 1)) {
+            T unitOrData = elementAt(pos);
+            double distSq = distanceSq(unitOrData, position);
+            if (distSq < nearestDistSq) {
+                nearest = unitOrData;
+                nearestDistSq = distSq;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * From all units currently in selection, returns at most <b>k</b> units closest to given 
+     * <b>position</b>, nearest first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> nearestTo(Position position, int k) {
+        if (owner >= 0) {
+            int[] best = new int[Math.max(0, k)];
+            int found = nearestInGrid(position, k, best);
+            List<T> result = new ArrayList<>(found);
+            for (int n = 0; n < found; n++) {
+                result.add((T) WorldSnapshot.unit(best[n]));
+            }
+            return result;
+        }
+
+        List<T> sorted = sortDataByDistanceTo(position, true);
+        return new ArrayList<>(sorted.subList(0, Math.min(Math.max(0, k), sorted.size())));
+    }
+
+    /**
+     * Finds (using the UnitGrid) snapshot indices of at most <b>k</b> units of the selection nearest to given
+     * position and returns how many were found. Only for selections of units of single owner.
+     */
+    private int nearestInGrid(Position position, int k, int[] best) {
+        double maxDist = Double.MAX_VALUE;
+        if (radiusCenter != null && radiusCenter.equals(position)) {
+            maxDist = radiusMaxDist;
+        }
+        return UnitGrid.nearestIndices(owner, position.getX(), position.getY(), k, best, maxDist, 
+                new UnitGrid.IndexFilter() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean accepts(int index) {
+                return isInArea(index) && snapshotCondition.accepts(index) 
+                        && acceptsAll((T) WorldSnapshot.unit(index));
+            }
+        });
     }
 
     /**
@@ -648,8 +698,7 @@ public class Select<T> {
      */
     public static Unit mainBase() {
         if (_cached_mainBase == null) {
-            List<Unit> bases = ourBases().list();	
-            _cached_mainBase = bases.isEmpty() ? null : bases.get(0);	//first();
+            _cached_mainBase = ourBases().first();
         }
         return _cached_mainBase;
     }
@@ -658,14 +707,12 @@ public class Select<T> {
      * Returns second (natural) base <b>or if we have only one base</b>, it returns the only base we have.
      */
     public static Unit secondBaseOrMainIfNoSecond() {
-        Collection<Unit> bases = Select.ourBases().list();
+        List<Unit> bases = Select.ourBases().list();
         if (bases.size() <= 1) {
-            return bases.iterator().next();
+            return bases.get(0);
         }
         else {
-            Iterator<Unit> iterator = bases.iterator();
-            iterator.next();
-            return iterator.next();
+            return bases.get(1);
         }
     }
 
@@ -673,14 +720,16 @@ public class Select<T> {
      * Returns first idle our unit of given type or null if no idle units found.
      */
     public static Unit ourOneIdle(UnitType type) {
-        for (Unit unit : Atlantis.getBwapi().self().getUnits()) {
-            if (unit.isCompleted() && unit.isIdle() && unit.getType().equals(type)) {
-                return unit;
+        WorldSnapshot.ensureUpToDate();
+        for (int i = 0; i < WorldSnapshot.size(); i++) {
+            if (WorldSnapshot.isOur(i) && WorldSnapshot.isCompleted(i) && WorldSnapshot.type(i).equals(type)
+                    && WorldSnapshot.unit(i).isIdle()) {
+                return WorldSnapshot.unit(i);
             }
         }
         return null;
     }
-    
+
     /**
      * Returns nearest enemy to the given position (or unit).
      */
@@ -694,39 +743,95 @@ public class Select<T> {
      * Returns <b>true</b> if current selection contains at least one unit.
      */
     public boolean anyExists() {
-        return !data.isEmpty();
+        return nextMatch(0) >= 0;
     }
 
     /**
      * Returns first unit that matches previous conditions or null if no units match conditions.
      */
     public T first() {
-        return data.isEmpty() ? null : data.get(0);	// first();
+        int pos = nextMatch(0);
+        return pos >= 0 ? elementAt(pos) : null;
     }
 
     /**
      * Returns random unit that matches previous conditions or null if no units matched all conditions.
      */
+    @SuppressWarnings("unchecked")
     public T random() {
-        return (T) RUtilities.getRandomElement(data); //units.random();
+        return (T) RUtilities.getRandomElement(list()); //units.random();
     }
-    
+
     /**
      * Returns a Unit out of an entity that is either a Unit or UnitData
      * @param unitOrData
      * @return
      */
-    private Unit unitFrom(Object unitOrData){
+    private static Unit unitFrom(Object unitOrData){
     	return (unitOrData instanceof Unit ? (Unit) unitOrData : ((UnitData)unitOrData).getUnit());
     }
-    
+
     /**
-     * Returns a UnitData out of an entity that is either a Unit or UnitData
-     * @param unitOrData
-     * @return
+     * Returns type of Unit or UnitData. For units present in the WorldSnapshot it doesn't call native getType().
+     */
+    private static UnitType typeOf(Object unitOrData) {
+        if (unitOrData instanceof UnitData) {
+            return ((UnitData) unitOrData).getType();
+        }
+        Unit unit = (Unit) unitOrData;
+        int index = WorldSnapshot.indexOf(unit);
+        return index >= 0 ? WorldSnapshot.type(index) : unit.getType();
+    }
+
+    /**
+     * Returns true if unit is completed and exists, using WorldSnapshot if possible.
+     */
+    private static boolean isCompletedAndExists(Unit unit) {
+        int index = WorldSnapshot.indexOf(unit);
+        if (index >= 0) {
+            return WorldSnapshot.isCompleted(index) && WorldSnapshot.exists(index);
+        }
+        return unit.isCompleted() && unit.exists();
+    }
+
+    /**
+     * Returns squared distance in pixels between given Unit or UnitData and given position. For units present
+     * in the WorldSnapshot it doesn't call native getPosition().
+     */
+    private static double distanceSq(Object unitOrData, Position position) {
+        int x, y;
+        int index = unitOrData instanceof Unit ? WorldSnapshot.indexOf((Unit) unitOrData) : -1;
+        if (index >= 0) {
+            x = WorldSnapshot.x(index);
+            y = WorldSnapshot.y(index);
+        }
+        else {
+            Position unitPosition = ((PositionedObject) unitOrData).getPosition();
+            x = unitPosition.getX();
+            y = unitPosition.getY();
+        }
+        double dx = x - position.getX();
+        double dy = y - position.getY();
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Returns position of given Unit or UnitData. For units present in the WorldSnapshot it doesn't call
+     * native getPosition().
+     */
+    private static Position positionOf(Object unitOrData) {
+        int index = unitOrData instanceof Unit ? WorldSnapshot.indexOf((Unit) unitOrData) : -1;
+        if (index >= 0) {
+            return new Position(WorldSnapshot.x(index), WorldSnapshot.y(index));
+        }
+        return ((PositionedObject) unitOrData).getPosition();
+    }
+
+    /**
+     * Spider mines, larvas and eggs aren't really units.
      */
-    private UnitData dataFrom(Object unitOrData){
-    	return (unitOrData instanceof UnitData ? (UnitData) unitOrData : new UnitData((Unit) unitOrData) );
+    private static boolean isNotActuallyUnit(UnitType type) {
+        return type.matches(UnitType.Terran_Vulture_Spider_Mine, UnitType.Zerg_Larva, UnitType.Zerg_Egg);
     }
 
     // =========================================================
@@ -734,76 +839,192 @@ public class Select<T> {
     /**
      * @return all units except for the given one
      */
-    public Select<T> exclude(T unitToExclude) {
-        data.remove(unitToExclude);
-        return this;
+    public Select<T> exclude(final T unitToExclude) {
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return unitOrData != unitToExclude;
+            }
+        });
     }
 
     @SuppressWarnings("unused")
-    private Select<T> filterOut(Collection<T> unitsToRemove) {
-        data.removeAll(unitsToRemove);
-        return this;
+    private Select<T> filterOut(final Collection<T> unitsToRemove) {
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return !unitsToRemove.contains(unitOrData);
+            }
+        });
     }
 
-    // private SelectUnits filterOut(Unit unitToRemove) {
-    // // units.removeUnit(unitToRemove);
-    // Iterator<Unit> unitsIterator = units.iterator();
-    // while (unitsIterator.hasNext()) {
-    // Unit unit = unitsIterator.next();
-    // if (unitToRemove.equals(unit)) {
-    // units.removeUnit(unit);
-    // }
-    // }
-    // return this;
-    // }
     @SuppressWarnings("unused")
-    private Select<T> filterAllBut(T unitToLeave) {
-        Iterator<T> unitsIterator = data.iterator();
-        while (unitsIterator.hasNext()) {
-            T unit = unitsIterator.next();
-            if (unitToLeave != unit) {
-                data.remove(unit);
+    private Select<T> filterAllBut(final T unitToLeave) {
+        return filter(new Condition<T>() {
+            @Override
+            public boolean accepts(T unitOrData) {
+                return unitOrData == unitToLeave;
             }
-        }
-        return this;
+        });
     }
 
     @Override
     public String toString() {
-    	 String string = "Units (" + data.size() + "):\n";
+        List<T> data = list();
+        String string = "Units (" + data.size() + "):\n";
 
-         for (Object unitOrData : data) {
-        	 Unit unit = unitFrom(unitOrData);
-             string += "   - " + unit.getType() + " (ID:" + unit.getID() + ")\n";
-         }
+        for (Object unitOrData : data) {
+            Unit unit = unitFrom(unitOrData);
+            string += "   - " + unit.getType() + " (ID:" + unit.getID() + ")\n";
+        }
 
-         return string;
+        return string;
     }
 
     // =========================================================
-    // Get results
+    // Lazy evaluation
     /**
-     * Selects units that match all previous criteria. <b>Units</b> class is used as a wrapper for result. See
-     * its javadoc too learn what it can do.
-     *
-    public Units units() {
-        return units;
-    }*/
+     * Adds condition that will be checked, together with all other conditions, only when the result is needed.
+     */
+    private Select<T> filter(Condition<T> condition) {
+        materialized = false;
+        conditions.add(condition);
+        return this;
+    }
 
+    /**
+     * Returns position (in the snapshot, in radius candidates or in the source list) of the first unit at or
+     * after <b>from</b> that fulfills all conditions or -1 if there is no such unit.
+     */
+    private int nextMatch(int from) {
+        if (owner >= 0 && hasArea() && areaIndices == null) {
+            if (radiusCenter != null) {
+                areaIndices = UnitGrid.indicesInRadius(owner, radiusCenter.getX(), radiusCenter.getY(), 
+                        radiusMaxDist);
+            }
+            else {
+                areaIndices = UnitGrid.indicesInRectangle(owner, rectangleTopLeft.getX(), 
+                        rectangleTopLeft.getY(), rectangleBottomRight.getX(), rectangleBottomRight.getY());
+            }
+        }
+
+        // Units of given owner are stored in the snapshot one after another
+        if (owner >= 0 && areaIndices == null) {
+            from = Math.max(from, WorldSnapshot.ownerStart(owner));
+        }
+
+        int sourceSize = sourceSize();
+        for (int pos = from; pos < sourceSize; pos++) {
+            if (owner >= 0) {
+                int index = areaIndices != null ? areaIndices[pos] : pos;
+                if (!snapshotCondition.accepts(index)) {
+                    continue;
+                }
+            }
+            if (acceptsAll(elementAt(pos))) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private int sourceSize() {
+        if (owner < 0) {
+            return source.size();
+        }
+        return areaIndices != null ? areaIndices.length : WorldSnapshot.ownerEnd(owner);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int pos) {
+        if (owner < 0) {
+            return source.get(pos);
+        }
+        return (T) WorldSnapshot.unit(areaIndices != null ? areaIndices[pos] : pos);
+    }
+
+    private boolean hasArea() {
+        return radiusCenter != null || rectangleTopLeft != null;
+    }
+
+    /**
+     * Returns true if unit stored in the WorldSnapshot under given index is within the area of this selection
+     * (or if there's no area).
+     */
+    private boolean isInArea(int index) {
+        int x = WorldSnapshot.x(index);
+        int y = WorldSnapshot.y(index);
+        if (radiusCenter != null) {
+            double maxDistPx = radiusMaxDist * TilePosition.SIZE_IN_PIXELS;
+            double dx = x - radiusCenter.getX();
+            double dy = y - radiusCenter.getY();
+            return dx * dx + dy * dy <= maxDistPx * maxDistPx;
+        }
+        if (rectangleTopLeft != null) {
+            return x >= rectangleTopLeft.getX() && x <= rectangleBottomRight.getX()
+                    && y >= rectangleTopLeft.getY() && y <= rectangleBottomRight.getY();
+        }
+        return true;
+    }
+
+    private boolean acceptsAll(T unitOrData) {
+        for (int c = 0; c < conditions.size(); c++) {
+            if (!conditions.get(c).accepts(unitOrData)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates all conditions once and replaces them with the resulting list.
+     */
+    private void materialize() {
+        if (materialized) {
+            return;
+        }
+
+        List<T> result = new ArrayList<>();
+        for (int pos = nextMatch(0); pos >= 0; pos = nextMatch(pos + 1)) {
+            result.add(elementAt(pos));
+        }
+
+        owner = -1;
+        snapshotCondition = null;
+        radiusCenter = null;
+        rectangleTopLeft = null;
+        rectangleBottomRight = null;
+        areaIndices = null;
+        conditions.clear();
+        source = result;
+        materialized = true;
+    }
+
+    // =========================================================
+    // Get results
     /**
      * Selects units as an iterable collection (list).
      */
     public List<T> list() {
-        return data;
+        materialize();
+        return source;
     }
 
     /**
      * Returns number of units matching all previous conditions.
      */
     public int count() {
-        return data.size();
+        if (materialized) {
+            return source.size();
+        }
+
+        int total = 0;
+        for (int pos = nextMatch(0); pos >= 0; pos = nextMatch(pos + 1)) {
+            total++;
+        }
+        return total;
     }
-    
+
     /**
      * Sorts data list by distance to a given position
      * @param position
@@ -814,7 +1035,8 @@ public class Select<T> {
         if (position == null) {
             return null;
         }
-        
+
+        List<T> data = list();
         Collections.sort(data, new Comparator<T>() {
             @Override
             public int compare(T p1, T p2) {
@@ -824,10 +1046,8 @@ public class Select<T> {
                 if (p2 == null || !(p2 instanceof PositionedObject)) {
                     return 1;
                 }
-                UnitData data1 = dataFrom(p1);
-                UnitData data2 = dataFrom(p2);
-                double distance1 = PositionUtil.distanceTo(position, data1.getPosition());	//TODO: check whether this doesn't mix up position types
-                double distance2 = PositionUtil.distanceTo(position, data2.getPosition());
+                double distance1 = distanceSq(p1, position);
+                double distance2 = distanceSq(p2, position);
                 if (distance1 == distance2) {
                     return 0;
                 }
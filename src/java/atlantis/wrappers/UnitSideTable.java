@@ -0,0 +1,129 @@
+package atlantis.wrappers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import bwapi.Unit;
+
+/**
+ * Stores one value per unit in an array indexed by BWAPI unit ID. Unit IDs are small and dense, so this
+ * is much cheaper than <b>HashMap&lt;Unit, T&gt;</b> and doesn't box anything. Unit ID is cached in the Unit
+ * object, so lookups don't cross JNI.
+ * <br />
+ * Every table is registered on creation and entries of destroyed units are removed from all tables by
+ * <b>UnitSideTable.forgetUnit()</b>, called from <b>onUnitDestroy</b>.
+ */
+public class UnitSideTable<T> {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * All tables created so far.
+     */
+    private static final List<UnitSideTable<?>> tables = new ArrayList<>();
+
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // =========================================================
+    public UnitSideTable() {
+        tables.add(this);
+    }
+
+    // =========================================================
+    // Static methods
+    /**
+     * Removes value stored for unit with given ID from every table.
+     */
+    public static void forgetUnit(int unitID) {
+        for (UnitSideTable<?> table : tables) {
+            table.remove(unitID);
+        }
+    }
+
+    // =========================================================
+    // Value mapping methods
+    public T get(Unit unit) {
+        return get(unit.getID());
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int unitID) {
+        if (unitID < 0 || unitID >= values.length) {
+            return null;
+        }
+        return (T) values[unitID];
+    }
+
+    /**
+     * Stores value for given unit and returns the previous one (or null).
+     */
+    public T put(Unit unit, T value) {
+        return put(unit.getID(), value);
+    }
+
+    public T put(int unitID, T value) {
+        if (value == null) {
+            return remove(unitID);
+        }
+        if (unitID >= values.length) {
+            values = Arrays.copyOf(values, Math.max(unitID + 1, 2 * values.length));
+        }
+        T previous = get(unitID);
+        values[unitID] = value;
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    public T remove(Unit unit) {
+        return remove(unit.getID());
+    }
+
+    public T remove(int unitID) {
+        T previous = get(unitID);
+        if (previous != null) {
+            values[unitID] = null;
+            size--;
+        }
+        return previous;
+    }
+
+    public boolean containsKey(Unit unit) {
+        return get(unit.getID()) != null;
+    }
+
+    public boolean containsKey(int unitID) {
+        return get(unitID) != null;
+    }
+
+    /**
+     * Returns all stored values, ordered by unit ID.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> values() {
+        List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < values.length && result.size() < size; i++) {
+            if (values[i] != null) {
+                result.add((T) values[i]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+}
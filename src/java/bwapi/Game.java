@@ -0,0 +1,1387 @@
+package bwapi;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+The Game class is implemented by BWAPI and is the primary means of obtaining all game state information from Starcraft Broodwar. Game state information includes all units, resources, players, forces, bullets, terrain, fog of war, regions, etc.
+*/
+public class Game {
+
+    public List<Force> getForces() {
+        return getForces_native(pointer);
+    }
+
+    public List<Player> getPlayers() {
+        return getPlayers_native(pointer);
+    }
+
+    public List<Unit> getAllUnits() {
+        return getAllUnits_native(pointer);
+    }
+
+    public List<Unit> getMinerals() {
+        return getMinerals_native(pointer);
+    }
+
+    public List<Unit> getGeysers() {
+        return getGeysers_native(pointer);
+    }
+
+    public List<Unit> getNeutralUnits() {
+        return getNeutralUnits_native(pointer);
+    }
+
+    public List<Unit> getStaticMinerals() {
+        return getStaticMinerals_native(pointer);
+    }
+
+    public List<Unit> getStaticGeysers() {
+        return getStaticGeysers_native(pointer);
+    }
+
+    public List<Unit> getStaticNeutralUnits() {
+        return getStaticNeutralUnits_native(pointer);
+    }
+
+    public List<Bullet> getBullets() {
+        return getBullets_native(pointer);
+    }
+
+    public List<Position> getNukeDots() {
+        return getNukeDots_native(pointer);
+    }
+
+    public Force getForce(int id) {
+        return getForce_native(pointer, id);
+    }
+
+    public Player getPlayer(int id) {
+        return getPlayer_native(pointer, id);
+    }
+
+    public Unit getUnit(int id) {
+        return getUnit_native(pointer, id);
+    }
+
+    public Unit indexToUnit(int index) {
+        return indexToUnit_native(pointer, index);
+    }
+
+    public Region getRegion(int id) {
+        return getRegion_native(pointer, id);
+    }
+
+    public GameType getGameType() {
+        return getGameType_native(pointer);
+    }
+
+    public int getLatency() {
+        return getLatency_native(pointer);
+    }
+
+    public int getFrameCount() {
+        return getFrameCount_native(pointer);
+    }
+
+    public int getReplayFrameCount() {
+        return getReplayFrameCount_native(pointer);
+    }
+
+    public int getFPS() {
+        return getFPS_native(pointer);
+    }
+
+    public double getAverageFPS() {
+        return getAverageFPS_native(pointer);
+    }
+
+    public Position getMousePosition() {
+        return getMousePosition_native(pointer);
+    }
+
+    public boolean getMouseState(MouseButton mouseButton) {
+        return getMouseState_native(pointer, mouseButton);
+    }
+
+    public boolean getKeyState(Key key) {
+        return getKeyState_native(pointer, key);
+    }
+
+    public Position getScreenPosition() {
+        return getScreenPosition_native(pointer);
+    }
+
+    public void setScreenPosition(int x, int y) {
+        setScreenPosition_native(pointer, x, y);
+    }
+
+    public void setScreenPosition(Position position) {
+        setScreenPosition_native(pointer, position);
+    }
+
+    public void pingMinimap(int x, int y) {
+        pingMinimap_native(pointer, x, y);
+    }
+
+    public void pingMinimap(Position position) {
+        pingMinimap_native(pointer, position);
+    }
+
+    public boolean isFlagEnabled(int flag) {
+        return isFlagEnabled_native(pointer, flag);
+    }
+
+    public void enableFlag(int flag) {
+        enableFlag_native(pointer, flag);
+    }
+
+    public List<Unit> getUnitsOnTile(int x, int y) {
+        return getUnitsOnTile_native(pointer, x, y);
+    }
+
+    public List<Unit> getUnitsOnTile(TilePosition tilePosition) {
+        return getUnitsOnTile_native(pointer, tilePosition);
+    }
+
+    public List<Unit> getUnitsInRectangle(int left, int top, int right, int bottom) {
+        return getUnitsInRectangle_native(pointer, left, top, right, bottom);
+    }
+
+    public List<Unit> getUnitsInRectangle(Position position1, Position position2) {
+        return getUnitsInRectangle_native(pointer, position1, position2);
+    }
+
+    public List<Unit> getUnitsInRadius(int x, int y, int radius) {
+        return getUnitsInRadius_native(pointer, x, y, radius);
+    }
+
+    public List<Unit> getUnitsInRadius(Position position, int radius) {
+        return getUnitsInRadius_native(pointer, position, radius);
+    }
+
+    public Error getLastError() {
+        return getLastError_native(pointer);
+    }
+
+    public boolean setLastError() {
+        return setLastError_native(pointer);
+    }
+
+    public boolean setLastError(Error error) {
+        return setLastError_native(pointer, error);
+    }
+
+    public int mapWidth() {
+        return mapWidth_native(pointer);
+    }
+
+    public int mapHeight() {
+        return mapHeight_native(pointer);
+    }
+
+    public String mapFileName() {
+        return mapFileName_native(pointer);
+    }
+
+    public String mapPathName() {
+        return mapPathName_native(pointer);
+    }
+
+    public String mapName() {
+        return mapName_native(pointer);
+    }
+
+    public String mapHash() {
+        return mapHash_native(pointer);
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return isWalkable_native(pointer, x, y);
+    }
+
+    public boolean isWalkable(WalkPosition walkPosition) {
+        return isWalkable_native(pointer, walkPosition);
+    }
+
+    public int getGroundHeight(int x, int y) {
+        return getGroundHeight_native(pointer, x, y);
+    }
+
+    public int getGroundHeight(TilePosition tilePosition) {
+        return getGroundHeight_native(pointer, tilePosition);
+    }
+
+    public boolean isBuildable(int x, int y) {
+        return isBuildable_native(pointer, x, y);
+    }
+
+    public boolean isBuildable(int x, int y, boolean includeBuildings) {
+        return isBuildable_native(pointer, x, y, includeBuildings);
+    }
+
+    public boolean isBuildable(TilePosition tilePosition) {
+        return isBuildable_native(pointer, tilePosition);
+    }
+
+    public boolean isBuildable(TilePosition tilePosition, boolean includeBuildings) {
+        return isBuildable_native(pointer, tilePosition, includeBuildings);
+    }
+
+    public boolean isVisible(int x, int y) {
+        return isVisible_native(pointer, x, y);
+    }
+
+    public boolean isVisible(TilePosition tilePosition) {
+        return isVisible_native(pointer, tilePosition);
+    }
+
+    public boolean isExplored(int x, int y) {
+        return isExplored_native(pointer, x, y);
+    }
+
+    public boolean isExplored(TilePosition tilePosition) {
+        return isExplored_native(pointer, tilePosition);
+    }
+
+    public boolean hasCreep(int x, int y) {
+        return hasCreep_native(pointer, x, y);
+    }
+
+    public boolean hasCreep(TilePosition tilePosition) {
+        return hasCreep_native(pointer, tilePosition);
+    }
+
+    public boolean hasPowerPrecise(int x, int y) {
+        return hasPowerPrecise_native(pointer, x, y);
+    }
+
+    public boolean hasPowerPrecise(int x, int y, UnitType unitType) {
+        return hasPowerPrecise_native(pointer, x, y, unitType);
+    }
+
+    public boolean hasPowerPrecise(Position position) {
+        return hasPowerPrecise_native(pointer, position);
+    }
+
+    public boolean hasPowerPrecise(Position position, UnitType unitType) {
+        return hasPowerPrecise_native(pointer, position, unitType);
+    }
+
+    public boolean hasPower(int x, int y) {
+        return hasPower_native(pointer, x, y);
+    }
+
+    public boolean hasPower(int x, int y, UnitType unitType) {
+        return hasPower_native(pointer, x, y, unitType);
+    }
+
+    public boolean hasPower(TilePosition tilePosition) {
+        return hasPower_native(pointer, tilePosition);
+    }
+
+    public boolean hasPower(TilePosition tilePosition, UnitType unitType) {
+        return hasPower_native(pointer, tilePosition, unitType);
+    }
+
+    public boolean hasPower(int tileX, int tileY, int tileWidth, int tileHeight) {
+        return hasPower_native(pointer, tileX, tileY, tileWidth, tileHeight);
+    }
+
+    public boolean hasPower(int tileX, int tileY, int tileWidth, int tileHeight, UnitType unitType) {
+        return hasPower_native(pointer, tileX, tileY, tileWidth, tileHeight, unitType);
+    }
+
+    public boolean hasPower(TilePosition tilePosition, int tileWidth, int tileHeight) {
+        return hasPower_native(pointer, tilePosition, tileWidth, tileHeight);
+    }
+
+    public boolean hasPower(TilePosition tilePosition, int tileWidth, int tileHeight, UnitType unitType) {
+        return hasPower_native(pointer, tilePosition, tileWidth, tileHeight, unitType);
+    }
+
+    public boolean canBuildHere(TilePosition tilePosition, UnitType unitType, Unit unit) {
+        return canBuildHere_native(pointer, tilePosition, unitType, unit);
+    }
+
+    public boolean canBuildHere(TilePosition tilePosition, UnitType unitType) {
+        return canBuildHere_native(pointer, tilePosition, unitType);
+    }
+
+    public boolean canBuildHere(TilePosition tilePosition, UnitType unitType, Unit unit, boolean checkExplored) {
+        return canBuildHere_native(pointer, tilePosition, unitType, unit, checkExplored);
+    }
+
+    public boolean canMake(UnitType unitType) {
+        return canMake_native(pointer, unitType);
+    }
+
+    public boolean canMake(UnitType unitType, Unit unit) {
+        return canMake_native(pointer, unitType, unit);
+    }
+
+    public boolean canResearch(TechType techType, Unit unit) {
+        return canResearch_native(pointer, techType, unit);
+    }
+
+    public boolean canResearch(TechType techType) {
+        return canResearch_native(pointer, techType);
+    }
+
+    public boolean canResearch(TechType techType, Unit unit, boolean checkCanIssueCommandType) {
+        return canResearch_native(pointer, techType, unit, checkCanIssueCommandType);
+    }
+
+    public boolean canUpgrade(UpgradeType upgradeType, Unit unit) {
+        return canUpgrade_native(pointer, upgradeType, unit);
+    }
+
+    public boolean canUpgrade(UpgradeType upgradeType) {
+        return canUpgrade_native(pointer, upgradeType);
+    }
+
+    public boolean canUpgrade(UpgradeType upgradeType, Unit unit, boolean checkCanIssueCommandType) {
+        return canUpgrade_native(pointer, upgradeType, unit, checkCanIssueCommandType);
+    }
+
+    public List<TilePosition> getStartLocations() {
+        return getStartLocations_native(pointer);
+    }
+
+    public void printf(String text) {
+        printf_native(pointer, text);
+    }
+
+    public void sendText(String text) {
+        sendText_native(pointer, text);
+    }
+
+    public void sendTextEx(boolean toAllies, String text) {
+        sendTextEx_native(pointer, toAllies, text);
+    }
+
+    public boolean isInGame() {
+        return isInGame_native(pointer);
+    }
+
+    public boolean isMultiplayer() {
+        return isMultiplayer_native(pointer);
+    }
+
+    public boolean isBattleNet() {
+        return isBattleNet_native(pointer);
+    }
+
+    public boolean isPaused() {
+        return isPaused_native(pointer);
+    }
+
+    public boolean isReplay() {
+        return isReplay_native(pointer);
+    }
+
+    public void pauseGame() {
+        pauseGame_native(pointer);
+    }
+
+    public void resumeGame() {
+        resumeGame_native(pointer);
+    }
+
+    public void leaveGame() {
+        leaveGame_native(pointer);
+    }
+
+    public void restartGame() {
+        restartGame_native(pointer);
+    }
+
+    public void setLocalSpeed(int speed) {
+        setLocalSpeed_native(pointer, speed);
+    }
+
+    public boolean issueCommand(List<Unit> list, UnitCommand unitCommand) {
+        return issueCommand_native(pointer, list, unitCommand);
+    }
+
+    public List<Unit> getSelectedUnits() {
+        return getSelectedUnits_native(pointer);
+    }
+
+    public Player self() {
+        return self_native(pointer);
+    }
+
+    public Player enemy() {
+        return enemy_native(pointer);
+    }
+
+    public Player neutral() {
+        return neutral_native(pointer);
+    }
+
+    public List<Player> allies() {
+        return allies_native(pointer);
+    }
+
+    public List<Player> enemies() {
+        return enemies_native(pointer);
+    }
+
+    public List<Player> observers() {
+        return observers_native(pointer);
+    }
+
+    public void setTextSize() {
+        setTextSize_native(pointer);
+    }
+
+    public void setTextSize(bwapi.Text.Size.Enum text) {
+        setTextSize_native(pointer, text);
+    }
+
+    public void drawText(bwapi.CoordinateType.Enum coordinateType, int x, int y, String text) {
+        drawText_native(pointer, coordinateType, x, y, text);
+    }
+
+    public void drawTextMap(int x, int y, String text) {
+        drawTextMap_native(pointer, x, y, text);
+    }
+
+    public void drawTextMap(Position position, String text) {
+        drawTextMap_native(pointer, position, text);
+    }
+
+    public void drawTextMouse(int x, int y, String text) {
+        drawTextMouse_native(pointer, x, y, text);
+    }
+
+    public void drawTextMouse(Position position, String text) {
+        drawTextMouse_native(pointer, position, text);
+    }
+
+    public void drawTextScreen(int x, int y, String text) {
+        drawTextScreen_native(pointer, x, y, text);
+    }
+
+    public void drawTextScreen(Position position, String text) {
+        drawTextScreen_native(pointer, position, text);
+    }
+
+    public void drawBox(bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color) {
+        drawBox_native(pointer, coordinateType, x1, y1, x2, y2, color);
+    }
+
+    public void drawBox(bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color, boolean isSolid) {
+        drawBox_native(pointer, coordinateType, x1, y1, x2, y2, color, isSolid);
+    }
+
+    public void drawBoxMap(int x1, int y1, int x2, int y2, Color color) {
+        drawBoxMap_native(pointer, x1, y1, x2, y2, color);
+    }
+
+    public void drawBoxMap(int x1, int y1, int x2, int y2, Color color, boolean isSolid) {
+        drawBoxMap_native(pointer, x1, y1, x2, y2, color, isSolid);
+    }
+
+    public void drawBoxMap(Position position1, Position position2, Color color) {
+        drawBoxMap_native(pointer, position1, position2, color);
+    }
+
+    public void drawBoxMap(Position position1, Position position2, Color color, boolean isSolid) {
+        drawBoxMap_native(pointer, position1, position2, color, isSolid);
+    }
+
+    public void drawBoxMouse(int x1, int y1, int x2, int y2, Color color) {
+        drawBoxMouse_native(pointer, x1, y1, x2, y2, color);
+    }
+
+    public void drawBoxMouse(int x1, int y1, int x2, int y2, Color color, boolean isSolid) {
+        drawBoxMouse_native(pointer, x1, y1, x2, y2, color, isSolid);
+    }
+
+    public void drawBoxMouse(Position position1, Position position2, Color color) {
+        drawBoxMouse_native(pointer, position1, position2, color);
+    }
+
+    public void drawBoxMouse(Position position1, Position position2, Color color, boolean isSolid) {
+        drawBoxMouse_native(pointer, position1, position2, color, isSolid);
+    }
+
+    public void drawBoxScreen(int x1, int y1, int x2, int y2, Color color) {
+        drawBoxScreen_native(pointer, x1, y1, x2, y2, color);
+    }
+
+    public void drawBoxScreen(int x1, int y1, int x2, int y2, Color color, boolean isSolid) {
+        drawBoxScreen_native(pointer, x1, y1, x2, y2, color, isSolid);
+    }
+
+    public void drawBoxScreen(Position position1, Position position2, Color color) {
+        drawBoxScreen_native(pointer, position1, position2, color);
+    }
+
+    public void drawBoxScreen(Position position1, Position position2, Color color, boolean isSolid) {
+        drawBoxScreen_native(pointer, position1, position2, color, isSolid);
+    }
+
+    public void drawTriangle(bwapi.CoordinateType.Enum coordinateType, int ax, int ay, int bx, int by, int cx, int cy, Color color) {
+        drawTriangle_native(pointer, coordinateType, ax, ay, bx, by, cx, cy, color);
+    }
+
+    public void drawTriangle(bwapi.CoordinateType.Enum coordinateType, int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid) {
+        drawTriangle_native(pointer, coordinateType, ax, ay, bx, by, cx, cy, color, isSolid);
+    }
+
+    public void drawTriangleMap(int ax, int ay, int bx, int by, int cx, int cy, Color color) {
+        drawTriangleMap_native(pointer, ax, ay, bx, by, cx, cy, color);
+    }
+
+    public void drawTriangleMap(int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid) {
+        drawTriangleMap_native(pointer, ax, ay, bx, by, cx, cy, color, isSolid);
+    }
+
+    public void drawTriangleMap(Position position1, Position position2, Position position3, Color color) {
+        drawTriangleMap_native(pointer, position1, position2, position3, color);
+    }
+
+    public void drawTriangleMap(Position position1, Position position2, Position position3, Color color, boolean isSolid) {
+        drawTriangleMap_native(pointer, position1, position2, position3, color, isSolid);
+    }
+
+    public void drawTriangleMouse(int ax, int ay, int bx, int by, int cx, int cy, Color color) {
+        drawTriangleMouse_native(pointer, ax, ay, bx, by, cx, cy, color);
+    }
+
+    public void drawTriangleMouse(int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid) {
+        drawTriangleMouse_native(pointer, ax, ay, bx, by, cx, cy, color, isSolid);
+    }
+
+    public void drawTriangleMouse(Position position1, Position position2, Position position3, Color color) {
+        drawTriangleMouse_native(pointer, position1, position2, position3, color);
+    }
+
+    public void drawTriangleMouse(Position position1, Position position2, Position position3, Color color, boolean isSolid) {
+        drawTriangleMouse_native(pointer, position1, position2, position3, color, isSolid);
+    }
+
+    public void drawTriangleScreen(int ax, int ay, int bx, int by, int cx, int cy, Color color) {
+        drawTriangleScreen_native(pointer, ax, ay, bx, by, cx, cy, color);
+    }
+
+    public void drawTriangleScreen(int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid) {
+        drawTriangleScreen_native(pointer, ax, ay, bx, by, cx, cy, color, isSolid);
+    }
+
+    public void drawTriangleScreen(Position position1, Position position2, Position position3, Color color) {
+        drawTriangleScreen_native(pointer, position1, position2, position3, color);
+    }
+
+    public void drawTriangleScreen(Position position1, Position position2, Position position3, Color color, boolean isSolid) {
+        drawTriangleScreen_native(pointer, position1, position2, position3, color, isSolid);
+    }
+
+    public void drawCircle(bwapi.CoordinateType.Enum coordinateType, int x, int y, int radius, Color color) {
+        drawCircle_native(pointer, coordinateType, x, y, radius, color);
+    }
+
+    public void drawCircle(bwapi.CoordinateType.Enum coordinateType, int x, int y, int radius, Color color, boolean isSolid) {
+        drawCircle_native(pointer, coordinateType, x, y, radius, color, isSolid);
+    }
+
+    public void drawCircleMap(int x, int y, int radius, Color color) {
+        drawCircleMap_native(pointer, x, y, radius, color);
+    }
+
+    public void drawCircleMap(int x, int y, int radius, Color color, boolean isSolid) {
+        drawCircleMap_native(pointer, x, y, radius, color, isSolid);
+    }
+
+    public void drawCircleMap(Position position, int radius, Color color) {
+        drawCircleMap_native(pointer, position, radius, color);
+    }
+
+    public void drawCircleMap(Position position, int radius, Color color, boolean isSolid) {
+        drawCircleMap_native(pointer, position, radius, color, isSolid);
+    }
+
+    public void drawCircleMouse(int x, int y, int radius, Color color) {
+        drawCircleMouse_native(pointer, x, y, radius, color);
+    }
+
+    public void drawCircleMouse(int x, int y, int radius, Color color, boolean isSolid) {
+        drawCircleMouse_native(pointer, x, y, radius, color, isSolid);
+    }
+
+    public void drawCircleMouse(Position position, int radius, Color color) {
+        drawCircleMouse_native(pointer, position, radius, color);
+    }
+
+    public void drawCircleMouse(Position position, int radius, Color color, boolean isSolid) {
+        drawCircleMouse_native(pointer, position, radius, color, isSolid);
+    }
+
+    public void drawCircleScreen(int x, int y, int radius, Color color) {
+        drawCircleScreen_native(pointer, x, y, radius, color);
+    }
+
+    public void drawCircleScreen(int x, int y, int radius, Color color, boolean isSolid) {
+        drawCircleScreen_native(pointer, x, y, radius, color, isSolid);
+    }
+
+    public void drawCircleScreen(Position position, int radius, Color color) {
+        drawCircleScreen_native(pointer, position, radius, color);
+    }
+
+    public void drawCircleScreen(Position position, int radius, Color color, boolean isSolid) {
+        drawCircleScreen_native(pointer, position, radius, color, isSolid);
+    }
+
+    public void drawEllipse(bwapi.CoordinateType.Enum coordinateType, int x, int y, int xRadius, int yRadius, Color color) {
+        drawEllipse_native(pointer, coordinateType, x, y, xRadius, yRadius, color);
+    }
+
+    public void drawEllipse(bwapi.CoordinateType.Enum coordinateType, int x, int y, int xRadius, int yRadius, Color color, boolean isSolid) {
+        drawEllipse_native(pointer, coordinateType, x, y, xRadius, yRadius, color, isSolid);
+    }
+
+    public void drawEllipseMap(int x, int y, int xRadius, int yRadius, Color color) {
+        drawEllipseMap_native(pointer, x, y, xRadius, yRadius, color);
+    }
+
+    public void drawEllipseMap(int x, int y, int xRadius, int yRadius, Color color, boolean isSolid) {
+        drawEllipseMap_native(pointer, x, y, xRadius, yRadius, color, isSolid);
+    }
+
+    public void drawEllipseMap(Position position, int xRadius, int yRadius, Color color) {
+        drawEllipseMap_native(pointer, position, xRadius, yRadius, color);
+    }
+
+    public void drawEllipseMap(Position position, int xRadius, int yRadius, Color color, boolean isSolid) {
+        drawEllipseMap_native(pointer, position, xRadius, yRadius, color, isSolid);
+    }
+
+    public void drawEllipseMouse(int x, int y, int xRadius, int yRadius, Color color) {
+        drawEllipseMouse_native(pointer, x, y, xRadius, yRadius, color);
+    }
+
+    public void drawEllipseMouse(int x, int y, int xRadius, int yRadius, Color color, boolean isSolid) {
+        drawEllipseMouse_native(pointer, x, y, xRadius, yRadius, color, isSolid);
+    }
+
+    public void drawEllipseMouse(Position position, int xRadius, int yRadius, Color color) {
+        drawEllipseMouse_native(pointer, position, xRadius, yRadius, color);
+    }
+
+    public void drawEllipseMouse(Position position, int xRadius, int yRadius, Color color, boolean isSolid) {
+        drawEllipseMouse_native(pointer, position, xRadius, yRadius, color, isSolid);
+    }
+
+    public void drawEllipseScreen(int x, int y, int xRadius, int yRadius, Color color) {
+        drawEllipseScreen_native(pointer, x, y, xRadius, yRadius, color);
+    }
+
+    public void drawEllipseScreen(int x, int y, int xRadius, int yRadius, Color color, boolean isSolid) {
+        drawEllipseScreen_native(pointer, x, y, xRadius, yRadius, color, isSolid);
+    }
+
+    public void drawEllipseScreen(Position position, int xRadius, int yRadius, Color color) {
+        drawEllipseScreen_native(pointer, position, xRadius, yRadius, color);
+    }
+
+    public void drawEllipseScreen(Position position, int xRadius, int yRadius, Color color, boolean isSolid) {
+        drawEllipseScreen_native(pointer, position, xRadius, yRadius, color, isSolid);
+    }
+
+    public void drawDot(bwapi.CoordinateType.Enum coordinateType, int x, int y, Color color) {
+        drawDot_native(pointer, coordinateType, x, y, color);
+    }
+
+    public void drawDotMap(int x, int y, Color color) {
+        drawDotMap_native(pointer, x, y, color);
+    }
+
+    public void drawDotMap(Position position, Color color) {
+        drawDotMap_native(pointer, position, color);
+    }
+
+    public void drawDotMouse(int x, int y, Color color) {
+        drawDotMouse_native(pointer, x, y, color);
+    }
+
+    public void drawDotMouse(Position position, Color color) {
+        drawDotMouse_native(pointer, position, color);
+    }
+
+    public void drawDotScreen(int x, int y, Color color) {
+        drawDotScreen_native(pointer, x, y, color);
+    }
+
+    public void drawDotScreen(Position position, Color color) {
+        drawDotScreen_native(pointer, position, color);
+    }
+
+    public void drawLine(bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color) {
+        drawLine_native(pointer, coordinateType, x1, y1, x2, y2, color);
+    }
+
+    public void drawLineMap(int x1, int y1, int x2, int y2, Color color) {
+        drawLineMap_native(pointer, x1, y1, x2, y2, color);
+    }
+
+    public void drawLineMap(Position position1, Position position2, Color color) {
+        drawLineMap_native(pointer, position1, position2, color);
+    }
+
+    public void drawLineMouse(int x1, int y1, int x2, int y2, Color color) {
+        drawLineMouse_native(pointer, x1, y1, x2, y2, color);
+    }
+
+    public void drawLineMouse(Position position1, Position position2, Color color) {
+        drawLineMouse_native(pointer, position1, position2, color);
+    }
+
+    public void drawLineScreen(int x1, int y1, int x2, int y2, Color color) {
+        drawLineScreen_native(pointer, x1, y1, x2, y2, color);
+    }
+
+    public void drawLineScreen(Position position1, Position position2, Color color) {
+        drawLineScreen_native(pointer, position1, position2, color);
+    }
+
+    public int getLatencyFrames() {
+        return getLatencyFrames_native(pointer);
+    }
+
+    public int getLatencyTime() {
+        return getLatencyTime_native(pointer);
+    }
+
+    public int getRemainingLatencyFrames() {
+        return getRemainingLatencyFrames_native(pointer);
+    }
+
+    public int getRemainingLatencyTime() {
+        return getRemainingLatencyTime_native(pointer);
+    }
+
+    public int getRevision() {
+        return getRevision_native(pointer);
+    }
+
+    public boolean isDebug() {
+        return isDebug_native(pointer);
+    }
+
+    public boolean isLatComEnabled() {
+        return isLatComEnabled_native(pointer);
+    }
+
+    public void setLatCom(boolean isEnabled) {
+        setLatCom_native(pointer, isEnabled);
+    }
+
+    public boolean isGUIEnabled() {
+        return isGUIEnabled_native(pointer);
+    }
+
+    public void setGUI(boolean enabled) {
+        setGUI_native(pointer, enabled);
+    }
+
+    public int getInstanceNumber() {
+        return getInstanceNumber_native(pointer);
+    }
+
+    public int getAPM() {
+        return getAPM_native(pointer);
+    }
+
+    public int getAPM(boolean isSolid) {
+        return getAPM_native(pointer, isSolid);
+    }
+
+    public boolean setMap(String text) {
+        return setMap_native(pointer, text);
+    }
+
+    public void setFrameSkip(int x) {
+        setFrameSkip_native(pointer, x);
+    }
+
+    public boolean hasPath(Position position1, Position position2) {
+        return hasPath_native(pointer, position1, position2);
+    }
+
+    public boolean setAlliance(Player player, boolean isSolid) {
+        return setAlliance_native(pointer, player, isSolid);
+    }
+
+    public boolean setAlliance(Player player) {
+        return setAlliance_native(pointer, player);
+    }
+
+    public boolean setAlliance(Player player, boolean isSolid1, boolean isSolid2) {
+        return setAlliance_native(pointer, player, isSolid1, isSolid2);
+    }
+
+    public boolean setVision(Player player) {
+        return setVision_native(pointer, player);
+    }
+
+    public boolean setVision(Player player, boolean isSolid) {
+        return setVision_native(pointer, player, isSolid);
+    }
+
+    public int elapsedTime() {
+        return elapsedTime_native(pointer);
+    }
+
+    public void setCommandOptimizationLevel(int x) {
+        setCommandOptimizationLevel_native(pointer, x);
+    }
+
+    public int countdownTimer() {
+        return countdownTimer_native(pointer);
+    }
+
+    public List<Region> getAllRegions() {
+        return getAllRegions_native(pointer);
+    }
+
+    public Region getRegionAt(int x, int y) {
+        return getRegionAt_native(pointer, x, y);
+    }
+
+    public Region getRegionAt(Position position) {
+        return getRegionAt_native(pointer, position);
+    }
+
+    public int getLastEventTime() {
+        return getLastEventTime_native(pointer);
+    }
+
+    public boolean setRevealAll() {
+        return setRevealAll_native(pointer);
+    }
+
+    public boolean setRevealAll(boolean isSolid) {
+        return setRevealAll_native(pointer, isSolid);
+    }
+
+    public TilePosition getBuildLocation(UnitType unitType, TilePosition tilePosition, int x) {
+        return getBuildLocation_native(pointer, unitType, tilePosition, x);
+    }
+
+    public TilePosition getBuildLocation(UnitType unitType, TilePosition tilePosition) {
+        return getBuildLocation_native(pointer, unitType, tilePosition);
+    }
+
+    public TilePosition getBuildLocation(UnitType unitType, TilePosition tilePosition, int x, boolean isSolid) {
+        return getBuildLocation_native(pointer, unitType, tilePosition, x, isSolid);
+    }
+
+    public int getDamageFrom(UnitType unitType1, UnitType unitType2, Player player) {
+        return getDamageFrom_native(pointer, unitType1, unitType2, player);
+    }
+
+    public int getDamageFrom(UnitType unitType1, UnitType unitType2) {
+        return getDamageFrom_native(pointer, unitType1, unitType2);
+    }
+
+    public int getDamageFrom(UnitType unitType1, UnitType unitType2, Player player1, Player player2) {
+        return getDamageFrom_native(pointer, unitType1, unitType2, player1, player2);
+    }
+
+    public int getDamageTo(UnitType unitType1, UnitType unitType2, Player player) {
+        return getDamageTo_native(pointer, unitType1, unitType2, player);
+    }
+
+    public int getDamageTo(UnitType unitType1, UnitType unitType2) {
+        return getDamageTo_native(pointer, unitType1, unitType2);
+    }
+
+    public int getDamageTo(UnitType unitType1, UnitType unitType2, Player player1, Player player2) {
+        return getDamageTo_native(pointer, unitType1, unitType2, player1, player2);
+    }
+
+
+    private static Map<Long, Game> instances = new HashMap<Long, Game>();
+
+    private Game(long pointer) {
+        this.pointer = pointer;
+    }
+
+    private static Game get(long pointer) {
+        if (pointer == 0 ) {
+            return null;
+        }
+        Game instance = instances.get(pointer);
+        if (instance == null ) {
+            instance = new Game(pointer);
+            instances.put(pointer, instance);
+        }
+        return instance;
+    }
+
+    private long pointer;
+
+    private native List<Force> getForces_native(long pointer);
+
+    private native List<Player> getPlayers_native(long pointer);
+
+    private native List<Unit> getAllUnits_native(long pointer);
+
+    private native List<Unit> getMinerals_native(long pointer);
+
+    private native List<Unit> getGeysers_native(long pointer);
+
+    private native List<Unit> getNeutralUnits_native(long pointer);
+
+    private native List<Unit> getStaticMinerals_native(long pointer);
+
+    private native List<Unit> getStaticGeysers_native(long pointer);
+
+    private native List<Unit> getStaticNeutralUnits_native(long pointer);
+
+    private native List<Bullet> getBullets_native(long pointer);
+
+    private native List<Position> getNukeDots_native(long pointer);
+
+    private native Force getForce_native(long pointer, int id);
+
+    private native Player getPlayer_native(long pointer, int id);
+
+    private native Unit getUnit_native(long pointer, int id);
+
+    private native Unit indexToUnit_native(long pointer, int index);
+
+    private native Region getRegion_native(long pointer, int id);
+
+    private native GameType getGameType_native(long pointer);
+
+    private native int getLatency_native(long pointer);
+
+    private native int getFrameCount_native(long pointer);
+
+    private native int getReplayFrameCount_native(long pointer);
+
+    private native int getFPS_native(long pointer);
+
+    private native double getAverageFPS_native(long pointer);
+
+    private native Position getMousePosition_native(long pointer);
+
+    private native boolean getMouseState_native(long pointer, MouseButton mouseButton);
+
+    private native boolean getKeyState_native(long pointer, Key key);
+
+    private native Position getScreenPosition_native(long pointer);
+
+    private native void setScreenPosition_native(long pointer, int x, int y);
+
+    private native void setScreenPosition_native(long pointer, Position position);
+
+    private native void pingMinimap_native(long pointer, int x, int y);
+
+    private native void pingMinimap_native(long pointer, Position position);
+
+    private native boolean isFlagEnabled_native(long pointer, int flag);
+
+    private native void enableFlag_native(long pointer, int flag);
+
+    private native List<Unit> getUnitsOnTile_native(long pointer, int x, int y);
+
+    private native List<Unit> getUnitsOnTile_native(long pointer, TilePosition tilePosition);
+
+    private native List<Unit> getUnitsInRectangle_native(long pointer, int left, int top, int right, int bottom);
+
+    private native List<Unit> getUnitsInRectangle_native(long pointer, Position position1, Position position2);
+
+    private native List<Unit> getUnitsInRadius_native(long pointer, int x, int y, int radius);
+
+    private native List<Unit> getUnitsInRadius_native(long pointer, Position position, int radius);
+
+    private native Error getLastError_native(long pointer);
+
+    private native boolean setLastError_native(long pointer);
+
+    private native boolean setLastError_native(long pointer, Error error);
+
+    private native int mapWidth_native(long pointer);
+
+    private native int mapHeight_native(long pointer);
+
+    private native String mapFileName_native(long pointer);
+
+    private native String mapPathName_native(long pointer);
+
+    private native String mapName_native(long pointer);
+
+    private native String mapHash_native(long pointer);
+
+    private native boolean isWalkable_native(long pointer, int x, int y);
+
+    private native boolean isWalkable_native(long pointer, WalkPosition walkPosition);
+
+    private native int getGroundHeight_native(long pointer, int x, int y);
+
+    private native int getGroundHeight_native(long pointer, TilePosition tilePosition);
+
+    private native boolean isBuildable_native(long pointer, int x, int y);
+
+    private native boolean isBuildable_native(long pointer, int x, int y, boolean includeBuildings);
+
+    private native boolean isBuildable_native(long pointer, TilePosition tilePosition);
+
+    private native boolean isBuildable_native(long pointer, TilePosition tilePosition, boolean includeBuildings);
+
+    private native boolean isVisible_native(long pointer, int x, int y);
+
+    private native boolean isVisible_native(long pointer, TilePosition tilePosition);
+
+    private native boolean isExplored_native(long pointer, int x, int y);
+
+    private native boolean isExplored_native(long pointer, TilePosition tilePosition);
+
+    private native boolean hasCreep_native(long pointer, int x, int y);
+
+    private native boolean hasCreep_native(long pointer, TilePosition tilePosition);
+
+    private native boolean hasPowerPrecise_native(long pointer, int x, int y);
+
+    private native boolean hasPowerPrecise_native(long pointer, int x, int y, UnitType unitType);
+
+    private native boolean hasPowerPrecise_native(long pointer, Position position);
+
+    private native boolean hasPowerPrecise_native(long pointer, Position position, UnitType unitType);
+
+    private native boolean hasPower_native(long pointer, int x, int y);
+
+    private native boolean hasPower_native(long pointer, int x, int y, UnitType unitType);
+
+    private native boolean hasPower_native(long pointer, TilePosition tilePosition);
+
+    private native boolean hasPower_native(long pointer, TilePosition tilePosition, UnitType unitType);
+
+    private native boolean hasPower_native(long pointer, int tileX, int tileY, int tileWidth, int tileHeight);
+
+    private native boolean hasPower_native(long pointer, int tileX, int tileY, int tileWidth, int tileHeight, UnitType unitType);
+
+    private native boolean hasPower_native(long pointer, TilePosition tilePosition, int tileWidth, int tileHeight);
+
+    private native boolean hasPower_native(long pointer, TilePosition tilePosition, int tileWidth, int tileHeight, UnitType unitType);
+
+    private native boolean canBuildHere_native(long pointer, TilePosition tilePosition, UnitType unitType, Unit unit);
+
+    private native boolean canBuildHere_native(long pointer, TilePosition tilePosition, UnitType unitType);
+
+    private native boolean canBuildHere_native(long pointer, TilePosition tilePosition, UnitType unitType, Unit unit, boolean checkExplored);
+
+    private native boolean canMake_native(long pointer, UnitType unitType);
+
+    private native boolean canMake_native(long pointer, UnitType unitType, Unit unit);
+
+    private native boolean canResearch_native(long pointer, TechType techType, Unit unit);
+
+    private native boolean canResearch_native(long pointer, TechType techType);
+
+    private native boolean canResearch_native(long pointer, TechType techType, Unit unit, boolean checkCanIssueCommandType);
+
+    private native boolean canUpgrade_native(long pointer, UpgradeType upgradeType, Unit unit);
+
+    private native boolean canUpgrade_native(long pointer, UpgradeType upgradeType);
+
+    private native boolean canUpgrade_native(long pointer, UpgradeType upgradeType, Unit unit, boolean checkCanIssueCommandType);
+
+    private native List<TilePosition> getStartLocations_native(long pointer);
+
+    private native void printf_native(long pointer, String text);
+
+    private native void sendText_native(long pointer, String text);
+
+    private native void sendTextEx_native(long pointer, boolean toAllies, String text);
+
+    private native boolean isInGame_native(long pointer);
+
+    private native boolean isMultiplayer_native(long pointer);
+
+    private native boolean isBattleNet_native(long pointer);
+
+    private native boolean isPaused_native(long pointer);
+
+    private native boolean isReplay_native(long pointer);
+
+    private native void pauseGame_native(long pointer);
+
+    private native void resumeGame_native(long pointer);
+
+    private native void leaveGame_native(long pointer);
+
+    private native void restartGame_native(long pointer);
+
+    private native void setLocalSpeed_native(long pointer, int speed);
+
+    private native boolean issueCommand_native(long pointer, List<Unit> list, UnitCommand unitCommand);
+
+    private native List<Unit> getSelectedUnits_native(long pointer);
+
+    private native Player self_native(long pointer);
+
+    private native Player enemy_native(long pointer);
+
+    private native Player neutral_native(long pointer);
+
+    private native List<Player> allies_native(long pointer);
+
+    private native List<Player> enemies_native(long pointer);
+
+    private native List<Player> observers_native(long pointer);
+
+    private native void setTextSize_native(long pointer);
+
+    private native void setTextSize_native(long pointer, bwapi.Text.Size.Enum text);
+
+    private native void drawText_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x, int y, String text);
+
+    private native void drawTextMap_native(long pointer, int x, int y, String text);
+
+    private native void drawTextMap_native(long pointer, Position position, String text);
+
+    private native void drawTextMouse_native(long pointer, int x, int y, String text);
+
+    private native void drawTextMouse_native(long pointer, Position position, String text);
+
+    private native void drawTextScreen_native(long pointer, int x, int y, String text);
+
+    private native void drawTextScreen_native(long pointer, Position position, String text);
+
+    private native void drawBox_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color);
+
+    private native void drawBox_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color, boolean isSolid);
+
+    private native void drawBoxMap_native(long pointer, int x1, int y1, int x2, int y2, Color color);
+
+    private native void drawBoxMap_native(long pointer, int x1, int y1, int x2, int y2, Color color, boolean isSolid);
+
+    private native void drawBoxMap_native(long pointer, Position position1, Position position2, Color color);
+
+    private native void drawBoxMap_native(long pointer, Position position1, Position position2, Color color, boolean isSolid);
+
+    private native void drawBoxMouse_native(long pointer, int x1, int y1, int x2, int y2, Color color);
+
+    private native void drawBoxMouse_native(long pointer, int x1, int y1, int x2, int y2, Color color, boolean isSolid);
+
+    private native void drawBoxMouse_native(long pointer, Position position1, Position position2, Color color);
+
+    private native void drawBoxMouse_native(long pointer, Position position1, Position position2, Color color, boolean isSolid);
+
+    private native void drawBoxScreen_native(long pointer, int x1, int y1, int x2, int y2, Color color);
+
+    private native void drawBoxScreen_native(long pointer, int x1, int y1, int x2, int y2, Color color, boolean isSolid);
+
+    private native void drawBoxScreen_native(long pointer, Position position1, Position position2, Color color);
+
+    private native void drawBoxScreen_native(long pointer, Position position1, Position position2, Color color, boolean isSolid);
+
+    private native void drawTriangle_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int ax, int ay, int bx, int by, int cx, int cy, Color color);
+
+    private native void drawTriangle_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid);
+
+    private native void drawTriangleMap_native(long pointer, int ax, int ay, int bx, int by, int cx, int cy, Color color);
+
+    private native void drawTriangleMap_native(long pointer, int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid);
+
+    private native void drawTriangleMap_native(long pointer, Position position1, Position position2, Position position3, Color color);
+
+    private native void drawTriangleMap_native(long pointer, Position position1, Position position2, Position position3, Color color, boolean isSolid);
+
+    private native void drawTriangleMouse_native(long pointer, int ax, int ay, int bx, int by, int cx, int cy, Color color);
+
+    private native void drawTriangleMouse_native(long pointer, int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid);
+
+    private native void drawTriangleMouse_native(long pointer, Position position1, Position position2, Position position3, Color color);
+
+    private native void drawTriangleMouse_native(long pointer, Position position1, Position position2, Position position3, Color color, boolean isSolid);
+
+    private native void drawTriangleScreen_native(long pointer, int ax, int ay, int bx, int by, int cx, int cy, Color color);
+
+    private native void drawTriangleScreen_native(long pointer, int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid);
+
+    private native void drawTriangleScreen_native(long pointer, Position position1, Position position2, Position position3, Color color);
+
+    private native void drawTriangleScreen_native(long pointer, Position position1, Position position2, Position position3, Color color, boolean isSolid);
+
+    private native void drawCircle_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x, int y, int radius, Color color);
+
+    private native void drawCircle_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x, int y, int radius, Color color, boolean isSolid);
+
+    private native void drawCircleMap_native(long pointer, int x, int y, int radius, Color color);
+
+    private native void drawCircleMap_native(long pointer, int x, int y, int radius, Color color, boolean isSolid);
+
+    private native void drawCircleMap_native(long pointer, Position position, int radius, Color color);
+
+    private native void drawCircleMap_native(long pointer, Position position, int radius, Color color, boolean isSolid);
+
+    private native void drawCircleMouse_native(long pointer, int x, int y, int radius, Color color);
+
+    private native void drawCircleMouse_native(long pointer, int x, int y, int radius, Color color, boolean isSolid);
+
+    private native void drawCircleMouse_native(long pointer, Position position, int radius, Color color);
+
+    private native void drawCircleMouse_native(long pointer, Position position, int radius, Color color, boolean isSolid);
+
+    private native void drawCircleScreen_native(long pointer, int x, int y, int radius, Color color);
+
+    private native void drawCircleScreen_native(long pointer, int x, int y, int radius, Color color, boolean isSolid);
+
+    private native void drawCircleScreen_native(long pointer, Position position, int radius, Color color);
+
+    private native void drawCircleScreen_native(long pointer, Position position, int radius, Color color, boolean isSolid);
+
+    private native void drawEllipse_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x, int y, int xRadius, int yRadius, Color color);
+
+    private native void drawEllipse_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x, int y, int xRadius, int yRadius, Color color, boolean isSolid);
+
+    private native void drawEllipseMap_native(long pointer, int x, int y, int xRadius, int yRadius, Color color);
+
+    private native void drawEllipseMap_native(long pointer, int x, int y, int xRadius, int yRadius, Color color, boolean isSolid);
+
+    private native void drawEllipseMap_native(long pointer, Position position, int xRadius, int yRadius, Color color);
+
+    private native void drawEllipseMap_native(long pointer, Position position, int xRadius, int yRadius, Color color, boolean isSolid);
+
+    private native void drawEllipseMouse_native(long pointer, int x, int y, int xRadius, int yRadius, Color color);
+
+    private native void drawEllipseMouse_native(long pointer, int x, int y, int xRadius, int yRadius, Color color, boolean isSolid);
+
+    private native void drawEllipseMouse_native(long pointer, Position position, int xRadius, int yRadius, Color color);
+
+    private native void drawEllipseMouse_native(long pointer, Position position, int xRadius, int yRadius, Color color, boolean isSolid);
+
+    private native void drawEllipseScreen_native(long pointer, int x, int y, int xRadius, int yRadius, Color color);
+
+    private native void drawEllipseScreen_native(long pointer, int x, int y, int xRadius, int yRadius, Color color, boolean isSolid);
+
+    private native void drawEllipseScreen_native(long pointer, Position position, int xRadius, int yRadius, Color color);
+
+    private native void drawEllipseScreen_native(long pointer, Position position, int xRadius, int yRadius, Color color, boolean isSolid);
+
+    private native void drawDot_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x, int y, Color color);
+
+    private native void drawDotMap_native(long pointer, int x, int y, Color color);
+
+    private native void drawDotMap_native(long pointer, Position position, Color color);
+
+    private native void drawDotMouse_native(long pointer, int x, int y, Color color);
+
+    private native void drawDotMouse_native(long pointer, Position position, Color color);
+
+    private native void drawDotScreen_native(long pointer, int x, int y, Color color);
+
+    private native void drawDotScreen_native(long pointer, Position position, Color color);
+
+    private native void drawLine_native(long pointer, bwapi.CoordinateType.Enum coordinateType, int x1, int y1, int x2, int y2, Color color);
+
+    private native void drawLineMap_native(long pointer, int x1, int y1, int x2, int y2, Color color);
+
+    private native void drawLineMap_native(long pointer, Position position1, Position position2, Color color);
+
+    private native void drawLineMouse_native(long pointer, int x1, int y1, int x2, int y2, Color color);
+
+    private native void drawLineMouse_native(long pointer, Position position1, Position position2, Color color);
+
+    private native void drawLineScreen_native(long pointer, int x1, int y1, int x2, int y2, Color color);
+
+    private native void drawLineScreen_native(long pointer, Position position1, Position position2, Color color);
+
+    private native int getLatencyFrames_native(long pointer);
+
+    private native int getLatencyTime_native(long pointer);
+
+    private native int getRemainingLatencyFrames_native(long pointer);
+
+    private native int getRemainingLatencyTime_native(long pointer);
+
+    private native int getRevision_native(long pointer);
+
+    private native boolean isDebug_native(long pointer);
+
+    private native boolean isLatComEnabled_native(long pointer);
+
+    private native void setLatCom_native(long pointer, boolean isEnabled);
+
+    private native boolean isGUIEnabled_native(long pointer);
+
+    private native void setGUI_native(long pointer, boolean enabled);
+
+    private native int getInstanceNumber_native(long pointer);
+
+    private native int getAPM_native(long pointer);
+
+    private native int getAPM_native(long pointer, boolean isSolid);
+
+    private native boolean setMap_native(long pointer, String text);
+
+    private native void setFrameSkip_native(long pointer, int x);
+
+    private native boolean hasPath_native(long pointer, Position position1, Position position2);
+
+    private native boolean setAlliance_native(long pointer, Player player, boolean isSolid);
+
+    private native boolean setAlliance_native(long pointer, Player player);
+
+    private native boolean setAlliance_native(long pointer, Player player, boolean isSolid1, boolean isSolid2);
+
+    private native boolean setVision_native(long pointer, Player player);
+
+    private native boolean setVision_native(long pointer, Player player, boolean isSolid);
+
+    private native int elapsedTime_native(long pointer);
+
+    private native void setCommandOptimizationLevel_native(long pointer, int x);
+
+    private native int countdownTimer_native(long pointer);
+
+    private native List<Region> getAllRegions_native(long pointer);
+
+    private native Region getRegionAt_native(long pointer, int x, int y);
+
+    private native Region getRegionAt_native(long pointer, Position position);
+
+    private native int getLastEventTime_native(long pointer);
+
+    private native boolean setRevealAll_native(long pointer);
+
+    private native boolean setRevealAll_native(long pointer, boolean isSolid);
+
+    private native TilePosition getBuildLocation_native(long pointer, UnitType unitType, TilePosition tilePosition, int x);
+
+    private native TilePosition getBuildLocation_native(long pointer, UnitType unitType, TilePosition tilePosition);
+
+    private native TilePosition getBuildLocation_native(long pointer, UnitType unitType, TilePosition tilePosition, int x, boolean isSolid);
+
+    private native int getDamageFrom_native(long pointer, UnitType unitType1, UnitType unitType2, Player player);
+
+    private native int getDamageFrom_native(long pointer, UnitType unitType1, UnitType unitType2);
+
+    private native int getDamageFrom_native(long pointer, UnitType unitType1, UnitType unitType2, Player player1, Player player2);
+
+    private native int getDamageTo_native(long pointer, UnitType unitType1, UnitType unitType2, Player player);
+
+    private native int getDamageTo_native(long pointer, UnitType unitType1, UnitType unitType2);
+
+    private native int getDamageTo_native(long pointer, UnitType unitType1, UnitType unitType2, Player player1, Player player2);
+
+    // =========================================================
+    // ===== Start of ATLANTIS CODE ============================
+    // =========================================================
+    /**
+     * Creates game not backed by BWAPI, for subclasses overriding methods they need (see atlantis.headless).
+     */
+    protected Game() {
+        this(0);
+    }
+
+}
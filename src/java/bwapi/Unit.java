@@ -6,6 +6,7 @@ import java.util.Map;
 import atlantis.AtlantisGame;
 import atlantis.combat.group.Group;
 import atlantis.combat.micro.AtlantisRunning;
+import atlantis.wrappers.CommandBuffer;
 import atlantis.wrappers.Select;
 
 import java.util.HashMap;
@@ -22,7 +23,12 @@ public class Unit extends PositionedObject
 Retrieves a unique identifier for this unit. Returns An integer containing the unit's identifier. See also getReplayID
 */
     public int getID() {
-        return getID_native(pointer);
+
+        // ID never changes, so it's read through JNI only once
+        if (_id < 0) {
+            _id = getID_native(pointer);
+        }
+        return _id;
     }
 
 /**
@@ -4016,6 +4022,9 @@ Cheap checks for whether the unit is able to execute a placeCOP command. See als
     private boolean _isMilitaryBuildingAntiAir = false;
     private double _lastCombatEval;
     private int _lastTimeCombatEval = 0;
+    private int _snapshotIndex = -1;
+    private int _snapshotGeneration = -1;
+    private int _id = -1;
 
     // =========================================================
     // Atlantis constructor
@@ -4085,17 +4094,40 @@ Cheap checks for whether the unit is able to execute a placeCOP command. See als
      * @TODO: check conversion between TilePosition and Position
      */
     public void moveAwayFrom(Position position, double moveDistance) {
-        int dx = position.getX() - getPosition().getX();
-        int dy = position.getY() - getPosition().getY();
-        double vectorLength = Math.sqrt(dx * dx + dy * dy);
-        double modifier = (moveDistance * TilePosition.SIZE_IN_PIXELS) / vectorLength;
-        dx = (int) (dx * modifier);
-        dy = (int) (dy * modifier);
+        CommandBuffer.moveAwayFrom(this, position, moveDistance);
+        setTooltip("Run");
+    }
+    
+    /**
+     * Creates unit object which isn't backed by BWAPI, used by the headless simulation and benchmarks. Only
+     * data stored in the WorldSnapshot is available for such unit, calling any native getter fails.
+     */
+    public static Unit createHeadless() {
+        return new Unit(0);
+    }
+
+    /**
+     * Creates unit not backed by BWAPI, for subclasses overriding getters and orders they need (see
+     * atlantis.headless.HeadlessUnit).
+     */
+    protected Unit() {
+        this(0);
+    }
 
-        Position newPosition = new Position(getPosition().getX() - dx, getPosition().getY() - dy);
+    /**
+     * Remembers index of this unit in the WorldSnapshot built as <b>generation</b>-th snapshot.
+     */
+    public void setSnapshotIndex(int index, int generation) {
+        this._snapshotIndex = index;
+        this._snapshotGeneration = generation;
+    }
 
-        move(newPosition, false);
-        setTooltip("Run");
+    /**
+     * Returns index of this unit in the WorldSnapshot of given generation or -1 if unit wasn't there.
+     * Doesn't cross JNI.
+     */
+    public int getSnapshotIndex(int generation) {
+        return _snapshotGeneration == generation ? _snapshotIndex : -1;
     }
     
     // =========================================================
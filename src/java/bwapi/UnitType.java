@@ -2,6 +2,10 @@ package bwapi;
 
 import bwapi.*;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Collection;
@@ -16,35 +20,41 @@ Expected type constructor. If the type is an invalid type, then it becomes Types
 public class UnitType {
 
     public String toString() {
-        return toString_native(pointer);
+        return _cacheIndex >= 0 ? _toString[_cacheIndex] : toString_native(pointer);
     }
 
 /**
 Retrieves the Race that the unit type belongs to. Returns Race indicating the race that owns this unit type. Return values Race::None indicating that the unit type does not belong to any particular race (a critter for example).
 */
     public Race getRace() {
-        return getRace_native(pointer);
+        return _cacheIndex >= 0 ? _getRace[_cacheIndex] : getRace_native(pointer);
     }
 
 /**
 Obtains the source unit type that is used to build or train this unit type, as well as the amount of them that are required. Returns std::pair in which the first value is the UnitType that builds this unit type, and the second value is the number of those types that are required (this value is 2 for Archons, and 1 for all other types). Return values pair(UnitTypes::None,0) If this unit type cannot be made by the player.
 */
     public Pair<UnitType, Integer> whatBuilds() {
-        return whatBuilds_native(pointer);
+        if (_cacheIndex < 0) {
+            return whatBuilds_native(pointer);
+        }
+
+        // Pair is mutable, so every caller gets its own copy
+        Pair<UnitType, Integer> whatBuilds = _whatBuilds.get(_cacheIndex);
+        return new Pair<>(whatBuilds.first, whatBuilds.second);
     }
 
 /**
 Retrieves the immediate technology tree requirements to make this unit type. Returns std::map containing a UnitType to number mapping of UnitTypes required.
 */
     public Map<UnitType, Integer> requiredUnits() {
-        return requiredUnits_native(pointer);
+        return _cacheIndex >= 0 ? _requiredUnits.get(_cacheIndex) : requiredUnits_native(pointer);
     }
 
 /**
 Identifies the required TechType in order to create certain units. Note The only unit that requires a technology is the Lurker, which needs Lurker Aspect. Returns TechType indicating the technology that must be researched in order to create this unit type. Return values TechTypes::None If creating this unit type does not require a technology to be researched.
 */
     public TechType requiredTech() {
-        return requiredTech_native(pointer);
+        return _cacheIndex >= 0 ? _requiredTech[_cacheIndex] : requiredTech_native(pointer);
     }
 
 /**
@@ -72,490 +82,490 @@ Retrieves the set of upgrades that this unit can use to enhance its fighting abi
 Retrieves the upgrade type used to increase the armor of this unit type. For each upgrade, this unit type gains +1 additional armor. Returns UpgradeType indicating the upgrade that increases this unit type's armor amount.
 */
     public UpgradeType armorUpgrade() {
-        return armorUpgrade_native(pointer);
+        return _cacheIndex >= 0 ? _armorUpgrade[_cacheIndex] : armorUpgrade_native(pointer);
     }
 
 /**
 Retrieves the default maximum amount of hit points that this unit type can have. Note This value may not necessarily match the value seen in the Use Map Settings game type. Returns Integer indicating the maximum amount of hit points for this unit type.
 */
     public int maxHitPoints() {
-        return maxHitPoints_native(pointer);
+        return _cacheIndex >= 0 ? _maxHitPoints[_cacheIndex] : maxHitPoints_native(pointer);
     }
 
 /**
 Retrieves the default maximum amount of shield points that this unit type can have. Note This value may not necessarily match the value seen in the Use Map Settings game type. Returns Integer indicating the maximum amount of shield points for this unit type. Return values 0 If this unit type does not have shields.
 */
     public int maxShields() {
-        return maxShields_native(pointer);
+        return _cacheIndex >= 0 ? _maxShields[_cacheIndex] : maxShields_native(pointer);
     }
 
 /**
 Retrieves the maximum amount of energy this unit type can have by default. Returns Integer indicating the maximum amount of energy for this unit type. Return values 0 If this unit does not gain energy for abilities.
 */
     public int maxEnergy() {
-        return maxEnergy_native(pointer);
+        return _cacheIndex >= 0 ? _maxEnergy[_cacheIndex] : maxEnergy_native(pointer);
     }
 
 /**
 Retrieves the default amount of armor that the unit type starts with, excluding upgrades. Note This value may not necessarily match the value seen in the Use Map Settings game type. Returns The amount of armor the unit type has.
 */
     public int armor() {
-        return armor_native(pointer);
+        return _cacheIndex >= 0 ? _armor[_cacheIndex] : armor_native(pointer);
     }
 
 /**
 Retrieves the default mineral price of purchasing the unit. Note This value may not necessarily match the value seen in the Use Map Settings game type. Returns Mineral cost of the unit.
 */
     public int mineralPrice() {
-        return mineralPrice_native(pointer);
+        return _cacheIndex >= 0 ? _mineralPrice[_cacheIndex] : mineralPrice_native(pointer);
     }
 
 /**
 Retrieves the default vespene gas price of purchasing the unit. Note This value may not necessarily match the value seen in the Use Map Settings game type. Returns Vespene gas cost of the unit.
 */
     public int gasPrice() {
-        return gasPrice_native(pointer);
+        return _cacheIndex >= 0 ? _gasPrice[_cacheIndex] : gasPrice_native(pointer);
     }
 
 /**
 Retrieves the default time, in frames, needed to train, morph, or build the unit. Note This value may not necessarily match the value seen in the Use Map Settings game type. Returns Number of frames needed in order to build the unit. See also UnitInterface::getRemainingBuildTime
 */
     public int buildTime() {
-        return buildTime_native(pointer);
+        return _cacheIndex >= 0 ? _buildTime[_cacheIndex] : buildTime_native(pointer);
     }
 
 /**
 Retrieves the amount of supply that this unit type will use when created. It will use the supply pool that is appropriate for its Race. Note In Starcraft programming, the managed supply values are double than what they appear in the game. The reason for this is because Zerglings use 0.5 visible supply. Returns Integer containing the supply required to build this unit. See also supplyProvided, PlayerInterface::supplyTotal, PlayerInterface::supplyUsed
 */
     public int supplyRequired() {
-        return supplyRequired_native(pointer);
+        return _cacheIndex >= 0 ? _supplyRequired[_cacheIndex] : supplyRequired_native(pointer);
     }
 
 /**
 Retrieves the amount of supply that this unit type produces for its appropriate Race's supply pool. Note In Starcraft programming, the managed supply values are double than what they appear in the game. The reason for this is because Zerglings use 0.5 visible supply. See also supplyRequired, PlayerInterface::supplyTotal, PlayerInterface::supplyUsed
 */
     public int supplyProvided() {
-        return supplyProvided_native(pointer);
+        return _cacheIndex >= 0 ? _supplyProvided[_cacheIndex] : supplyProvided_native(pointer);
     }
 
 /**
 Retrieves the amount of space required by this unit type to fit inside a Bunker or Transport(Dropship, Shuttle, Overlord ). Returns Amount of space required by this unit type for transport. Return values 255 If this unit type can not be transported. See also spaceProvided
 */
     public int spaceRequired() {
-        return spaceRequired_native(pointer);
+        return _cacheIndex >= 0 ? _spaceRequired[_cacheIndex] : spaceRequired_native(pointer);
     }
 
 /**
 Retrieves the amount of space provided by this Bunker or Transport(Dropship, Shuttle, Overlord ) for unit transportation. Returns The number of slots provided by this unit type. See also spaceRequired
 */
     public int spaceProvided() {
-        return spaceProvided_native(pointer);
+        return _cacheIndex >= 0 ? _spaceProvided[_cacheIndex] : spaceProvided_native(pointer);
     }
 
 /**
 Retrieves the amount of score points awarded for constructing this unit type. This value is used for calculating scores in the post-game score screen. Returns Number of points awarded for constructing this unit type. See also destroyScore
 */
     public int buildScore() {
-        return buildScore_native(pointer);
+        return _cacheIndex >= 0 ? _buildScore[_cacheIndex] : buildScore_native(pointer);
     }
 
 /**
 Retrieves the amount of score points awarded for killing this unit type. This value is used for calculating scores in the post-game score screen. Returns Number of points awarded for killing this unit type. See also buildScore
 */
     public int destroyScore() {
-        return destroyScore_native(pointer);
+        return _cacheIndex >= 0 ? _destroyScore[_cacheIndex] : destroyScore_native(pointer);
     }
 
 /**
 Retrieves the UnitSizeType of this unit, which is used in calculations along with weapon damage types to determine the amount of damage that will be dealt to this type. Returns UnitSizeType indicating the conceptual size of the unit type. See also WeaponType::damageType
 */
     public UnitSizeType size() {
-        return size_native(pointer);
+        return _cacheIndex >= 0 ? _size[_cacheIndex] : size_native(pointer);
     }
 
 /**
 Retrieves the width of this unit type, in tiles. Used for determining the tile size of structures. Returns Width of this unit type, in tiles.
 */
     public int tileWidth() {
-        return tileWidth_native(pointer);
+        return _cacheIndex >= 0 ? _tileWidth[_cacheIndex] : tileWidth_native(pointer);
     }
 
 /**
 Retrieves the height of this unit type, in tiles. Used for determining the tile size of structures. Returns Height of this unit type, in tiles.
 */
     public int tileHeight() {
-        return tileHeight_native(pointer);
+        return _cacheIndex >= 0 ? _tileHeight[_cacheIndex] : tileHeight_native(pointer);
     }
 
 /**
 Retrieves the tile size of this unit type. Used for determining the tile size of structures. Returns TilePosition containing the width (x) and height (y) of the unit type, in tiles.
 */
     public TilePosition tileSize() {
-        return tileSize_native(pointer);
+        return _cacheIndex >= 0 ? _tileSize[_cacheIndex] : tileSize_native(pointer);
     }
 
 /**
 Retrieves the distance from the center of the unit type to its left edge. Returns Distance to this unit type's left edge from its center, in pixels.
 */
     public int dimensionLeft() {
-        return dimensionLeft_native(pointer);
+        return _cacheIndex >= 0 ? _dimensionLeft[_cacheIndex] : dimensionLeft_native(pointer);
     }
 
 /**
 Retrieves the distance from the center of the unit type to its top edge. Returns Distance to this unit type's top edge from its center, in pixels.
 */
     public int dimensionUp() {
-        return dimensionUp_native(pointer);
+        return _cacheIndex >= 0 ? _dimensionUp[_cacheIndex] : dimensionUp_native(pointer);
     }
 
 /**
 Retrieves the distance from the center of the unit type to its right edge. Returns Distance to this unit type's right edge from its center, in pixels.
 */
     public int dimensionRight() {
-        return dimensionRight_native(pointer);
+        return _cacheIndex >= 0 ? _dimensionRight[_cacheIndex] : dimensionRight_native(pointer);
     }
 
 /**
 Retrieves the distance from the center of the unit type to its bottom edge. Returns Distance to this unit type's bottom edge from its center, in pixels.
 */
     public int dimensionDown() {
-        return dimensionDown_native(pointer);
+        return _cacheIndex >= 0 ? _dimensionDown[_cacheIndex] : dimensionDown_native(pointer);
     }
 
 /**
 A macro for retrieving the width of the unit type, which is calculated using dimensionLeft + dimensionRight + 1. Returns Width of the unit, in pixels.
 */
     public int width() {
-        return width_native(pointer);
+        return _cacheIndex >= 0 ? _width[_cacheIndex] : width_native(pointer);
     }
 
 /**
 A macro for retrieving the height of the unit type, which is calculated using dimensionUp + dimensionDown + 1. Returns Height of the unit, in pixels.
 */
     public int height() {
-        return height_native(pointer);
+        return _cacheIndex >= 0 ? _height[_cacheIndex] : height_native(pointer);
     }
 
 /**
 Retrieves the range at which this unit type will start targeting enemy units. Returns Distance at which this unit type begins to seek out enemy units, in pixels.
 */
     public int seekRange() {
-        return seekRange_native(pointer);
+        return _cacheIndex >= 0 ? _seekRange[_cacheIndex] : seekRange_native(pointer);
     }
 
 /**
 Retrieves the sight range of this unit type. Returns Sight range of this unit type, measured in pixels.
 */
     public int sightRange() {
-        return sightRange_native(pointer);
+        return _cacheIndex >= 0 ? _sightRange[_cacheIndex] : sightRange_native(pointer);
     }
 
 /**
 Retrieves this unit type's weapon type used when attacking targets on the ground. Returns WeaponType used as this unit type's ground weapon. See also maxGroundHits, airWeapon
 */
     public WeaponType groundWeapon() {
-        return groundWeapon_native(pointer);
+        return _cacheIndex >= 0 ? _groundWeapon[_cacheIndex] : groundWeapon_native(pointer);
     }
 
 /**
 Retrieves the maximum number of hits this unit can deal to a ground target using its ground weapon. This value is multiplied by the ground weapon's damage to calculate the unit type's damage potential. Returns Maximum number of hits given to ground targets. See also groundWeapon, maxAirHits
 */
     public int maxGroundHits() {
-        return maxGroundHits_native(pointer);
+        return _cacheIndex >= 0 ? _maxGroundHits[_cacheIndex] : maxGroundHits_native(pointer);
     }
 
 /**
 Retrieves this unit type's weapon type used when attacking targets in the air. Returns WeaponType used as this unit type's air weapon. See also maxAirHits, groundWeapon
 */
     public WeaponType airWeapon() {
-        return airWeapon_native(pointer);
+        return _cacheIndex >= 0 ? _airWeapon[_cacheIndex] : airWeapon_native(pointer);
     }
 
 /**
 Retrieves the maximum number of hits this unit can deal to a flying target using its air weapon. This value is multiplied by the air weapon's damage to calculate the unit type's damage potential. Returns Maximum number of hits given to air targets. See also airWeapon, maxGroundHits
 */
     public int maxAirHits() {
-        return maxAirHits_native(pointer);
+        return _cacheIndex >= 0 ? _maxAirHits[_cacheIndex] : maxAirHits_native(pointer);
     }
 
 /**
 Retrieves this unit type's top movement speed with no upgrades. Note That some units have inconsistent movement and this value is sometimes an approximation. Returns The approximate top speed, in pixels per frame, as a double. For liftable Terran structures, this function returns their movement speed while lifted.
 */
     public double topSpeed() {
-        return topSpeed_native(pointer);
+        return _cacheIndex >= 0 ? _topSpeed[_cacheIndex] : topSpeed_native(pointer);
     }
 
 /**
 Retrieves the unit's acceleration amount. Returns How fast the unit can accelerate to its top speed.
 */
     public int acceleration() {
-        return acceleration_native(pointer);
+        return _cacheIndex >= 0 ? _acceleration[_cacheIndex] : acceleration_native(pointer);
     }
 
 /**
 Retrieves the unit's halting distance. This determines how fast a unit can stop moving. Returns A halting distance value.
 */
     public int haltDistance() {
-        return haltDistance_native(pointer);
+        return _cacheIndex >= 0 ? _haltDistance[_cacheIndex] : haltDistance_native(pointer);
     }
 
 /**
 Retrieves a unit's turning radius. This determines how fast a unit can turn. Returns A turn radius value.
 */
     public int turnRadius() {
-        return turnRadius_native(pointer);
+        return _cacheIndex >= 0 ? _turnRadius[_cacheIndex] : turnRadius_native(pointer);
     }
 
 /**
 Determines if a unit can train other units. For example, UnitTypes::Terran_Barracks.canProduce() will return true, while UnitTypes::Terran_Marine.canProduce() will return false. This is also true for two non-structures: Carrier (can produce interceptors) and Reaver (can produce scarabs). Returns true if this unit type can have a production queue, and false otherwise.
 */
     public boolean canProduce() {
-        return canProduce_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_CAN_PRODUCE) != 0 : canProduce_native(pointer);
     }
 
 /**
 Checks if this unit is capable of attacking. Note This function returns false for units that can only inflict damage via special abilities, such as the High Templar. Returns true if this unit type is capable of damaging other units with a standard attack, and false otherwise.
 */
     public boolean canAttack() {
-        return canAttack_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_CAN_ATTACK) != 0 : canAttack_native(pointer);
     }
 
 /**
 Checks if this unit type is capable of movement. Note Buildings will return false, including Terran liftable buildings which are capable of moving when lifted. Returns true if this unit can use a movement command, and false if they cannot move.
 */
     public boolean canMove() {
-        return canMove_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_CAN_MOVE) != 0 : canMove_native(pointer);
     }
 
 /**
 Checks if this unit type is a flying unit. Flying units ignore ground pathing and collisions. Returns true if this unit type is in the air by default, and false otherwise.
 */
     public boolean isFlyer() {
-        return isFlyer_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_FLYER) != 0 : isFlyer_native(pointer);
     }
 
 /**
 Checks if this unit type can regenerate hit points. This generally applies to Zerg units. Returns true if this unit type regenerates its hit points, and false otherwise.
 */
     public boolean regeneratesHP() {
-        return regeneratesHP_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_REGENERATES_HP) != 0 : regeneratesHP_native(pointer);
     }
 
 /**
 Checks if this unit type has the capacity to store energy and use it for special abilities. Returns true if this unit type generates energy, and false if it does not have an energy pool.
 */
     public boolean isSpellcaster() {
-        return isSpellcaster_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_SPELLCASTER) != 0 : isSpellcaster_native(pointer);
     }
 
 /**
 Checks if this unit type is permanently cloaked. This means the unit type is always cloaked and requires a detector in order to see it. Returns true if this unit type is permanently cloaked, and false otherwise.
 */
     public boolean hasPermanentCloak() {
-        return hasPermanentCloak_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_HAS_PERMANENT_CLOAK) != 0 : hasPermanentCloak_native(pointer);
     }
 
 /**
 Checks if this unit type is invincible by default. Invincible units cannot take damage. Returns true if this unit type is invincible, and false if it is vulnerable to attacks.
 */
     public boolean isInvincible() {
-        return isInvincible_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_INVINCIBLE) != 0 : isInvincible_native(pointer);
     }
 
 /**
 Checks if this unit is an organic unit. The organic property is required for some abilities such as Heal. Returns true if this unit type has the organic property, and false otherwise.
 */
     public boolean isOrganic() {
-        return isOrganic_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_ORGANIC) != 0 : isOrganic_native(pointer);
     }
 
 /**
 Checks if this unit is mechanical. The mechanical property is required for some actions such as Repair. Returns true if this unit type has the mechanical property, and false otherwise.
 */
     public boolean isMechanical() {
-        return isMechanical_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_MECHANICAL) != 0 : isMechanical_native(pointer);
     }
 
 /**
 Checks if this unit is robotic. The robotic property is applied to robotic units such as the Probe which prevents them from taking damage from Irradiate. Returns true if this unit type has the robotic property, and false otherwise.
 */
     public boolean isRobotic() {
-        return isRobotic_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_ROBOTIC) != 0 : isRobotic_native(pointer);
     }
 
 /**
 Checks if this unit type is capable of detecting units that are cloaked or burrowed. Returns true if this unit type is a detector by default, false if it does not have this property
 */
     public boolean isDetector() {
-        return isDetector_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_DETECTOR) != 0 : isDetector_native(pointer);
     }
 
 /**
 Checks if this unit type is capable of storing resources such as Mineral Fields. Resources are harvested from resource containers. Returns true if this unit type may contain resources that can be harvested, false otherwise.
 */
     public boolean isResourceContainer() {
-        return isResourceContainer_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_RESOURCE_CONTAINER) != 0 : isResourceContainer_native(pointer);
     }
 
 /**
 Checks if this unit type is a resource depot. Resource depots must be placed a certain distance from resources. Resource depots are typically the main building for any particular race. Workers will return resources to the nearest resource depot. Example: if ( BWAPI::Broodwar->self() ) { BWAPI::Unitset myUnits = BWAPI::Broodwar->self()->getUnits(); for ( auto u : myUnits ) { if ( u->isIdle() && u->getType().isResourceDepot() ) u->train( u->getType().getRace().getWorker() ); } } Returns true if the unit type is a resource depot, false if it is not.
 */
     public boolean isResourceDepot() {
-        return isResourceDepot_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_RESOURCE_DEPOT) != 0 : isResourceDepot_native(pointer);
     }
 
 /**
 Checks if this unit type is a refinery. A refinery is a structure that is placed on top of a Vespene Geyser . Refinery types are Refinery , Extractor , and Assimilator. Example: if ( BWAPI::Broodwar->self() ) { BWAPI::Unitset myUnits = BWAPI::Broodwar->self()->getUnits(); for ( auto u : myUnits ) { if ( u->getType().isRefinery() ) { int nWorkersAssigned = u->getClientInfo<int>('work'); if ( nWorkersAssigned < 3 ) { Unit pClosestIdleWorker = u->getClosestUnit(BWAPI::Filter::IsWorker && BWAPI::Filter::IsIdle); if ( pClosestIdleWorker ) { // gather from the refinery (and check if successful) if ( pClosestIdleWorker->gather(u) ) { // set a back reference for when the unit is killed or re-assigned (code not provided) pClosestIdleWorker->setClientInfo(u, 'ref'); // Increment the number of workers assigned and associate it with the refinery ++nWorkersAssigned; u->setClientInfo(nWorkersAssigned, 'work'); } } } // workers < 3 } // isRefinery } // for } Returns true if this unit type is a refinery, and false if it is not.
 */
     public boolean isRefinery() {
-        return isRefinery_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_REFINERY) != 0 : isRefinery_native(pointer);
     }
 
 /**
 Checks if this unit type is a worker unit. Worker units can harvest resources and build structures. Worker unit types include the SCV , Probe, and Drone. Returns true if this unit type is a worker, and false if it is not.
 */
     public boolean isWorker() {
-        return isWorker_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_WORKER) != 0 : isWorker_native(pointer);
     }
 
 /**
 Checks if this structure is powered by a psi field. Structures powered by psi can only be placed near a Pylon. If the Pylon is destroyed, then this unit will lose power. Returns true if this unit type can only be placed in a psi field, false otherwise. Note If this function returns a successful state, then the following function calls will also return a successful state: isBuilding(), getRace() == Races::Protoss
 */
     public boolean requiresPsi() {
-        return requiresPsi_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_REQUIRES_PSI) != 0 : requiresPsi_native(pointer);
     }
 
 /**
 Checks if this structure must be placed on Zerg creep. Returns true if this unit type requires creep, false otherwise. Note If this function returns a successful state, then the following function calls will also return a successful state: isBuilding(), getRace() == Races::Zerg
 */
     public boolean requiresCreep() {
-        return requiresCreep_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_REQUIRES_CREEP) != 0 : requiresCreep_native(pointer);
     }
 
 /**
 Checks if this unit type spawns two units when being hatched from an Egg. This is only applicable to Zerglings and Scourges. Returns true if morphing this unit type will spawn two of them, and false if only one is spawned.
 */
     public boolean isTwoUnitsInOneEgg() {
-        return isTwoUnitsInOneEgg_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_TWO_UNITS_IN_ONE_EGG) != 0 : isTwoUnitsInOneEgg_native(pointer);
     }
 
 /**
 Checks if this unit type has the capability to use the Burrow technology when it is researched. Note The Lurker can burrow even without researching the ability. See also TechTypes::Burrow Returns true if this unit can use the Burrow ability, and false otherwise. Note If this function returns a successful state, then the following function calls will also return a successful state: getRace() == Races::Zerg, !isBuilding(), canMove()
 */
     public boolean isBurrowable() {
-        return isBurrowable_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_BURROWABLE) != 0 : isBurrowable_native(pointer);
     }
 
 /**
 Checks if this unit type has the capability to use a cloaking ability when it is researched. This applies only to Wraiths and Ghosts, and does not include units which are permanently cloaked. Returns true if this unit has a cloaking ability, false otherwise. See also hasPermanentCloak, TechTypes::Cloaking_Field, TechTypes::Personnel_Cloaking
 */
     public boolean isCloakable() {
-        return isCloakable_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_CLOAKABLE) != 0 : isCloakable_native(pointer);
     }
 
 /**
 Checks if this unit is a structure. This includes Mineral Fields and Vespene Geysers. Returns true if this unit is a building, and false otherwise.
 */
     public boolean isBuilding() {
-        return isBuilding_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_BUILDING) != 0 : isBuilding_native(pointer);
     }
 
 /**
 Checks if this unit is an add-on. Add-ons are attachments used by some Terran structures such as the Comsat Station. Returns true if this unit is an add-on, and false otherwise. Note If this function returns a successful state, then the following function calls will also return a successful state: getRace() == Races::Terran, isBuilding()
 */
     public boolean isAddon() {
-        return isAddon_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_ADDON) != 0 : isAddon_native(pointer);
     }
 
 /**
 Checks if this structure has the capability to use the lift-off command. Returns true if this unit type is a flyable building, false otherwise. Note If this function returns a successful state, then the following function calls will also return a successful state: isBuilding()
 */
     public boolean isFlyingBuilding() {
-        return isFlyingBuilding_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_FLYING_BUILDING) != 0 : isFlyingBuilding_native(pointer);
     }
 
 /**
 Checks if this unit type is a neutral type, such as critters and resources. Returns true if this unit is intended to be neutral, and false otherwise.
 */
     public boolean isNeutral() {
-        return isNeutral_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_NEUTRAL) != 0 : isNeutral_native(pointer);
     }
 
 /**
 Checks if this unit type is a hero. Heroes are types that the player cannot obtain normally, and are identified by the white border around their icon when selected with a group. Note There are two non-hero units included in this set, the Civilian and Dark Templar Hero. Returns true if this unit type is a hero type, and false otherwise.
 */
     public boolean isHero() {
-        return isHero_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_HERO) != 0 : isHero_native(pointer);
     }
 
 /**
 Checks if this unit type is a powerup. Powerups can be picked up and carried by workers. They are usually only seen in campaign maps and Capture the Flag. Returns true if this unit type is a powerup type, and false otherwise.
 */
     public boolean isPowerup() {
-        return isPowerup_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_POWERUP) != 0 : isPowerup_native(pointer);
     }
 
 /**
 Checks if this unit type is a beacon. Each race has exactly one beacon each. They are UnitTypes::Special_Zerg_Beacon, UnitTypes::Special_Terran_Beacon, and UnitTypes::Special_Protoss_Beacon. See also isFlagBeacon Returns true if this unit type is one of the three race beacons, and false otherwise.
 */
     public boolean isBeacon() {
-        return isBeacon_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_BEACON) != 0 : isBeacon_native(pointer);
     }
 
 /**
 Checks if this unit type is a flag beacon. Each race has exactly one flag beacon each. They are UnitTypes::Special_Zerg_Flag_Beacon, UnitTypes::Special_Terran_Flag_Beacon, and UnitTypes::Special_Protoss_Flag_Beacon. Flag beacons spawn a Flag after some ARBITRARY I FORGOT AMOUNT OF FRAMES. See also isBeacon Returns true if this unit type is one of the three race flag beacons, and false otherwise.
 */
     public boolean isFlagBeacon() {
-        return isFlagBeacon_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_FLAG_BEACON) != 0 : isFlagBeacon_native(pointer);
     }
 
 /**
 Checks if this structure is special and cannot be obtained normally within the game. Returns true if this structure is a special building, and false otherwise. Note If this function returns a successful state, then the following function calls will also return a successful state: isBuilding()
 */
     public boolean isSpecialBuilding() {
-        return isSpecialBuilding_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_SPECIAL_BUILDING) != 0 : isSpecialBuilding_native(pointer);
     }
 
 /**
 Identifies if this unit type is used to complement some abilities. These include UnitTypes::Spell_Dark_Swarm, UnitTypes::Spell_Disruption_Web, and UnitTypes::Spell_Scanner_Sweep, which correspond to TechTypes::Dark_Swarm, TechTypes::Disruption_Web, and TechTypes::Scanner_Sweep respectively. Returns true if this unit type is used for an ability, and false otherwise.
 */
     public boolean isSpell() {
-        return isSpell_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_SPELL) != 0 : isSpell_native(pointer);
     }
 
 /**
 Checks if this structure type produces creep. That is, the unit type spreads creep over a wide area so that Zerg structures can be placed on it. Returns true if this unit type spreads creep. Note If this function returns a successful state, then the following function calls will also return a successful state: getRace() == Races::Zerg, isBuilding() Since 4.1.2
 */
     public boolean producesCreep() {
-        return producesCreep_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_PRODUCES_CREEP) != 0 : producesCreep_native(pointer);
     }
 
 /**
 Checks if this unit type produces larva. This is essentially used to check if the unit type is a Hatchery, Lair, or Hive. Returns true if this unit type produces larva. Note If this function returns a successful state, then the following function calls will also return a successful state: getRace() == Races::Zerg, isBuilding()
 */
     public boolean producesLarva() {
-        return producesLarva_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_PRODUCES_LARVA) != 0 : producesLarva_native(pointer);
     }
 
 /**
 Checks if this unit type is a mineral field and contains a resource amount. This indicates that the unit type is either UnitTypes::Resource_Mineral_Field, UnitTypes::Resource_Mineral_Field_Type_2, or UnitTypes::Resource_Mineral_Field_Type_3. Returns true if this unit type is a mineral field resource.
 */
     public boolean isMineralField() {
-        return isMineralField_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_MINERAL_FIELD) != 0 : isMineralField_native(pointer);
     }
 
 /**
 Checks if this unit type is a neutral critter. Returns true if this unit type is a critter, and false otherwise. Example usage: BWAPI::Position myBasePosition( BWAPI::Broodwar->self()->getStartLocation() ); BWAPI::UnitSet unitsAroundTheBase = BWAPI::Broodwar->getUnitsInRadius(myBasePosition, 1024, !BWAPI::Filter::IsOwned && !BWAPI::Filter::IsParasited); for ( auto u : unitsAroundTheBase ) { if ( u->getType().isCritter() && !u->isInvincible() ) { BWAPI::Unit myQueen = u->getClosestUnit(BWAPI::Filter::GetType == BWAPI::UnitTypes::Zerg_Queen && BWAPI::Filter::IsOwned); if ( myQueen ) myQueen->useTech(BWAPI::TechTypes::Parasite, u); } }
 */
     public boolean isCritter() {
-        return isCritter_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_IS_CRITTER) != 0 : isCritter_native(pointer);
     }
 
 /**
 Checks if this unit type is capable of constructing an add-on. An add-on is an extension or attachment for Terran structures, specifically the Command Center, Factory, Starport, and Science Facility. Returns true if this unit type can construct an add-on, and false if it can not. See also isAddon
 */
     public boolean canBuildAddon() {
-        return canBuildAddon_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_CAN_BUILD_ADDON) != 0 : canBuildAddon_native(pointer);
     }
 
 /**
@@ -1175,9 +1185,560 @@ Retrieves the set of upgrades that this unit type is capable of upgrading. Note
 
     private native List<UpgradeType> upgradesWhat_native(long pointer);
 
+    // =========================================================
+    // Static type data, loaded once by loadTypeData()
+
+    /**
+     * Position of this type in static data arrays, or -1 if its data hasn't been loaded.
+     */
+    private int _cacheIndex = -1;
+
+    public static final long FLAG_CAN_PRODUCE = 1L << 0;
+    public static final long FLAG_CAN_ATTACK = 1L << 1;
+    public static final long FLAG_CAN_MOVE = 1L << 2;
+    public static final long FLAG_IS_FLYER = 1L << 3;
+    public static final long FLAG_REGENERATES_HP = 1L << 4;
+    public static final long FLAG_IS_SPELLCASTER = 1L << 5;
+    public static final long FLAG_HAS_PERMANENT_CLOAK = 1L << 6;
+    public static final long FLAG_IS_INVINCIBLE = 1L << 7;
+    public static final long FLAG_IS_ORGANIC = 1L << 8;
+    public static final long FLAG_IS_MECHANICAL = 1L << 9;
+    public static final long FLAG_IS_ROBOTIC = 1L << 10;
+    public static final long FLAG_IS_DETECTOR = 1L << 11;
+    public static final long FLAG_IS_RESOURCE_CONTAINER = 1L << 12;
+    public static final long FLAG_IS_RESOURCE_DEPOT = 1L << 13;
+    public static final long FLAG_IS_REFINERY = 1L << 14;
+    public static final long FLAG_IS_WORKER = 1L << 15;
+    public static final long FLAG_REQUIRES_PSI = 1L << 16;
+    public static final long FLAG_REQUIRES_CREEP = 1L << 17;
+    public static final long FLAG_IS_TWO_UNITS_IN_ONE_EGG = 1L << 18;
+    public static final long FLAG_IS_BURROWABLE = 1L << 19;
+    public static final long FLAG_IS_CLOAKABLE = 1L << 20;
+    public static final long FLAG_IS_BUILDING = 1L << 21;
+    public static final long FLAG_IS_ADDON = 1L << 22;
+    public static final long FLAG_IS_FLYING_BUILDING = 1L << 23;
+    public static final long FLAG_IS_NEUTRAL = 1L << 24;
+    public static final long FLAG_IS_HERO = 1L << 25;
+    public static final long FLAG_IS_POWERUP = 1L << 26;
+    public static final long FLAG_IS_BEACON = 1L << 27;
+    public static final long FLAG_IS_FLAG_BEACON = 1L << 28;
+    public static final long FLAG_IS_SPECIAL_BUILDING = 1L << 29;
+    public static final long FLAG_IS_SPELL = 1L << 30;
+    public static final long FLAG_PRODUCES_CREEP = 1L << 31;
+    public static final long FLAG_PRODUCES_LARVA = 1L << 32;
+    public static final long FLAG_IS_MINERAL_FIELD = 1L << 33;
+    public static final long FLAG_IS_CRITTER = 1L << 34;
+    public static final long FLAG_CAN_BUILD_ADDON = 1L << 35;
+
+    private static long[] _flags = new long[0];
+    private static int[] _maxHitPoints = new int[0];
+    private static int[] _maxShields = new int[0];
+    private static int[] _maxEnergy = new int[0];
+    private static int[] _armor = new int[0];
+    private static int[] _mineralPrice = new int[0];
+    private static int[] _gasPrice = new int[0];
+    private static int[] _buildTime = new int[0];
+    private static int[] _supplyRequired = new int[0];
+    private static int[] _supplyProvided = new int[0];
+    private static int[] _spaceRequired = new int[0];
+    private static int[] _spaceProvided = new int[0];
+    private static int[] _buildScore = new int[0];
+    private static int[] _destroyScore = new int[0];
+    private static int[] _tileWidth = new int[0];
+    private static int[] _tileHeight = new int[0];
+    private static int[] _dimensionLeft = new int[0];
+    private static int[] _dimensionUp = new int[0];
+    private static int[] _dimensionRight = new int[0];
+    private static int[] _dimensionDown = new int[0];
+    private static int[] _width = new int[0];
+    private static int[] _height = new int[0];
+    private static int[] _seekRange = new int[0];
+    private static int[] _sightRange = new int[0];
+    private static int[] _maxGroundHits = new int[0];
+    private static int[] _maxAirHits = new int[0];
+    private static int[] _acceleration = new int[0];
+    private static int[] _haltDistance = new int[0];
+    private static int[] _turnRadius = new int[0];
+    private static double[] _topSpeed = new double[0];
+    private static String[] _toString = new String[0];
+    private static Race[] _getRace = new Race[0];
+    private static List<Pair<UnitType, Integer>> _whatBuilds = new ArrayList<>();
+    private static List<Map<UnitType, Integer>> _requiredUnits = new ArrayList<>();
+    private static UnitSizeType[] _size = new UnitSizeType[0];
+    private static TilePosition[] _tileSize = new TilePosition[0];
+    private static WeaponType[] _groundWeapon = new WeaponType[0];
+    private static WeaponType[] _airWeapon = new WeaponType[0];
+    private static TechType[] _requiredTech = new TechType[0];
+    private static UpgradeType[] _armorUpgrade = new UpgradeType[0];
+    private static UnitType[] _loadedTypes = new UnitType[0];
+
+    /**
+     * Reads all static attributes of all unit types from BWAPI once and stores them in arrays, so that getters
+     * don't need to call native methods anymore. Should be called in onStart, after weapon types are loaded.
+     */
+    public static void loadTypeData() {
+        List<UnitType> types = new ArrayList<>();
+        for (Field field : UnitType.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == UnitType.class) {
+                try {
+                    UnitType type = (UnitType) field.get(null);
+                    if (type != null && type.pointer != 0 && !types.contains(type)) {
+                        types.add(type);
+                    }
+                } catch (IllegalAccessException e) {
+                    // Can't happen, constants are public
+                }
+            }
+        }
+        for (UnitType type : instances.values()) {
+            if (!types.contains(type)) {
+                types.add(type);
+            }
+        }
+
+        allocateTypeData(types);
+        for (int i = 0; i < types.size(); i++) {
+            types.get(i).loadData(i);
+        }
+    }
+
+    /**
+     * Stores static attributes described by <b>data</b> the same way <b>loadTypeData()</b> does, so that unit
+     * types can be used without BWAPI (see atlantis.headless). Types not described keep calling natives.
+     */
+    public static void loadTypeData(List<Data> data) {
+        List<UnitType> types = new ArrayList<>();
+        for (Data typeData : data) {
+            types.add(typeData.type);
+        }
+
+        allocateTypeData(types);
+        for (int i = 0; i < data.size(); i++) {
+            data.get(i).store(i);
+        }
+    }
+
+    /**
+     * Creates empty static data arrays for given types, in this order.
+     */
+    private static void allocateTypeData(List<UnitType> types) {
+        int count = types.size();
+        _loadedTypes = types.toArray(new UnitType[count]);
+        _flags = new long[count];
+        _maxHitPoints = new int[count];
+        _maxShields = new int[count];
+        _maxEnergy = new int[count];
+        _armor = new int[count];
+        _mineralPrice = new int[count];
+        _gasPrice = new int[count];
+        _buildTime = new int[count];
+        _supplyRequired = new int[count];
+        _supplyProvided = new int[count];
+        _spaceRequired = new int[count];
+        _spaceProvided = new int[count];
+        _buildScore = new int[count];
+        _destroyScore = new int[count];
+        _tileWidth = new int[count];
+        _tileHeight = new int[count];
+        _dimensionLeft = new int[count];
+        _dimensionUp = new int[count];
+        _dimensionRight = new int[count];
+        _dimensionDown = new int[count];
+        _width = new int[count];
+        _height = new int[count];
+        _seekRange = new int[count];
+        _sightRange = new int[count];
+        _maxGroundHits = new int[count];
+        _maxAirHits = new int[count];
+        _acceleration = new int[count];
+        _haltDistance = new int[count];
+        _turnRadius = new int[count];
+        _topSpeed = new double[count];
+        _toString = new String[count];
+        _getRace = new Race[count];
+        _whatBuilds = new ArrayList<>(Collections.<Pair<UnitType, Integer>>nCopies(count, null));
+        _requiredUnits = new ArrayList<>(Collections.<Map<UnitType, Integer>>nCopies(count, null));
+        _size = new UnitSizeType[count];
+        _tileSize = new TilePosition[count];
+        _groundWeapon = new WeaponType[count];
+        _airWeapon = new WeaponType[count];
+        _requiredTech = new TechType[count];
+        _armorUpgrade = new UpgradeType[count];
+    }
+
+    private void loadData(int i) {
+        long flags = 0;
+        if (canProduce_native(pointer)) {
+            flags |= FLAG_CAN_PRODUCE;
+        }
+        if (canAttack_native(pointer)) {
+            flags |= FLAG_CAN_ATTACK;
+        }
+        if (canMove_native(pointer)) {
+            flags |= FLAG_CAN_MOVE;
+        }
+        if (isFlyer_native(pointer)) {
+            flags |= FLAG_IS_FLYER;
+        }
+        if (regeneratesHP_native(pointer)) {
+            flags |= FLAG_REGENERATES_HP;
+        }
+        if (isSpellcaster_native(pointer)) {
+            flags |= FLAG_IS_SPELLCASTER;
+        }
+        if (hasPermanentCloak_native(pointer)) {
+            flags |= FLAG_HAS_PERMANENT_CLOAK;
+        }
+        if (isInvincible_native(pointer)) {
+            flags |= FLAG_IS_INVINCIBLE;
+        }
+        if (isOrganic_native(pointer)) {
+            flags |= FLAG_IS_ORGANIC;
+        }
+        if (isMechanical_native(pointer)) {
+            flags |= FLAG_IS_MECHANICAL;
+        }
+        if (isRobotic_native(pointer)) {
+            flags |= FLAG_IS_ROBOTIC;
+        }
+        if (isDetector_native(pointer)) {
+            flags |= FLAG_IS_DETECTOR;
+        }
+        if (isResourceContainer_native(pointer)) {
+            flags |= FLAG_IS_RESOURCE_CONTAINER;
+        }
+        if (isResourceDepot_native(pointer)) {
+            flags |= FLAG_IS_RESOURCE_DEPOT;
+        }
+        if (isRefinery_native(pointer)) {
+            flags |= FLAG_IS_REFINERY;
+        }
+        if (isWorker_native(pointer)) {
+            flags |= FLAG_IS_WORKER;
+        }
+        if (requiresPsi_native(pointer)) {
+            flags |= FLAG_REQUIRES_PSI;
+        }
+        if (requiresCreep_native(pointer)) {
+            flags |= FLAG_REQUIRES_CREEP;
+        }
+        if (isTwoUnitsInOneEgg_native(pointer)) {
+            flags |= FLAG_IS_TWO_UNITS_IN_ONE_EGG;
+        }
+        if (isBurrowable_native(pointer)) {
+            flags |= FLAG_IS_BURROWABLE;
+        }
+        if (isCloakable_native(pointer)) {
+            flags |= FLAG_IS_CLOAKABLE;
+        }
+        if (isBuilding_native(pointer)) {
+            flags |= FLAG_IS_BUILDING;
+        }
+        if (isAddon_native(pointer)) {
+            flags |= FLAG_IS_ADDON;
+        }
+        if (isFlyingBuilding_native(pointer)) {
+            flags |= FLAG_IS_FLYING_BUILDING;
+        }
+        if (isNeutral_native(pointer)) {
+            flags |= FLAG_IS_NEUTRAL;
+        }
+        if (isHero_native(pointer)) {
+            flags |= FLAG_IS_HERO;
+        }
+        if (isPowerup_native(pointer)) {
+            flags |= FLAG_IS_POWERUP;
+        }
+        if (isBeacon_native(pointer)) {
+            flags |= FLAG_IS_BEACON;
+        }
+        if (isFlagBeacon_native(pointer)) {
+            flags |= FLAG_IS_FLAG_BEACON;
+        }
+        if (isSpecialBuilding_native(pointer)) {
+            flags |= FLAG_IS_SPECIAL_BUILDING;
+        }
+        if (isSpell_native(pointer)) {
+            flags |= FLAG_IS_SPELL;
+        }
+        if (producesCreep_native(pointer)) {
+            flags |= FLAG_PRODUCES_CREEP;
+        }
+        if (producesLarva_native(pointer)) {
+            flags |= FLAG_PRODUCES_LARVA;
+        }
+        if (isMineralField_native(pointer)) {
+            flags |= FLAG_IS_MINERAL_FIELD;
+        }
+        if (isCritter_native(pointer)) {
+            flags |= FLAG_IS_CRITTER;
+        }
+        if (canBuildAddon_native(pointer)) {
+            flags |= FLAG_CAN_BUILD_ADDON;
+        }
+        _flags[i] = flags;
+        _maxHitPoints[i] = maxHitPoints_native(pointer);
+        _maxShields[i] = maxShields_native(pointer);
+        _maxEnergy[i] = maxEnergy_native(pointer);
+        _armor[i] = armor_native(pointer);
+        _mineralPrice[i] = mineralPrice_native(pointer);
+        _gasPrice[i] = gasPrice_native(pointer);
+        _buildTime[i] = buildTime_native(pointer);
+        _supplyRequired[i] = supplyRequired_native(pointer);
+        _supplyProvided[i] = supplyProvided_native(pointer);
+        _spaceRequired[i] = spaceRequired_native(pointer);
+        _spaceProvided[i] = spaceProvided_native(pointer);
+        _buildScore[i] = buildScore_native(pointer);
+        _destroyScore[i] = destroyScore_native(pointer);
+        _tileWidth[i] = tileWidth_native(pointer);
+        _tileHeight[i] = tileHeight_native(pointer);
+        _dimensionLeft[i] = dimensionLeft_native(pointer);
+        _dimensionUp[i] = dimensionUp_native(pointer);
+        _dimensionRight[i] = dimensionRight_native(pointer);
+        _dimensionDown[i] = dimensionDown_native(pointer);
+        _width[i] = width_native(pointer);
+        _height[i] = height_native(pointer);
+        _seekRange[i] = seekRange_native(pointer);
+        _sightRange[i] = sightRange_native(pointer);
+        _maxGroundHits[i] = maxGroundHits_native(pointer);
+        _maxAirHits[i] = maxAirHits_native(pointer);
+        _acceleration[i] = acceleration_native(pointer);
+        _haltDistance[i] = haltDistance_native(pointer);
+        _turnRadius[i] = turnRadius_native(pointer);
+        _topSpeed[i] = topSpeed_native(pointer);
+        _toString[i] = toString_native(pointer);
+        _getRace[i] = getRace_native(pointer);
+        _whatBuilds.set(i, whatBuilds_native(pointer));
+        _requiredUnits.set(i, Collections.unmodifiableMap(new HashMap<UnitType, Integer>(requiredUnits_native(pointer))));
+        _size[i] = size_native(pointer);
+        _tileSize[i] = tileSize_native(pointer);
+        _groundWeapon[i] = groundWeapon_native(pointer);
+        _airWeapon[i] = airWeapon_native(pointer);
+        _requiredTech[i] = requiredTech_native(pointer);
+        _armorUpgrade[i] = armorUpgrade_native(pointer);
+        _cacheIndex = i;
+    }
+
+
     // =========================================================
     // ===== Start of ATLANTIS CODE ============================
     // =========================================================
+    /**
+     * Returns position of this type in static data arrays (the same as in <b>getLoadedTypes()</b>), or -1 if
+     * type data hasn't been loaded yet.
+     */
+    public int getDataIndex() {
+        return _cacheIndex;
+    }
+
+    /**
+     * Returns all unit types whose data has been loaded by <b>loadTypeData()</b>, in order of data indices.
+     */
+    public static UnitType[] getLoadedTypes() {
+        return _loadedTypes.clone();
+    }
+
+    /**
+     * Static attributes of one unit type, given by hand instead of read from BWAPI. Attributes not set keep
+     * values of UnitType.None (no weapons, no requirements, zero size and costs).
+     */
+    public static class Data {
+
+        private final UnitType type;
+        private final String name;
+        private final Race race;
+        private long flags = 0;
+        private int maxHitPoints = 0;
+        private int maxShields = 0;
+        private int maxEnergy = 0;
+        private int armor = 0;
+        private int mineralPrice = 0;
+        private int gasPrice = 0;
+        private int buildTime = 0;
+        private int supplyRequired = 0;
+        private int supplyProvided = 0;
+        private int spaceRequired = 0;
+        private int spaceProvided = 0;
+        private int tileWidth = 1;
+        private int tileHeight = 1;
+        private int dimensionLeft = 0;
+        private int dimensionUp = 0;
+        private int dimensionRight = 0;
+        private int dimensionDown = 0;
+        private int seekRange = 0;
+        private int sightRange = 0;
+        private double topSpeed = 0;
+        private int acceleration = 0;
+        private int haltDistance = 0;
+        private int turnRadius = 0;
+        private UnitSizeType size = UnitSizeType.None;
+        private WeaponType groundWeapon = WeaponType.None;
+        private int maxGroundHits = 0;
+        private WeaponType airWeapon = WeaponType.None;
+        private int maxAirHits = 0;
+        private Pair<UnitType, Integer> whatBuilds = new Pair<>(UnitType.None, 0);
+        private Map<UnitType, Integer> requiredUnits = new HashMap<>();
+        private TechType requiredTech = TechType.None;
+        private UpgradeType armorUpgrade = UpgradeType.None;
+
+        public Data(UnitType type, String name, Race race, long flags) {
+            this.type = type;
+            this.name = name;
+            this.race = race;
+            this.flags = flags;
+        }
+
+        public Data hitPoints(int maxHitPoints, int maxShields, int maxEnergy, int armor) {
+            this.maxHitPoints = maxHitPoints;
+            this.maxShields = maxShields;
+            this.maxEnergy = maxEnergy;
+            this.armor = armor;
+            return this;
+        }
+
+        public Data price(int mineralPrice, int gasPrice, int buildTime) {
+            this.mineralPrice = mineralPrice;
+            this.gasPrice = gasPrice;
+            this.buildTime = buildTime;
+            return this;
+        }
+
+        /**
+         * Supply is counted in halves, like in BWAPI (Marine requires 2).
+         */
+        public Data supply(int supplyRequired, int supplyProvided) {
+            this.supplyRequired = supplyRequired;
+            this.supplyProvided = supplyProvided;
+            return this;
+        }
+
+        public Data space(int spaceRequired, int spaceProvided) {
+            this.spaceRequired = spaceRequired;
+            this.spaceProvided = spaceProvided;
+            return this;
+        }
+
+        /**
+         * Size in build tiles (for buildings) and dimensions of the unit in pixels, measured from its center.
+         */
+        public Data size(UnitSizeType size, int tileWidth, int tileHeight, int left, int up, int right, int down) {
+            this.size = size;
+            this.tileWidth = tileWidth;
+            this.tileHeight = tileHeight;
+            this.dimensionLeft = left;
+            this.dimensionUp = up;
+            this.dimensionRight = right;
+            this.dimensionDown = down;
+            return this;
+        }
+
+        public Data movement(double topSpeed, int acceleration, int haltDistance, int turnRadius) {
+            this.topSpeed = topSpeed;
+            this.acceleration = acceleration;
+            this.haltDistance = haltDistance;
+            this.turnRadius = turnRadius;
+            return this;
+        }
+
+        public Data ranges(int seekRange, int sightRange) {
+            this.seekRange = seekRange;
+            this.sightRange = sightRange;
+            return this;
+        }
+
+        public Data groundWeapon(WeaponType weapon, int maxHits) {
+            this.groundWeapon = weapon;
+            this.maxGroundHits = maxHits;
+            return this;
+        }
+
+        public Data airWeapon(WeaponType weapon, int maxHits) {
+            this.airWeapon = weapon;
+            this.maxAirHits = maxHits;
+            return this;
+        }
+
+        /**
+         * Unit type that produces this type (SCV for buildings, Barracks for Marine etc).
+         */
+        public Data whatBuilds(UnitType builder, int count) {
+            this.whatBuilds = new Pair<>(builder, count);
+            return this;
+        }
+
+        /**
+         * Adds unit type that must exist before this type can be produced. Builder is added automatically.
+         */
+        public Data requires(UnitType required) {
+            requiredUnits.put(required, 1);
+            return this;
+        }
+
+        public Data requiredTech(TechType tech) {
+            this.requiredTech = tech;
+            return this;
+        }
+
+        public Data armorUpgrade(UpgradeType upgrade) {
+            this.armorUpgrade = upgrade;
+            return this;
+        }
+
+        public UnitType getType() {
+            return type;
+        }
+
+        private void store(int i) {
+            Map<UnitType, Integer> required = new HashMap<>(requiredUnits);
+            if (whatBuilds.first != UnitType.None) {
+                required.put(whatBuilds.first, whatBuilds.second);
+            }
+
+            _flags[i] = flags;
+            _maxHitPoints[i] = maxHitPoints;
+            _maxShields[i] = maxShields;
+            _maxEnergy[i] = maxEnergy;
+            _armor[i] = armor;
+            _mineralPrice[i] = mineralPrice;
+            _gasPrice[i] = gasPrice;
+            _buildTime[i] = buildTime;
+            _supplyRequired[i] = supplyRequired;
+            _supplyProvided[i] = supplyProvided;
+            _spaceRequired[i] = spaceRequired;
+            _spaceProvided[i] = spaceProvided;
+            _buildScore[i] = mineralPrice + 2 * gasPrice;
+            _destroyScore[i] = 2 * (mineralPrice + 2 * gasPrice);
+            _tileWidth[i] = tileWidth;
+            _tileHeight[i] = tileHeight;
+            _dimensionLeft[i] = dimensionLeft;
+            _dimensionUp[i] = dimensionUp;
+            _dimensionRight[i] = dimensionRight;
+            _dimensionDown[i] = dimensionDown;
+            _width[i] = dimensionLeft + dimensionRight + 1;
+            _height[i] = dimensionUp + dimensionDown + 1;
+            _seekRange[i] = seekRange;
+            _sightRange[i] = sightRange;
+            _maxGroundHits[i] = maxGroundHits;
+            _maxAirHits[i] = maxAirHits;
+            _acceleration[i] = acceleration;
+            _haltDistance[i] = haltDistance;
+            _turnRadius[i] = turnRadius;
+            _topSpeed[i] = topSpeed;
+            _toString[i] = name;
+            _getRace[i] = race;
+            _whatBuilds.set(i, whatBuilds);
+            _requiredUnits.set(i, Collections.unmodifiableMap(required));
+            _size[i] = size;
+            _tileSize[i] = new TilePosition(tileWidth, tileHeight);
+            _groundWeapon[i] = groundWeapon;
+            _airWeapon[i] = airWeapon;
+            _requiredTech[i] = requiredTech;
+            _armorUpgrade[i] = armorUpgrade;
+            type._cacheIndex = i;
+        }
+
+    }
+
     /**
      * Returns whether this type is one of the given types
      * @param types
@@ -0,0 +1,389 @@
+package bwapi;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+The upgrade type represents a passive upgrade that can be obtained with UnitInterface::upgrade. See also UpgradeTypes
+*/
+public class UpgradeType {
+
+    public String toString() {
+        return _cacheIndex >= 0 ? _toString[_cacheIndex] : toString_native(pointer);
+    }
+
+    public Race getRace() {
+        return _cacheIndex >= 0 ? _getRace[_cacheIndex] : getRace_native(pointer);
+    }
+
+    public int mineralPrice() {
+        return _cacheIndex >= 0 ? _mineralPrice[_cacheIndex] : mineralPrice_native(pointer);
+    }
+
+    public int mineralPrice(int x) {
+        return _cacheIndex >= 0 ? _mineralPrice[_cacheIndex] + _mineralPriceFactor[_cacheIndex] * (x - 1) : mineralPrice_native(pointer, x);
+    }
+
+    public int mineralPriceFactor() {
+        return _cacheIndex >= 0 ? _mineralPriceFactor[_cacheIndex] : mineralPriceFactor_native(pointer);
+    }
+
+    public int gasPrice() {
+        return _cacheIndex >= 0 ? _gasPrice[_cacheIndex] : gasPrice_native(pointer);
+    }
+
+    public int gasPrice(int x) {
+        return _cacheIndex >= 0 ? _gasPrice[_cacheIndex] + _gasPriceFactor[_cacheIndex] * (x - 1) : gasPrice_native(pointer, x);
+    }
+
+    public int gasPriceFactor() {
+        return _cacheIndex >= 0 ? _gasPriceFactor[_cacheIndex] : gasPriceFactor_native(pointer);
+    }
+
+    public int upgradeTime() {
+        return _cacheIndex >= 0 ? _upgradeTime[_cacheIndex] : upgradeTime_native(pointer);
+    }
+
+    public int upgradeTime(int x) {
+        return _cacheIndex >= 0 ? _upgradeTime[_cacheIndex] + _upgradeTimeFactor[_cacheIndex] * (x - 1) : upgradeTime_native(pointer, x);
+    }
+
+    public int upgradeTimeFactor() {
+        return _cacheIndex >= 0 ? _upgradeTimeFactor[_cacheIndex] : upgradeTimeFactor_native(pointer);
+    }
+
+    public int maxRepeats() {
+        return _cacheIndex >= 0 ? _maxRepeats[_cacheIndex] : maxRepeats_native(pointer);
+    }
+
+    public UnitType whatUpgrades() {
+        return _cacheIndex >= 0 ? _whatUpgrades[_cacheIndex] : whatUpgrades_native(pointer);
+    }
+
+    public UnitType whatsRequired() {
+        return _cacheIndex >= 0 ? _whatsRequired[_cacheIndex] : whatsRequired_native(pointer);
+    }
+
+    public UnitType whatsRequired(int x) {
+        return whatsRequired_native(pointer, x);
+    }
+
+    public static final UpgradeType Terran_Infantry_Armor = new UpgradeType(0);
+
+    public static final UpgradeType Terran_Vehicle_Plating = new UpgradeType(0);
+
+    public static final UpgradeType Terran_Ship_Plating = new UpgradeType(0);
+
+    public static final UpgradeType Terran_Infantry_Weapons = new UpgradeType(0);
+
+    public static final UpgradeType Terran_Vehicle_Weapons = new UpgradeType(0);
+
+    public static final UpgradeType Terran_Ship_Weapons = new UpgradeType(0);
+
+    public static final UpgradeType U_238_Shells = new UpgradeType(0);
+
+    public static final UpgradeType Ion_Thrusters = new UpgradeType(0);
+
+    public static final UpgradeType Titan_Reactor = new UpgradeType(0);
+
+    public static final UpgradeType Ocular_Implants = new UpgradeType(0);
+
+    public static final UpgradeType Moebius_Reactor = new UpgradeType(0);
+
+    public static final UpgradeType Apollo_Reactor = new UpgradeType(0);
+
+    public static final UpgradeType Colossus_Reactor = new UpgradeType(0);
+
+    public static final UpgradeType Caduceus_Reactor = new UpgradeType(0);
+
+    public static final UpgradeType Charon_Boosters = new UpgradeType(0);
+
+    public static final UpgradeType Zerg_Carapace = new UpgradeType(0);
+
+    public static final UpgradeType Zerg_Flyer_Carapace = new UpgradeType(0);
+
+    public static final UpgradeType Zerg_Melee_Attacks = new UpgradeType(0);
+
+    public static final UpgradeType Zerg_Missile_Attacks = new UpgradeType(0);
+
+    public static final UpgradeType Zerg_Flyer_Attacks = new UpgradeType(0);
+
+    public static final UpgradeType Ventral_Sacs = new UpgradeType(0);
+
+    public static final UpgradeType Antennae = new UpgradeType(0);
+
+    public static final UpgradeType Pneumatized_Carapace = new UpgradeType(0);
+
+    public static final UpgradeType Metabolic_Boost = new UpgradeType(0);
+
+    public static final UpgradeType Adrenal_Glands = new UpgradeType(0);
+
+    public static final UpgradeType Muscular_Augments = new UpgradeType(0);
+
+    public static final UpgradeType Grooved_Spines = new UpgradeType(0);
+
+    public static final UpgradeType Gamete_Meiosis = new UpgradeType(0);
+
+    public static final UpgradeType Metasynaptic_Node = new UpgradeType(0);
+
+    public static final UpgradeType Chitinous_Plating = new UpgradeType(0);
+
+    public static final UpgradeType Anabolic_Synthesis = new UpgradeType(0);
+
+    public static final UpgradeType Protoss_Ground_Armor = new UpgradeType(0);
+
+    public static final UpgradeType Protoss_Air_Armor = new UpgradeType(0);
+
+    public static final UpgradeType Protoss_Ground_Weapons = new UpgradeType(0);
+
+    public static final UpgradeType Protoss_Air_Weapons = new UpgradeType(0);
+
+    public static final UpgradeType Protoss_Plasma_Shields = new UpgradeType(0);
+
+    public static final UpgradeType Singularity_Charge = new UpgradeType(0);
+
+    public static final UpgradeType Leg_Enhancements = new UpgradeType(0);
+
+    public static final UpgradeType Scarab_Damage = new UpgradeType(0);
+
+    public static final UpgradeType Reaver_Capacity = new UpgradeType(0);
+
+    public static final UpgradeType Gravitic_Drive = new UpgradeType(0);
+
+    public static final UpgradeType Sensor_Array = new UpgradeType(0);
+
+    public static final UpgradeType Gravitic_Boosters = new UpgradeType(0);
+
+    public static final UpgradeType Khaydarin_Amulet = new UpgradeType(0);
+
+    public static final UpgradeType Apial_Sensors = new UpgradeType(0);
+
+    public static final UpgradeType Gravitic_Thrusters = new UpgradeType(0);
+
+    public static final UpgradeType Carrier_Capacity = new UpgradeType(0);
+
+    public static final UpgradeType Khaydarin_Core = new UpgradeType(0);
+
+    public static final UpgradeType Argus_Jewel = new UpgradeType(0);
+
+    public static final UpgradeType Argus_Talisman = new UpgradeType(0);
+
+    public static final UpgradeType Upgrade_60 = new UpgradeType(0);
+
+    public static final UpgradeType None = new UpgradeType(0);
+
+    public static final UpgradeType Unknown = new UpgradeType(0);
+
+
+    private static Map<Long, UpgradeType> instances = new HashMap<Long, UpgradeType>();
+
+    private UpgradeType(long pointer) {
+        this.pointer = pointer;
+    }
+
+    private static UpgradeType get(long pointer) {
+        if (pointer == 0 ) {
+            return null;
+        }
+        UpgradeType instance = instances.get(pointer);
+        if (instance == null ) {
+            instance = new UpgradeType(pointer);
+            instances.put(pointer, instance);
+        }
+        return instance;
+    }
+
+    private long pointer;
+
+    private native String toString_native(long pointer);
+
+    private native Race getRace_native(long pointer);
+
+    private native int mineralPrice_native(long pointer);
+
+    private native int mineralPrice_native(long pointer, int x);
+
+    private native int mineralPriceFactor_native(long pointer);
+
+    private native int gasPrice_native(long pointer);
+
+    private native int gasPrice_native(long pointer, int x);
+
+    private native int gasPriceFactor_native(long pointer);
+
+    private native int upgradeTime_native(long pointer);
+
+    private native int upgradeTime_native(long pointer, int x);
+
+    private native int upgradeTimeFactor_native(long pointer);
+
+    private native int maxRepeats_native(long pointer);
+
+    private native UnitType whatUpgrades_native(long pointer);
+
+    private native UnitType whatsRequired_native(long pointer);
+
+    private native UnitType whatsRequired_native(long pointer, int x);
+
+    // =========================================================
+    // ===== Start of ATLANTIS CODE ============================
+    // =========================================================
+    /**
+     * Position of this type in static data arrays, or -1 if its data hasn't been loaded.
+     */
+    private int _cacheIndex = -1;
+
+    private static int[] _mineralPrice = new int[0];
+    private static int[] _mineralPriceFactor = new int[0];
+    private static int[] _gasPrice = new int[0];
+    private static int[] _gasPriceFactor = new int[0];
+    private static int[] _upgradeTime = new int[0];
+    private static int[] _upgradeTimeFactor = new int[0];
+    private static int[] _maxRepeats = new int[0];
+    private static String[] _toString = new String[0];
+    private static Race[] _getRace = new Race[0];
+    private static UnitType[] _whatUpgrades = new UnitType[0];
+    private static UnitType[] _whatsRequired = new UnitType[0];
+
+    /**
+     * Reads static attributes of all upgrade types from BWAPI once and stores them in arrays, so that getters
+     * don't need to call native methods anymore. Should be called in onStart.
+     */
+    public static void loadTypeData() {
+        List<UpgradeType> types = new ArrayList<>();
+        for (Field field : UpgradeType.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == UpgradeType.class) {
+                try {
+                    UpgradeType type = (UpgradeType) field.get(null);
+                    if (type != null && type.pointer != 0 && !types.contains(type)) {
+                        types.add(type);
+                    }
+                } catch (IllegalAccessException e) {
+                    // Can't happen, constants are public
+                }
+            }
+        }
+        for (UpgradeType type : instances.values()) {
+            if (!types.contains(type)) {
+                types.add(type);
+            }
+        }
+
+        allocateTypeData(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            types.get(i).loadData(i);
+        }
+    }
+
+    /**
+     * Stores static attributes described by <b>data</b> the same way <b>loadTypeData()</b> does, so that
+     * upgrade types can be used without BWAPI (see atlantis.headless).
+     */
+    public static void loadTypeData(List<Data> data) {
+        allocateTypeData(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            data.get(i).store(i);
+        }
+    }
+
+    private static void allocateTypeData(int count) {
+        _mineralPrice = new int[count];
+        _mineralPriceFactor = new int[count];
+        _gasPrice = new int[count];
+        _gasPriceFactor = new int[count];
+        _upgradeTime = new int[count];
+        _upgradeTimeFactor = new int[count];
+        _maxRepeats = new int[count];
+        _toString = new String[count];
+        _getRace = new Race[count];
+        _whatUpgrades = new UnitType[count];
+        _whatsRequired = new UnitType[count];
+    }
+
+    private void loadData(int i) {
+        _mineralPrice[i] = mineralPrice_native(pointer);
+        _mineralPriceFactor[i] = mineralPriceFactor_native(pointer);
+        _gasPrice[i] = gasPrice_native(pointer);
+        _gasPriceFactor[i] = gasPriceFactor_native(pointer);
+        _upgradeTime[i] = upgradeTime_native(pointer);
+        _upgradeTimeFactor[i] = upgradeTimeFactor_native(pointer);
+        _maxRepeats[i] = maxRepeats_native(pointer);
+        _toString[i] = toString_native(pointer);
+        _getRace[i] = getRace_native(pointer);
+        _whatUpgrades[i] = whatUpgrades_native(pointer);
+        _whatsRequired[i] = whatsRequired_native(pointer);
+        _cacheIndex = i;
+    }
+
+    /**
+     * Static attributes of one upgrade type, given by hand instead of read from BWAPI. Prices and times are
+     * of the first level; every next level costs <b>factor</b> more.
+     */
+    public static class Data {
+
+        private final UpgradeType type;
+        private final String name;
+        private final Race race;
+        private final UnitType whatUpgrades;
+        private int mineralPrice = 0;
+        private int mineralPriceFactor = 0;
+        private int gasPrice = 0;
+        private int gasPriceFactor = 0;
+        private int upgradeTime = 0;
+        private int upgradeTimeFactor = 0;
+        private int maxRepeats = 1;
+        private UnitType whatsRequired = UnitType.None;
+
+        public Data(UpgradeType type, String name, Race race, UnitType whatUpgrades) {
+            this.type = type;
+            this.name = name;
+            this.race = race;
+            this.whatUpgrades = whatUpgrades;
+        }
+
+        public Data price(int mineralPrice, int gasPrice, int upgradeTime) {
+            this.mineralPrice = mineralPrice;
+            this.gasPrice = gasPrice;
+            this.upgradeTime = upgradeTime;
+            return this;
+        }
+
+        public Data levels(int maxRepeats, int mineralPriceFactor, int gasPriceFactor, int upgradeTimeFactor) {
+            this.maxRepeats = maxRepeats;
+            this.mineralPriceFactor = mineralPriceFactor;
+            this.gasPriceFactor = gasPriceFactor;
+            this.upgradeTimeFactor = upgradeTimeFactor;
+            return this;
+        }
+
+        public Data requires(UnitType whatsRequired) {
+            this.whatsRequired = whatsRequired;
+            return this;
+        }
+
+        public UpgradeType getType() {
+            return type;
+        }
+
+        private void store(int i) {
+            _mineralPrice[i] = mineralPrice;
+            _mineralPriceFactor[i] = mineralPriceFactor;
+            _gasPrice[i] = gasPrice;
+            _gasPriceFactor[i] = gasPriceFactor;
+            _upgradeTime[i] = upgradeTime;
+            _upgradeTimeFactor[i] = upgradeTimeFactor;
+            _maxRepeats[i] = maxRepeats;
+            _toString[i] = name;
+            _getRace[i] = race;
+            _whatUpgrades[i] = whatUpgrades;
+            _whatsRequired[i] = whatsRequired;
+            type._cacheIndex = i;
+        }
+
+    }
+
+}
@@ -2,6 +2,9 @@ package bwapi;
 
 import bwapi.*;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Collection;
@@ -16,7 +19,7 @@ Expected type constructor. If the type is an invalid type, then it becomes Types
 public class WeaponType {
 
     public String toString() {
-        return toString_native(pointer);
+        return _cacheIndex >= 0 ? _toString[_cacheIndex] : toString_native(pointer);
     }
 
 /**
@@ -37,147 +40,147 @@ Retrieves the unit type that is intended to use this weapon type. Note There is
 Retrieves the base amount of damage that this weapon can deal per attack. Note That this damage amount must go through a DamageType and UnitSizeType filter before it is applied to a unit. Returns Amount of base damage that this weapon deals.
 */
     public int damageAmount() {
-        return damageAmount_native(pointer);
+        return _cacheIndex >= 0 ? _damageAmount[_cacheIndex] : damageAmount_native(pointer);
     }
 
 /**
 Determines the bonus amount of damage that this weapon type increases by for every upgrade to this type. See also upgradeType Returns Amount of damage added for every weapon upgrade.
 */
     public int damageBonus() {
-        return damageBonus_native(pointer);
+        return _cacheIndex >= 0 ? _damageBonus[_cacheIndex] : damageBonus_native(pointer);
     }
 
 /**
 Retrieves the base amount of cooldown time between each attack, in frames. Returns The amount of base cooldown applied to the unit after an attack. See also UnitInterface::getGroundWeaponCooldown, UnitInterface::getAirWeaponCooldown
 */
     public int damageCooldown() {
-        return damageCooldown_native(pointer);
+        return _cacheIndex >= 0 ? _damageCooldown[_cacheIndex] : damageCooldown_native(pointer);
     }
 
 /**
 Obtains the intended number of missiles/attacks that are used. This is used to multiply with the damage amount to obtain the full amount of damage for an attack. Returns The damage factor multiplied by the amount to obtain the total damage. See also damageAmount
 */
     public int damageFactor() {
-        return damageFactor_native(pointer);
+        return _cacheIndex >= 0 ? _damageFactor[_cacheIndex] : damageFactor_native(pointer);
     }
 
 /**
 Retrieves the upgrade type that increases this weapon's damage output. Returns The UpgradeType used to upgrade this weapon's damage. See also damageBonus
 */
     public UpgradeType upgradeType() {
-        return upgradeType_native(pointer);
+        return _cacheIndex >= 0 ? _upgradeType[_cacheIndex] : upgradeType_native(pointer);
     }
 
 /**
 Retrieves the damage type that this weapon applies to a unit type. Returns DamageType used for damage calculation. See also DamageType, UnitSizeType
 */
     public DamageType damageType() {
-        return damageType_native(pointer);
+        return _cacheIndex >= 0 ? _damageType[_cacheIndex] : damageType_native(pointer);
     }
 
 /**
 Retrieves the explosion type that indicates how the weapon deals damage. Returns ExplosionType identifying how damage is applied to a target location.
 */
     public ExplosionType explosionType() {
-        return explosionType_native(pointer);
+        return _cacheIndex >= 0 ? _explosionType[_cacheIndex] : explosionType_native(pointer);
     }
 
 /**
 Retrieves the minimum attack range of the weapon, measured in pixels. This value is 0 for almost all weapon types, except for WeaponTypes::Arclite_Shock_Cannon and WeaponTypes::Arclite_Shock_Cannon_Edmund_Duke. Returns Minimum attack range, in pixels.
 */
     public int minRange() {
-        return minRange_native(pointer);
+        return _cacheIndex >= 0 ? _minRange[_cacheIndex] : minRange_native(pointer);
     }
 
 /**
 Retrieves the maximum attack range of the weapon, measured in pixels. Returns Maximum attack range, in pixels.
 */
     public int maxRange() {
-        return maxRange_native(pointer);
+        return _cacheIndex >= 0 ? _maxRange[_cacheIndex] : maxRange_native(pointer);
     }
 
 /**
 Retrieves the inner radius used for splash damage calculations, in pixels. Returns Radius of the inner splash area, in pixels.
 */
     public int innerSplashRadius() {
-        return innerSplashRadius_native(pointer);
+        return _cacheIndex >= 0 ? _innerSplashRadius[_cacheIndex] : innerSplashRadius_native(pointer);
     }
 
 /**
 Retrieves the middle radius used for splash damage calculations, in pixels. Returns Radius of the middle splash area, in pixels.
 */
     public int medianSplashRadius() {
-        return medianSplashRadius_native(pointer);
+        return _cacheIndex >= 0 ? _medianSplashRadius[_cacheIndex] : medianSplashRadius_native(pointer);
     }
 
 /**
 Retrieves the outer radius used for splash damage calculations, in pixels. Returns Radius of the outer splash area, in pixels.
 */
     public int outerSplashRadius() {
-        return outerSplashRadius_native(pointer);
+        return _cacheIndex >= 0 ? _outerSplashRadius[_cacheIndex] : outerSplashRadius_native(pointer);
     }
 
 /**
 Checks if this weapon type can target air units. Returns true if this weapon type can target air units, and false otherwise. See also UnitInterface::isFlying, UnitType::isFlyer
 */
     public boolean targetsAir() {
-        return targetsAir_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_AIR) != 0 : targetsAir_native(pointer);
     }
 
 /**
 Checks if this weapon type can target ground units. Returns true if this weapon type can target ground units, and false otherwise. See also UnitInterface::isFlying, UnitType::isFlyer
 */
     public boolean targetsGround() {
-        return targetsGround_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_GROUND) != 0 : targetsGround_native(pointer);
     }
 
 /**
 Checks if this weapon type can only target mechanical units. Returns true if this weapon type can only target mechanical units, and false otherwise. See also targetsOrgOrMech, UnitType::isMechanical
 */
     public boolean targetsMechanical() {
-        return targetsMechanical_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_MECHANICAL) != 0 : targetsMechanical_native(pointer);
     }
 
 /**
 Checks if this weapon type can only target organic units. Returns true if this weapon type can only target organic units, and false otherwise. See also targetsOrgOrMech, UnitType::isOrganic
 */
     public boolean targetsOrganic() {
-        return targetsOrganic_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_ORGANIC) != 0 : targetsOrganic_native(pointer);
     }
 
 /**
 Checks if this weapon type cannot target structures. Returns true if this weapon type cannot target buildings, and false if it can. See also UnitType::isBuilding
 */
     public boolean targetsNonBuilding() {
-        return targetsNonBuilding_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_NON_BUILDING) != 0 : targetsNonBuilding_native(pointer);
     }
 
 /**
 Checks if this weapon type cannot target robotic units. Returns true if this weapon type cannot target robotic units, and false if it can. See also UnitType::isRobotic
 */
     public boolean targetsNonRobotic() {
-        return targetsNonRobotic_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_NON_ROBOTIC) != 0 : targetsNonRobotic_native(pointer);
     }
 
 /**
 Checks if this weapon type can target the ground. Note This is more for attacks like Psionic Storm which can target a location, not to be confused with attack move. Returns true if this weapon type can target a location, and false otherwise.
 */
     public boolean targetsTerrain() {
-        return targetsTerrain_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_TERRAIN) != 0 : targetsTerrain_native(pointer);
     }
 
 /**
 Checks if this weapon type can only target organic or mechanical units. Returns true if this weapon type can only target organic or mechanical units, and false otherwise. See also targetsOrganic, targetsMechanical, UnitType::isOrganic, UnitType::isMechanical
 */
     public boolean targetsOrgOrMech() {
-        return targetsOrgOrMech_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_ORG_OR_MECH) != 0 : targetsOrgOrMech_native(pointer);
     }
 
 /**
 Checks if this weapon type can only target units owned by the same player. This is used for WeaponTypes::Consume. Returns true if this weapon type can only target your own units, and false otherwise. See also UnitInterface::getPlayer
 */
     public boolean targetsOwn() {
-        return targetsOwn_native(pointer);
+        return _cacheIndex >= 0 ? (_flags[_cacheIndex] & FLAG_TARGETS_OWN) != 0 : targetsOwn_native(pointer);
     }
 
     public static final WeaponType Gauss_Rifle = new WeaponType(0);
@@ -452,11 +455,228 @@ Checks if this weapon type can only target units owned by the same player. This
     private native boolean targetsOrgOrMech_native(long pointer);
 
     private native boolean targetsOwn_native(long pointer);
+    // =========================================================
+    // Static type data, loaded once by loadTypeData()
+
+    /**
+     * Position of this type in static data arrays, or -1 if its data hasn't been loaded.
+     */
+    private int _cacheIndex = -1;
+
+    public static final long FLAG_TARGETS_AIR = 1L << 0;
+    public static final long FLAG_TARGETS_GROUND = 1L << 1;
+    public static final long FLAG_TARGETS_MECHANICAL = 1L << 2;
+    public static final long FLAG_TARGETS_ORGANIC = 1L << 3;
+    public static final long FLAG_TARGETS_NON_BUILDING = 1L << 4;
+    public static final long FLAG_TARGETS_NON_ROBOTIC = 1L << 5;
+    public static final long FLAG_TARGETS_TERRAIN = 1L << 6;
+    public static final long FLAG_TARGETS_ORG_OR_MECH = 1L << 7;
+    public static final long FLAG_TARGETS_OWN = 1L << 8;
+
+    private static long[] _flags = new long[0];
+    private static int[] _damageAmount = new int[0];
+    private static int[] _damageBonus = new int[0];
+    private static int[] _damageCooldown = new int[0];
+    private static int[] _damageFactor = new int[0];
+    private static int[] _minRange = new int[0];
+    private static int[] _maxRange = new int[0];
+    private static int[] _innerSplashRadius = new int[0];
+    private static int[] _medianSplashRadius = new int[0];
+    private static int[] _outerSplashRadius = new int[0];
+    private static String[] _toString = new String[0];
+    private static DamageType[] _damageType = new DamageType[0];
+    private static ExplosionType[] _explosionType = new ExplosionType[0];
+    private static UpgradeType[] _upgradeType = new UpgradeType[0];
+
+    /**
+     * Reads all static attributes of all weapon types from BWAPI once and stores them in arrays, so that
+     * getters don't need to call native methods anymore. Should be called in onStart.
+     */
+    public static void loadTypeData() {
+        List<WeaponType> types = new ArrayList<>();
+        for (Field field : WeaponType.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == WeaponType.class) {
+                try {
+                    WeaponType type = (WeaponType) field.get(null);
+                    if (type != null && type.pointer != 0 && !types.contains(type)) {
+                        types.add(type);
+                    }
+                } catch (IllegalAccessException e) {
+                    // Can't happen, constants are public
+                }
+            }
+        }
+        for (WeaponType type : instances.values()) {
+            if (!types.contains(type)) {
+                types.add(type);
+            }
+        }
+
+        allocateTypeData(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            types.get(i).loadData(i);
+        }
+    }
+
+    /**
+     * Stores static attributes described by <b>data</b> the same way <b>loadTypeData()</b> does, so that weapon
+     * types can be used without BWAPI (see atlantis.headless).
+     */
+    public static void loadTypeData(List<Data> data) {
+        allocateTypeData(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            data.get(i).store(i);
+        }
+    }
+
+    private static void allocateTypeData(int count) {
+        _flags = new long[count];
+        _damageAmount = new int[count];
+        _damageBonus = new int[count];
+        _damageCooldown = new int[count];
+        _damageFactor = new int[count];
+        _minRange = new int[count];
+        _maxRange = new int[count];
+        _innerSplashRadius = new int[count];
+        _medianSplashRadius = new int[count];
+        _outerSplashRadius = new int[count];
+        _toString = new String[count];
+        _damageType = new DamageType[count];
+        _explosionType = new ExplosionType[count];
+        _upgradeType = new UpgradeType[count];
+    }
+
+    private void loadData(int i) {
+        long flags = 0;
+        if (targetsAir_native(pointer)) {
+            flags |= FLAG_TARGETS_AIR;
+        }
+        if (targetsGround_native(pointer)) {
+            flags |= FLAG_TARGETS_GROUND;
+        }
+        if (targetsMechanical_native(pointer)) {
+            flags |= FLAG_TARGETS_MECHANICAL;
+        }
+        if (targetsOrganic_native(pointer)) {
+            flags |= FLAG_TARGETS_ORGANIC;
+        }
+        if (targetsNonBuilding_native(pointer)) {
+            flags |= FLAG_TARGETS_NON_BUILDING;
+        }
+        if (targetsNonRobotic_native(pointer)) {
+            flags |= FLAG_TARGETS_NON_ROBOTIC;
+        }
+        if (targetsTerrain_native(pointer)) {
+            flags |= FLAG_TARGETS_TERRAIN;
+        }
+        if (targetsOrgOrMech_native(pointer)) {
+            flags |= FLAG_TARGETS_ORG_OR_MECH;
+        }
+        if (targetsOwn_native(pointer)) {
+            flags |= FLAG_TARGETS_OWN;
+        }
+        _flags[i] = flags;
+        _damageAmount[i] = damageAmount_native(pointer);
+        _damageBonus[i] = damageBonus_native(pointer);
+        _damageCooldown[i] = damageCooldown_native(pointer);
+        _damageFactor[i] = damageFactor_native(pointer);
+        _minRange[i] = minRange_native(pointer);
+        _maxRange[i] = maxRange_native(pointer);
+        _innerSplashRadius[i] = innerSplashRadius_native(pointer);
+        _medianSplashRadius[i] = medianSplashRadius_native(pointer);
+        _outerSplashRadius[i] = outerSplashRadius_native(pointer);
+        _toString[i] = toString_native(pointer);
+        _damageType[i] = damageType_native(pointer);
+        _explosionType[i] = explosionType_native(pointer);
+        _upgradeType[i] = upgradeType_native(pointer);
+        _cacheIndex = i;
+    }
+
+
     
     
     // =========================================================
     // Atlantis methods
     // =========================================================
+    /**
+     * Static attributes of one weapon type, given by hand instead of read from BWAPI.
+     */
+    public static class Data {
+
+        private final WeaponType type;
+        private final String name;
+        private final long flags;
+        private int damageAmount = 0;
+        private int damageBonus = 0;
+        private int damageCooldown = 0;
+        private int damageFactor = 1;
+        private DamageType damageType = DamageType.None;
+        private int minRange = 0;
+        private int maxRange = 0;
+        private int innerSplashRadius = 0;
+        private int medianSplashRadius = 0;
+        private int outerSplashRadius = 0;
+        private ExplosionType explosionType = ExplosionType.None;
+        private UpgradeType upgradeType = UpgradeType.None;
+
+        public Data(WeaponType type, String name, long flags) {
+            this.type = type;
+            this.name = name;
+            this.flags = flags;
+        }
+
+        public Data damage(int amount, int bonus, int cooldown, int factor, DamageType damageType) {
+            this.damageAmount = amount;
+            this.damageBonus = bonus;
+            this.damageCooldown = cooldown;
+            this.damageFactor = factor;
+            this.damageType = damageType;
+            return this;
+        }
+
+        public Data range(int minRange, int maxRange) {
+            this.minRange = minRange;
+            this.maxRange = maxRange;
+            return this;
+        }
+
+        public Data splash(ExplosionType explosionType, int inner, int median, int outer) {
+            this.explosionType = explosionType;
+            this.innerSplashRadius = inner;
+            this.medianSplashRadius = median;
+            this.outerSplashRadius = outer;
+            return this;
+        }
+
+        public Data upgradeType(UpgradeType upgradeType) {
+            this.upgradeType = upgradeType;
+            return this;
+        }
+
+        public WeaponType getType() {
+            return type;
+        }
+
+        private void store(int i) {
+            _flags[i] = flags;
+            _damageAmount[i] = damageAmount;
+            _damageBonus[i] = damageBonus;
+            _damageCooldown[i] = damageCooldown;
+            _damageFactor[i] = damageFactor;
+            _minRange[i] = minRange;
+            _maxRange[i] = maxRange;
+            _innerSplashRadius[i] = innerSplashRadius;
+            _medianSplashRadius[i] = medianSplashRadius;
+            _outerSplashRadius[i] = outerSplashRadius;
+            _toString[i] = name;
+            _damageType[i] = damageType;
+            _explosionType[i] = explosionType;
+            _upgradeType[i] = upgradeType;
+            type._cacheIndex = i;
+        }
+
+    }
+
     public double getNormalizedDamage() {
         return damageAmount() * damageFactor();
     }
@@ -0,0 +1,55 @@
+package main;
+
+import atlantis.production.strategies.AtlantisProductionStrategy;
+import atlantis.production.strategies.BuildOrderCompiler;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Validates build orders and compiles them into files read by the bot, without StarCraft. Exits with code 1
+ * if any build order is invalid.
+ * <br />
+ * Arguments (all optional): CSV files to compile; by default all build orders are compiled.
+ */
+public class BuildOrderCompilerMain {
+
+    public static void main(String[] args) throws IOException {
+        List<File> files = new ArrayList<>();
+        if (args.length > 0) {
+            for (String arg : args) {
+                files.add(new File(arg));
+            }
+        }
+        else {
+            File[] all = new File(AtlantisProductionStrategy.BUILD_ORDERS_PATH).listFiles();
+            if (all == null) {
+                throw new IOException("No build orders found in " + AtlantisProductionStrategy.BUILD_ORDERS_PATH);
+            }
+            Arrays.sort(all);
+            for (File file : all) {
+                if (file.getName().endsWith(".csv")) {
+                    files.add(file);
+                }
+            }
+        }
+
+        BuildOrderCompiler compiler = new BuildOrderCompiler();
+        boolean failed = false;
+        for (File file : files) {
+            if (compiler.compileToFile(file)) {
+                System.out.println("Compiled " + file + " -> " + BuildOrderCompiler.compiledFileFor(file));
+            }
+            else {
+                failed = true;
+                for (String error : compiler.getErrors()) {
+                    System.err.println(error);
+                }
+            }
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+}
@@ -0,0 +1,21 @@
+package main;
+
+import atlantis.headless.HeadlessBenchmark;
+import atlantis.headless.HeadlessMap;
+import java.io.IOException;
+
+/**
+ * Runs benchmarks of unit queries and decisions of the bot without StarCraft. Performance changes should be
+ * checked with it before they are deployed.
+ * <br />
+ * Optional arguments: only cases whose name contains the first one are run, e.g. "nearest"; the second one is
+ * the map file (.jbwta) for cases run in the headless game, by default the first map in mapData/.
+ */
+public class HeadlessBenchmarkMain {
+
+    public static void main(String[] args) throws IOException {
+        String mapPath = args.length > 1 ? args[1] : HeadlessMap.defaultPath();
+        new HeadlessBenchmark(mapPath).runAll(args.length > 0 ? args[0] : null);
+    }
+
+}
@@ -0,0 +1,29 @@
+package main;
+
+import atlantis.headless.HeadlessMap;
+import atlantis.headless.HeadlessSimulation;
+import java.io.IOException;
+
+/**
+ * Plays the bot against a scripted opponent without StarCraft (see <b>HeadlessSimulation</b>) and prints
+ * the result, frame time statistics and the checksum of the final state.
+ * <br />
+ * Arguments (all optional): map file (.jbwta), number of frames, random seed, map width in build tiles.
+ */
+public class HeadlessMain {
+
+    public static void main(String[] args) throws IOException {
+        String mapPath = args.length > 0 ? args[0] : HeadlessMap.defaultPath();
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int mapWidth = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        System.out.println("Loading map " + mapPath);
+        HeadlessMap map = HeadlessMap.load(mapPath, mapWidth);
+
+        HeadlessSimulation simulation = new HeadlessSimulation(map, seed);
+        simulation.run(frames);
+        System.out.println(simulation.getReport());
+    }
+
+}
@@ -0,0 +1,167 @@
+package atlantis.combat.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Fights of synthetic armies (see <b>SimUnitTypes.addType</b>), so they can be simulated without StarCraft.
+ */
+public class AtlantisCombatSimulatorTest {
+
+    /**
+     * The same as AtlantisConfig.COMBAT_SIMULATION_FRAMES.
+     */
+    private static final int FRAMES = 96;
+    private static final double MAX_EVALUATION = 10;
+
+    private static int soldier;
+    private static int sniper;
+    private static int brawler;
+    private static int groundOnly;
+    private static int bomber;
+
+    private AtlantisCombatSimulator simulator;
+
+    // =========================================================
+
+    @BeforeClass
+    public static void addTypes() {
+        soldier = SimUnitTypes.addType(40, 0, 0, SimUnitTypes.SIZE_SMALL, false, 4, 50, 6, 15, 128);
+
+        // Same unit, once with long and once with short range
+        sniper = SimUnitTypes.addType(60, 0, 0, SimUnitTypes.SIZE_SMALL, false, 4, 75, 8, 20, 160);
+        brawler = SimUnitTypes.addType(60, 0, 0, SimUnitTypes.SIZE_SMALL, false, 4, 75, 8, 20, 15);
+
+        groundOnly = SimUnitTypes.addType(80, 0, 1, SimUnitTypes.SIZE_MEDIUM, false, 4, 100, 10, 20, 128,
+                true, false);
+        bomber = SimUnitTypes.addType(120, 0, 1, SimUnitTypes.SIZE_LARGE, true, 5, 150, 12, 30, 96,
+                true, false);
+    }
+
+    @Before
+    public void acquireSimulator() {
+        simulator = AtlantisCombatSimulator.acquire();
+    }
+
+    @After
+    public void releaseSimulator() {
+        simulator.release();
+    }
+
+    // =========================================================
+
+    @Test
+    public void evenFightIsEvaluatedNearZero() {
+        addLine(AtlantisCombatSimulator.OUR, soldier, 6, 100);
+        addLine(AtlantisCombatSimulator.ENEMY, soldier, 6, 250);
+
+        simulator.simulate(FRAMES);
+
+        assertTrue(simulator.anyLosses());
+        double evaluation = simulator.evaluate(MAX_EVALUATION);
+        assertTrue("Even fight evaluated as " + evaluation, Math.abs(evaluation) < 0.25);
+    }
+
+    @Test
+    public void evenFightHurtsBothSidesEqually() {
+        addLine(AtlantisCombatSimulator.OUR, soldier, 6, 100);
+        addLine(AtlantisCombatSimulator.ENEMY, soldier, 6, 250);
+
+        simulator.simulate(FRAMES / 2);
+
+        assertTrue(simulator.anyLosses());
+        assertEquals(simulator.getValueAfter(AtlantisCombatSimulator.OUR),
+                simulator.getValueAfter(AtlantisCombatSimulator.ENEMY), 0.0001);
+    }
+
+    @Test
+    public void stompIsEvaluatedHighlyPositive() {
+        addLine(AtlantisCombatSimulator.OUR, soldier, 12, 100);
+        addLine(AtlantisCombatSimulator.ENEMY, soldier, 2, 250);
+
+        simulator.simulate(FRAMES);
+
+        assertEquals(0, simulator.getUnitsCount(AtlantisCombatSimulator.ENEMY));
+        assertEquals(12, simulator.getUnitsCount(AtlantisCombatSimulator.OUR));
+        assertEquals(MAX_EVALUATION, simulator.evaluate(MAX_EVALUATION), 0.0001);
+    }
+
+    @Test
+    public void lostFightIsEvaluatedNegative() {
+        addLine(AtlantisCombatSimulator.OUR, soldier, 2, 100);
+        addLine(AtlantisCombatSimulator.ENEMY, soldier, 12, 250);
+
+        simulator.simulate(FRAMES);
+
+        assertEquals(0, simulator.getUnitsCount(AtlantisCombatSimulator.OUR));
+        assertEquals(-1, simulator.evaluate(MAX_EVALUATION), 0.0001);
+    }
+
+    @Test
+    public void rangedUnitsBeatEqualMeleeUnits() {
+        addLine(AtlantisCombatSimulator.OUR, sniper, 5, 100);
+        addLine(AtlantisCombatSimulator.ENEMY, brawler, 5, 250);
+
+        simulator.simulate(FRAMES);
+
+        double evaluation = simulator.evaluate(MAX_EVALUATION);
+        assertTrue("Ranged vs melee evaluated as " + evaluation, evaluation > 0);
+    }
+
+    @Test
+    public void meleeUnitsLoseToEqualRangedUnits() {
+        addLine(AtlantisCombatSimulator.OUR, brawler, 5, 100);
+        addLine(AtlantisCombatSimulator.ENEMY, sniper, 5, 250);
+
+        simulator.simulate(FRAMES);
+
+        double evaluation = simulator.evaluate(MAX_EVALUATION);
+        assertTrue("Melee vs ranged evaluated as " + evaluation, evaluation < 0);
+    }
+
+    @Test
+    public void airUnitsAreSafeFromGroundOnlyWeapons() {
+        addLine(AtlantisCombatSimulator.OUR, bomber, 3, 100);
+        addLine(AtlantisCombatSimulator.ENEMY, groundOnly, 6, 250);
+
+        simulator.simulate(FRAMES);
+
+        assertEquals(simulator.getValueBefore(AtlantisCombatSimulator.OUR),
+                simulator.getValueAfter(AtlantisCombatSimulator.OUR), 0.0001);
+        assertTrue(simulator.getValueAfter(AtlantisCombatSimulator.ENEMY)
+                < simulator.getValueBefore(AtlantisCombatSimulator.ENEMY));
+        assertTrue(simulator.evaluate(true, MAX_EVALUATION) > 0);
+    }
+
+    @Test
+    public void groundAndAirUnitsAreEvaluatedSeparately() {
+        addLine(AtlantisCombatSimulator.OUR, bomber, 2, 100);
+        addLine(AtlantisCombatSimulator.OUR, soldier, 2, 150);
+        addLine(AtlantisCombatSimulator.ENEMY, groundOnly, 8, 250);
+
+        simulator.simulate(FRAMES);
+
+        double forAir = simulator.evaluate(true, MAX_EVALUATION);
+        double forGround = simulator.evaluate(false, MAX_EVALUATION);
+        assertTrue("Air " + forAir + ", ground " + forGround, forAir > forGround);
+        assertTrue(forGround < 0);
+    }
+
+    // =========================================================
+
+    /**
+     * Adds <b>count</b> units of type <b>t</b> with full hit points, standing in a vertical line at <b>px</b>.
+     */
+    private void addLine(int side, int t, int count, int px) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(simulator.addUnit(side, t, px, 100 + 20 * i, SimUnitTypes.maxHitPoints[t] >> 8,
+                    SimUnitTypes.maxShields[t] >> 8));
+        }
+    }
+
+}